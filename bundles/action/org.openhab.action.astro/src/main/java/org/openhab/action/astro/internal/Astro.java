@@ -11,7 +11,9 @@ package org.openhab.action.astro.internal;
 import java.util.Calendar;
 import java.util.Date;
 
+import org.openhab.binding.astro.internal.calc.AstroEphemeris;
 import org.openhab.binding.astro.internal.calc.SunCalc;
+import org.openhab.binding.astro.internal.model.Position;
 import org.openhab.binding.astro.internal.model.Sun;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
@@ -65,21 +67,64 @@ public class Astro {
         return getSun(date, latitude, longitude).getSet().getEnd();
     }
 
+    @ActionDoc(text = "Returns the sun azimuth for the given date and coordinates")
+    public static double getAstroSunAzimuth(
+            @ParamDoc(name = "date", text = "The date to calculate the sun azimuth") Date date,
+            @ParamDoc(name = "latitude", text = "The latitude") double latitude,
+            @ParamDoc(name = "longitude", text = "The longitude") double longitude) {
+        return getSunPosition(date, latitude, longitude).getAzimuth();
+    }
+
+    @ActionDoc(text = "Returns the sun elevation for the given date and coordinates")
+    public static double getAstroSunElevation(
+            @ParamDoc(name = "date", text = "The date to calculate the sun elevation") Date date,
+            @ParamDoc(name = "latitude", text = "The latitude") double latitude,
+            @ParamDoc(name = "longitude", text = "The longitude") double longitude) {
+        return getSunPosition(date, latitude, longitude).getElevation();
+    }
+
     /**
-     * Calculates the sun data.
+     * Calculates the sun data, the precalculated data of the Astro binding is
+     * used for the configured location.
      */
     private static Sun getSun(Date date, double latitude, double longitude) {
         if (date == null) {
             logger.warn("Unknown date: {}, using current date", date);
             date = new Date();
         }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        AstroEphemeris ephemeris = AstroEphemeris.getInstance();
+        if (ephemeris != null && ephemeris.isLocation(latitude, longitude) && ephemeris.contains(cal)) {
+            return ephemeris.getSun(cal);
+        }
+
         AstroConfig config = new AstroConfig(date, latitude, longitude);
         if (lastConfig == null || !lastConfig.equals(config)) {
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(date);
             lastSun = sunCalc.getSunInfo(cal, latitude, longitude);
             lastConfig = config;
         }
         return lastSun;
     }
+
+    /**
+     * Calculates the sun position, the precalculated positions of the Astro
+     * binding are used for the configured location.
+     */
+    private static Position getSunPosition(Date date, double latitude, double longitude) {
+        if (date == null) {
+            logger.warn("Unknown date: {}, using current date", date);
+            date = new Date();
+        }
+        Calendar cal = Calendar.getInstance();
+        cal.setTime(date);
+        AstroEphemeris ephemeris = AstroEphemeris.getInstance();
+        if (ephemeris != null && ephemeris.isLocation(latitude, longitude)) {
+            return ephemeris.getSunPosition(cal);
+        }
+
+        Sun sun = new Sun();
+        sunCalc.setSunPosition(cal, latitude, longitude, sun);
+        return sun.getPosition();
+    }
 }
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+
+import org.junit.Test;
+import org.openhab.binding.astro.internal.model.Position;
+import org.openhab.binding.astro.internal.model.Sun;
+
+/**
+ * Measures the cost of the precalculation of an {@link AstroEphemeris}, its
+ * lookups compared to the calculation by {@link SunCalc} and the error of the
+ * interpolated sun positions.
+ * <p>
+ * The benchmark is not part of the regular test run, it is started with
+ * <code>-Dtest=AstroEphemerisBenchmark</code>.
+ *
+ * @since 1.9.0
+ */
+public class AstroEphemerisBenchmark {
+
+    private static final double LATITUDE = 48.2082;
+    private static final double LONGITUDE = 16.3738;
+    private static final int DAYS = 365;
+    private static final int RESOLUTION = 5;
+
+    private static final int WARMUP_RUNS = 20000;
+    private static final int MEASURED_RUNS = 200000;
+
+    private final SunCalc sunCalc = new SunCalc();
+
+    @Test
+    public void benchmark() {
+        long start = System.nanoTime();
+        AstroEphemeris ephemeris = new AstroEphemeris(LATITUDE, LONGITUDE, DAYS, RESOLUTION);
+        ephemeris.precalculate();
+        long precalculation = System.nanoTime() - start;
+        System.out.println(String.format("precalculation of %d days at %d minutes: %d ms (%.2f ms per day)", DAYS,
+                RESOLUTION, precalculation / 1000000, precalculation / 1000000.0 / DAYS));
+
+        final Calendar time = Calendar.getInstance();
+        final Sun sun = new Sun();
+        Lookup calculatedPosition = new Lookup() {
+            @Override
+            public Object lookup() {
+                sunCalc.setSunPosition(time, LATITUDE, LONGITUDE, sun);
+                return sun.getPosition();
+            }
+        };
+        final AstroEphemeris table = ephemeris;
+        Lookup tablePosition = new Lookup() {
+            @Override
+            public Object lookup() {
+                return table.getSunPosition(time);
+            }
+        };
+        print("sun position", measure(calculatedPosition, time, 1), measure(tablePosition, time, 1));
+
+        Lookup calculatedSun = new Lookup() {
+            @Override
+            public Object lookup() {
+                return sunCalc.getSunInfo(time, LATITUDE, LONGITUDE);
+            }
+        };
+        Lookup tableSun = new Lookup() {
+            @Override
+            public Object lookup() {
+                return table.getSun(time);
+            }
+        };
+        print("sun data", measure(calculatedSun, time, 100), measure(tableSun, time, 100));
+
+        double maxError = getMaxInterpolationError(ephemeris);
+        System.out.println(String.format("max. interpolation error over %d days: %.4f degrees", DAYS, maxError));
+        assertTrue(maxError < 0.05);
+    }
+
+    /**
+     * Returns the nanoseconds per lookup, the time is moved by a minute
+     * between the lookups.
+     */
+    private double measure(Lookup lookup, Calendar time, int divisor) {
+        Calendar start = (Calendar) time.clone();
+        int runs = MEASURED_RUNS / divisor;
+        for (int i = 0; i < WARMUP_RUNS / divisor; i++) {
+            lookup.lookup();
+            time.add(Calendar.MINUTE, 1);
+        }
+        time.setTimeInMillis(start.getTimeInMillis());
+
+        long begin = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            lookup.lookup();
+            time.add(Calendar.MINUTE, 1);
+        }
+        long duration = System.nanoTime() - begin;
+        time.setTimeInMillis(start.getTimeInMillis());
+        return (double) duration / runs;
+    }
+
+    private static void print(String name, double calculated, double table) {
+        System.out.println(String.format("%s: calculated %.0f ns, table %.0f ns, speedup %.1f", name, calculated,
+                table, calculated / table));
+    }
+
+    /**
+     * Compares the interpolated sun positions with the calculated ones, minute
+     * by minute.
+     */
+    private double getMaxInterpolationError(AstroEphemeris ephemeris) {
+        double maxError = 0;
+        Calendar time = Calendar.getInstance();
+        Sun sun = new Sun();
+        for (int minute = 0; minute < DAYS * 24 * 60; minute += 7) {
+            sunCalc.setSunPosition(time, LATITUDE, LONGITUDE, sun);
+            Position position = ephemeris.getSunPosition(time);
+
+            double azimuthError = Math.abs(sun.getPosition().getAzimuth() - position.getAzimuth());
+            azimuthError = Math.min(azimuthError, 360 - azimuthError);
+            double elevationError = Math.abs(sun.getPosition().getElevation() - position.getElevation());
+            maxError = Math.max(maxError, Math.max(azimuthError, elevationError));
+            time.add(Calendar.MINUTE, 7);
+        }
+        return maxError;
+    }
+
+    private interface Lookup {
+        Object lookup();
+    }
+
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.astro.internal.model.Position;
+import org.openhab.binding.astro.internal.model.Season;
+import org.openhab.binding.astro.internal.model.Sun;
+
+/**
+ * Test class for {@link AstroEphemeris}.
+ *
+ * @since 1.9.0
+ */
+public class AstroEphemerisTest {
+
+    private static final double LATITUDE = 48.2082;
+    private static final double LONGITUDE = 16.3738;
+    private static final int RESOLUTION = 5;
+
+    private final SunCalc sunCalc = new SunCalc();
+    private AstroEphemeris ephemeris;
+
+    @Before
+    public void setup() {
+        ephemeris = new AstroEphemeris(LATITUDE, LONGITUDE, 3, RESOLUTION);
+        ephemeris.roll(calendar(2016, Calendar.MARCH, 20, 12, 0));
+    }
+
+    @Test
+    public void testContainsBounds() {
+        assertFalse(ephemeris.contains(calendar(2016, Calendar.MARCH, 19, 23, 59, 59, 999)));
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.MARCH, 20, 0, 0)));
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.MARCH, 21, 12, 0)));
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.MARCH, 22, 23, 59, 59, 999)));
+        assertFalse(ephemeris.contains(calendar(2016, Calendar.MARCH, 23, 0, 0)));
+    }
+
+    @Test
+    public void testDisabledTable() {
+        ephemeris = new AstroEphemeris(LATITUDE, LONGITUDE, 0, RESOLUTION);
+        assertFalse(ephemeris.contains(Calendar.getInstance()));
+    }
+
+    @Test
+    public void testRollWindow() {
+        ephemeris.precalculate();
+        ephemeris.roll(calendar(2016, Calendar.MARCH, 22, 0, 0));
+
+        assertFalse(ephemeris.contains(calendar(2016, Calendar.MARCH, 21, 12, 0)));
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.MARCH, 22, 12, 0)));
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.MARCH, 24, 12, 0)));
+        assertFalse(ephemeris.contains(calendar(2016, Calendar.MARCH, 25, 0, 0)));
+
+        // a dropped day is calculated on every lookup
+        Calendar dropped = calendar(2016, Calendar.MARCH, 21, 12, 0);
+        assertEquals(sunCalc.getSunInfo(dropped, LATITUDE, LONGITUDE).getRise().getStart(),
+                ephemeris.getSun(dropped).getRise().getStart());
+    }
+
+    @Test
+    public void testRollWindowAcrossYears() {
+        ephemeris = new AstroEphemeris(LATITUDE, LONGITUDE, 5, RESOLUTION);
+        ephemeris.roll(calendar(2016, Calendar.DECEMBER, 30, 8, 0));
+
+        assertTrue(ephemeris.contains(calendar(2016, Calendar.DECEMBER, 31, 12, 0)));
+        assertTrue(ephemeris.contains(calendar(2017, Calendar.JANUARY, 3, 12, 0)));
+        assertFalse(ephemeris.contains(calendar(2017, Calendar.JANUARY, 4, 0, 0)));
+    }
+
+    @Test
+    public void testSunData() {
+        Calendar day = calendar(2016, Calendar.MARCH, 21, 15, 30);
+        Sun expected = sunCalc.getSunInfo(day, LATITUDE, LONGITUDE);
+        Sun sun = ephemeris.getSun(day);
+
+        assertEquals(expected.getRise().getStart(), sun.getRise().getStart());
+        assertEquals(expected.getSet().getEnd(), sun.getSet().getEnd());
+        assertEquals(expected.getNoon().getStart(), sun.getNoon().getStart());
+    }
+
+    @Test
+    public void testSunDataIsCopied() {
+        Calendar day = calendar(2016, Calendar.MARCH, 21, 15, 30);
+        Sun sun = ephemeris.getSun(day);
+        double elevation = sun.getPosition().getElevation();
+        ephemeris.setSunPosition(day, sun);
+        sun.setSeason(new Season());
+
+        Sun other = ephemeris.getSun(day);
+        assertNotSame(sun, other);
+        assertNotSame(sun.getPosition(), other.getPosition());
+        assertNotSame(sun.getSeason(), other.getSeason());
+        assertEquals(elevation, other.getPosition().getElevation(), 0.0);
+        assertEquals(sun.getRise().getStart(), other.getRise().getStart());
+    }
+
+    @Test
+    public void testPositionAtSample() {
+        Calendar time = calendar(2016, Calendar.MARCH, 21, 10, 35);
+        Position expected = getSunPosition(time);
+        Position position = ephemeris.getSunPosition(time);
+
+        assertEquals(expected.getAzimuth(), position.getAzimuth(), 1e-9);
+        assertEquals(expected.getElevation(), position.getElevation(), 1e-9);
+    }
+
+    @Test
+    public void testLinearInterpolation() {
+        Position position0 = getSunPosition(calendar(2016, Calendar.MARCH, 21, 10, 35));
+        Position position1 = getSunPosition(calendar(2016, Calendar.MARCH, 21, 10, 40));
+
+        // 2 of 5 minutes between the samples
+        Calendar time = calendar(2016, Calendar.MARCH, 21, 10, 37);
+        Position position = ephemeris.getSunPosition(time);
+        assertEquals(position0.getAzimuth() + (position1.getAzimuth() - position0.getAzimuth()) * 0.4,
+                position.getAzimuth(), 1e-9);
+        assertEquals(position0.getElevation() + (position1.getElevation() - position0.getElevation()) * 0.4,
+                position.getElevation(), 1e-9);
+
+        // the interpolation is close to the exact position
+        Position exact = getSunPosition(time);
+        assertEquals(exact.getAzimuth(), position.getAzimuth(), 0.05);
+        assertEquals(exact.getElevation(), position.getElevation(), 0.05);
+    }
+
+    @Test
+    public void testInterpolateAzimuth() {
+        assertEquals(15.0, AstroEphemeris.interpolateAzimuth(10, 20, 0.5), 1e-9);
+        // across north, not the long way across south
+        assertEquals(360.0, AstroEphemeris.interpolateAzimuth(359, 1, 0.5), 1e-9);
+        assertEquals(0.5, AstroEphemeris.interpolateAzimuth(359, 1, 0.75), 1e-9);
+        assertEquals(359.5, AstroEphemeris.interpolateAzimuth(359, 1, 0.25), 1e-9);
+        assertEquals(0.5, AstroEphemeris.interpolateAzimuth(1, 359, 0.25), 1e-9);
+    }
+
+    @Test
+    public void testAzimuthAroundMidnight() {
+        // the sun passes north around local midnight
+        Calendar time = calendar(2016, Calendar.MARCH, 21, 0, 0);
+        for (int minute = 0; minute < 24 * 60; minute++) {
+            Position exact = getSunPosition(time);
+            Position position = ephemeris.getSunPosition(time);
+
+            double difference = Math.abs(exact.getAzimuth() - position.getAzimuth());
+            assertEquals(0.0, Math.min(difference, 360 - difference), 0.1);
+            assertTrue(position.getAzimuth() > 0 && position.getAzimuth() <= 360);
+            time.add(Calendar.MINUTE, 1);
+        }
+    }
+
+    private Position getSunPosition(Calendar calendar) {
+        Sun sun = new Sun();
+        sunCalc.setSunPosition(calendar, LATITUDE, LONGITUDE, sun);
+        return sun.getPosition();
+    }
+
+    private static Calendar calendar(int year, int month, int day, int hour, int minute) {
+        return calendar(year, month, day, hour, minute, 0, 0);
+    }
+
+    private static Calendar calendar(int year, int month, int day, int hour, int minute, int second,
+            int millisecond) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, second);
+        calendar.set(Calendar.MILLISECOND, millisecond);
+        return calendar;
+    }
+
+}
@@ -0,0 +1,324 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.astro.internal.calc;
+
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+import org.openhab.binding.astro.internal.model.Position;
+import org.openhab.binding.astro.internal.model.Sun;
+import org.openhab.binding.astro.internal.model.SunEclipse;
+import org.openhab.binding.astro.internal.util.DateTimeUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Precalculated sun data of a location for a rolling window of days, starting
+ * with the current day. The sun rise and set data and the sun positions of a
+ * day are calculated only once, a lookup is a map and array access. The sun
+ * position between two precalculated positions is interpolated linearly. Days
+ * outside the window are calculated on every lookup. The moon data is not
+ * precalculated, its phase, age and illumination change during the day.
+ *
+ * @since 1.9.0
+ */
+public class AstroEphemeris {
+    private static final Logger logger = LoggerFactory.getLogger(AstroEphemeris.class);
+
+    private static final long MILLISECONDS_PER_MINUTE = 60 * 1000;
+
+    private static volatile AstroEphemeris instance;
+
+    private final SunCalc sunCalc = new SunCalc();
+
+    private final double latitude;
+    private final double longitude;
+    private final int days;
+    private final int resolution;
+
+    // day key (yyyymmdd) - data of the day
+    private final Map<Integer, Day> table = new HashMap<Integer, Day>();
+    private int firstDayKey;
+    private int lastDayKey;
+
+    /**
+     * Creates an empty ephemeris, the window starts with the current day.
+     *
+     * @param latitude the latitude of the location
+     * @param longitude the longitude of the location
+     * @param days the number of days in the window, 0 disables the table
+     * @param resolution the minutes between two precalculated sun positions,
+     *            0 disables the positions table
+     */
+    public AstroEphemeris(double latitude, double longitude, int days, int resolution) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.days = Math.max(0, days);
+        this.resolution = Math.max(0, resolution);
+        roll(Calendar.getInstance());
+    }
+
+    /**
+     * Returns the ephemeris of the configured location or null, if the binding
+     * is not configured.
+     */
+    public static AstroEphemeris getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the ephemeris of the configured location.
+     */
+    public static void setInstance(AstroEphemeris ephemeris) {
+        instance = ephemeris;
+    }
+
+    /**
+     * Returns true, if the ephemeris is calculated for the coordinates.
+     */
+    public boolean isLocation(double latitude, double longitude) {
+        return this.latitude == latitude && this.longitude == longitude;
+    }
+
+    /**
+     * Returns the number of days in the window.
+     */
+    public int getDays() {
+        return days;
+    }
+
+    /**
+     * Returns the minutes between two precalculated sun positions.
+     */
+    public int getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Moves the window to start with the specified day and drops the days
+     * before.
+     */
+    public synchronized void roll(Calendar today) {
+        Calendar lastDay = DateTimeUtils.truncateToMidnight(today);
+        lastDay.add(Calendar.DAY_OF_MONTH, days - 1);
+        firstDayKey = getDayKey(today);
+        lastDayKey = getDayKey(lastDay);
+
+        for (Iterator<Integer> iterator = table.keySet().iterator(); iterator.hasNext();) {
+            if (iterator.next() < firstDayKey) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Calculates all days of the window which are not calculated yet.
+     */
+    public void precalculate() {
+        long start = System.nanoTime();
+        int calculated = 0;
+
+        Calendar day;
+        synchronized (this) {
+            day = toCalendar(firstDayKey);
+        }
+        for (int i = 0; i < days; i++) {
+            synchronized (this) {
+                int dayKey = getDayKey(day);
+                if (!isInWindow(dayKey)) {
+                    // the window has been moved meanwhile
+                    break;
+                }
+                if (!table.containsKey(dayKey)) {
+                    table.put(dayKey, calculate(day));
+                    calculated++;
+                }
+            }
+            day.add(Calendar.DAY_OF_MONTH, 1);
+        }
+
+        if (calculated > 0) {
+            long duration = System.nanoTime() - start;
+            logger.debug("Calculated ephemeris of {} days in {} ms ({} ms per day)",
+                    new Object[] { calculated, duration / 1000000, duration / calculated / 1000000.0 });
+        }
+    }
+
+    /**
+     * Returns true, if the day is in the window.
+     */
+    public synchronized boolean contains(Calendar calendar) {
+        return isInWindow(getDayKey(calendar));
+    }
+
+    /**
+     * Returns the sun data of the day. The sun data of a day in the window is
+     * a copy, the caller may set its position, zodiac and season.
+     */
+    public Sun getSun(Calendar calendar) {
+        Day day = getDay(calendar);
+        return day == null ? sunCalc.getSunInfo(calendar, latitude, longitude) : copy(day.sun);
+    }
+
+    /**
+     * Returns the sun position (azimuth and elevation) at the specified time.
+     */
+    public Position getSunPosition(Calendar calendar) {
+        Day day = getDay(calendar);
+        if (day == null || day.azimuth == null) {
+            Sun sun = new Sun();
+            sunCalc.setSunPosition(calendar, latitude, longitude, sun);
+            return sun.getPosition();
+        }
+
+        double slot = (double) (calendar.getTimeInMillis() - day.start) / (resolution * MILLISECONDS_PER_MINUTE);
+        int index = Math.min((int) slot, day.azimuth.length - 2);
+        double fraction = slot - index;
+
+        double azimuth = interpolateAzimuth(day.azimuth[index], day.azimuth[index + 1], fraction);
+        double elevation = day.elevation[index] + (day.elevation[index + 1] - day.elevation[index]) * fraction;
+        return new Position(azimuth, elevation);
+    }
+
+    /**
+     * Interpolates the azimuth between two positions, the shorter way across
+     * north if the sun passes it between the positions.
+     */
+    static double interpolateAzimuth(double azimuth0, double azimuth1, double fraction) {
+        if (azimuth1 - azimuth0 > 180) {
+            azimuth0 += 360;
+        } else if (azimuth0 - azimuth1 > 180) {
+            azimuth1 += 360;
+        }
+        double azimuth = azimuth0 + (azimuth1 - azimuth0) * fraction;
+        if (azimuth > 360) {
+            azimuth -= 360;
+        }
+        return azimuth;
+    }
+
+    /**
+     * Sets the sun position (azimuth and elevation) at the specified time.
+     */
+    public void setSunPosition(Calendar calendar, Sun sun) {
+        Position position = getSunPosition(calendar);
+        sun.getPosition().setAzimuth(position.getAzimuth());
+        sun.getPosition().setElevation(position.getElevation());
+    }
+
+    /**
+     * Returns the data of a day in the window, calculates the day if it is
+     * not calculated yet. Returns null, if the day is not in the window.
+     */
+    private synchronized Day getDay(Calendar calendar) {
+        int dayKey = getDayKey(calendar);
+        if (!isInWindow(dayKey)) {
+            return null;
+        }
+        Day day = table.get(dayKey);
+        if (day == null) {
+            day = calculate(calendar);
+            table.put(dayKey, day);
+        }
+        return day;
+    }
+
+    private boolean isInWindow(int dayKey) {
+        return days > 0 && dayKey >= firstDayKey && dayKey <= lastDayKey;
+    }
+
+    /**
+     * Calculates the sun data and the sun positions of a day.
+     */
+    private Day calculate(Calendar calendar) {
+        Calendar midnight = DateTimeUtils.truncateToMidnight(calendar);
+        Day day = new Day(midnight.getTimeInMillis(), sunCalc.getSunInfo(midnight, latitude, longitude));
+
+        if (resolution > 0) {
+            Calendar nextMidnight = (Calendar) midnight.clone();
+            nextMidnight.add(Calendar.DAY_OF_MONTH, 1);
+            long step = resolution * MILLISECONDS_PER_MINUTE;
+            // up to and including the first position of the next day
+            int positions = (int) ((nextMidnight.getTimeInMillis() - day.start + step - 1) / step) + 1;
+
+            day.azimuth = new double[positions];
+            day.elevation = new double[positions];
+            Calendar time = (Calendar) midnight.clone();
+            Sun sun = new Sun();
+            for (int i = 0; i < positions; i++) {
+                time.setTimeInMillis(day.start + i * step);
+                sunCalc.setSunPosition(time, latitude, longitude, sun);
+                day.azimuth[i] = sun.getPosition().getAzimuth();
+                day.elevation[i] = sun.getPosition().getElevation();
+            }
+        }
+        return day;
+    }
+
+    /**
+     * Copies the sun data. The ranges have no setters and are shared, the
+     * position and the eclipse are copied.
+     */
+    private static Sun copy(Sun sun) {
+        Sun copy = new Sun();
+        copy.setRise(sun.getRise());
+        copy.setSet(sun.getSet());
+        copy.setAstroDawn(sun.getAstroDawn());
+        copy.setNauticDawn(sun.getNauticDawn());
+        copy.setCivilDawn(sun.getCivilDawn());
+        copy.setCivilDusk(sun.getCivilDusk());
+        copy.setNauticDusk(sun.getNauticDusk());
+        copy.setAstroDusk(sun.getAstroDusk());
+        copy.setMorningNight(sun.getMorningNight());
+        copy.setEveningNight(sun.getEveningNight());
+        copy.setDaylight(sun.getDaylight());
+        copy.setNoon(sun.getNoon());
+        copy.setNight(sun.getNight());
+        copy.setPosition(new Position(sun.getPosition().getAzimuth(), sun.getPosition().getElevation()));
+
+        SunEclipse eclipse = new SunEclipse();
+        eclipse.setTotal(sun.getEclipse().getTotal());
+        eclipse.setPartial(sun.getEclipse().getPartial());
+        eclipse.setRing(sun.getEclipse().getRing());
+        copy.setEclipse(eclipse);
+        return copy;
+    }
+
+    /**
+     * Returns the key of the day, the keys are ordered like the days.
+     */
+    private static int getDayKey(Calendar calendar) {
+        return calendar.get(Calendar.YEAR) * 10000 + (calendar.get(Calendar.MONTH) + 1) * 100
+                + calendar.get(Calendar.DAY_OF_MONTH);
+    }
+
+    private static Calendar toCalendar(int dayKey) {
+        Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(dayKey / 10000, dayKey / 100 % 100 - 1, dayKey % 100);
+        return calendar;
+    }
+
+    /**
+     * The precalculated data of a day.
+     */
+    private static class Day {
+        private final long start;
+        private final Sun sun;
+        private double[] azimuth;
+        private double[] elevation;
+
+        private Day(long start, Sun sun) {
+            this.start = start;
+            this.sun = sun;
+        }
+    }
+}
@@ -32,6 +32,12 @@ import org.osgi.service.cm.ConfigurationException;
  *
  * # Refresh interval for sun azimuth/elevation and moon distance/illumination calculation in seconds (optional, defaults to disabled)
  * astro:interval=nnn
+ *
+ * # Number of days the sun data is precalculated for, starting with the current day (optional, defaults to 365, 0 disables the precalculation)
+ * astro:ephemerisDays=nnn
+ *
+ * # Minutes between two precalculated sun positions (optional, defaults to 5, 0 disables the precalculation)
+ * astro:ephemerisResolution=nn
  * </pre>
  *
  * @author Gerhard Riegler
@@ -41,10 +47,14 @@ public class AstroConfig {
     private static final String CONFIG_KEY_LATITUDE = "latitude";
     private static final String CONFIG_KEY_LONGITUDE = "longitude";
     private static final String CONFIG_KEY_INTERVAL = "interval";
+    private static final String CONFIG_KEY_EPHEMERIS_DAYS = "ephemerisDays";
+    private static final String CONFIG_KEY_EPHEMERIS_RESOLUTION = "ephemerisResolution";
 
     private double latitude;
     private double longitude;
     private int interval;
+    private int ephemerisDays;
+    private int ephemerisResolution;
     private boolean valid;
 
     /**
@@ -70,6 +80,12 @@ public class AstroConfig {
         }
 
         interval = parseInt(properties, CONFIG_KEY_INTERVAL, 0);
+        ephemerisDays = parseInt(properties, CONFIG_KEY_EPHEMERIS_DAYS, 365);
+        ephemerisResolution = parseInt(properties, CONFIG_KEY_EPHEMERIS_RESOLUTION, 5);
+        if (ephemerisDays < 0 || ephemerisResolution < 0) {
+            throw new ConfigurationException("astro",
+                    "Parameters ephemerisDays and ephemerisResolution must not be negative. Please check your openhab.cfg!");
+        }
 
         valid = true;
     }
@@ -121,6 +137,20 @@ public class AstroConfig {
         return interval;
     }
 
+    /**
+     * Returns the number of days the sun and moon data is precalculated for.
+     */
+    public int getEphemerisDays() {
+        return ephemerisDays;
+    }
+
+    /**
+     * Returns the minutes between two precalculated sun positions.
+     */
+    public int getEphemerisResolution() {
+        return ephemerisResolution;
+    }
+
     @Override
     public String toString() {
         String intervallMessage = (interval == 0 ? "disabled" : String.valueOf(interval));
@@ -133,6 +163,7 @@ public class AstroConfig {
         tzInfo.append(")");
         return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("latitude", latitude)
                 .append("longitude", longitude).append("interval", intervallMessage)
+                .append("ephemerisDays", ephemerisDays).append("ephemerisResolution", ephemerisResolution)
                 .append("systemTimezone", tzInfo.toString())
                 .append("daylightSavings", Calendar.getInstance().get(Calendar.DST_OFFSET) != 0).toString();
     }
@@ -13,6 +13,7 @@ import java.util.HashMap;
 import java.util.Map;
 
 import org.openhab.binding.astro.AstroBindingProvider;
+import org.openhab.binding.astro.internal.calc.AstroEphemeris;
 import org.openhab.binding.astro.internal.job.JobScheduler;
 import org.openhab.binding.astro.internal.model.Moon;
 import org.openhab.binding.astro.internal.model.Planet;
@@ -31,6 +32,7 @@ public class AstroContext {
     private Collection<AstroBindingProvider> providers;
     private AstroConfig config = new AstroConfig();
     private JobScheduler jobScheduler = new JobScheduler(this);
+    private AstroEphemeris ephemeris;
 
     private Map<PlanetName, Planet> planets = new HashMap<PlanetName, Planet>();
 
@@ -93,6 +95,21 @@ public class AstroContext {
         return jobScheduler;
     }
 
+    /**
+     * Returns the ephemeris of the configured location. A new ephemeris is
+     * created, if the location or the ephemeris parameters have been changed.
+     */
+    public synchronized AstroEphemeris getEphemeris() {
+        if (ephemeris == null || !ephemeris.isLocation(config.getLatitude(), config.getLongitude())
+                || ephemeris.getDays() != config.getEphemerisDays()
+                || ephemeris.getResolution() != config.getEphemerisResolution()) {
+            ephemeris = new AstroEphemeris(config.getLatitude(), config.getLongitude(), config.getEphemerisDays(),
+                    config.getEphemerisResolution());
+            AstroEphemeris.setInstance(ephemeris);
+        }
+        return ephemeris;
+    }
+
     /**
      * Returns the specified planet.
      */
@@ -10,9 +10,9 @@ package org.openhab.binding.astro.internal.job;
 
 import java.util.Calendar;
 
+import org.openhab.binding.astro.internal.calc.AstroEphemeris;
 import org.openhab.binding.astro.internal.calc.MoonCalc;
 import org.openhab.binding.astro.internal.calc.SeasonCalc;
-import org.openhab.binding.astro.internal.calc.SunCalc;
 import org.openhab.binding.astro.internal.calc.SunZodiacCalc;
 import org.openhab.binding.astro.internal.model.Moon;
 import org.openhab.binding.astro.internal.model.PlanetName;
@@ -33,11 +33,12 @@ public class DailyJob extends AbstractBaseJob {
     @Override
     protected void executeJob(JobDataMap jobDataMap) {
         Calendar now = Calendar.getInstance();
+        AstroEphemeris ephemeris = context.getEphemeris();
+        ephemeris.roll(now);
 
         // sun
-        SunCalc sunCalc = new SunCalc();
-        Sun sun = sunCalc.getSunInfo(now, context.getConfig().getLatitude(), context.getConfig().getLongitude());
-        sunCalc.setSunPosition(now, context.getConfig().getLatitude(), context.getConfig().getLongitude(), sun);
+        Sun sun = ephemeris.getSun(now);
+        ephemeris.setSunPosition(now, sun);
 
         SunZodiacCalc zodiacCalc = new SunZodiacCalc();
         sun.setZodiac(zodiacCalc.getZodiac(now));
@@ -56,5 +57,8 @@ public class DailyJob extends AbstractBaseJob {
         context.setPlanet(PlanetName.MOON, moon);
         logger.debug("{}", moon);
         planetPublisher.publish(PlanetName.MOON);
+
+        // the following days, after the current day has been published
+        ephemeris.precalculate();
     }
 }
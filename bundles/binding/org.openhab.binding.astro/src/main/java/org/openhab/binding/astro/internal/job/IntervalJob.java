@@ -11,7 +11,6 @@ package org.openhab.binding.astro.internal.job;
 import java.util.Calendar;
 
 import org.openhab.binding.astro.internal.calc.MoonCalc;
-import org.openhab.binding.astro.internal.calc.SunCalc;
 import org.openhab.binding.astro.internal.model.Moon;
 import org.openhab.binding.astro.internal.model.PlanetName;
 import org.openhab.binding.astro.internal.model.Sun;
@@ -31,9 +30,8 @@ public class IntervalJob extends AbstractBaseJob {
         Calendar now = Calendar.getInstance();
 
         // sun
-        SunCalc sunCalc = new SunCalc();
         Sun sun = (Sun) context.getPlanet(PlanetName.SUN);
-        sunCalc.setSunPosition(now, context.getConfig().getLatitude(), context.getConfig().getLongitude(), sun);
+        context.getEphemeris().setSunPosition(now, sun);
         planetPublisher.publish(PlanetName.SUN);
 
         // moon
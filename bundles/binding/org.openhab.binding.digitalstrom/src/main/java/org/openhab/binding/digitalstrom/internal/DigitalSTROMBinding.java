@@ -8,11 +8,12 @@
  */
 package org.openhab.binding.digitalstrom.internal;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
-import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
@@ -29,6 +30,7 @@ import org.openhab.binding.digitalstrom.internal.client.constants.ApartmentScene
 import org.openhab.binding.digitalstrom.internal.client.constants.DeviceConstants;
 import org.openhab.binding.digitalstrom.internal.client.constants.JSONApiResponseKeysEnum;
 import org.openhab.binding.digitalstrom.internal.client.constants.JSONRequestConstants;
+import org.openhab.binding.digitalstrom.internal.client.constants.JobPriority;
 import org.openhab.binding.digitalstrom.internal.client.constants.MeteringTypeEnum;
 import org.openhab.binding.digitalstrom.internal.client.constants.MeteringUnitsEnum;
 import org.openhab.binding.digitalstrom.internal.client.constants.OutputModeEnum;
@@ -53,6 +55,7 @@ import org.openhab.binding.digitalstrom.internal.client.job.DeviceOutputValueSen
 import org.openhab.binding.digitalstrom.internal.client.job.DeviceSensorValueJob;
 import org.openhab.binding.digitalstrom.internal.client.job.SceneOutputValueSensorJob;
 import org.openhab.binding.digitalstrom.internal.client.job.SensorJob;
+import org.openhab.binding.digitalstrom.internal.client.job.SensorJobExecutor;
 import org.openhab.binding.digitalstrom.internal.config.ConnectionConfig;
 import org.openhab.binding.digitalstrom.internal.config.ConsumptionConfig;
 import org.openhab.binding.digitalstrom.internal.config.ContextConfig;
@@ -113,6 +116,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private String sessionToken = null;
 
+    /** the number of sensor jobs which are executed in parallel (different dSMs only) */
+    private int sensorJobThreads = 3;
+
     private boolean serverIsFound = false;
 
     private DigitalSTROMAPI digitalSTROM = null;
@@ -144,10 +150,6 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private List<String> echoBox = Collections.synchronizedList(new LinkedList<String>());
 
-    private List<SensorJob> highPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
-    private List<SensorJob> mediumPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
-    private List<SensorJob> lowPrioritySensorJobs = Collections.synchronizedList(new LinkedList<SensorJob>());
-
     private SensorJobExecutor sensorJobExecutor = null;
 
     public DigitalSTROMBinding() {
@@ -237,6 +239,10 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             }
         }
 
+        // the circuits are read at once for all due items
+        List<DigitalSTROMBindingConfig> circuitConsumptionItems = new ArrayList<DigitalSTROMBindingConfig>();
+        List<DigitalSTROMBindingConfig> circuitEnergyItems = new ArrayList<DigitalSTROMBindingConfig>();
+
         for (DigitalSTROMBindingProvider provider : providers) {
             for (DigitalSTROMBindingConfig itemConf : provider.getAllCircuitConsumptionItems()) {
 
@@ -255,50 +261,20 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
                     logger.debug("item '{}' is about to be refreshed now", itemName);
 
-                    int consumptionValue = -1;
-
                     if (itemConf.consumption == null || itemConf.consumption.equals(ConsumptionConfig.OUTPUT_CURRENT)) {
                         itemConf.consumption = ConsumptionConfig.ACTIVE_POWER;
                     }
 
                     switch (itemConf.consumption) {
-
                         case ACTIVE_POWER:
-                            List<CachedMeteringValue> consumptionList = digitalSTROM.getLatest(getSessionToken(),
-                                    MeteringTypeEnum.consumption,
-                                    ".meters(" + itemConf.dsmid.getValue().toLowerCase() + ")", null);
-                            if (consumptionList != null) {
-                                consumptionValue = 0;
-                                for (CachedMeteringValue value : consumptionList) {
-                                    consumptionValue += value.getValue();
-                                }
-                            }
+                            circuitConsumptionItems.add(itemConf);
                             break;
                         case ELECTRIC_METER:
-                            List<CachedMeteringValue> energyList = digitalSTROM.getLatest(getSessionToken(),
-                                    MeteringTypeEnum.energy, ".meters(" + itemConf.dsmid.getValue().toLowerCase() + ")",
-                                    MeteringUnitsEnum.Wh);
-                            if (energyList != null) {
-                                consumptionValue = 0;
-                                for (CachedMeteringValue value : energyList) {
-                                    consumptionValue += value.getValue();
-                                }
-                            }
+                            circuitEnergyItems.add(itemConf);
                             break;
                         default:
                             break;
                     }
-
-                    org.openhab.core.types.State state = UnDefType.NULL;
-
-                    if (consumptionValue != -1) {
-                        state = new DecimalType(consumptionValue);
-                    }
-
-                    if (state != null) {
-                        eventPublisher.postUpdate(itemName, state);
-                    }
-                    lastUpdateMap.put(itemName, System.currentTimeMillis());
                 }
             }
 
@@ -328,7 +304,7 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
                             } catch (Exception e) {
                                 sensorIndex = SensorIndexEnum.ACTIVE_POWER;
                             }
-                            addLowPriorityJob(new DeviceConsumptionSensorJob(device, sensorIndex));
+                            addSensorJob(new DeviceConsumptionSensorJob(device, sensorIndex), JobPriority.NO_HURRY);
                             lastUpdateMap.put(itemName, System.currentTimeMillis());
                         } else {
                             SensorIndexEnum sensorIndex = null;
@@ -337,7 +313,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
                             } catch (Exception e) {
 
                             }
-                            addHighPriorityJob(new DeviceSensorValueJob(device, sensorIndex));
+                            if (sensorIndex != null) {
+                                addSensorJob(new DeviceSensorValueJob(device, sensorIndex), JobPriority.URGENT);
+                            }
                         }
 
                     }
@@ -345,6 +323,45 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             }
 
         }
+
+        updateCircuitConsumption(circuitConsumptionItems, MeteringTypeEnum.consumption, null);
+        updateCircuitConsumption(circuitEnergyItems, MeteringTypeEnum.energy, MeteringUnitsEnum.Wh);
+    }
+
+    /**
+     * Reads the latest values of all circuits of the items with one request
+     * and updates the items.
+     */
+    private void updateCircuitConsumption(List<DigitalSTROMBindingConfig> items, MeteringTypeEnum type,
+            MeteringUnitsEnum unit) {
+        if (items.isEmpty()) {
+            return;
+        }
+
+        Set<String> meters = new LinkedHashSet<String>();
+        for (DigitalSTROMBindingConfig itemConf : items) {
+            meters.add(itemConf.dsmid.getValue().toLowerCase());
+        }
+        List<CachedMeteringValue> valueList = digitalSTROM.getLatest(getSessionToken(), type,
+                ".meters(" + StringUtils.join(meters, ",") + ")", unit);
+
+        for (DigitalSTROMBindingConfig itemConf : items) {
+            org.openhab.core.types.State state = UnDefType.NULL;
+
+            if (valueList != null) {
+                int consumptionValue = 0;
+                for (CachedMeteringValue value : valueList) {
+                    if (value.getDsid() != null
+                            && value.getDsid().getValue().equalsIgnoreCase(itemConf.dsmid.getValue())) {
+                        consumptionValue += value.getValue();
+                    }
+                }
+                state = new DecimalType(consumptionValue);
+            }
+
+            eventPublisher.postUpdate(itemConf.itemName, state);
+            lastUpdateMap.put(itemConf.itemName, System.currentTimeMillis());
+        }
     }
 
     /**
@@ -409,10 +426,14 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
             if (StringUtils.isNotBlank(passwordStr)) {
                 password = passwordStr;
             }
+            String sensorJobThreadsStr = (String) config.get("sensorJobThreads");
+            if (StringUtils.isNotBlank(sensorJobThreadsStr)) {
+                sensorJobThreads = Integer.parseInt(sensorJobThreadsStr);
+            }
             this.digitalSTROM = new DigitalSTROMJSONImpl(uri, connectTimeout, readTimeout);
 
-            registerDigitalSTROMEventListener();
             startSensorJobExecutor();
+            registerDigitalSTROMEventListener();
             initializeDevices();
 
             setProperlyConfigured(true);
@@ -1351,102 +1372,22 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
     }
 
     private void initDeviceOutputValue(Device device, short index) {
-        addHighPriorityJob(new DeviceOutputValueSensorJob(device, index));
+        addSensorJob(new DeviceOutputValueSensorJob(device, index), JobPriority.URGENT);
     }
 
     private void initSceneOutputValue(Device device, short sceneId) {
-        addMediumPriorityJob(new SceneOutputValueSensorJob(device, sceneId));
+        addSensorJob(new SceneOutputValueSensorJob(device, sceneId), JobPriority.NORMAL);
     }
 
-    private void addHighPriorityJob(DeviceOutputValueSensorJob deviceOutputValueSensorJob) {
-        synchronized (highPrioritySensorJobs) {
-            if (!highPrioritySensorJobs.contains(deviceOutputValueSensorJob)) {
-                highPrioritySensorJobs.add(deviceOutputValueSensorJob);
-            }
-        }
-    }
-
-    private void addHighPriorityJob(DeviceSensorValueJob deviceSensorValueJob) {
-        synchronized (highPrioritySensorJobs) {
-            if (!highPrioritySensorJobs.contains(deviceSensorValueJob)) {
-                highPrioritySensorJobs.add(deviceSensorValueJob);
-            }
-        }
-    }
-
-    private void addMediumPriorityJob(SceneOutputValueSensorJob sceneOutputValueSensorJob) {
-        synchronized (mediumPrioritySensorJobs) {
-            if (!mediumPrioritySensorJobs.contains(sceneOutputValueSensorJob)) {
-                mediumPrioritySensorJobs.add(sceneOutputValueSensorJob);
-            }
-        }
-    }
-
-    private void addLowPriorityJob(DeviceConsumptionSensorJob deviceConsumptionSensorJob) {
-        synchronized (lowPrioritySensorJobs) {
-            if (!lowPrioritySensorJobs.contains(deviceConsumptionSensorJob)) {
-                lowPrioritySensorJobs.add(deviceConsumptionSensorJob);
-            }
-        }
-    }
-
-    private SensorJob getLowPriorityJob() {
-        SensorJob job = null;
-        synchronized (lowPrioritySensorJobs) {
-            if (lowPrioritySensorJobs.size() > 0) {
-                job = lowPrioritySensorJobs.get(0);
-                lowPrioritySensorJobs.remove(job);
-            }
-        }
-        return job;
-    }
-
-    private SensorJob getMediumPriorityJob() {
-        SensorJob job = null;
-        synchronized (mediumPrioritySensorJobs) {
-            if (mediumPrioritySensorJobs.size() > 0) {
-                job = mediumPrioritySensorJobs.get(0);
-                mediumPrioritySensorJobs.remove(job);
-            }
-        }
-        return job;
-    }
-
-    private SensorJob getHighPriorityJob() {
-        SensorJob job = null;
-        synchronized (highPrioritySensorJobs) {
-            if (highPrioritySensorJobs.size() > 0) {
-                job = highPrioritySensorJobs.get(0);
-                highPrioritySensorJobs.remove(job);
-            }
+    private void addSensorJob(SensorJob job, JobPriority priority) {
+        if (sensorJobExecutor != null) {
+            sensorJobExecutor.addJob(job, priority);
         }
-        return job;
     }
 
     private void removeSensorJobs(DSID dsid) {
-        synchronized (lowPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = lowPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
-        }
-        synchronized (mediumPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = mediumPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
-        }
-        synchronized (highPrioritySensorJobs) {
-            for (Iterator<SensorJob> iter = highPrioritySensorJobs.iterator(); iter.hasNext();) {
-                SensorJob job = iter.next();
-                if (job.getDsid().equals(dsid)) {
-                    iter.remove();
-                }
-            }
+        if (sensorJobExecutor != null) {
+            sensorJobExecutor.removeJobs(dsid);
         }
     }
 
@@ -1468,6 +1409,9 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
 
     private void setSessionToken(String newToken) {
         sessionToken = newToken;
+        if (sensorJobExecutor != null) {
+            sensorJobExecutor.setSessionToken(newToken);
+        }
         if (newToken != null) {
             setServerIsFound(true);
             logger.info("SUCCESSFULLY got session-token");
@@ -1490,7 +1434,12 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
     }
 
     private void startSensorJobExecutor() {
-        this.sensorJobExecutor = new SensorJobExecutor();
+        if (this.sensorJobExecutor != null) {
+            this.sensorJobExecutor.shutdown();
+        }
+        // a dSM gets one sensor reading per read timeout at most
+        this.sensorJobExecutor = new SensorJobExecutor(digitalSTROM, readTimeout, sensorJobThreads);
+        this.sensorJobExecutor.setSessionToken(getSessionToken());
         this.sensorJobExecutor.start();
     }
 
@@ -1502,50 +1451,6 @@ public class DigitalSTROMBinding extends AbstractActiveBinding<DigitalSTROMBindi
         this.digitalSTROMEventListener.start();
     }
 
-    /**
-     * In order to avoid many sensor readings in a time, this thread starts the
-     * jobs, after the old one is finished
-     * 
-     * @author Alexander Betker
-     * @since 1.3.0
-     * 
-     */
-    private class SensorJobExecutor extends Thread {
-
-        private boolean shutdown = false;
-
-        private final int sleepTime = readTimeout;
-
-        @Override
-        public void run() {
-
-            while (!this.shutdown) {
-                SensorJob job = getHighPriorityJob();
-
-                if (job == null) {
-                    job = getMediumPriorityJob();
-                    if (job == null) {
-                        job = getLowPriorityJob();
-                    }
-                }
-                if (job != null) {
-                    job.execute(digitalSTROM, getSessionToken());
-                }
-
-                try {
-                    sleep(this.sleepTime);
-                } catch (InterruptedException e) {
-                    this.shutdown();
-                    logger.error("InterruptedException in SensorJobExecutor Thread ... " + e.getStackTrace());
-                }
-            }
-        }
-
-        public synchronized void shutdown() {
-            this.shutdown = true;
-        }
-    }
-
     /**
      * If someone turns a device or a zone etc. on, we will get a notification
      * to update the state of the item
@@ -15,6 +15,7 @@ package org.openhab.binding.digitalstrom.internal.client.constants;
 public enum JobPriority {
 
     URGENT,
+    NORMAL,
     NO_HURRY
 
 }
@@ -27,6 +27,14 @@ public interface Device {
 
     public int getZoneId();
 
+    /**
+     * Returns the dSM (meter), the device is connected to.
+     *
+     * @return the dSID of the meter or null, if the digitalSTROM Server didn't
+     *         report it
+     */
+    public DSID getMeterDSID();
+
     /**
      * This device is available in his zone or not.
      * Every 24h the dSM (meter) checks, if the devices are
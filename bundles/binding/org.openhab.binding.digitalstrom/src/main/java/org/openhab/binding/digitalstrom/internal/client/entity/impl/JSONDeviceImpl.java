@@ -41,6 +41,8 @@ public class JSONDeviceImpl implements Device {
 
     private int zoneId = 0;
 
+    private DSID meterDSID = null;
+
     private boolean isPresent = false;
 
     private boolean isOn = false;
@@ -116,6 +118,10 @@ public class JSONDeviceImpl implements Device {
             }
         }
 
+        if (object.get(JSONApiResponseKeysEnum.DEVICE_METER_ID.getKey()) != null) {
+            this.meterDSID = new DSID(object.get(JSONApiResponseKeysEnum.DEVICE_METER_ID.getKey()).toString());
+        }
+
         if (object.get(JSONApiResponseKeysEnum.DEVICE_GROUPS.getKey()) instanceof JSONArray) {
             JSONArray array = (JSONArray) object.get(JSONApiResponseKeysEnum.DEVICE_GROUPS.getKey());
 
@@ -198,6 +204,11 @@ public class JSONDeviceImpl implements Device {
         return zoneId;
     }
 
+    @Override
+    public DSID getMeterDSID() {
+        return meterDSID;
+    }
+
     @Override
     public boolean isPresent() {
         return isPresent;
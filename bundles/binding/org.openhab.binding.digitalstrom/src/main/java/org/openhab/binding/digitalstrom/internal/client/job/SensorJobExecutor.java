@@ -0,0 +1,260 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.digitalstrom.internal.client.job;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.binding.digitalstrom.internal.client.DigitalSTROMAPI;
+import org.openhab.binding.digitalstrom.internal.client.constants.JobPriority;
+import org.openhab.binding.digitalstrom.internal.client.entity.DSID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the {@link SensorJob}s. A sensor reading is slow, because the
+ * digitalSTROM Server has to query the device through its dSM (meter) over
+ * the power line. Therefore the jobs are queued per dSM: a job which is
+ * already queued is not queued again, every dSM executes at most one job per
+ * interval and the jobs of different dSMs are executed in parallel.
+ *
+ * @since 1.9.0
+ */
+public class SensorJobExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(SensorJobExecutor.class);
+
+    private final DigitalSTROMAPI digitalSTROM;
+    private final long meterInterval;
+    private final int maxParallel;
+
+    // dSM dsid - queued jobs, jobs of devices without known dSM are queued under null
+    private final Map<DSID, MeterJobs> meterJobs = new HashMap<DSID, MeterJobs>();
+
+    private volatile String sessionToken = null;
+
+    private ExecutorService executorService = null;
+    private Thread dispatcher = null;
+    private boolean shutdown = false;
+
+    /**
+     * @param digitalSTROM the API to execute the jobs with
+     * @param meterInterval the minimum time in milliseconds between two jobs of a dSM
+     * @param maxParallel the maximum number of jobs executed in parallel
+     */
+    public SensorJobExecutor(DigitalSTROMAPI digitalSTROM, long meterInterval, int maxParallel) {
+        this.digitalSTROM = digitalSTROM;
+        this.meterInterval = meterInterval;
+        this.maxParallel = Math.max(1, maxParallel);
+    }
+
+    public void setSessionToken(String sessionToken) {
+        this.sessionToken = sessionToken;
+    }
+
+    public synchronized void start() {
+        if (dispatcher == null) {
+            executorService = Executors.newFixedThreadPool(maxParallel, new SensorJobThreadFactory());
+            dispatcher = new Thread(new Dispatcher(), "digitalSTROM SensorJobExecutor");
+            dispatcher.setDaemon(true);
+            dispatcher.start();
+        }
+    }
+
+    public synchronized void shutdown() {
+        synchronized (meterJobs) {
+            shutdown = true;
+            meterJobs.clear();
+            meterJobs.notifyAll();
+        }
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+            dispatcher = null;
+        }
+        if (executorService != null) {
+            executorService.shutdownNow();
+            executorService = null;
+        }
+    }
+
+    /**
+     * Queues the job. If an equal job is already queued, the job is merged
+     * into it; the queued job moves up if the job has a higher priority.
+     */
+    public void addJob(SensorJob job, JobPriority priority) {
+        synchronized (meterJobs) {
+            if (shutdown) {
+                return;
+            }
+            MeterJobs jobs = meterJobs.get(job.getMeterDSID());
+            if (jobs == null) {
+                jobs = new MeterJobs();
+                meterJobs.put(job.getMeterDSID(), jobs);
+            }
+            if (jobs.add(job, priority)) {
+                meterJobs.notifyAll();
+            } else {
+                logger.debug("merged sensor job for dsid {} with the queued one", job.getDsid());
+            }
+        }
+    }
+
+    /**
+     * Removes all queued jobs of the device.
+     */
+    public void removeJobs(DSID dsid) {
+        synchronized (meterJobs) {
+            for (MeterJobs jobs : meterJobs.values()) {
+                jobs.remove(dsid);
+            }
+        }
+    }
+
+    /**
+     * Executes the job and allows the next job of the dSM after the interval.
+     */
+    private void execute(MeterJobs jobs, SensorJob job) {
+        try {
+            job.execute(digitalSTROM, sessionToken);
+        } catch (RuntimeException e) {
+            logger.error("sensor job for dsid " + job.getDsid() + " failed", e);
+        } finally {
+            synchronized (meterJobs) {
+                jobs.running = false;
+                jobs.nextRun = System.currentTimeMillis() + meterInterval;
+                meterJobs.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Hands the next job of every dSM, which is idle and whose interval has
+     * passed, to the thread pool.
+     */
+    private class Dispatcher implements Runnable {
+
+        @Override
+        public void run() {
+            try {
+                synchronized (meterJobs) {
+                    while (!shutdown) {
+                        long now = System.currentTimeMillis();
+                        long wait = 0;
+                        for (final MeterJobs jobs : meterJobs.values()) {
+                            if (jobs.running || jobs.isEmpty()) {
+                                continue;
+                            }
+                            if (jobs.nextRun <= now) {
+                                final SensorJob job = jobs.poll();
+                                jobs.running = true;
+                                executorService.execute(new Runnable() {
+
+                                    @Override
+                                    public void run() {
+                                        execute(jobs, job);
+                                    }
+                                });
+                            } else if (wait == 0 || jobs.nextRun - now < wait) {
+                                wait = jobs.nextRun - now;
+                            }
+                        }
+                        meterJobs.wait(wait);
+                    }
+                }
+            } catch (InterruptedException e) {
+                logger.debug("SensorJobExecutor interrupted");
+            } catch (RuntimeException e) {
+                // thread pool has been shut down
+                logger.debug("SensorJobExecutor stopped: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * The queued jobs of one dSM, one queue per priority.
+     */
+    private static class MeterJobs {
+        private final List<Set<SensorJob>> queues = new ArrayList<Set<SensorJob>>();
+        private boolean running = false;
+        private long nextRun = 0;
+
+        private MeterJobs() {
+            for (int i = 0; i < JobPriority.values().length; i++) {
+                queues.add(new LinkedHashSet<SensorJob>());
+            }
+        }
+
+        /**
+         * @return false, if the job has been merged into a queued one
+         */
+        private boolean add(SensorJob job, JobPriority priority) {
+            for (int i = 0; i < queues.size(); i++) {
+                if (queues.get(i).contains(job)) {
+                    if (i <= priority.ordinal()) {
+                        return false;
+                    }
+                    queues.get(i).remove(job);
+                }
+            }
+            queues.get(priority.ordinal()).add(job);
+            return true;
+        }
+
+        private SensorJob poll() {
+            for (Set<SensorJob> queue : queues) {
+                Iterator<SensorJob> iter = queue.iterator();
+                if (iter.hasNext()) {
+                    SensorJob job = iter.next();
+                    iter.remove();
+                    return job;
+                }
+            }
+            return null;
+        }
+
+        private boolean isEmpty() {
+            for (Set<SensorJob> queue : queues) {
+                if (!queue.isEmpty()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void remove(DSID dsid) {
+            for (Set<SensorJob> queue : queues) {
+                for (Iterator<SensorJob> iter = queue.iterator(); iter.hasNext();) {
+                    if (iter.next().getDsid().equals(dsid)) {
+                        iter.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class SensorJobThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "digitalSTROM SensorJob-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -8,35 +8,37 @@
  */
 package org.openhab.binding.exec.internal;
 
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import org.apache.commons.exec.CommandLine;
-import org.apache.commons.exec.DefaultExecuteResultHandler;
-import org.apache.commons.exec.DefaultExecutor;
-import org.apache.commons.exec.ExecuteException;
-import org.apache.commons.exec.ExecuteWatchdog;
-import org.apache.commons.exec.Executor;
-import org.apache.commons.exec.PumpStreamHandler;
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.exec.ExecBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
 import org.openhab.core.binding.BindingProvider;
+import org.openhab.core.events.EventPublisher;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.transform.TransformationHelper;
 import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
+import org.openhab.io.net.exec.ExecUtil;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
 import org.slf4j.Logger;
@@ -51,6 +53,10 @@ import org.slf4j.LoggerFactory;
  * <i>Note</i>: when using 'ssh' you should use private key authorization since
  * the password cannot be read from commandline. The given user should have the
  * necessary permissions.
+ * <p>
+ * The command lines of the in-bindings are executed in a bounded pool. Items
+ * with the same command line share one execution, also if a command line is
+ * due while it is still running.
  *
  * @author Thomas.Eichstaedt-Engelen
  * @author Pauli Anttila
@@ -70,8 +76,19 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
     /** the interval to find new refresh candidates (defaults to 1000 milliseconds) */
     private int granularity = 1000;
 
+    /** the maximum number of command lines executed at the same time (defaults to 5) */
+    private int maxParallel = 5;
+
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
+    /** the items waiting for the result of a command line, by the running command lines */
+    private final Map<String, List<PendingItem>> runningCommands = new HashMap<String, List<PendingItem>>();
+
+    private ExecutorService executor;
+
+    private static final String EXECUTION_METRIC = "exec.commands";
+    private static final String SHARED_METRIC = "exec.shared";
+
     /** RegEx to extract a parse a function String <code>'(.*?)\((.*)\)'</code> */
     private static final Pattern EXTRACT_FUNCTION_PATTERN = Pattern.compile("(.*?)\\((.*)\\)");
 
@@ -91,15 +108,22 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
         setProperlyConfigured(true);
     }
 
+    @Override
+    public void deactivate() {
+        super.deactivate();
+        shutdownExecutor();
+    }
+
     @Override
     public void execute() {
+        // the items which are due, by command line
+        Map<String, List<PendingItem>> dueItems = new LinkedHashMap<String, List<PendingItem>>();
         for (ExecBindingProvider provider : providers) {
             for (String itemName : provider.getInBindingItemNames()) {
 
                 String commandLine = provider.getCommandLine(itemName);
 
                 int refreshInterval = provider.getRefreshInterval(itemName);
-                String transformation = provider.getTransformation(itemName);
 
                 Long lastUpdateTimeStamp = lastUpdateMap.get(itemName);
                 if (lastUpdateTimeStamp == null) {
@@ -115,35 +139,119 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
 
                     commandLine = String.format(commandLine, Calendar.getInstance().getTime(), "", itemName);
 
-                    String response = executeCommandAndWaitResponse(commandLine);
-
-                    if (response == null) {
-                        logger.error("No response received from command '{}'", commandLine);
-                        lastUpdateMap.put(itemName, System.currentTimeMillis());
-                        continue;
-                    }
-
-                    String transformedResponse = response;
-                    // If transformation is needed
-                    if (transformation.length() > 0) {
-                        transformedResponse = transformResponse(response, transformation);
-                    }
-
-                    List<Class<? extends State>> acceptedDataTypes = provider.getAcceptedDataTypes(itemName);
-                    State state = null;
-                    if (acceptedDataTypes != null) {
-                        state = TypeParser.parseState(acceptedDataTypes, transformedResponse);
-                    }
-                    if (state != null) {
-                        eventPublisher.postUpdate(itemName, state);
+                    List<PendingItem> items = dueItems.get(commandLine);
+                    if (items == null) {
+                        items = new ArrayList<PendingItem>();
+                        dueItems.put(commandLine, items);
                     } else {
-                        logger.debug("Couldn't create state for value '{}'", transformedResponse);
+                        MetricsRegistry.getInstance().mark(SHARED_METRIC);
                     }
+                    items.add(new PendingItem(provider, itemName));
 
                     lastUpdateMap.put(itemName, System.currentTimeMillis());
                 }
             }
         }
+
+        for (Map.Entry<String, List<PendingItem>> entry : dueItems.entrySet()) {
+            executeInBackground(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * Executes the command line in the pool and updates the items with its
+     * response. If the command line is already running, the items receive
+     * the response of the running execution.
+     */
+    private void executeInBackground(final String commandLine, List<PendingItem> items) {
+        synchronized (runningCommands) {
+            List<PendingItem> waitingItems = runningCommands.get(commandLine);
+            if (waitingItems != null) {
+                logger.debug("commandLine '{}' is still running, sharing its response", commandLine);
+                waitingItems.addAll(items);
+                MetricsRegistry.getInstance().mark(SHARED_METRIC);
+                return;
+            }
+            runningCommands.put(commandLine, new ArrayList<PendingItem>(items));
+        }
+
+        try {
+            getExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                    executeAndUpdateItems(commandLine);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            synchronized (runningCommands) {
+                runningCommands.remove(commandLine);
+            }
+            logger.debug("couldn't execute commandLine '{}', the binding has been deactivated", commandLine);
+        }
+    }
+
+    private void executeAndUpdateItems(String commandLine) {
+        String response;
+        List<PendingItem> items;
+        long start = System.nanoTime();
+        try {
+            response = ExecUtil.executeCommandLineAndWaitResponse(commandLine, timeout);
+        } finally {
+            MetricsRegistry.getInstance().record(EXECUTION_METRIC, System.nanoTime() - start);
+            // a failed execution must not keep later polls waiting for it
+            synchronized (runningCommands) {
+                items = runningCommands.remove(commandLine);
+            }
+        }
+
+        if (response == null) {
+            logger.error("No response received from command '{}'", commandLine);
+            return;
+        }
+        if (items != null) {
+            for (PendingItem item : items) {
+                updateItem(item.provider, item.itemName, response);
+            }
+        }
+    }
+
+    private void updateItem(ExecBindingProvider provider, String itemName, String response) {
+        String transformation = provider.getTransformation(itemName);
+
+        String transformedResponse = response;
+        // If transformation is needed
+        if (transformation != null && transformation.length() > 0) {
+            transformedResponse = transformResponse(response, transformation);
+        }
+
+        List<Class<? extends State>> acceptedDataTypes = provider.getAcceptedDataTypes(itemName);
+        State state = null;
+        if (acceptedDataTypes != null) {
+            state = TypeParser.parseState(acceptedDataTypes, transformedResponse);
+        }
+        if (state == null) {
+            logger.debug("Couldn't create state for value '{}'", transformedResponse);
+            return;
+        }
+        // the pool threads may still be running when the binding has been deactivated
+        EventPublisher eventPublisher = this.eventPublisher;
+        if (eventPublisher != null) {
+            eventPublisher.postUpdate(itemName, state);
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(maxParallel, new ExecThreadFactory());
+        }
+        return executor;
+    }
+
+    private synchronized void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
     }
 
     protected String transformResponse(String response, String transformation) {
@@ -299,75 +407,6 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
         }
     }
 
-    /**
-     * <p>
-     * Executes <code>commandLine</code>. Sometimes (especially observed on
-     * MacOS) the commandLine isn't executed properly. In that cases another
-     * exec-method is to be used. To accomplish this please use the special
-     * delimiter '<code>@@</code>'. If <code>commandLine</code> contains this
-     * delimiter it is split into a String[] array and the special exec-method
-     * is used.
-     * </p>
-     * <p>
-     * A possible {@link IOException} gets logged but no further processing is
-     * done.
-     * </p>
-     *
-     * @param commandLine the command line to execute
-     * @return response data from executed command line
-     */
-    private String executeCommandAndWaitResponse(String commandLine) {
-        String retval = null;
-
-        CommandLine cmdLine = null;
-
-        if (commandLine.contains(CMD_LINE_DELIMITER)) {
-            String[] cmdArray = commandLine.split(CMD_LINE_DELIMITER);
-            cmdLine = new CommandLine(cmdArray[0]);
-
-            for (int i = 1; i < cmdArray.length; i++) {
-                cmdLine.addArgument(cmdArray[i], false);
-            }
-        } else {
-            cmdLine = CommandLine.parse(commandLine);
-        }
-
-        DefaultExecuteResultHandler resultHandler = new DefaultExecuteResultHandler();
-
-        ExecuteWatchdog watchdog = new ExecuteWatchdog(timeout);
-        Executor executor = new DefaultExecutor();
-
-        ByteArrayOutputStream stdout = new ByteArrayOutputStream();
-        PumpStreamHandler streamHandler = new PumpStreamHandler(stdout);
-
-        executor.setExitValue(1);
-        executor.setStreamHandler(streamHandler);
-        executor.setWatchdog(watchdog);
-
-        try {
-            executor.execute(cmdLine, resultHandler);
-            logger.debug("executed commandLine '{}'", commandLine);
-        } catch (ExecuteException e) {
-            logger.error("couldn't execute commandLine '" + commandLine + "'", e);
-        } catch (IOException e) {
-            logger.error("couldn't execute commandLine '" + commandLine + "'", e);
-        }
-
-        // some time later the result handler callback was invoked so we
-        // can safely request the exit code
-        try {
-            resultHandler.waitFor();
-            int exitCode = resultHandler.getExitValue();
-            retval = StringUtils.chomp(stdout.toString());
-            logger.debug("exit code '{}', result '{}'", exitCode, retval);
-
-        } catch (InterruptedException e) {
-            logger.error("Timeout occured when executing commandLine '" + commandLine + "'", e);
-        }
-
-        return retval;
-    }
-
     @Override
     @SuppressWarnings("rawtypes")
     public void updated(Dictionary config) throws ConfigurationException {
@@ -382,6 +421,12 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
             if (StringUtils.isNotBlank(granularityString)) {
                 granularity = Integer.parseInt(granularityString);
             }
+
+            String maxParallelString = (String) config.get("maxParallel");
+            if (StringUtils.isNotBlank(maxParallelString)) {
+                maxParallel = Math.max(1, Integer.parseInt(maxParallelString));
+                shutdownExecutor();
+            }
         }
 
     }
@@ -392,4 +437,28 @@ public class ExecBinding extends AbstractActiveBinding<ExecBindingProvider>imple
 
         setProperlyConfigured(true);
     }
+
+    /**
+     * An in-binding item waiting for the response of its command line.
+     */
+    private static class PendingItem {
+        private final ExecBindingProvider provider;
+        private final String itemName;
+
+        public PendingItem(ExecBindingProvider provider, String itemName) {
+            this.provider = provider;
+            this.itemName = itemName;
+        }
+    }
+
+    private static class ExecThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Exec command " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
 }
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.communicator.EventCoalescer.EventCoalescerCallback;
+import org.openhab.binding.homematic.internal.config.binding.DatapointConfig;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+import org.openhab.core.service.MetricsRegistry;
+
+import junit.framework.Assert;
+
+/**
+ * Testcases for the coalescing of events from the Homematic server. The
+ * windows are not closed by the timer but by the tests.
+ *
+ * @since 1.9.0
+ */
+public class EventCoalescerTest {
+    private List<Object> published = new ArrayList<Object>();
+    private List<Runnable> scheduled = new ArrayList<Runnable>();
+    private EventCoalescer coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new EventCoalescer(200, new EventCoalescerCallback() {
+
+            @Override
+            public void publish(Event event) {
+                published.add(event.getNewValue());
+            }
+        }) {
+            @Override
+            void schedule(Runnable task, long delay) {
+                scheduled.add(task);
+            }
+        };
+        coalescer.start();
+    }
+
+    @After
+    public void tearDown() {
+        coalescer.stop();
+    }
+
+    private Event createEvent(String address, String name, Object value) {
+        Event event = new Event(new DatapointConfig(address, "1", name), value);
+        HmDatapoint dp = new HmDatapoint();
+        dp.setName(name);
+        event.setHmValueItem(dp);
+        return event;
+    }
+
+    @Test
+    public void testRepeatedEventsAreCoalesced() throws Exception {
+        long coalesced = getCoalescedCount();
+        for (int i = 1; i <= 5; i++) {
+            coalescer.add(createEvent("ABC0000001", "LEVEL", i));
+        }
+        coalescer.add(createEvent("ABC0000002", "LEVEL", 10));
+        Assert.assertEquals(2, published.size());
+        Assert.assertEquals(1, published.get(0));
+        Assert.assertEquals(10, published.get(1));
+        Assert.assertEquals(2, scheduled.size());
+
+        // the last held back event is published when the window closes
+        scheduled.get(0).run();
+        Assert.assertEquals(3, published.size());
+        Assert.assertEquals(5, published.get(2));
+        // 2 took the place of the published event, 3 to 5 replaced held back ones
+        Assert.assertEquals(coalesced + 3, getCoalescedCount());
+
+        // nothing has been held back for the second datapoint
+        scheduled.get(1).run();
+        Assert.assertEquals(3, published.size());
+    }
+
+    @Test
+    public void testWindowIsReopenedAfterHeldBackEvent() throws Exception {
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 1));
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 2));
+        scheduled.get(0).run();
+        Assert.assertEquals(2, scheduled.size());
+
+        // the window opened for the published event still holds back events
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 3));
+        Assert.assertEquals(2, published.size());
+        scheduled.get(1).run();
+        Assert.assertEquals(3, published.get(2));
+
+        // after a window without events, the next event is published at once
+        scheduled.get(2).run();
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 4));
+        Assert.assertEquals(4, published.size());
+        Assert.assertEquals(4, published.get(3));
+    }
+
+    @Test
+    public void testHeldBackEventsAreDiscardedOnStop() throws Exception {
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 1));
+        coalescer.add(createEvent("ABC0000001", "LEVEL", 2));
+        coalescer.stop();
+
+        scheduled.get(0).run();
+        Assert.assertEquals(1, published.size());
+    }
+
+    @Test
+    public void testPressEventsAreNotCoalesced() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            coalescer.add(createEvent("ABC0000001", "PRESS_SHORT", Boolean.TRUE));
+        }
+        Assert.assertEquals(3, published.size());
+        Assert.assertTrue(scheduled.isEmpty());
+    }
+
+    private static long getCoalescedCount() {
+        MetricsRegistry.Meter meter = MetricsRegistry.getInstance().getMeters(EventCoalescer.COALESCED_METRIC)
+                .get(EventCoalescer.COALESCED_METRIC);
+        return meter != null ? meter.getCount() : 0;
+    }
+}
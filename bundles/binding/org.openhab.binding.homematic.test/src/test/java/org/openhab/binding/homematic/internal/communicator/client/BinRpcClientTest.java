@@ -0,0 +1,294 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.ByteArrayInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.homematic.internal.binrpc.BinRpcRequest;
+import org.openhab.binding.homematic.internal.binrpc.BinRpcResponse;
+import org.openhab.binding.homematic.internal.model.HmInterface;
+
+import junit.framework.Assert;
+
+/**
+ * Testcases for the BIN-RPC client against a local BIN-RPC server.
+ *
+ * @since 1.9.0
+ */
+public class BinRpcClientTest {
+    private StandInServer server;
+    private BinRpcConnectionPool pool;
+    private BinRpcClient client;
+
+    @Before
+    public void setUp() throws Exception {
+        server = new StandInServer();
+        pool = new BinRpcConnectionPool("localhost", 5000, 2, 10000) {
+            @Override
+            protected Socket createSocket(int port) throws IOException {
+                return new Socket("localhost", server.getPort());
+            }
+        };
+        client = new BinRpcClient(pool);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        client.shutdown();
+        server.close();
+    }
+
+    @Test
+    public void testEncoding() throws Exception {
+        BinRpcRequest request = new BinRpcRequest("setValue");
+        request.addArg("ABC0000001:1");
+        request.addArg("LEVEL");
+        request.addArg(Double.valueOf(0.5));
+        request.addArg(Boolean.TRUE);
+        request.addArg(Integer.valueOf(-2));
+        request.addArg(Arrays.asList("a", "ä"));
+        request.addArg(Collections.singletonMap("key", Integer.valueOf(300)));
+
+        byte[] message = request.createMessage();
+        Assert.assertEquals('B', message[0]);
+        Assert.assertEquals(message.length - 8, message[7] & 0xFF);
+
+        BinRpcResponse decoded = new BinRpcResponse(new ByteArrayInputStream(message), true);
+        Assert.assertEquals("setValue", decoded.getMethodName());
+        Object[] args = decoded.getResponseData();
+        Assert.assertEquals("ABC0000001:1", args[0]);
+        Assert.assertEquals("LEVEL", args[1]);
+        Assert.assertEquals(0.5, (Double) args[2], 0.0001);
+        Assert.assertEquals(Boolean.TRUE, args[3]);
+        Assert.assertEquals(-2, args[4]);
+        Assert.assertTrue(Arrays.equals(new Object[] { "a", "ä" }, (Object[]) args[5]));
+        Assert.assertEquals(300, ((Map<?, ?>) args[6]).get("key"));
+    }
+
+    @Test
+    public void testKeepAlive() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            client.setDatapointValue(HmInterface.RF, "ABC0000001:1", "STATE", Boolean.TRUE);
+        }
+        Assert.assertEquals(5, server.calls.size());
+        Assert.assertEquals(1, server.connections.get());
+    }
+
+    @Test
+    public void testReconnectAfterServerClosedConnection() throws Exception {
+        client.setDatapointValue(HmInterface.RF, "ABC0000001:1", "STATE", Boolean.TRUE);
+        server.closeConnections();
+        client.setDatapointValue(HmInterface.RF, "ABC0000001:1", "STATE", Boolean.FALSE);
+
+        Assert.assertEquals(2, server.calls.size());
+        Assert.assertEquals(2, server.connections.get());
+    }
+
+    @Test
+    public void testMulticall() throws Exception {
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
+        values.add(new DatapointValue("ABC0000001:1", "LEVEL", Double.valueOf(0.5)));
+        values.add(new DatapointValue("ABC0000001:1", "STOP", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000002:1", "PRESS_SHORT", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000002:1", "PRESS_SHORT", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000001:1", "LEVEL", Double.valueOf(0.0)));
+
+        client.setDatapointValues(HmInterface.RF, values);
+
+        Assert.assertEquals(Arrays.asList("system.multicall"), server.calls);
+        Assert.assertEquals(Arrays.asList("setValue ABC0000001:1 LEVEL", "setValue ABC0000001:1 STOP",
+                "setValue ABC0000002:1 PRESS_SHORT", "setValue ABC0000002:1 PRESS_SHORT",
+                "setValue ABC0000001:1 LEVEL"), server.multicalls);
+    }
+
+    @Test
+    public void testMulticallFault() throws Exception {
+        server.faultAddress = "ABC0000002:1";
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
+        values.add(new DatapointValue("ABC0000001:1", "STATE", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000002:1", "STATE", Boolean.TRUE));
+
+        try {
+            client.setDatapointValues(HmInterface.RF, values);
+            Assert.fail("Fault of the second call not reported");
+        } catch (HomematicClientException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("-2 Unknown instance"));
+        }
+        Assert.assertEquals(1, server.calls.size());
+    }
+
+    @Test
+    public void testMulticallNotSupported() throws Exception {
+        server.multicallFault = createFault(-32601, "Requested method not found");
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
+        values.add(new DatapointValue("ABC0000001:1", "PRESS_SHORT", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000001:1", "PRESS_SHORT", Boolean.TRUE));
+
+        client.setDatapointValues(HmInterface.RF, values);
+
+        Assert.assertEquals(Arrays.asList("system.multicall", "setValue", "setValue"), server.calls);
+    }
+
+    @Test
+    public void testMulticallNotRepeatedAfterFault() throws Exception {
+        server.multicallFault = createFault(-1, "Failure");
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
+        values.add(new DatapointValue("ABC0000001:1", "PRESS_SHORT", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000002:1", "PRESS_SHORT", Boolean.TRUE));
+
+        try {
+            client.setDatapointValues(HmInterface.RF, values);
+            Assert.fail("Fault of the multicall not reported");
+        } catch (HomematicClientException ex) {
+            Assert.assertTrue(ex.getMessage(), ex.getMessage().contains("-1 Failure"));
+        }
+        Assert.assertEquals(Arrays.asList("system.multicall"), server.calls);
+    }
+
+    @Test
+    public void testMulticallNotRepeatedAfterConnectionError() throws Exception {
+        server.closeOnMulticall = true;
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
+        values.add(new DatapointValue("ABC0000001:1", "PRESS_SHORT", Boolean.TRUE));
+        values.add(new DatapointValue("ABC0000002:1", "PRESS_SHORT", Boolean.TRUE));
+
+        try {
+            client.setDatapointValues(HmInterface.RF, values);
+            Assert.fail("Connection error not reported");
+        } catch (HomematicClientException ex) {
+            // expected
+        }
+        Assert.assertEquals(Arrays.asList("system.multicall"), server.calls);
+    }
+
+    private static Map<String, Object> createFault(int faultCode, String faultString) {
+        Map<String, Object> fault = new HashMap<String, Object>();
+        fault.put("faultCode", Integer.valueOf(faultCode));
+        fault.put("faultString", faultString);
+        return fault;
+    }
+
+    /**
+     * A minimal BIN-RPC server which answers every call on kept-alive
+     * connections.
+     */
+    private static class StandInServer implements Runnable {
+        private final ServerSocket serverSocket;
+        private final List<Socket> sockets = Collections.synchronizedList(new ArrayList<Socket>());
+        private final AtomicInteger connections = new AtomicInteger();
+        private final List<String> calls = Collections.synchronizedList(new ArrayList<String>());
+        private final List<String> multicalls = Collections.synchronizedList(new ArrayList<String>());
+        private volatile String faultAddress;
+        private volatile Map<String, Object> multicallFault;
+        private volatile boolean closeOnMulticall;
+
+        public StandInServer() throws IOException {
+            serverSocket = new ServerSocket(0);
+            Thread thread = new Thread(this, "BIN-RPC stand-in server");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        public int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    final Socket socket = serverSocket.accept();
+                    connections.incrementAndGet();
+                    sockets.add(socket);
+                    Thread handler = new Thread(new Runnable() {
+                        @Override
+                        public void run() {
+                            handle(socket);
+                        }
+                    });
+                    handler.setDaemon(true);
+                    handler.start();
+                }
+            } catch (IOException ex) {
+                // server closed
+            }
+        }
+
+        private void handle(Socket socket) {
+            try {
+                InputStream in = socket.getInputStream();
+                OutputStream out = socket.getOutputStream();
+                while (true) {
+                    BinRpcResponse call = new BinRpcResponse(in, true);
+                    calls.add(call.getMethodName());
+                    Object result = "";
+                    if ("system.multicall".equals(call.getMethodName()) && closeOnMulticall) {
+                        socket.close();
+                        return;
+                    } else if ("system.multicall".equals(call.getMethodName()) && multicallFault != null) {
+                        result = multicallFault;
+                    } else if ("system.multicall".equals(call.getMethodName())) {
+                        List<Object> results = new ArrayList<Object>();
+                        for (Object o : (Object[]) call.getResponseData()[0]) {
+                            Map<?, ?> request = (Map<?, ?>) o;
+                            Object[] params = (Object[]) request.get("params");
+                            multicalls.add(request.get("methodName") + " " + params[0] + " " + params[1]);
+                            if (params[0].equals(faultAddress)) {
+                                results.add(createFault(-2, "Unknown instance"));
+                            } else {
+                                results.add(Arrays.asList(""));
+                            }
+                        }
+                        result = results;
+                    }
+                    BinRpcRequest response = new BinRpcRequest(null);
+                    response.addArg(result);
+                    byte[] message = response.createMessage();
+                    message[3] = 1;
+                    out.write(message);
+                    out.flush();
+                }
+            } catch (EOFException ex) {
+                // connection closed by the client
+            } catch (Exception ex) {
+                // connection closed by the server
+            }
+        }
+
+        public void closeConnections() throws IOException {
+            synchronized (sockets) {
+                for (Socket socket : sockets) {
+                    socket.close();
+                }
+                sockets.clear();
+            }
+        }
+
+        public void close() throws IOException {
+            serverSocket.close();
+            closeConnections();
+        }
+    }
+}
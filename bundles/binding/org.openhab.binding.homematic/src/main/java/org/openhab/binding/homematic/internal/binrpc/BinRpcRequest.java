@@ -8,11 +8,13 @@
  */
 package org.openhab.binding.homematic.internal.binrpc;
 
-import java.io.UnsupportedEncodingException;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,10 +28,12 @@ import org.apache.commons.lang.builder.ToStringStyle;
  * @since 1.5.0
  */
 public class BinRpcRequest {
+    private static final int HEADER_LENGTH = 8;
+
     private byte data[];
     private int dataoffset;
     private String methodName;
-    private Collection<Object> args = new ArrayList<Object>();
+    private List<Object> args = new ArrayList<Object>();
 
     /**
      * Creates a new request with the specified methodName.
@@ -38,6 +42,23 @@ public class BinRpcRequest {
         this.methodName = methodName;
     }
 
+    /**
+     * Creates a system.multicall request which executes all given requests in
+     * order with one roundtrip to the Homematic server.
+     */
+    public static BinRpcRequest createMulticall(Collection<BinRpcRequest> requests) {
+        List<Object> calls = new ArrayList<Object>(requests.size());
+        for (BinRpcRequest request : requests) {
+            Map<String, Object> call = new LinkedHashMap<String, Object>(4);
+            call.put("methodName", request.getMethodName());
+            call.put("params", request.args);
+            calls.add(call);
+        }
+        BinRpcRequest multicall = new BinRpcRequest("system.multicall");
+        multicall.addArg(calls);
+        return multicall;
+    }
+
     /**
      * Adds arguments to the method.
      */
@@ -53,42 +74,66 @@ public class BinRpcRequest {
      * Generates the binrpc data.
      */
     public byte[] createMessage() {
-        data = new byte[256];
+        encode();
+        return Arrays.copyOf(data, dataoffset);
+    }
+
+    /**
+     * Generates the binrpc data and writes it to the stream without copying
+     * the message.
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        encode();
+        out.write(data, 0, dataoffset);
+    }
+
+    /**
+     * Encodes the header and the body of the message into the buffer.
+     */
+    private void encode() {
+        if (data == null) {
+            data = new byte[256];
+        }
+        dataoffset = HEADER_LENGTH;
         if (methodName != null) {
-            addInt(methodName.length());
             addString(methodName);
             addInt(args.size());
         }
 
         addList(args);
 
-        byte fullreq[] = new byte[dataoffset + 8];
-        System.arraycopy(data, 0, fullreq, 8, dataoffset);
-        fullreq[0] = 'B';
-        fullreq[1] = 'i';
-        fullreq[2] = 'n';
-        addInt(dataoffset);
-        System.arraycopy(data, dataoffset - 4, fullreq, 4, 4);
-        return fullreq;
+        data[0] = 'B';
+        data[1] = 'i';
+        data[2] = 'n';
+        data[3] = 0;
+        putInt(4, dataoffset - HEADER_LENGTH);
     }
 
-    private void addByte(byte b) {
-        if (dataoffset == data.length) {
-            byte newdata[] = new byte[data.length * 2];
-            System.arraycopy(data, 0, newdata, 0, data.length);
-            data = newdata;
+    /**
+     * Grows the buffer, if the specified number of bytes doesn't fit into it.
+     */
+    private void ensureCapacity(int length) {
+        if (dataoffset + length > data.length) {
+            data = Arrays.copyOf(data, Math.max(data.length * 2, dataoffset + length));
         }
+    }
+
+    private void addByte(byte b) {
+        ensureCapacity(1);
         data[dataoffset++] = b;
     }
 
     private void addInt(int n) {
-        byte d[] = BigInteger.valueOf(n).toByteArray();
-        for (int c = 0; c < 4 - d.length; c++) {
-            addByte(n < 0 ? (byte) 0xFF : (byte) 0);
-        }
-        for (byte s : d) {
-            addByte(s);
-        }
+        ensureCapacity(4);
+        putInt(dataoffset, n);
+        dataoffset += 4;
+    }
+
+    private void putInt(int offset, int n) {
+        data[offset] = (byte) (n >>> 24);
+        data[offset + 1] = (byte) (n >>> 16);
+        data[offset + 2] = (byte) (n >>> 8);
+        data[offset + 3] = (byte) n;
     }
 
     private void addDouble(double v) {
@@ -113,53 +158,54 @@ public class BinRpcRequest {
         addInt(exp);
     }
 
+    /**
+     * Adds the length and the ISO-8859-1 encoded characters of the string,
+     * characters which can't be encoded are replaced with '?'.
+     */
     private void addString(String s) {
-        byte sd[];
-        try {
-            sd = s.getBytes("ISO-8859-1");
-        } catch (UnsupportedEncodingException use) {
-            // Really shouldn't happen, fall back silently to platform encoding
-            sd = s.getBytes();
-        }
-        for (byte ch : sd) {
-            addByte(ch);
+        int length = s.length();
+        addInt(length);
+        ensureCapacity(length);
+        for (int i = 0; i < length; i++) {
+            char ch = s.charAt(i);
+            data[dataoffset++] = ch <= 0xFF ? (byte) ch : (byte) '?';
         }
     }
 
     private void addList(Collection<?> args) {
         for (Object o : args) {
-            if (o.getClass() == String.class) {
-                addInt(3);
-                String s = (String) o;
-                addInt(s.length());
-                addString(s);
-            } else if (o.getClass() == Boolean.class) {
-                addInt(2);
-                addByte(((Boolean) o).booleanValue() ? (byte) 1 : (byte) 0);
-            } else if (o.getClass() == Integer.class) {
-                addInt(1);
-                addInt(((Integer) o).intValue());
-            } else if (o.getClass() == Double.class) {
-                addInt(4);
-                addDouble(((Double) o).doubleValue());
-            } else if (o.getClass() == BigInteger.class) {
-                addInt(4);
-                addDouble(((BigInteger) o).doubleValue());
-            } else if (o instanceof List<?>) {
-                Collection<?> l = (Collection<?>) o;
-                addInt(0x100);
-                addInt(l.size());
-                addList(l);
-            } else if (o instanceof Map<?, ?>) {
-                Map<?, ?> l = (Map<?, ?>) o;
-                addInt(0x101);
-                addInt(l.size());
-                for (Map.Entry<?, ?> me : l.entrySet()) {
-                    String key = (String) me.getKey();
-                    addInt(key.length());
-                    addString(key);
-                    addList(Collections.singleton(me.getValue()));
-                }
+            addValue(o);
+        }
+    }
+
+    private void addValue(Object o) {
+        if (o.getClass() == String.class) {
+            addInt(3);
+            addString((String) o);
+        } else if (o.getClass() == Boolean.class) {
+            addInt(2);
+            addByte(((Boolean) o).booleanValue() ? (byte) 1 : (byte) 0);
+        } else if (o.getClass() == Integer.class) {
+            addInt(1);
+            addInt(((Integer) o).intValue());
+        } else if (o.getClass() == Double.class) {
+            addInt(4);
+            addDouble(((Double) o).doubleValue());
+        } else if (o.getClass() == BigInteger.class) {
+            addInt(4);
+            addDouble(((BigInteger) o).doubleValue());
+        } else if (o instanceof List<?>) {
+            Collection<?> l = (Collection<?>) o;
+            addInt(0x100);
+            addInt(l.size());
+            addList(l);
+        } else if (o instanceof Map<?, ?>) {
+            Map<?, ?> l = (Map<?, ?>) o;
+            addInt(0x101);
+            addInt(l.size());
+            for (Map.Entry<?, ?> me : l.entrySet()) {
+                addString((String) me.getKey());
+                addValue(me.getValue());
             }
         }
     }
@@ -13,7 +13,6 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
-import java.math.BigInteger;
 import java.math.RoundingMode;
 import java.text.ParseException;
 import java.util.ArrayList;
@@ -45,27 +44,21 @@ public class BinRpcResponse {
      */
     public BinRpcResponse(InputStream is, boolean methodHeader) throws IOException, ParseException {
         byte sig[] = new byte[4];
-        int l = is.read(sig);
+        int l = read(is, sig, 0, sig.length);
         if (l != sig.length) {
             throw new EOFException("Only " + l + " bytes received reading signature");
         }
         if (sig[0] != 'B' || sig[1] != 'i' || sig[2] != 'n') {
             throw new UnsupportedEncodingException("No BinX signature");
         }
-        l = is.read(sig);
+        l = read(is, sig, 0, sig.length);
         if (l != sig.length) {
             throw new EOFException("Only " + l + " bytes received reading length");
         }
-        int datasize = (new BigInteger(sig)).intValue();
+        int datasize = toInt(sig, 0);
         data = new byte[datasize];
-        int offset = 0;
-        while (datasize > 0) {
-            int r = is.read(data, offset, datasize);
-            if (r < 1) {
-                throw new EOFException("EOF while reading data");
-            }
-            datasize -= r;
-            offset += r;
+        if (read(is, data, 0, datasize) != datasize) {
+            throw new EOFException("EOF while reading data");
         }
 
         if (methodHeader) {
@@ -99,10 +92,34 @@ public class BinRpcResponse {
     }
 
     private int readInt() {
-        byte bi[] = new byte[4];
-        System.arraycopy(data, dataoffset, bi, 0, 4);
+        int n = toInt(data, dataoffset);
         dataoffset += 4;
-        return (new BigInteger(bi)).intValue();
+        return n;
+    }
+
+    /**
+     * Decodes a big endian int from the buffer.
+     */
+    private static int toInt(byte[] buffer, int offset) {
+        return (buffer[offset] << 24) | ((buffer[offset + 1] & 0xFF) << 16) | ((buffer[offset + 2] & 0xFF) << 8)
+                | (buffer[offset + 3] & 0xFF);
+    }
+
+    /**
+     * Reads from the stream until the requested number of bytes or the end of
+     * the stream is reached, a message may arrive in several packets on a
+     * kept-alive connection.
+     */
+    private static int read(InputStream is, byte[] buffer, int offset, int length) throws IOException {
+        int total = 0;
+        while (total < length) {
+            int r = is.read(buffer, offset + total, length - total);
+            if (r < 0) {
+                break;
+            }
+            total += r;
+        }
+        return total;
     }
 
     private Object readRpcValue() throws UnsupportedEncodingException, ParseException {
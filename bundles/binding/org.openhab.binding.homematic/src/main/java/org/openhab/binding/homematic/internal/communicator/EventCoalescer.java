@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import org.openhab.binding.homematic.internal.config.binding.HomematicBindingConfig;
+import org.openhab.core.service.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coalesces repeated events of the Homematic server for the same datapoint.
+ * The first event of a datapoint is published immediately, further events
+ * within the window are held back and only the last one is published when
+ * the window closes. After a restart the CCU may send thousands of events,
+ * many of them for the same datapoints.
+ *
+ * @since 1.9.0
+ */
+public class EventCoalescer {
+    private static final Logger logger = LoggerFactory.getLogger(EventCoalescer.class);
+    static final String COALESCED_METRIC = "homematic.events.coalesced";
+
+    private final long window;
+    private final EventCoalescerCallback callback;
+
+    private Map<HomematicBindingConfig, Event> windows = new HashMap<HomematicBindingConfig, Event>();
+    private Timer timer;
+
+    /**
+     * Creates a coalescer which publishes the events to the callback.
+     *
+     * @param window the time in milliseconds in which events of a datapoint are coalesced
+     */
+    public EventCoalescer(long window, EventCoalescerCallback callback) {
+        this.window = window;
+        this.callback = callback;
+    }
+
+    /**
+     * Starts the timer which closes the windows.
+     */
+    public synchronized void start() {
+        if (timer == null) {
+            timer = new Timer("Homematic event coalescer", true);
+        }
+    }
+
+    /**
+     * Stops the timer, held back events are discarded.
+     */
+    public synchronized void stop() {
+        if (timer != null) {
+            timer.cancel();
+            timer = null;
+        }
+        windows.clear();
+    }
+
+    /**
+     * Publishes the event or holds it back if an event of the same datapoint
+     * has been published within the window. PRESS_* events are never
+     * coalesced, every key press counts.
+     */
+    public void add(Event event) {
+        if (event.isPressValueItem() || window <= 0) {
+            callback.publish(event);
+            return;
+        }
+
+        synchronized (this) {
+            if (timer == null) {
+                return;
+            }
+            HomematicBindingConfig bindingConfig = event.getBindingConfig();
+            if (windows.containsKey(bindingConfig)) {
+                if (windows.put(bindingConfig, event) != null) {
+                    MetricsRegistry.getInstance().mark(COALESCED_METRIC);
+                }
+                logger.trace("Holding back event for {}", bindingConfig);
+                return;
+            }
+            openWindow(bindingConfig);
+        }
+        callback.publish(event);
+    }
+
+    /**
+     * Opens the window of the datapoint, must be called with the lock held.
+     */
+    private void openWindow(final HomematicBindingConfig bindingConfig) {
+        windows.put(bindingConfig, null);
+        schedule(new Runnable() {
+            @Override
+            public void run() {
+                closeWindow(bindingConfig);
+            }
+        }, window);
+    }
+
+    /**
+     * Schedules the closing of a window, must be called with the lock held.
+     * Tests override this method to close the windows themselves.
+     */
+    void schedule(final Runnable task, long delay) {
+        timer.schedule(new TimerTask() {
+            @Override
+            public void run() {
+                task.run();
+            }
+        }, delay);
+    }
+
+    /**
+     * Publishes the last held back event of the datapoint. If there is one,
+     * a new window is opened, so that a steady stream of events is published
+     * once per window.
+     */
+    private void closeWindow(HomematicBindingConfig bindingConfig) {
+        Event event;
+        synchronized (this) {
+            if (timer == null) {
+                return;
+            }
+            event = windows.remove(bindingConfig);
+            if (event != null) {
+                openWindow(bindingConfig);
+            }
+        }
+        if (event != null) {
+            try {
+                callback.publish(event);
+            } catch (Exception ex) {
+                logger.error(ex.getMessage(), ex);
+            }
+        }
+    }
+
+    /**
+     * Callback interface to publish the coalesced events.
+     */
+    public interface EventCoalescerCallback {
+        /**
+         * Called for every event which has to be published to openHAB.
+         */
+        public void publish(Event event);
+    }
+}
@@ -14,6 +14,7 @@ import java.util.Set;
 import java.util.TimerTask;
 
 import org.openhab.binding.homematic.internal.common.HomematicContext;
+import org.openhab.binding.homematic.internal.communicator.EventCoalescer.EventCoalescerCallback;
 import org.openhab.binding.homematic.internal.communicator.ProviderItemIterator.ProviderItemIteratorCallback;
 import org.openhab.binding.homematic.internal.communicator.client.BinRpcClient;
 import org.openhab.binding.homematic.internal.communicator.client.CcuClient;
@@ -29,7 +30,6 @@ import org.openhab.binding.homematic.internal.config.binding.HomematicBindingCon
 import org.openhab.binding.homematic.internal.config.binding.ProgramConfig;
 import org.openhab.binding.homematic.internal.config.binding.VariableConfig;
 import org.openhab.binding.homematic.internal.converter.state.Converter;
-import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmValueItem;
 import org.openhab.binding.homematic.internal.util.DelayedExecutor;
@@ -50,6 +50,7 @@ import org.slf4j.LoggerFactory;
  */
 public class HomematicCommunicator implements HomematicCallbackReceiver {
     private static final Logger logger = LoggerFactory.getLogger(HomematicCommunicator.class);
+    private static final long EVENT_COALESCE_WINDOW = 200;
 
     private HomematicContext context = HomematicContext.getInstance();
     private DelayedExecutor delayedExecutor = new DelayedExecutor();
@@ -60,9 +61,16 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
     private HomematicClient homematicClient;
     private ItemDisabler itemDisabler;
 
-    private long lastEventTime = System.currentTimeMillis();
+    private volatile long lastEventTime = System.currentTimeMillis();
     private long lastReconnectTime = System.currentTimeMillis();
     private HomematicPublisher publisher = new HomematicPublisher();
+    private EventCoalescer eventCoalescer = new EventCoalescer(EVENT_COALESCE_WINDOW, new EventCoalescerCallback() {
+
+        @Override
+        public void publish(Event event) {
+            publishToOpenhab(event);
+        }
+    });
 
     private Set<BindingConfig> sentPressEvents = Collections.synchronizedSet(new HashSet<BindingConfig>());
 
@@ -77,6 +85,7 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
 
                 itemDisabler = new ItemDisabler();
                 itemDisabler.start();
+                eventCoalescer.start();
                 newDevicesCounter = 0;
 
                 RpcClient rpcClient = new BinRpcClient();
@@ -130,6 +139,7 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
             logger.info("Shutting down Homematic communicator");
             try {
                 delayedExecutor.cancel();
+                publisher.shutdown();
                 homematicCallbackServer.shutdown();
                 if (homematicClient != null) {
                     try {
@@ -143,6 +153,7 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
                         // ignore
                     }
                 }
+                eventCoalescer.stop();
                 if (itemDisabler != null) {
                     itemDisabler.stop();
                 }
@@ -186,28 +197,34 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
             event.setHmValueItem(context.getStateHolder().getState(event.getBindingConfig()));
             if (event.getHmValueItem() != null) {
                 event.getHmValueItem().setValue(event.getNewValue());
-
-                new ProviderItemIterator().iterate(event.getBindingConfig(), new ProviderItemIteratorCallback() {
-
-                    @Override
-                    public void next(HomematicBindingConfig providerBindingConfig, Item item, Converter<?> converter) {
-                        State state = converter.convertFromBinding(event.getHmValueItem());
-                        context.getEventPublisher().postUpdate(item.getName(), state);
-                        if (state == OnOffType.ON) {
-                            executeBindingAction(providerBindingConfig);
-                            if (event.isPressValueItem()) {
-                                itemDisabler.add(providerBindingConfig);
-                            }
-                        }
-                    }
-                });
-
+                eventCoalescer.add(event);
             } else {
                 logger.warn("Can't find {}, value is not published to openHAB!", event.getBindingConfig());
             }
         }
     }
 
+    /**
+     * Publishes the state of a event from the Homematic server to all bound
+     * items.
+     */
+    private void publishToOpenhab(final Event event) {
+        new ProviderItemIterator().iterate(event.getBindingConfig(), new ProviderItemIteratorCallback() {
+
+            @Override
+            public void next(HomematicBindingConfig providerBindingConfig, Item item, Converter<?> converter) {
+                State state = converter.convertFromBinding(event.getHmValueItem());
+                context.getEventPublisher().postUpdate(item.getName(), state);
+                if (state == OnOffType.ON) {
+                    executeBindingAction(providerBindingConfig);
+                    if (event.isPressValueItem()) {
+                        itemDisabler.add(providerBindingConfig);
+                    }
+                }
+            }
+        });
+    }
+
     /**
      * Called on startup or when some binding has changed, for example if a item
      * file is reloaded. Publishes the current States to openHAB.
@@ -267,7 +284,7 @@ public class HomematicCommunicator implements HomematicCallbackReceiver {
             } else {
                 try {
                     if (event.isStopLevelDatapoint()) {
-                        homematicClient.setDatapointValue((HmDatapoint) event.getHmValueItem(), "STOP", true);
+                        publisher.stop(event);
                     } else {
                         Converter<?> converter = context.getConverterFactory().createConverter(event.getItem(),
                                 event.getBindingConfig());
@@ -8,12 +8,17 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.openhab.binding.homematic.internal.common.HomematicContext;
+import org.openhab.binding.homematic.internal.communicator.client.DatapointValue;
 import org.openhab.binding.homematic.internal.communicator.client.HomematicClientException;
 import org.openhab.binding.homematic.internal.communicator.client.interfaces.HomematicClient;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
@@ -32,11 +37,13 @@ public class HomematicPublisher {
 
     private HomematicContext context = HomematicContext.getInstance();
     private Map<BindingConfig, Timer> delayedEvents = new HashMap<BindingConfig, Timer>();
+    private List<Event> pendingEvents = new ArrayList<Event>();
+    private ExecutorService sender;
 
     /**
      * Sends or delays a event to a Homematic server.
      */
-    public void execute(final Event event) throws HomematicClientException {
+    public void execute(final Event event) {
         double delay = event.getDelay();
         if (delay > 0.0) {
             synchronized (this) {
@@ -54,7 +61,7 @@ public class HomematicPublisher {
                     public void run() {
                         try {
                             delayedEvents.remove(event.getBindingConfig());
-                            sendToClient(event);
+                            send(event);
                         } catch (Exception ex) {
                             logger.error(ex.getMessage(), ex);
                         }
@@ -62,24 +69,110 @@ public class HomematicPublisher {
                 }, (long) (delay * 1000));
             }
         } else {
-            sendToClient(event);
+            send(event);
         }
 
     }
 
     /**
-     * Sends the event to a Homematic server.
+     * Sends a STOP to a RollerShutter after the events which have been queued
+     * before, a delayed event of the same item is cancelled.
      */
-    private void sendToClient(Event event) throws HomematicClientException {
-        logger.debug("Sending to Homematic server {}", event.getHmValueItem());
+    public void stop(Event event) {
+        synchronized (this) {
+            Timer timer = delayedEvents.remove(event.getBindingConfig());
+            if (timer != null) {
+                timer.cancel();
+            }
+        }
+        send(event);
+    }
+
+    /**
+     * Stops sending events, events which have not been sent yet are discarded.
+     */
+    public void shutdown() {
+        synchronized (pendingEvents) {
+            pendingEvents.clear();
+            if (sender != null) {
+                sender.shutdownNow();
+                sender = null;
+            }
+        }
+    }
+
+    /**
+     * Queues the event for sending. The events are sent by a single thread, all
+     * events which are queued while it is busy, e.g. the members of a group,
+     * are sent together with the next request.
+     */
+    private void send(Event event) {
+        if (!event.isStopLevelDatapoint()) {
+            event.getHmValueItem().setValue(event.getNewValue());
+        }
+        synchronized (pendingEvents) {
+            pendingEvents.add(event);
+            if (pendingEvents.size() == 1) {
+                if (sender == null) {
+                    sender = Executors.newSingleThreadExecutor();
+                }
+                sender.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        sendPendingEvents();
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Sends all queued events to the Homematic server.
+     */
+    private void sendPendingEvents() {
+        List<Event> events;
+        synchronized (pendingEvents) {
+            events = new ArrayList<Event>(pendingEvents);
+            pendingEvents.clear();
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            sendToClient(events);
+        } catch (Exception ex) {
+            logger.error(ex.getMessage(), ex);
+            context.getStateHolder().reloadDatapoints();
+            context.getStateHolder().reloadVariables();
+        }
+    }
+
+    /**
+     * Sends the events in order to a Homematic server, consecutive datapoint
+     * values are sent at once.
+     */
+    private void sendToClient(List<Event> events) throws HomematicClientException {
         HomematicClient client = context.getHomematicClient();
-        if (event.isVariable()) {
-            client.setVariable(event.getHmValueItem(), event.getNewValue());
-        } else {
-            client.setDatapointValue((HmDatapoint) event.getHmValueItem(), event.getHmValueItem().getName(),
-                    event.getNewValue());
+        List<DatapointValue> datapointValues = new ArrayList<DatapointValue>();
+        for (Event event : events) {
+            logger.debug("Sending to Homematic server {}", event.getHmValueItem());
+            if (event.isVariable()) {
+                if (!datapointValues.isEmpty()) {
+                    client.setDatapointValues(datapointValues);
+                    datapointValues.clear();
+                }
+                client.setVariable(event.getHmValueItem(), event.getNewValue());
+            } else if (event.isStopLevelDatapoint()) {
+                datapointValues.add(new DatapointValue((HmDatapoint) event.getHmValueItem(), "STOP", Boolean.TRUE));
+            } else {
+                HmDatapoint dp = (HmDatapoint) event.getHmValueItem();
+                datapointValues.add(new DatapointValue(dp, dp.getName(), event.getNewValue()));
+            }
         }
 
-        event.getHmValueItem().setValue(event.getNewValue());
+        if (!datapointValues.isEmpty()) {
+            client.setDatapointValues(datapointValues);
+        }
     }
 }
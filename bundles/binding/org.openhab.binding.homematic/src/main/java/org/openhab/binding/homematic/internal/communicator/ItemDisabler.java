@@ -8,11 +8,11 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Timer;
 import java.util.TimerTask;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.openhab.binding.homematic.internal.common.HomematicContext;
 import org.openhab.binding.homematic.internal.communicator.ProviderItemIterator.ProviderItemIteratorCallback;
@@ -44,7 +44,7 @@ public class ItemDisabler extends TimerTask {
 
     private HomematicContext context = HomematicContext.getInstance();
 
-    private Map<HomematicBindingConfig, Long> itemsToDisable = new HashMap<HomematicBindingConfig, Long>();
+    private Map<HomematicBindingConfig, Long> itemsToDisable = new ConcurrentHashMap<HomematicBindingConfig, Long>();
     private Timer timer;
 
     /**
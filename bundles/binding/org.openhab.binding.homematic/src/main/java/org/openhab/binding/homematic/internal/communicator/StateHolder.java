@@ -8,8 +8,8 @@
  */
 package org.openhab.binding.homematic.internal.communicator;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -41,10 +41,10 @@ public class StateHolder {
 
     private ExecutorService reloadExecutorPool;
 
-    private boolean datapointReloadInProgress = false;
-    private Map<HomematicBindingConfig, Object> refreshCache = new HashMap<HomematicBindingConfig, Object>();
-    private Map<HomematicBindingConfig, HmValueItem> datapoints = new HashMap<HomematicBindingConfig, HmValueItem>();
-    private Map<HomematicBindingConfig, HmValueItem> variables = new HashMap<HomematicBindingConfig, HmValueItem>();
+    private volatile boolean datapointReloadInProgress = false;
+    private Map<HomematicBindingConfig, Object> refreshCache = new ConcurrentHashMap<HomematicBindingConfig, Object>();
+    private Map<HomematicBindingConfig, HmValueItem> datapoints = new ConcurrentHashMap<HomematicBindingConfig, HmValueItem>();
+    private Map<HomematicBindingConfig, HmValueItem> variables = new ConcurrentHashMap<HomematicBindingConfig, HmValueItem>();
 
     public StateHolder(HomematicContext context) {
         this.context = context;
@@ -59,10 +59,13 @@ public class StateHolder {
 
     /**
      * A datapoint reload takes some seconds, this method is called when a event
-     * receives from the Homematic server during the reload.
+     * receives from the Homematic server during the reload. The events are
+     * received by several threads, therefore all caches are concurrent maps.
      */
     public void addToRefreshCache(HomematicBindingConfig bindingConfig, Object value) {
-        refreshCache.put(bindingConfig, value);
+        if (value != null) {
+            refreshCache.put(bindingConfig, value);
+        }
     }
 
     /**
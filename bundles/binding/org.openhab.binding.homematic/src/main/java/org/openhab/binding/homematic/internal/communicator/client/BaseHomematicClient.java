@@ -8,6 +8,9 @@
  */
 package org.openhab.binding.homematic.internal.communicator.client;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.lang.StringUtils;
 import org.apache.commons.lang.reflect.FieldUtils;
 import org.openhab.binding.homematic.internal.common.HomematicContext;
@@ -65,11 +68,41 @@ public abstract class BaseHomematicClient implements HomematicClient {
     public void setDatapointValue(HmDatapoint dp, String datapointName, Object value) throws HomematicClientException {
         HmInterface hmInterface = dp.getChannel().getDevice().getHmInterface();
         String address = dp.getChannel().getAddress();
-        if (dp.isIntegerValue() && value instanceof Double) {
-            value = ((Number) value).intValue();
+        rpcClient.setDatapointValue(hmInterface, address, datapointName, convertValue(dp, value));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDatapointValues(List<DatapointValue> values) throws HomematicClientException {
+        HmInterface currentInterface = null;
+        List<DatapointValue> interfaceValues = new ArrayList<DatapointValue>();
+        for (DatapointValue value : values) {
+            HmDatapoint dp = value.getDatapoint();
+            HmInterface hmInterface = dp.getChannel().getDevice().getHmInterface();
+            if (hmInterface != currentInterface && !interfaceValues.isEmpty()) {
+                rpcClient.setDatapointValues(currentInterface, interfaceValues);
+                interfaceValues = new ArrayList<DatapointValue>();
+            }
+            currentInterface = hmInterface;
+            interfaceValues.add(new DatapointValue(value.getAddress(), value.getDatapointName(),
+                    convertValue(dp, value.getValue())));
+        }
+
+        if (!interfaceValues.isEmpty()) {
+            rpcClient.setDatapointValues(currentInterface, interfaceValues);
         }
+    }
 
-        rpcClient.setDatapointValue(hmInterface, address, datapointName, value);
+    /**
+     * Converts the value to the type of the datapoint.
+     */
+    private Object convertValue(HmDatapoint dp, Object value) {
+        if (dp.isIntegerValue() && value instanceof Double) {
+            return ((Number) value).intValue();
+        }
+        return value;
     }
 
     /**
@@ -86,19 +119,21 @@ public abstract class BaseHomematicClient implements HomematicClient {
         logger.debug("Sending to remote control {}: {}", remoteControlAddress, rco);
 
         String address = remoteControlAddress + ":18";
+        List<DatapointValue> values = new ArrayList<DatapointValue>();
         if (StringUtils.isNotBlank(rco.getText())) {
-            rpcClient.setDatapointValue(getDefaultInterface(), address, "TEXT", rco.getText());
+            values.add(new DatapointValue(address, "TEXT", rco.getText()));
         }
 
-        rpcClient.setDatapointValue(getDefaultInterface(), address, "BEEP", rco.getBeep());
-        rpcClient.setDatapointValue(getDefaultInterface(), address, "UNIT", rco.getUnit());
-        rpcClient.setDatapointValue(getDefaultInterface(), address, "BACKLIGHT", rco.getBacklight());
+        values.add(new DatapointValue(address, "BEEP", rco.getBeep()));
+        values.add(new DatapointValue(address, "UNIT", rco.getUnit()));
+        values.add(new DatapointValue(address, "BACKLIGHT", rco.getBacklight()));
 
         for (String symbol : rco.getSymbols()) {
-            rpcClient.setDatapointValue(getDefaultInterface(), address, symbol, Boolean.TRUE);
+            values.add(new DatapointValue(address, symbol, Boolean.TRUE));
         }
 
-        rpcClient.setDatapointValue(getDefaultInterface(), address, "SUBMIT", Boolean.TRUE);
+        values.add(new DatapointValue(address, "SUBMIT", Boolean.TRUE));
+        rpcClient.setDatapointValues(getDefaultInterface(), values);
     }
 
     /**
@@ -10,13 +10,17 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.IOException;
 import java.net.ConnectException;
-import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.text.ParseException;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.binrpc.BinRpcRequest;
 import org.openhab.binding.homematic.internal.binrpc.BinRpcResponse;
 import org.openhab.binding.homematic.internal.common.HomematicContext;
+import org.openhab.binding.homematic.internal.communicator.client.BinRpcConnectionPool.Connection;
 import org.openhab.binding.homematic.internal.communicator.client.interfaces.RpcClient;
 import org.openhab.binding.homematic.internal.model.HmInterface;
 import org.openhab.binding.homematic.internal.model.HmRssiInfo;
@@ -33,8 +37,21 @@ import org.slf4j.LoggerFactory;
 public class BinRpcClient implements RpcClient {
     private final static Logger logger = LoggerFactory.getLogger(BinRpcClient.class);
     private final static boolean TRACE_ENABLED = logger.isTraceEnabled();
+    /** the XML-RPC fault code of a call to an unknown method */
+    private final static int FAULT_METHOD_NOT_FOUND = -32601;
 
     private HomematicContext context = HomematicContext.getInstance();
+    private BinRpcConnectionPool connectionPool;
+
+    public BinRpcClient() {
+    }
+
+    /**
+     * Creates a client which sends its requests over the given pool.
+     */
+    BinRpcClient(BinRpcConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+    }
 
     /**
      * {@inheritDoc}
@@ -48,8 +65,11 @@ public class BinRpcClient implements RpcClient {
      * {@inheritDoc}
      */
     @Override
-    public void shutdown() throws HomematicClientException {
-        // nothing todo
+    public synchronized void shutdown() throws HomematicClientException {
+        if (connectionPool != null) {
+            connectionPool.close();
+            connectionPool = null;
+        }
     }
 
     /**
@@ -160,6 +180,23 @@ public class BinRpcClient implements RpcClient {
         sendMessage(hmInterface, request);
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDatapointValues(HmInterface hmInterface, List<DatapointValue> values)
+            throws HomematicClientException {
+        List<BinRpcRequest> requests = new ArrayList<BinRpcRequest>();
+        for (DatapointValue value : values) {
+            BinRpcRequest request = new BinRpcRequest("setValue");
+            request.addArg(value.getAddress());
+            request.addArg(value.getDatapointName());
+            request.addArg(value.getValue());
+            requests.add(request);
+        }
+        multicall(hmInterface, requests);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -181,21 +218,78 @@ public class BinRpcClient implements RpcClient {
         sendMessage(hmInterface, request);
     }
 
+    /**
+     * Executes the requests in order with one system.multicall. Only if the
+     * Homematic server reports that it doesn't support system.multicall, the
+     * requests are sent one by one. Any other error is thrown, as the server
+     * may have executed the requests already.
+     */
+    private void multicall(HmInterface hmInterface, List<BinRpcRequest> requests) throws HomematicClientException {
+        if (requests.size() == 1) {
+            sendMessage(hmInterface, requests.get(0));
+            return;
+        } else if (requests.isEmpty()) {
+            return;
+        }
+
+        Object[] data;
+        try {
+            data = sendMessage(hmInterface, BinRpcRequest.createMulticall(requests));
+        } catch (HomematicClientException ex) {
+            if (!isUnknownMethodFault(ex.getCause())) {
+                throw ex;
+            }
+            logger.debug("Interface {} doesn't support multicalls, sending {} requests one by one: {}", hmInterface,
+                    requests.size(), ex.getMessage());
+            for (BinRpcRequest request : requests) {
+                sendMessage(hmInterface, request);
+            }
+            return;
+        }
+
+        if (data != null && data[0] instanceof Object[]) {
+            Object[] results = (Object[]) data[0];
+            StringBuilder faults = new StringBuilder();
+            for (int i = 0; i < results.length && i < requests.size(); i++) {
+                if (results[i] instanceof Map) {
+                    Map<?, ?> fault = (Map<?, ?>) results[i];
+                    faults.append(faults.length() > 0 ? ", " : "").append(fault.get("faultCode")).append(' ')
+                            .append(fault.get("faultString")).append(" (sending ").append(requests.get(i)).append(')');
+                }
+            }
+            if (faults.length() > 0) {
+                throw new HomematicClientException(faults.toString());
+            }
+        }
+    }
+
+    /**
+     * Returns true if the cause is a fault of the Homematic server saying
+     * that the called method is not supported.
+     */
+    private boolean isUnknownMethodFault(Throwable cause) {
+        if (!(cause instanceof FaultException)) {
+            return false;
+        }
+        FaultException fault = (FaultException) cause;
+        if (fault.faultCode instanceof Number && ((Number) fault.faultCode).intValue() == FAULT_METHOD_NOT_FOUND) {
+            return true;
+        }
+        String faultString = String.valueOf(fault.faultString).toLowerCase();
+        return faultString.contains("unknown method") || faultString.contains("method not found")
+                || faultString.contains("system.multicall");
+    }
+
     /**
      * Sends a BIN-RPC message and parses the response to see if there was an
      * error.
      */
-    private synchronized Object[] sendMessage(HmInterface hmInterface, BinRpcRequest request)
-            throws HomematicClientException {
-        Socket socket = null;
+    private Object[] sendMessage(HmInterface hmInterface, BinRpcRequest request) throws HomematicClientException {
         try {
             if (TRACE_ENABLED) {
                 logger.trace("Client BinRpcRequest {}", request);
             }
-            socket = new Socket(context.getConfig().getHost(), hmInterface.getPort());
-            socket.setSoTimeout(context.getConfig().getTimeout() * 1000);
-            socket.getOutputStream().write(request.createMessage());
-            BinRpcResponse resp = new BinRpcResponse(socket.getInputStream(), false);
+            BinRpcResponse resp = send(hmInterface, request);
 
             if (TRACE_ENABLED) {
                 logger.trace("Client BinRpcResponse: {}", resp.toString());
@@ -207,9 +301,7 @@ public class BinRpcClient implements RpcClient {
                     @SuppressWarnings("unchecked")
                     Map<String, Object> map = (Map<String, Object>) responseData;
                     if (map.containsKey("faultCode")) {
-                        Object faultCode = map.get("faultCode");
-                        Object faultString = map.get("faultString");
-                        throw new IOException(faultCode + " " + faultString);
+                        throw new FaultException(map.get("faultCode"), map.get("faultString"));
                     }
                 }
                 return data;
@@ -224,15 +316,60 @@ public class BinRpcClient implements RpcClient {
                     cex);
         } catch (Exception ex) {
             throw new HomematicClientException(ex.getMessage() + " (sending " + request + ")", ex);
-        } finally {
+        }
+    }
+
+    /**
+     * Sends the request over a pooled connection. If a kept-alive connection
+     * has been closed by the Homematic server in the meantime, the request is
+     * sent again over another connection.
+     */
+    private BinRpcResponse send(HmInterface hmInterface, BinRpcRequest request) throws IOException, ParseException {
+        BinRpcConnectionPool pool = getConnectionPool();
+        while (true) {
+            Connection connection = pool.acquire(hmInterface.getPort());
+            boolean reusable = false;
             try {
-                if (socket != null) {
-                    socket.close();
-                }
+                BinRpcResponse response = connection.send(request);
+                reusable = true;
+                return response;
             } catch (IOException ex) {
-                // ignore
+                if (!connection.isReused() || ex instanceof SocketTimeoutException) {
+                    throw ex;
+                }
+                logger.debug("Kept-alive connection to interface {} has been closed, reconnecting", hmInterface);
+            } finally {
+                pool.release(connection, reusable);
             }
         }
     }
 
+    /**
+     * Returns the connection pool, it is created with the first request.
+     */
+    private synchronized BinRpcConnectionPool getConnectionPool() {
+        if (connectionPool == null) {
+            connectionPool = new BinRpcConnectionPool(context.getConfig().getHost(),
+                    context.getConfig().getTimeout() * 1000, BinRpcConnectionPool.DEFAULT_MAX_CONNECTIONS,
+                    BinRpcConnectionPool.DEFAULT_MAX_IDLE_TIME);
+        }
+        return connectionPool;
+    }
+
+    /**
+     * A fault returned by the Homematic server.
+     */
+    private static class FaultException extends IOException {
+        private static final long serialVersionUID = 4183457028512870315L;
+
+        private final Object faultCode;
+        private final Object faultString;
+
+        public FaultException(Object faultCode, Object faultString) {
+            super(faultCode + " " + faultString);
+            this.faultCode = faultCode;
+            this.faultString = faultString;
+        }
+    }
+
 }
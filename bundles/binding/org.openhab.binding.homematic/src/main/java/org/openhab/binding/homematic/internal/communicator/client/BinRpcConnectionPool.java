@@ -0,0 +1,237 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openhab.binding.homematic.internal.binrpc.BinRpcRequest;
+import org.openhab.binding.homematic.internal.binrpc.BinRpcResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps a small number of BIN-RPC connections per port of the Homematic
+ * server open, so that consecutive requests don't pay a TCP handshake each.
+ * Idle connections are closed after a while, because the Homematic server
+ * may drop them silently.
+ *
+ * @since 1.9.0
+ */
+public class BinRpcConnectionPool {
+    private static final Logger logger = LoggerFactory.getLogger(BinRpcConnectionPool.class);
+
+    public static final int DEFAULT_MAX_CONNECTIONS = 3;
+    public static final long DEFAULT_MAX_IDLE_TIME = 10000;
+
+    private final String host;
+    private final int timeout;
+    private final int maxConnections;
+    private final long maxIdleTime;
+
+    private final Map<Integer, PortPool> pools = new HashMap<Integer, PortPool>();
+    private boolean closed;
+
+    /**
+     * Creates a pool for the connections to the host.
+     *
+     * @param host the Homematic server
+     * @param timeout the connect and read timeout in milliseconds
+     * @param maxConnections the maximum number of connections per port
+     * @param maxIdleTime the time in milliseconds after which idle connections are closed
+     */
+    public BinRpcConnectionPool(String host, int timeout, int maxConnections, long maxIdleTime) {
+        this.host = host;
+        this.timeout = timeout;
+        this.maxConnections = maxConnections;
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    /**
+     * Returns an idle connection to the port or opens a new one. Blocks until
+     * a connection is available if the maximum number of connections to the
+     * port is in use. Every acquired connection must be released afterwards.
+     */
+    public Connection acquire(int port) throws IOException {
+        PortPool pool = getPool(port);
+        try {
+            if (!pool.permits.tryAcquire(timeout, TimeUnit.MILLISECONDS)) {
+                throw new SocketTimeoutException("No BIN-RPC connection to " + host + ":" + port + " available");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for a BIN-RPC connection");
+        }
+
+        Connection connection = pool.pollIdle();
+        if (connection == null) {
+            try {
+                connection = new Connection(port, createSocket(port));
+            } catch (IOException ex) {
+                pool.permits.release();
+                throw ex;
+            } catch (RuntimeException ex) {
+                pool.permits.release();
+                throw ex;
+            }
+        }
+        return connection;
+    }
+
+    /**
+     * Returns the connection to the pool. Connections which are not reusable,
+     * e.g. because a request failed, are closed.
+     */
+    public void release(Connection connection, boolean reusable) {
+        PortPool pool = getPool(connection.port);
+        synchronized (this) {
+            if (!reusable || closed) {
+                connection.close();
+            } else {
+                pool.offerIdle(connection);
+            }
+        }
+        pool.permits.release();
+    }
+
+    /**
+     * Closes all idle connections, connections in use are closed when they
+     * are released.
+     */
+    public synchronized void close() {
+        closed = true;
+        for (PortPool pool : pools.values()) {
+            pool.closeIdle();
+        }
+        pools.clear();
+    }
+
+    /**
+     * Opens a new socket to the port of the Homematic server.
+     */
+    protected Socket createSocket(int port) throws IOException {
+        Socket socket = new Socket();
+        try {
+            socket.setTcpNoDelay(true);
+            socket.setKeepAlive(true);
+            socket.setSoTimeout(timeout);
+            socket.connect(new InetSocketAddress(host, port), timeout);
+            return socket;
+        } catch (IOException ex) {
+            socket.close();
+            throw ex;
+        }
+    }
+
+    private synchronized PortPool getPool(int port) {
+        PortPool pool = pools.get(port);
+        if (pool == null) {
+            pool = new PortPool();
+            pools.put(port, pool);
+        }
+        return pool;
+    }
+
+    /**
+     * The idle connections to one port of the Homematic server.
+     */
+    private class PortPool {
+        private final Semaphore permits = new Semaphore(maxConnections, true);
+        private final Deque<Connection> idle = new ArrayDeque<Connection>();
+
+        /**
+         * Returns the most recently used idle connection, expired ones are
+         * closed.
+         */
+        private Connection pollIdle() {
+            synchronized (BinRpcConnectionPool.this) {
+                long now = System.currentTimeMillis();
+                Connection connection;
+                while ((connection = idle.pollFirst()) != null) {
+                    if (now - connection.lastUsed < maxIdleTime) {
+                        connection.reused = true;
+                        return connection;
+                    }
+                    connection.close();
+                }
+                return null;
+            }
+        }
+
+        private void offerIdle(Connection connection) {
+            connection.lastUsed = System.currentTimeMillis();
+            idle.offerFirst(connection);
+        }
+
+        private void closeIdle() {
+            Connection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                connection.close();
+            }
+        }
+    }
+
+    /**
+     * A kept-alive BIN-RPC connection to the Homematic server.
+     */
+    public static class Connection {
+        private final int port;
+        private final Socket socket;
+        private final InputStream in;
+        private final OutputStream out;
+        private long lastUsed;
+        private boolean reused;
+
+        private Connection(int port, Socket socket) throws IOException {
+            this.port = port;
+            this.socket = socket;
+            this.in = new BufferedInputStream(socket.getInputStream());
+            this.out = socket.getOutputStream();
+        }
+
+        /**
+         * Sends the request and reads the response.
+         */
+        public BinRpcResponse send(BinRpcRequest request) throws IOException, ParseException {
+            request.writeTo(out);
+            out.flush();
+            return new BinRpcResponse(in, false);
+        }
+
+        /**
+         * Returns true, if the connection has been used for a previous request.
+         * The Homematic server may have closed such a connection in the
+         * meantime.
+         */
+        public boolean isReused() {
+            return reused;
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ex) {
+                logger.trace("Error closing BIN-RPC connection: {}", ex.getMessage());
+            }
+        }
+    }
+}
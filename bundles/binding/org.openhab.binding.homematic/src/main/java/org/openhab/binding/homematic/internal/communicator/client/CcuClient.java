@@ -10,6 +10,7 @@ package org.openhab.binding.homematic.internal.communicator.client;
 
 import java.io.InputStream;
 import java.io.StringReader;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -231,6 +232,26 @@ public class CcuClient extends BaseHomematicClient {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void setDatapointValues(List<DatapointValue> values) throws HomematicClientException {
+        List<DatapointValue> rpcValues = new ArrayList<DatapointValue>();
+        for (DatapointValue value : values) {
+            HmDatapoint dp = value.getDatapoint();
+            if (dp.getChannel().getDevice().getHmInterface() == HmInterface.VIRTUALDEVICES) {
+                // send the values before in order, virtual groups are set with a script
+                super.setDatapointValues(rpcValues);
+                rpcValues.clear();
+                setDatapointValue(dp, value.getDatapointName(), value.getValue());
+            } else {
+                rpcValues.add(value);
+            }
+        }
+        super.setDatapointValues(rpcValues);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.homematic.internal.communicator.client;
+
+import org.apache.commons.lang.builder.ToStringBuilder;
+import org.apache.commons.lang.builder.ToStringStyle;
+import org.openhab.binding.homematic.internal.model.HmDatapoint;
+
+/**
+ * A value to be written to a datapoint of a channel. Lists of values are sent
+ * in order, a datapoint may occur several times.
+ *
+ * @since 1.9.0
+ */
+public class DatapointValue {
+    private HmDatapoint datapoint;
+    private String address;
+    private String datapointName;
+    private Object value;
+
+    /**
+     * Creates a value for the datapoint, the name may differ from the name of
+     * the datapoint, e.g. STOP for a LEVEL datapoint.
+     */
+    public DatapointValue(HmDatapoint datapoint, String datapointName, Object value) {
+        this(datapoint.getChannel().getAddress(), datapointName, value);
+        this.datapoint = datapoint;
+    }
+
+    /**
+     * Creates a value for the datapoint of the channel address.
+     */
+    public DatapointValue(String address, String datapointName, Object value) {
+        this.address = address;
+        this.datapointName = datapointName;
+        this.value = value;
+    }
+
+    /**
+     * Returns the datapoint or null, if the value has been created for a
+     * channel address.
+     */
+    public HmDatapoint getDatapoint() {
+        return datapoint;
+    }
+
+    /**
+     * Returns the address of the channel.
+     */
+    public String getAddress() {
+        return address;
+    }
+
+    /**
+     * Returns the name of the datapoint to write.
+     */
+    public String getDatapointName() {
+        return datapointName;
+    }
+
+    /**
+     * Returns the value to write.
+     */
+    public Object getValue() {
+        return value;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this, ToStringStyle.SHORT_PREFIX_STYLE).append("address", address)
+                .append("parameter", datapointName).append("value", value).toString();
+    }
+}
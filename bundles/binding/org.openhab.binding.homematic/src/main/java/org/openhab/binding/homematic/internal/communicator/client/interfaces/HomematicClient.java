@@ -8,9 +8,11 @@
  */
 package org.openhab.binding.homematic.internal.communicator.client.interfaces;
 
+import java.util.List;
 import java.util.Map;
 
 import org.openhab.binding.homematic.internal.communicator.client.BaseHomematicClient.HmValueItemIteratorCallback;
+import org.openhab.binding.homematic.internal.communicator.client.DatapointValue;
 import org.openhab.binding.homematic.internal.communicator.client.HomematicClientException;
 import org.openhab.binding.homematic.internal.model.HmDatapoint;
 import org.openhab.binding.homematic.internal.model.HmInterface;
@@ -45,6 +47,12 @@ public interface HomematicClient {
      */
     public void setDatapointValue(HmDatapoint dp, String datapointName, Object value) throws HomematicClientException;
 
+    /**
+     * Sets the values of several datapoints in list order. Consecutive values
+     * of the same interface are sent with one request.
+     */
+    public void setDatapointValues(List<DatapointValue> values) throws HomematicClientException;
+
     /**
      * Register a callback where the Homematic server can send its events.
      */
@@ -8,8 +8,10 @@
  */
 package org.openhab.binding.homematic.internal.communicator.client.interfaces;
 
+import java.util.List;
 import java.util.Map;
 
+import org.openhab.binding.homematic.internal.communicator.client.DatapointValue;
 import org.openhab.binding.homematic.internal.communicator.client.HomematicClientException;
 import org.openhab.binding.homematic.internal.communicator.client.ServerId;
 import org.openhab.binding.homematic.internal.model.HmInterface;
@@ -39,6 +41,14 @@ public interface RpcClient {
     public void setDatapointValue(HmInterface hmInterface, String address, String datapointName, Object value)
             throws HomematicClientException;
 
+    /**
+     * Sets the values of several datapoints of an interface with one request.
+     * The values are set in list order, the same datapoint may be set several
+     * times.
+     */
+    public void setDatapointValues(HmInterface hmInterface, List<DatapointValue> values)
+            throws HomematicClientException;
+
     /**
      * Register a callback for the specified interface where the Homematic
      * server can send its events.
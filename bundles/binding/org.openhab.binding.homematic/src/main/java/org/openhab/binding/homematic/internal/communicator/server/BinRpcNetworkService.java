@@ -11,18 +11,25 @@ package org.openhab.binding.homematic.internal.communicator.server;
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openhab.binding.homematic.internal.common.HomematicConfig;
 import org.openhab.binding.homematic.internal.common.HomematicContext;
 import org.openhab.binding.homematic.internal.communicator.HomematicCallbackReceiver;
+import org.openhab.core.service.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * Waits for a message from the Homematic server and starts the
- * BinRpcCallbackHandler to handle the message.
+ * BinRpcCallbackHandler to handle the message. The handlers run in a bounded
+ * pool, if all threads are busy and the queue is full, the accepting thread
+ * handles the message itself and the Homematic server has to wait.
  *
  * @author Gerhard Riegler
  * @since 1.5.0
@@ -30,8 +37,16 @@ import org.slf4j.LoggerFactory;
 public class BinRpcNetworkService implements Runnable {
     private static final Logger logger = LoggerFactory.getLogger(BinRpcNetworkService.class);
 
+    private static final int MAX_CALLBACK_THREADS = 8;
+    private static final int MAX_QUEUED_CALLBACKS = 1000;
+
+    private static final String CALLBACK_METRIC = "homematic.callbacks";
+    private static final String QUEUE_METRIC = "homematic.callbacks.queue";
+    private static final String ACTIVE_METRIC = "homematic.callbacks.active";
+    private static final String THROTTLED_METRIC = "homematic.callbacks.throttled";
+
     private ServerSocket serverSocket;
-    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final ThreadPoolExecutor pool;
     private boolean accept = true;
     private HomematicCallbackReceiver callbackReceiver;
 
@@ -44,6 +59,33 @@ public class BinRpcNetworkService implements Runnable {
         HomematicConfig config = HomematicContext.getInstance().getConfig();
         serverSocket = new ServerSocket(config.getCallbackPort());
         serverSocket.setReuseAddress(true);
+
+        pool = new ThreadPoolExecutor(MAX_CALLBACK_THREADS, MAX_CALLBACK_THREADS, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(MAX_QUEUED_CALLBACKS), new CallbackThreadFactory(),
+                new RejectedExecutionHandler() {
+
+                    @Override
+                    public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+                        if (!executor.isShutdown()) {
+                            MetricsRegistry.getInstance().mark(THROTTLED_METRIC);
+                            r.run();
+                        }
+                    }
+                });
+        pool.allowCoreThreadTimeOut(true);
+
+        MetricsRegistry.getInstance().registerGauge(QUEUE_METRIC, new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return pool.getQueue().size();
+            }
+        });
+        MetricsRegistry.getInstance().registerGauge(ACTIVE_METRIC, new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return pool.getActiveCount();
+            }
+        });
     }
 
     /**
@@ -54,8 +96,16 @@ public class BinRpcNetworkService implements Runnable {
         while (accept) {
             try {
                 Socket cs = serverSocket.accept();
-                BinRpcCallbackHandler rpcHandler = new BinRpcCallbackHandler(cs, callbackReceiver);
-                pool.execute(rpcHandler);
+                final BinRpcCallbackHandler rpcHandler = new BinRpcCallbackHandler(cs, callbackReceiver);
+                pool.execute(new Runnable() {
+
+                    @Override
+                    public void run() {
+                        long start = System.nanoTime();
+                        rpcHandler.run();
+                        MetricsRegistry.getInstance().record(CALLBACK_METRIC, System.nanoTime() - start);
+                    }
+                });
             } catch (IOException ex) {
                 // ignore
             }
@@ -74,6 +124,22 @@ public class BinRpcNetworkService implements Runnable {
             // ignore
         }
         pool.shutdownNow();
+        MetricsRegistry.getInstance().unregisterGauge(QUEUE_METRIC);
+        MetricsRegistry.getInstance().unregisterGauge(ACTIVE_METRIC);
+    }
+
+    /**
+     * Creates named daemon threads for the callback handlers.
+     */
+    private static class CallbackThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "Homematic callback " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 
 }
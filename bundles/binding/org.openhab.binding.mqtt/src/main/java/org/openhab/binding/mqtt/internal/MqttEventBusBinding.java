@@ -120,6 +120,15 @@ public class MqttEventBusBinding extends AbstractBinding<MqttBindingProvider>imp
         return itemName;
     }
 
+    /**
+     * The event bus is published for all items, not only for those with an
+     * mqtt binding.
+     */
+    @Override
+    protected boolean isEventRoutingEnabled() {
+        return false;
+    }
+
     @Override
     public void receiveUpdate(String itemName, State newState) {
         if (newState == null || statePublisher == null || !statePublisher.isActivated()) {
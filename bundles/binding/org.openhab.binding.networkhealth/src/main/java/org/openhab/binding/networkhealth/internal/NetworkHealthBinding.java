@@ -10,13 +10,29 @@ package org.openhab.binding.networkhealth.internal;
 
 import java.io.IOException;
 import java.net.SocketTimeoutException;
+import java.util.ArrayList;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.openhab.binding.networkhealth.NetworkHealthBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.UnDefType;
 import org.openhab.io.net.actions.Ping;
 import org.osgi.service.cm.ConfigurationException;
 import org.osgi.service.cm.ManagedService;
@@ -26,7 +42,10 @@ import org.slf4j.LoggerFactory;
 /**
  * The RefreshService polls all configured hostnames with a configurable
  * interval and post all values to the internal event bus. The interval is 1
- * minute by default and can be changed via openhab.cfg.
+ * minute by default and can be changed via openhab.cfg. The hosts are checked
+ * concurrently, every host and port is checked once per interval even if it
+ * is bound to several items. Number items receive the round-trip time in
+ * milliseconds.
  *
  * @author Thomas.Eichstaedt-Engelen
  * @author Kai Kreuzer
@@ -48,8 +67,19 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
     /** If {@link #cachePeriod} is larger than 0, this field holds the time of the last cache purge. */
     private long lastCachePurge = System.currentTimeMillis();
 
-    /** Cached state of all devices for which a binding exists. */
-    private final Map<String, Boolean> cachedStates = new HashMap<String, Boolean>();
+    /** Cached state of all checks for which a binding exists. */
+    private final Map<VitalityCheck, Boolean> cachedStates = new HashMap<VitalityCheck, Boolean>();
+
+    /** the maximum number of hosts which are checked at the same time (defaults to 10) */
+    private int maxParallel = 10;
+
+    private ExecutorService executor;
+
+    @Override
+    public void deactivate() {
+        super.deactivate();
+        shutdownExecutor();
+    }
 
     @Override
     protected String getName() {
@@ -66,34 +96,63 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
      */
     @Override
     public void execute() {
+        // items bound to the same host, port and timeout share one check
+        Map<VitalityCheck, List<String>> checks = new LinkedHashMap<VitalityCheck, List<String>>();
+        Map<String, Class<? extends Item>> itemTypes = new HashMap<String, Class<? extends Item>>();
         for (NetworkHealthBindingProvider provider : providers) {
             for (String itemName : provider.getItemNames()) {
-
-                String hostname = provider.getHostname(itemName);
-                int port = provider.getPort(itemName);
-
-                if (provider.getTimeout(itemName) > 0) {
-                    timeout = provider.getTimeout(itemName);
+                int itemTimeout = provider.getTimeout(itemName) > 0 ? provider.getTimeout(itemName) : timeout;
+                VitalityCheck check = new VitalityCheck(provider.getHostname(itemName), provider.getPort(itemName),
+                        itemTimeout);
+                List<String> itemNames = checks.get(check);
+                if (itemNames == null) {
+                    itemNames = new ArrayList<String>();
+                    checks.put(check, itemNames);
                 }
+                itemNames.add(itemName);
+                itemTypes.put(itemName, provider.getItemType(itemName));
+            }
+        }
+        if (checks.isEmpty()) {
+            return;
+        }
 
-                boolean success = false;
+        List<VitalityCheck> tasks = new ArrayList<VitalityCheck>(checks.keySet());
+        List<Future<Long>> results;
+        try {
+            results = getExecutor().invokeAll(tasks, refreshInterval, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
 
-                try {
-                    success = Ping.checkVitality(hostname, port, timeout);
+        for (int i = 0; i < tasks.size(); i++) {
+            VitalityCheck check = tasks.get(i);
+            Long roundTripTime = null;
+            try {
+                roundTripTime = results.get(i).get();
+            } catch (CancellationException e) {
+                logger.debug("check of host '{}' port '{}' didn't finish within the refresh interval",
+                        check.hostname, check.port);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                logger.debug("check of host '{}' port '{}' failed: {}",
+                        new Object[] { check.hostname, check.port, e.getCause() });
+            }
+            boolean success = roundTripTime != null;
 
-                    logger.debug("established connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                } catch (SocketTimeoutException se) {
-                    logger.debug("timed out while connecting to host '{}' port '{}' timeout '{}'",
-                            new Object[] { hostname, port, timeout });
-                } catch (IOException ioe) {
-                    logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
-                            new Object[] { hostname, port, timeout });
-                }
-                if (eventPublisher != null) {
+            if (eventPublisher != null) {
 
-                    // check cached state and update only if state differs
-                    if (shouldPostUpdate(hostname, port, success)) {
+                // check cached state and update switches only if state differs
+                boolean stateChanged = shouldPostUpdate(check, success);
+                for (String itemName : checks.get(check)) {
+                    Class<? extends Item> itemType = itemTypes.get(itemName);
+                    if (itemType != null && NumberItem.class.isAssignableFrom(itemType)) {
+                        // the round-trip time changes with every check
+                        eventPublisher.postUpdate(itemName, success ? new DecimalType(roundTripTime) : UnDefType.UNDEF);
+                    } else if (stateChanged) {
                         eventPublisher.postUpdate(itemName, success ? OnOffType.ON : OnOffType.OFF);
                     }
                 }
@@ -101,20 +160,32 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
         }
     }
 
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null) {
+            executor = Executors.newFixedThreadPool(maxParallel, new CheckThreadFactory());
+        }
+        return executor;
+    }
+
+    private synchronized void shutdownExecutor() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
     /**
      * Whether or not to post the new state to the event bus.
      * 
-     * @param hostname
-     *            The hostname that was checked.
-     * @param port
-     *            The port.
+     * @param check
+     *            The check of the host, port and timeout.
      * @param newState
      *            The state whether the host is reachable or not.
      * @return <code>true</code> if the event changed or it is not cached;
      *         <code>false</code> if the state is already cached and did not
      *         change.
      */
-    private boolean shouldPostUpdate(String hostname, int port, boolean newState) {
+    private boolean shouldPostUpdate(VitalityCheck check, boolean newState) {
         if (cachePeriod <= 0) {
             return true; // caching disabled
         }
@@ -127,9 +198,9 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
         }
         // post update only if state changed (and caching is enabled) to avoid
         // spamming the bus
-        final Boolean cachedState = cachedStates.get(hostname + port);
+        final Boolean cachedState = cachedStates.get(check);
         if (cachedState == null || newState != cachedState.booleanValue()) {
-            cachedStates.put(hostname + port, newState);
+            cachedStates.put(check, newState);
             return true;
         }
         return false;
@@ -157,8 +228,77 @@ public class NetworkHealthBinding extends AbstractActiveBinding<NetworkHealthBin
             if (cachePeriodString != null && !cachePeriodString.isEmpty()) {
                 cachePeriod = Integer.parseInt(cachePeriodString);
             }
+
+            String maxParallelString = (String) config.get("maxParallel");
+            if (maxParallelString != null && !maxParallelString.isEmpty()) {
+                maxParallel = Math.max(1, Integer.parseInt(maxParallelString));
+                shutdownExecutor();
+            }
         }
         setProperlyConfigured(true);
     }
 
+    /**
+     * Checks the vitality of a host and port, the result is the round-trip
+     * time in milliseconds or <code>null</code> if the host is not reachable.
+     */
+    private static class VitalityCheck implements Callable<Long> {
+        private final String hostname;
+        private final int port;
+        private final int timeout;
+
+        public VitalityCheck(String hostname, int port, int timeout) {
+            this.hostname = hostname;
+            this.port = port;
+            this.timeout = timeout;
+        }
+
+        @Override
+        public Long call() {
+            long start = System.nanoTime();
+            try {
+                if (Ping.checkVitality(hostname, port, timeout)) {
+                    logger.debug("established connection [host '{}' port '{}' timeout '{}']",
+                            new Object[] { hostname, port, timeout });
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+            } catch (SocketTimeoutException se) {
+                logger.debug("timed out while connecting to host '{}' port '{}' timeout '{}'",
+                        new Object[] { hostname, port, timeout });
+            } catch (IOException ioe) {
+                logger.debug("couldn't establish network connection [host '{}' port '{}' timeout '{}']",
+                        new Object[] { hostname, port, timeout });
+            }
+            return null;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = hostname != null ? hostname.hashCode() : 0;
+            result = 31 * result + port;
+            return 31 * result + timeout;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof VitalityCheck)) {
+                return false;
+            }
+            VitalityCheck other = (VitalityCheck) obj;
+            return port == other.port && timeout == other.timeout
+                    && (hostname == null ? other.hostname == null : hostname.equals(other.hostname));
+        }
+    }
+
+    private static class CheckThreadFactory implements ThreadFactory {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, "NetworkHealth check " + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
 }
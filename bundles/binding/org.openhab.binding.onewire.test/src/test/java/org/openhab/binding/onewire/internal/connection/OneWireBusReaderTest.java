@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
+import org.openhab.binding.onewire.internal.deviceproperties.OneWireDevicePropertyNumberBindingConfig;
+import org.openhab.binding.onewire.internal.deviceproperties.OneWireDevicePropertySwitchBindingConfig;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.Type;
+import org.openhab.model.item.binding.BindingConfigParseException;
+
+/**
+ * Tests the {@link OneWireBusReader} and the connection pool of
+ * {@link OneWireConnection} against a local {@link OwserverStandIn}.
+ *
+ * @since 1.9.0
+ */
+public class OneWireBusReaderTest {
+
+    private static final int MAX_CONNECTIONS = 2;
+
+    private OwserverStandIn owserver;
+    private OneWireBusReader reader;
+
+    @Before
+    public void setup() throws Exception {
+        owserver = new OwserverStandIn();
+        owserver.start();
+        configure(false);
+
+        reader = new OneWireBusReader();
+        reader.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        reader.stop();
+        owserver.stop();
+    }
+
+    @Test
+    public void testConnectionsAreReused() throws Exception {
+        List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        for (int i = 1; i <= 4; i++) {
+            addDevice("28.00000000000" + i, "temperature", "2" + i);
+            addDevice("28.00000000000" + i, "humidity", "5" + i);
+            bindingConfigs.add(number("28.00000000000" + i, "temperature"));
+            bindingConfigs.add(number("28.00000000000" + i, "humidity"));
+        }
+
+        for (int batch = 0; batch < 3; batch++) {
+            Map<AbstractOneWireDevicePropertyBindingConfig, String> values = reader.read(bindingConfigs);
+            assertEquals(8, values.size());
+            assertEquals("21", values.get(bindingConfigs.get(0)));
+            assertEquals("54", values.get(bindingConfigs.get(7)));
+        }
+
+        // the connection opened by the configuration is reused as well
+        assertTrue(owserver.getAcceptedConnections() <= MAX_CONNECTIONS);
+        assertTrue(owserver.getMaxOpenConnections() <= MAX_CONNECTIONS);
+    }
+
+    @Test
+    public void testBrokenConnectionsAreEvicted() throws Exception {
+        addDevice("28.000000000001", "temperature", "21");
+        AbstractOneWireDevicePropertyBindingConfig bindingConfig = number("28.000000000001", "temperature");
+        List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        bindingConfigs.add(bindingConfig);
+        assertEquals("21", reader.read(bindingConfigs).get(bindingConfig));
+        int accepted = owserver.getAcceptedConnections();
+
+        // the pooled connections fail on their next request and are replaced
+        owserver.closeConnections();
+        owserver.setValue("28.000000000001/temperature", "22");
+        assertEquals("22", reader.read(bindingConfigs).get(bindingConfig));
+        assertTrue(owserver.getAcceptedConnections() > accepted);
+
+        // the new connection is kept in the pool
+        accepted = owserver.getAcceptedConnections();
+        assertEquals("22", reader.read(bindingConfigs).get(bindingConfig));
+        assertEquals(accepted, owserver.getAcceptedConnections());
+    }
+
+    @Test
+    public void testReadsAreGroupedPerDevice() throws Exception {
+        addDevice("26.000000000001", "temperature", "21.5");
+        addDevice("26.000000000001", "humidity", "48");
+        addDevice("26.000000000001", "VAD", "4.9");
+        addDevice("28.000000000002", "temperature", "19");
+        List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        bindingConfigs.add(number("26.000000000001", "temperature"));
+        bindingConfigs.add(number("28.000000000002", "temperature"));
+        bindingConfigs.add(number("26.000000000001", "humidity"));
+        // the uncached path addresses the same device
+        bindingConfigs.add(number("uncached/26.000000000001", "VAD"));
+        owserver.clearRequests();
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> values = reader.read(bindingConfigs);
+
+        assertEquals("21.5", values.get(bindingConfigs.get(0)));
+        assertEquals("19", values.get(bindingConfigs.get(1)));
+        assertEquals("48", values.get(bindingConfigs.get(2)));
+        assertEquals("4.9", values.get(bindingConfigs.get(3)));
+        assertEquals(1, owserver.count("PRESENCE 26.000000000001"));
+        assertEquals(1, owserver.count("PRESENCE 28.000000000002"));
+        assertEquals(1, owserver.count("READ uncached/26.000000000001/VAD"));
+        assertEquals(6, owserver.getRequests().size());
+    }
+
+    @Test
+    public void testSimultaneousConversion() throws Exception {
+        configure(true);
+        addDevice("28.000000000001", "temperature", "21");
+        addDevice("28.000000000002", "temperature", "22");
+        List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        bindingConfigs.add(number("28.000000000001", "temperature"));
+        bindingConfigs.add(number("28.000000000002", "temperature"));
+        owserver.clearRequests();
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> values = reader.read(bindingConfigs);
+
+        assertEquals("21", values.get(bindingConfigs.get(0)));
+        assertEquals("22", values.get(bindingConfigs.get(1)));
+        assertEquals("1", owserver.getValue("simultaneous/temperature"));
+        assertEquals("WRITE simultaneous/temperature", owserver.getRequests().get(0));
+        // the temperatures converted at once mustn't be read from the cache
+        assertEquals(1, owserver.count("READ uncached/28.000000000001/temperature"));
+        assertEquals(1, owserver.count("READ uncached/28.000000000002/temperature"));
+    }
+
+    @Test
+    public void testValueConversion() throws Exception {
+        addDevice("28.000000000001", "temperature", "21.5");
+        addDevice("28.000000000002", "temperature", "85");
+        addDevice("29.000000000003", "sensed.0", "1");
+        List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        bindingConfigs.add(new OneWireDevicePropertyNumberBindingConfig(
+                "deviceId=28.000000000001;propertyName=temperature;add=0.5;multiply=2"));
+        bindingConfigs.add(new OneWireDevicePropertyNumberBindingConfig(
+                "deviceId=28.000000000002;propertyName=temperature;ignore85CPowerOnResetValues"));
+        bindingConfigs.add(new OneWireDevicePropertySwitchBindingConfig(
+                "deviceId=29.000000000003;propertyName=sensed.0;invert"));
+        owserver.clearRequests();
+
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> values = reader.read(bindingConfigs);
+
+        assertEquals(new DecimalType("44"), convert(bindingConfigs.get(0), values));
+        assertEquals(OnOffType.OFF, convert(bindingConfigs.get(2), values));
+        // the power on reset value is retried and finally ignored
+        assertNull(values.get(bindingConfigs.get(1)));
+        assertEquals(3, owserver.count("READ 28.000000000002/temperature"));
+    }
+
+    private void configure(boolean simultaneousConversion) throws Exception {
+        Hashtable<String, String> config = new Hashtable<String, String>();
+        config.put("ip", "127.0.0.1");
+        config.put("port", Integer.toString(owserver.getPort()));
+        config.put("retry", "3");
+        config.put("connections", Integer.toString(MAX_CONNECTIONS));
+        config.put("simultaneous_conversion", Boolean.toString(simultaneousConversion));
+        OneWireConnection.updated(config);
+    }
+
+    private void addDevice(String deviceId, String propertyName, String value) {
+        owserver.addDevice(deviceId);
+        owserver.setValue(deviceId + "/" + propertyName, value);
+    }
+
+    private static Type convert(AbstractOneWireDevicePropertyBindingConfig bindingConfig,
+            Map<AbstractOneWireDevicePropertyBindingConfig, String> values) {
+        return bindingConfig.convertReadValueToType(values.get(bindingConfig));
+    }
+
+    private static AbstractOneWireDevicePropertyBindingConfig number(String deviceId, String propertyName)
+            throws BindingConfigParseException {
+        return new OneWireDevicePropertyNumberBindingConfig("deviceId=" + deviceId + ";propertyName=" + propertyName);
+    }
+
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A local stand-in for the owserver. It speaks just enough of the owserver
+ * network protocol to answer the presence checks, reads, writes and directory
+ * listings of the jowfsclient, keeps the connections open as long as the
+ * client requests persistence and records every request.
+ *
+ * @since 1.9.0
+ */
+public class OwserverStandIn {
+
+    private static final int MSG_READ = 2;
+    private static final int MSG_WRITE = 3;
+    private static final int MSG_DIR = 4;
+    private static final int MSG_PRESENCE = 6;
+
+    private static final int ENOENT = -2;
+
+    private final Map<String, String> values = new ConcurrentHashMap<String, String>();
+    private final Set<String> devices = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final List<String> requests = new CopyOnWriteArrayList<String>();
+    private final List<Socket> sockets = new CopyOnWriteArrayList<Socket>();
+    private final AtomicInteger acceptedConnections = new AtomicInteger();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final AtomicInteger maxOpenConnections = new AtomicInteger();
+
+    private ServerSocket serverSocket;
+    private ExecutorService executor;
+
+    /**
+     * Starts listening on a free local port.
+     */
+    public void start() throws IOException {
+        serverSocket = new ServerSocket(0, 50, InetAddress.getByName("127.0.0.1"));
+        executor = Executors.newCachedThreadPool();
+        executor.execute(new Runnable() {
+            @Override
+            public void run() {
+                while (!serverSocket.isClosed()) {
+                    try {
+                        final Socket socket = serverSocket.accept();
+                        acceptedConnections.incrementAndGet();
+                        maxOpenConnections.set(Math.max(maxOpenConnections.get(), openConnections.incrementAndGet()));
+                        sockets.add(socket);
+                        executor.execute(new Runnable() {
+                            @Override
+                            public void run() {
+                                serve(socket);
+                            }
+                        });
+                    } catch (IOException e) {
+                        // closed
+                    }
+                }
+            }
+        });
+    }
+
+    public void stop() throws IOException {
+        serverSocket.close();
+        closeConnections();
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Adds a device to the bus, the values of its properties are set with
+     * {@link #setValue(String, String)}.
+     */
+    public void addDevice(String deviceId) {
+        devices.add(deviceId);
+    }
+
+    public void setValue(String devicePropertyPath, String value) {
+        values.put(devicePropertyPath, value);
+    }
+
+    public String getValue(String devicePropertyPath) {
+        return values.get(devicePropertyPath);
+    }
+
+    /**
+     * Closes all connections as a restarted owserver would do.
+     */
+    public void closeConnections() throws IOException {
+        for (Socket socket : sockets) {
+            socket.close();
+        }
+    }
+
+    /**
+     * @return the requests received so far, like <code>READ 28.1/temperature</code>
+     */
+    public List<String> getRequests() {
+        return new ArrayList<String>(requests);
+    }
+
+    public int count(String request) {
+        return Collections.frequency(requests, request);
+    }
+
+    public void clearRequests() {
+        requests.clear();
+    }
+
+    public int getAcceptedConnections() {
+        return acceptedConnections.get();
+    }
+
+    public int getMaxOpenConnections() {
+        return maxOpenConnections.get();
+    }
+
+    private void serve(Socket socket) {
+        try {
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            while (true) {
+                in.readInt(); // version
+                int payloadLength = in.readInt();
+                int type = in.readInt();
+                int flags = in.readInt();
+                int size = in.readInt();
+                in.readInt(); // offset
+                byte[] payload = new byte[payloadLength];
+                in.readFully(payload);
+
+                String path = getPath(payload);
+                switch (type) {
+                    case MSG_READ:
+                        requests.add("READ " + path);
+                        String value = values.get(removeUncached(path));
+                        if (value != null) {
+                            respond(out, flags, 0, value);
+                        } else {
+                            respond(out, flags, ENOENT, null);
+                        }
+                        break;
+                    case MSG_WRITE:
+                        requests.add("WRITE " + path);
+                        values.put(path, new String(payload, payloadLength - size, size, "UTF-8"));
+                        respond(out, flags, 0, null);
+                        break;
+                    case MSG_PRESENCE:
+                        requests.add("PRESENCE " + path);
+                        respond(out, flags, devices.contains(removeUncached(path)) ? 0 : ENOENT, null);
+                        break;
+                    case MSG_DIR:
+                        requests.add("DIR " + path);
+                        for (String device : devices) {
+                            respond(out, flags, 0, "/" + device);
+                        }
+                        respond(out, flags, 0, null);
+                        break;
+                    default:
+                        respond(out, flags, ENOENT, null);
+                }
+            }
+        } catch (IOException e) {
+            // the connection has been closed
+        } finally {
+            openConnections.decrementAndGet();
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // ignore
+            }
+        }
+    }
+
+    private static String getPath(byte[] payload) throws IOException {
+        int end = 0;
+        while (end < payload.length && payload[end] != 0) {
+            end++;
+        }
+        String path = new String(payload, 0, end, "UTF-8");
+        return path.startsWith("/") ? path.substring(1) : path;
+    }
+
+    private static String removeUncached(String path) {
+        return path.startsWith(OneWireConnection.UNCACHED_PREFIX)
+                ? path.substring(OneWireConnection.UNCACHED_PREFIX.length()) : path;
+    }
+
+    /**
+     * Sends a response, the flags of the request are returned to grant the
+     * persistence of the connection.
+     */
+    private static void respond(DataOutputStream out, int flags, int ret, String payload) throws IOException {
+        byte[] bytes = payload != null ? payload.getBytes("UTF-8") : new byte[0];
+        out.writeInt(0);
+        out.writeInt(bytes.length);
+        out.writeInt(ret < 0 ? ret : bytes.length);
+        out.writeInt(flags);
+        out.writeInt(bytes.length);
+        out.writeInt(0);
+        out.write(bytes);
+        out.flush();
+    }
+
+}
@@ -8,12 +8,19 @@
  */
 package org.openhab.binding.onewire.internal;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.onewire.OneWireBindingProvider;
+import org.openhab.binding.onewire.internal.connection.OneWireBusReader;
 import org.openhab.binding.onewire.internal.connection.OneWireConnection;
 import org.openhab.binding.onewire.internal.control.AbstractOneWireControlBindingConfig;
 import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
@@ -51,6 +58,11 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
      */
     private OneWireUpdateScheduler ivOneWireReaderScheduler;
 
+    /**
+     * Reads the device properties of the items which want to be updated
+     */
+    private OneWireBusReader ivOneWireBusReader;
+
     /**
      * Use the Cache to post only changed values for items to the eventPublisher
      */
@@ -64,11 +76,13 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
     public OneWireBinding() {
         super();
         ivOneWireReaderScheduler = new OneWireUpdateScheduler(this);
+        ivOneWireBusReader = new OneWireBusReader();
     }
 
     @Override
     public void activate() {
         super.activate();
+        ivOneWireBusReader.start();
         ivOneWireReaderScheduler.start();
     }
 
@@ -76,6 +90,7 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
     public void deactivate() {
         super.deactivate();
         ivOneWireReaderScheduler.stop();
+        ivOneWireBusReader.stop();
     }
 
     /*
@@ -239,6 +254,24 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
         updateItemFromOneWire(lvItemName);
     }
 
+    /*
+     * (non-Javadoc)
+     * 
+     * @see org.openhab.binding.onewire.internal.listener.
+     * InterfaceOneWireDevicePropertyWantsUpdateListener#
+     * devicePropertiesWantUpdate(java.util.List)
+     */
+    @Override
+    public void devicePropertiesWantUpdate(List<OneWireDevicePropertyWantsUpdateEvent> pvWantsUpdateEvents) {
+        Set<String> lvItemNames = new LinkedHashSet<String>();
+        for (OneWireDevicePropertyWantsUpdateEvent lvWantsUpdateEvent : pvWantsUpdateEvents) {
+            logger.debug("Item " + lvWantsUpdateEvent.getItemName() + " wants update!");
+            lvItemNames.add(lvWantsUpdateEvent.getItemName());
+        }
+
+        updateItemsFromOneWire(lvItemNames);
+    }
+
     /**
      * 
      * @param pvItemName
@@ -270,39 +303,63 @@ public class OneWireBinding extends AbstractBinding<OneWireBindingProvider>
      * @param pvItemName
      */
     public void updateItemFromOneWire(String pvItemName) {
-        if (OneWireConnection.getConnection() != null) {
+        updateItemsFromOneWire(Collections.singletonList(pvItemName));
+    }
 
-            AbstractOneWireDevicePropertyBindingConfig pvBindingConfig = (AbstractOneWireDevicePropertyBindingConfig) getBindingConfig(
-                    pvItemName);
+    /**
+     * Update items with values from 1-wire device properties, the device
+     * properties are read together
+     *
+     * @param pvItemNames
+     */
+    private void updateItemsFromOneWire(Collection<String> pvItemNames) {
+        if (OneWireConnection.isConnectionEstablished() || OneWireConnection.connect()) {
+            Map<String, AbstractOneWireDevicePropertyBindingConfig> lvBindingConfigs = new LinkedHashMap<String, AbstractOneWireDevicePropertyBindingConfig>();
+            for (String lvItemName : pvItemNames) {
+                AbstractOneWireDevicePropertyBindingConfig lvBindingConfig = (AbstractOneWireDevicePropertyBindingConfig) getBindingConfig(
+                        lvItemName);
+
+                if (lvBindingConfig == null) {
+                    logger.error("no bindingConfig found for itemName=" + lvItemName
+                            + " cannot update! It will be removed from scheduler");
+                    ivOneWireReaderScheduler.removeItem(lvItemName);
+                } else {
+                    lvBindingConfigs.put(lvItemName, lvBindingConfig);
+                }
+            }
 
-            if (pvBindingConfig == null) {
-                logger.error("no bindingConfig found for itemName=" + pvItemName
-                        + " cannot update! It will be removed from scheduler");
-                ivOneWireReaderScheduler.removeItem(pvItemName);
+            if (lvBindingConfigs.isEmpty()) {
                 return;
             }
 
-            String lvReadValue = OneWireConnection.readFromOneWire(pvBindingConfig);
+            Map<AbstractOneWireDevicePropertyBindingConfig, String> lvReadValues = ivOneWireBusReader
+                    .read(lvBindingConfigs.values());
 
-            Item lvItem = getItem(pvItemName);
-            if (lvReadValue != null) {
-                Type lvNewType = pvBindingConfig.convertReadValueToType(lvReadValue);
-                if (lvItem != null) {
-                    postUpdate(lvItem, lvNewType);
-                } else {
-                    logger.error("There is no Item for ItemName=" + pvItemName);
-                }
-            } else {
-                String lvLogText = "Set Item for itemName=" + pvItemName
-                        + " to Undefined, because the readvalue is null";
-                if (pvBindingConfig.isIgnoreReadErrors()) {
-                    logger.debug(lvLogText);
-                } else {
-                    logger.error(lvLogText);
-                }
+            for (Map.Entry<String, AbstractOneWireDevicePropertyBindingConfig> lvEntry : lvBindingConfigs.entrySet()) {
+                updateItem(lvEntry.getKey(), lvEntry.getValue(), lvReadValues.get(lvEntry.getValue()));
+            }
+        }
+    }
 
-                postUpdate(lvItem, UnDefType.UNDEF);
+    private void updateItem(String pvItemName, AbstractOneWireDevicePropertyBindingConfig pvBindingConfig,
+            String pvReadValue) {
+        Item lvItem = getItem(pvItemName);
+        if (pvReadValue != null) {
+            Type lvNewType = pvBindingConfig.convertReadValueToType(pvReadValue);
+            if (lvItem != null) {
+                postUpdate(lvItem, lvNewType);
+            } else {
+                logger.error("There is no Item for ItemName=" + pvItemName);
             }
+        } else {
+            String lvLogText = "Set Item for itemName=" + pvItemName + " to Undefined, because the readvalue is null";
+            if (pvBindingConfig.isIgnoreReadErrors()) {
+                logger.debug(lvLogText);
+            } else {
+                logger.error(lvLogText);
+            }
+
+            postUpdate(lvItem, UnDefType.UNDEF);
         }
     }
 
@@ -0,0 +1,295 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
+import org.openhab.core.service.MetricsRegistry;
+import org.owfs.jowfsclient.OwfsConnection;
+import org.owfs.jowfsclient.OwfsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the device properties of several items from the 1-Wire bus at once.
+ * The reads are grouped per device, so that the presence of a device is
+ * checked only once, and the devices are read in parallel over the pooled
+ * connections of {@link OneWireConnection}. If several temperature sensors
+ * are read and the simultaneous conversion is enabled, all sensors convert
+ * at once and their temperatures are read uncached afterwards.
+ *
+ * @since 1.9.0
+ */
+public class OneWireBusReader {
+
+    private static final Logger logger = LoggerFactory.getLogger(OneWireBusReader.class);
+
+    private static final String READ_METRIC_PREFIX = "onewire.read.";
+
+    private ExecutorService ivExecutorService;
+
+    /**
+     * Starts the threads which read the devices
+     */
+    public synchronized void start() {
+        if (ivExecutorService == null) {
+            ivExecutorService = Executors.newCachedThreadPool(new ReaderThreadFactory());
+        }
+    }
+
+    /**
+     * Stops the threads which read the devices
+     */
+    public synchronized void stop() {
+        if (ivExecutorService != null) {
+            ivExecutorService.shutdownNow();
+            ivExecutorService = null;
+        }
+    }
+
+    /**
+     * Reads the device properties of the binding configs
+     *
+     * @param pvBindingConfigs
+     * @return the read values, <code>null</code> for device properties which
+     *         couldn't be read
+     */
+    public Map<AbstractOneWireDevicePropertyBindingConfig, String> read(
+            Collection<AbstractOneWireDevicePropertyBindingConfig> pvBindingConfigs) {
+        Map<AbstractOneWireDevicePropertyBindingConfig, String> lvReadValues = new IdentityHashMap<AbstractOneWireDevicePropertyBindingConfig, String>();
+
+        Map<String, DeviceReads> lvDevices = new LinkedHashMap<String, DeviceReads>();
+        int lvTemperatureDevices = 0;
+        for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : pvBindingConfigs) {
+            String lvDevicePath = OneWireConnection.getCachedDevicePath(lvBindingConfig.getDeviceId());
+            DeviceReads lvDevice = lvDevices.get(lvDevicePath);
+            if (lvDevice == null) {
+                lvDevice = new DeviceReads(lvDevicePath);
+                lvDevices.put(lvDevicePath, lvDevice);
+            }
+            if (isTemperature(lvBindingConfig) && !lvDevice.hasTemperature) {
+                lvDevice.hasTemperature = true;
+                lvTemperatureDevices++;
+            }
+            lvDevice.bindingConfigs.add(lvBindingConfig);
+        }
+
+        boolean lvConverted = false;
+        if (lvTemperatureDevices > 1 && OneWireConnection.isSimultaneousConversion()) {
+            logger.debug("starting simultaneous temperature conversion for {} devices", lvTemperatureDevices);
+            lvConverted = OneWireConnection.startSimultaneousConversion();
+        }
+
+        Queue<DeviceReads> lvPendingDevices = new ConcurrentLinkedQueue<DeviceReads>(lvDevices.values());
+        int lvReaders = Math.min(lvDevices.size(), OneWireConnection.getMaxConnections());
+        List<Future<?>> lvFutures = new ArrayList<Future<?>>();
+        ExecutorService lvExecutorService = getExecutorService();
+        for (int i = 1; i < lvReaders && lvExecutorService != null; i++) {
+            lvFutures.add(lvExecutorService.submit(new DeviceReader(lvPendingDevices, lvConverted)));
+        }
+        // the calling thread reads as well
+        new DeviceReader(lvPendingDevices, lvConverted).run();
+
+        for (Future<?> lvFuture : lvFutures) {
+            try {
+                lvFuture.get();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                logger.debug("interrupted while waiting for the device readers");
+                break;
+            } catch (Exception ex) {
+                logger.error("device reader failed", ex);
+            }
+        }
+
+        for (DeviceReads lvDevice : lvDevices.values()) {
+            synchronized (lvDevice) {
+                for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : lvDevice.bindingConfigs) {
+                    lvReadValues.put(lvBindingConfig, lvDevice.readValues.get(lvBindingConfig));
+                }
+            }
+        }
+        return lvReadValues;
+    }
+
+    private synchronized ExecutorService getExecutorService() {
+        return ivExecutorService;
+    }
+
+    private static boolean isTemperature(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
+        return pvBindingConfig.getPropertyName().trim().startsWith("temperature");
+    }
+
+    /**
+     * Returns the path to read the device property from. After a simultaneous
+     * conversion the temperature is read uncached, otherwise the owserver
+     * could return a cached value from before the conversion.
+     */
+    private static String getReadPath(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig,
+            boolean pvConverted) {
+        String lvDevicePropertyPath = pvBindingConfig.getDevicePropertyPath();
+        if (pvConverted && isTemperature(pvBindingConfig)) {
+            return OneWireConnection.UNCACHED_PREFIX + OneWireConnection.getCachedDevicePath(lvDevicePropertyPath);
+        }
+        return lvDevicePropertyPath;
+    }
+
+    /**
+     * Reads all device properties of a device, the device properties which
+     * couldn't be read are retried.
+     */
+    private static void readDevice(DeviceReads pvDevice, boolean pvConverted) {
+        long lvStart = System.nanoTime();
+        List<AbstractOneWireDevicePropertyBindingConfig> lvPending = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>(
+                pvDevice.bindingConfigs);
+
+        int lvAttempt = 1;
+        while (lvAttempt <= OneWireConnection.getRetry() && !lvPending.isEmpty()) {
+            OwfsConnection lvConnection = null;
+            boolean lvReusable = false;
+            try {
+                lvConnection = OneWireConnection.acquireConnection();
+                if (lvConnection.exists(pvDevice.devicePath)) {
+                    readDeviceProperties(lvConnection, pvDevice, lvPending, pvConverted, lvAttempt);
+                } else {
+                    logger.info("there is no device for path {}, read attempt={}",
+                            new Object[] { pvDevice.devicePath, lvAttempt });
+                }
+                lvReusable = true;
+            } catch (OwfsException oe) {
+                lvReusable = true;
+                logReadError(lvPending, "checking device " + pvDevice.devicePath + " attempt " + lvAttempt
+                        + " throws exception", oe);
+            } catch (IOException ioe) {
+                logger.error("couldn't establish network connection while read attempt " + lvAttempt + " '"
+                        + pvDevice.devicePath + "'", ioe);
+            } finally {
+                if (lvConnection != null) {
+                    OneWireConnection.releaseConnection(lvConnection, lvReusable);
+                }
+                lvAttempt++;
+            }
+        }
+
+        long lvDuration = System.nanoTime() - lvStart;
+        MetricsRegistry.getInstance().record(READ_METRIC_PREFIX + pvDevice.devicePath, lvDuration);
+        logger.debug("read {} device properties of {} in {} ms", new Object[] { pvDevice.bindingConfigs.size(),
+                pvDevice.devicePath, lvDuration / 1000000 });
+    }
+
+    private static void readDeviceProperties(OwfsConnection pvConnection, DeviceReads pvDevice,
+            List<AbstractOneWireDevicePropertyBindingConfig> pvPending, boolean pvConverted, int pvAttempt)
+            throws IOException {
+        Iterator<AbstractOneWireDevicePropertyBindingConfig> lvIterator = pvPending.iterator();
+        while (lvIterator.hasNext()) {
+            AbstractOneWireDevicePropertyBindingConfig lvBindingConfig = lvIterator.next();
+            String lvReadPath = getReadPath(lvBindingConfig, pvConverted);
+            try {
+                logger.debug("trying to read from '{}', read attempt={}", new Object[] { lvReadPath, pvAttempt });
+                String lvReadValue = pvConnection.read(lvReadPath);
+                logger.debug("Read value '{}' from {}, read attempt={}",
+                        new Object[] { lvReadValue, lvReadPath, pvAttempt });
+
+                if (lvBindingConfig.isIgnore85CPowerOnResetValues() && Double.parseDouble(lvReadValue) == 85.0) {
+                    logger.debug("reading from path " + lvReadPath + " attempt " + pvAttempt
+                            + " Ignoring 85°C value");
+                } else {
+                    synchronized (pvDevice) {
+                        pvDevice.readValues.put(lvBindingConfig, lvReadValue);
+                    }
+                    lvIterator.remove();
+                }
+            } catch (OwfsException oe) {
+                String lvLogText = "reading from path " + lvReadPath + " attempt " + pvAttempt
+                        + " throws exception";
+                if (lvBindingConfig.isIgnoreReadErrors()) {
+                    logger.debug(lvLogText, oe);
+                } else {
+                    logger.error(lvLogText, oe);
+                }
+            } catch (NumberFormatException lvNumberFormatException) {
+                logger.error(
+                        "Ignoring 85C PowerOnReset values can only be used with temperature sensors! Read a value, which is not a number");
+                lvIterator.remove();
+            }
+        }
+    }
+
+    private static void logReadError(List<AbstractOneWireDevicePropertyBindingConfig> pvPending, String pvLogText,
+            Exception pvException) {
+        for (AbstractOneWireDevicePropertyBindingConfig lvBindingConfig : pvPending) {
+            if (!lvBindingConfig.isIgnoreReadErrors()) {
+                logger.error(pvLogText, pvException);
+                return;
+            }
+        }
+        logger.debug(pvLogText, pvException);
+    }
+
+    /**
+     * The device properties to read from one device
+     */
+    private static class DeviceReads {
+        private final String devicePath;
+        private final List<AbstractOneWireDevicePropertyBindingConfig> bindingConfigs = new ArrayList<AbstractOneWireDevicePropertyBindingConfig>();
+        private final Map<AbstractOneWireDevicePropertyBindingConfig, String> readValues = new IdentityHashMap<AbstractOneWireDevicePropertyBindingConfig, String>();
+        private boolean hasTemperature;
+
+        private DeviceReads(String devicePath) {
+            this.devicePath = devicePath;
+        }
+    }
+
+    /**
+     * Reads devices until all devices of the batch are read
+     */
+    private static class DeviceReader implements Runnable {
+        private final Queue<DeviceReads> pendingDevices;
+        private final boolean converted;
+
+        private DeviceReader(Queue<DeviceReads> pendingDevices, boolean converted) {
+            this.pendingDevices = pendingDevices;
+            this.converted = converted;
+        }
+
+        @Override
+        public void run() {
+            DeviceReads lvDevice;
+            while ((lvDevice = pendingDevices.poll()) != null && !Thread.currentThread().isInterrupted()) {
+                readDevice(lvDevice, converted);
+            }
+        }
+    }
+
+    private static class ReaderThreadFactory implements ThreadFactory {
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "OneWireBinding/DeviceReader-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -1,288 +1,474 @@
-/**
- * Copyright (c) 2010-2016, openHAB.org and others.
- *
- * All rights reserved. This program and the accompanying materials
- * are made available under the terms of the Eclipse Public License v1.0
- * which accompanies this distribution, and is available at
- * http://www.eclipse.org/legal/epl-v10.html
- */
-package org.openhab.binding.onewire.internal.connection;
-
-import java.io.IOException;
-import java.util.Dictionary;
-
-import org.apache.commons.lang.StringUtils;
-import org.openhab.binding.onewire.internal.deviceproperties.AbstractOneWireDevicePropertyBindingConfig;
-import org.osgi.service.cm.ConfigurationException;
-import org.owfs.jowfsclient.Enums.OwBusReturn;
-import org.owfs.jowfsclient.Enums.OwPersistence;
-import org.owfs.jowfsclient.Enums.OwTemperatureScale;
-import org.owfs.jowfsclient.OwfsConnection;
-import org.owfs.jowfsclient.OwfsConnectionConfig;
-import org.owfs.jowfsclient.OwfsConnectionFactory;
-import org.owfs.jowfsclient.OwfsException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * This class establishes the connection to the 1-Wire-bus.
- *
- * @author Dennis Riegelbauer
- * @since 1.7.0
- *
- */
-public class OneWireConnection {
-
-    private static final Logger logger = LoggerFactory.getLogger(OneWireConnection.class);
-
-    /**
-     * Connection to the owserver server
-     */
-    private static OwfsConnection cvOwConnection = null;
-
-    /**
-     * ip of the owserver (must be set in obenHab.cfg)
-     */
-    private static String cvIp = null;
-
-    /**
-     * port of the owserver (can be set in obenHab.cfg)
-     */
-    private static int cvPort = 4304;
-
-    /**
-     * Default TempScale is Celsius (can be set in obenHab.cfg)
-     */
-    private static OwTemperatureScale cvTempScale = OwTemperatureScale.CELSIUS;
-
-    /**
-     * the retry count in case no valid value was returned upon read (optional, defaults to 3)
-     */
-    private static int cvRetry = 3;
-
-    /**
-     * signals that the connection is established
-     */
-    private static boolean cvIsEstablished = false;
-
-    /**
-     * Returns a OwfsConnection
-     * 
-     * @return the OwfsConnection network link
-     */
-    public static synchronized OwfsConnection getConnection() {
-        if (cvOwConnection == null) {
-            if (!connect()) {
-                return null;
-            }
-        }
-        return cvOwConnection;
-    }
-
-    /**
-     * Tries to connect either by IP or serial bus, depending on supplied config data.
-     * 
-     * @return true if connection was established, false otherwise
-     */
-    public static synchronized boolean connect() {
-        if (cvIp != null && cvPort > 0) {
-            OwfsConnectionFactory owfsConnectorFactory = new OwfsConnectionFactory(cvIp, cvPort);
-            OwfsConnectionConfig owConnectionConfig = new OwfsConnectionConfig(cvIp, cvPort);
-            owConnectionConfig.setTemperatureScale(cvTempScale);
-            owConnectionConfig.setPersistence(OwPersistence.ON);
-            owConnectionConfig.setBusReturn(OwBusReturn.ON);
-            owfsConnectorFactory.setConnectionConfig(owConnectionConfig);
-
-            try {
-                cvOwConnection = owfsConnectorFactory.createNewConnection();
-                cvOwConnection.listDirectory("/");
-                logger.info("Connected to owserver [IP '" + cvIp + "' Port '" + cvPort + "']");
-                cvIsEstablished = true;
-                return true;
-            } catch (Exception exception) {
-                logger.error("Couldn't connect to owserver [IP '" + cvIp + "' Port '" + cvPort + "']: ",
-                        exception.getLocalizedMessage());
-                cvIsEstablished = false;
-                return false;
-            }
-        } else {
-            logger.warn("Couldn't connect to owserver because of missing connection parameters [IP '{}' Port '{}'].",
-                    cvIp, cvPort);
-            return false;
-        }
-    }
-
-    /**
-     * Reconnects to owserver
-     * 
-     * @return
-     */
-    public static synchronized boolean reconnect() {
-        logger.info("Trying to reconnect to owserver...");
-        try {
-            cvOwConnection.disconnect();
-        } catch (Exception lvException) {
-            logger.error("Error while disconnecting from owserver: " + lvException, lvException);
-        }
-        cvOwConnection = null;
-        return connect();
-    }
-
-    public static synchronized void updated(Dictionary<String, ?> pvConfig) throws ConfigurationException {
-        if (pvConfig != null) {
-            logger.debug("OneWire configuration present. Setting up owserver connection.");
-            cvIp = (String) pvConfig.get("ip");
-
-            String lvPortConfig = (String) pvConfig.get("port");
-            if (StringUtils.isNotBlank(lvPortConfig)) {
-                cvPort = Integer.parseInt(lvPortConfig);
-            }
-
-            String lvTempScaleString = (String) pvConfig.get("tempscale");
-            if (StringUtils.isNotBlank(lvTempScaleString)) {
-                try {
-                    cvTempScale = OwTemperatureScale.valueOf(lvTempScaleString);
-                } catch (IllegalArgumentException iae) {
-                    String lvFehlertext = "Unknown temperature scale '" + lvTempScaleString
-                            + "'. Valid values are CELSIUS, FAHRENHEIT, KELVIN or RANKINE.";
-                    logger.error(lvFehlertext, iae);
-                    throw new ConfigurationException("onewire:tempscale", lvFehlertext);
-                }
-            }
-
-            String lvRetryString = (String) pvConfig.get("retry");
-            if (StringUtils.isNotBlank(lvRetryString)) {
-                cvRetry = Integer.parseInt(lvRetryString);
-            }
-
-            if (cvOwConnection == null) {
-                logger.debug("Not connected to owserver yet. Trying to connect...");
-                if (!connect()) {
-                    logger.warn("Inital connection to owserver failed!");
-                } else {
-                    logger.debug("Success: connected to owserver.");
-                }
-            }
-        } else {
-            logger.info(
-                    "OneWireBinding configuration is not present. Please check your configuration file or if not needed remove the OneWireBinding addon.");
-        }
-    }
-
-    /**
-     * @return boolean, is the connection to oserver established
-     */
-    public static boolean isConnectionEstablished() {
-        return cvIsEstablished;
-    }
-
-    /**
-     * Checks if an device exists in 1-Wire network
-     * 
-     * @param pvDevicePropertyPath
-     * @return
-     * @throws IOException
-     * @throws OwfsException
-     */
-    private static synchronized boolean checkIfDeviceExists(String pvDevicePropertyPath)
-            throws IOException, OwfsException {
-        String[] pvDevicePropertyPathParts = pvDevicePropertyPath.trim().split("/");
-
-        String lvDevicePath = pvDevicePropertyPathParts[0];
-        logger.debug("check if device exisits '{}': ", new Object[] { lvDevicePath });
-
-        return OneWireConnection.getConnection().exists(lvDevicePath);
-    }
-
-    /**
-     * Read a Value for a device property from 1-Wire network
-     * 
-     * @param pvDevicePropertyPath
-     * @return device property value as String
-     */
-    public static synchronized String readFromOneWire(AbstractOneWireDevicePropertyBindingConfig pvBindingConfig) {
-        String lvDevicePropertyPath = pvBindingConfig.getDevicePropertyPath();
-
-        int lvAttempt = 1;
-        while (lvAttempt <= cvRetry) {
-            try {
-                logger.debug("trying to read from '{}', read attempt={}",
-                        new Object[] { lvDevicePropertyPath, lvAttempt });
-                if (checkIfDeviceExists(lvDevicePropertyPath)) {
-                    String lvReadValue = OneWireConnection.getConnection().read(lvDevicePropertyPath);
-                    logger.debug("Read value '{}' from {}, read attempt={}",
-                            new Object[] { lvReadValue, lvDevicePropertyPath, lvAttempt });
-
-                    // Test
-                    if (pvBindingConfig.isIgnore85CPowerOnResetValues()) {
-                        double lvReadDouble = Double.parseDouble(lvReadValue);
-                        if (lvReadDouble == 85.0) {
-                            logger.debug("reading from path " + lvDevicePropertyPath + " attempt " + lvAttempt
-                                    + " Ignoring 85°C value");
-                        } else {
-                            return lvReadValue;
-                        }
-                    } else {
-                        return lvReadValue;
-                    }
-                } else {
-                    logger.info("there is no device for path {}, read attempt={}",
-                            new Object[] { lvDevicePropertyPath, lvAttempt });
-                }
-            } catch (OwfsException oe) {
-                String lvLogText = "reading from path " + lvDevicePropertyPath + " attempt " + lvAttempt
-                        + " throws exception";
-                if (pvBindingConfig.isIgnoreReadErrors()) {
-                    logger.debug(lvLogText, oe);
-                } else {
-                    logger.error(lvLogText, oe);
-                    reconnect();
-                }
-            } catch (IOException ioe) {
-                logger.error("couldn't establish network connection while read attempt " + lvAttempt + " '"
-                        + lvDevicePropertyPath + "' ip:port=" + cvIp + ":" + cvPort, ioe);
-                reconnect();
-            } catch (NumberFormatException lvNumberFormatException) {
-                logger.error(
-                        "Ignoring 85C PowerOnReset values can only be used with temperature sensors! Read a value, which is not a number");
-            } finally {
-                lvAttempt++;
-            }
-        }
-
-        return null;
-    }
-
-    /**
-     * Writes String to 1-Wire device property
-     * 
-     * @param pvDevicePropertyPath
-     * @param pvValue
-     */
-    public static synchronized void writeToOneWire(String pvDevicePropertyPath, String pvValue) {
-        int lvAttempt = 1;
-        while (lvAttempt <= cvRetry) {
-            try {
-                logger.debug("trying to write '{}' to '{}', write attempt={}",
-                        new Object[] { pvValue, pvDevicePropertyPath, lvAttempt });
-                if (checkIfDeviceExists(pvDevicePropertyPath)) {
-                    OneWireConnection.getConnection().write(pvDevicePropertyPath, pvValue);
-                    return; // Success, exit
-                } else {
-                    logger.info("there is no device for path {}, write attempt={}",
-                            new Object[] { pvDevicePropertyPath, lvAttempt });
-                }
-            } catch (OwfsException oe) {
-                logger.error("writing " + pvValue + " to path " + pvDevicePropertyPath + " attempt " + lvAttempt
-                        + " throws exception", oe);
-                reconnect();
-            } catch (IOException ioe) {
-                logger.error("couldn't establish network connection while write attempt " + lvAttempt + " to '"
-                        + pvDevicePropertyPath + "' ip:port=" + cvIp + ":" + cvPort, ioe);
-                reconnect();
-            } finally {
-                lvAttempt++;
-            }
-        }
-    }
-}
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.onewire.internal.connection;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Dictionary;
+import java.util.List;
+
+import org.apache.commons.lang.StringUtils;
+import org.osgi.service.cm.ConfigurationException;
+import org.owfs.jowfsclient.Enums.OwBusReturn;
+import org.owfs.jowfsclient.Enums.OwPersistence;
+import org.owfs.jowfsclient.Enums.OwTemperatureScale;
+import org.owfs.jowfsclient.OwfsConnection;
+import org.owfs.jowfsclient.OwfsConnectionConfig;
+import org.owfs.jowfsclient.OwfsConnectionFactory;
+import org.owfs.jowfsclient.OwfsException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * This class establishes the connections to the 1-Wire-bus. Several
+ * persistent connections to the owserver are kept in a pool, so that devices
+ * can be read in parallel.
+ *
+ * @author Dennis Riegelbauer
+ * @since 1.7.0
+ *
+ */
+public class OneWireConnection {
+
+    private static final Logger logger = LoggerFactory.getLogger(OneWireConnection.class);
+
+    /**
+     * prefix of owserver paths which bypass the owserver cache
+     */
+    public static final String UNCACHED_PREFIX = "uncached/";
+
+    /**
+     * Idle connections to the owserver server
+     */
+    private static final Deque<OwfsConnection> cvIdleConnections = new ArrayDeque<OwfsConnection>();
+
+    /**
+     * number of open connections, idle or in use
+     */
+    private static int cvOpenConnections = 0;
+
+    /**
+     * ip of the owserver (must be set in obenHab.cfg)
+     */
+    private static String cvIp = null;
+
+    /**
+     * port of the owserver (can be set in obenHab.cfg)
+     */
+    private static int cvPort = 4304;
+
+    /**
+     * Default TempScale is Celsius (can be set in obenHab.cfg)
+     */
+    private static OwTemperatureScale cvTempScale = OwTemperatureScale.CELSIUS;
+
+    /**
+     * the retry count in case no valid value was returned upon read (optional, defaults to 3)
+     */
+    private static int cvRetry = 3;
+
+    /**
+     * the maximum number of connections to the owserver (optional, defaults to 2)
+     */
+    private static int cvMaxConnections = 2;
+
+    /**
+     * start a simultaneous temperature conversion before several temperature
+     * sensors are read (optional, defaults to false)
+     */
+    private static boolean cvSimultaneousConversion = false;
+
+    /**
+     * signals that the connection is established
+     */
+    private static volatile boolean cvIsEstablished = false;
+
+    /**
+     * Tries to connect either by IP or serial bus, depending on supplied config data.
+     * 
+     * @return true if connection was established, false otherwise
+     */
+    public static synchronized boolean connect() {
+        if (cvIp != null && cvPort > 0) {
+            OwfsConnection lvConnection = null;
+            boolean lvReusable = false;
+            try {
+                lvConnection = acquireConnection();
+                lvConnection.listDirectory("/");
+                lvReusable = true;
+                logger.info("Connected to owserver [IP '" + cvIp + "' Port '" + cvPort + "']");
+                cvIsEstablished = true;
+                return true;
+            } catch (Exception exception) {
+                logger.error("Couldn't connect to owserver [IP '" + cvIp + "' Port '" + cvPort + "']: ",
+                        exception.getLocalizedMessage());
+                cvIsEstablished = false;
+                return false;
+            } finally {
+                if (lvConnection != null) {
+                    releaseConnection(lvConnection, lvReusable);
+                }
+            }
+        } else {
+            logger.warn("Couldn't connect to owserver because of missing connection parameters [IP '{}' Port '{}'].",
+                    cvIp, cvPort);
+            return false;
+        }
+    }
+
+    /**
+     * Reconnects to owserver, idle connections are closed, connections in use
+     * are closed when they are released.
+     * 
+     * @return
+     */
+    public static synchronized boolean reconnect() {
+        logger.info("Trying to reconnect to owserver...");
+        closeIdleConnections();
+        return connect();
+    }
+
+    public static synchronized void updated(Dictionary<String, ?> pvConfig) throws ConfigurationException {
+        if (pvConfig != null) {
+            logger.debug("OneWire configuration present. Setting up owserver connection.");
+            cvIp = (String) pvConfig.get("ip");
+
+            String lvPortConfig = (String) pvConfig.get("port");
+            if (StringUtils.isNotBlank(lvPortConfig)) {
+                cvPort = Integer.parseInt(lvPortConfig);
+            }
+
+            String lvTempScaleString = (String) pvConfig.get("tempscale");
+            if (StringUtils.isNotBlank(lvTempScaleString)) {
+                try {
+                    cvTempScale = OwTemperatureScale.valueOf(lvTempScaleString);
+                } catch (IllegalArgumentException iae) {
+                    String lvFehlertext = "Unknown temperature scale '" + lvTempScaleString
+                            + "'. Valid values are CELSIUS, FAHRENHEIT, KELVIN or RANKINE.";
+                    logger.error(lvFehlertext, iae);
+                    throw new ConfigurationException("onewire:tempscale", lvFehlertext);
+                }
+            }
+
+            String lvRetryString = (String) pvConfig.get("retry");
+            if (StringUtils.isNotBlank(lvRetryString)) {
+                cvRetry = Integer.parseInt(lvRetryString);
+            }
+
+            String lvConnectionsString = (String) pvConfig.get("connections");
+            if (StringUtils.isNotBlank(lvConnectionsString)) {
+                int lvMaxConnections = Integer.parseInt(lvConnectionsString);
+                if (lvMaxConnections < 1) {
+                    throw new ConfigurationException("onewire:connections",
+                            "The number of connections must be at least 1.");
+                }
+                synchronized (cvIdleConnections) {
+                    cvMaxConnections = lvMaxConnections;
+                }
+            }
+
+            String lvSimultaneousString = (String) pvConfig.get("simultaneous_conversion");
+            if (StringUtils.isNotBlank(lvSimultaneousString)) {
+                cvSimultaneousConversion = Boolean.parseBoolean(lvSimultaneousString);
+            }
+
+            // the connection parameters may have changed
+            closeIdleConnections();
+
+            if (!cvIsEstablished) {
+                logger.debug("Not connected to owserver yet. Trying to connect...");
+                if (!connect()) {
+                    logger.warn("Inital connection to owserver failed!");
+                } else {
+                    logger.debug("Success: connected to owserver.");
+                }
+            }
+        } else {
+            logger.info(
+                    "OneWireBinding configuration is not present. Please check your configuration file or if not needed remove the OneWireBinding addon.");
+        }
+    }
+
+    /**
+     * @return boolean, is the connection to oserver established
+     */
+    public static boolean isConnectionEstablished() {
+        return cvIsEstablished;
+    }
+
+    /**
+     * @return the retry count for reads and writes
+     */
+    public static int getRetry() {
+        return cvRetry;
+    }
+
+    /**
+     * @return the maximum number of connections to the owserver
+     */
+    public static int getMaxConnections() {
+        synchronized (cvIdleConnections) {
+            return cvMaxConnections;
+        }
+    }
+
+    /**
+     * @return true, if a simultaneous temperature conversion should be started
+     *         before several temperature sensors are read
+     */
+    public static boolean isSimultaneousConversion() {
+        return cvSimultaneousConversion;
+    }
+
+    /**
+     * Returns the path of the device in the owserver cache, a reading of the
+     * directory doesn't trigger a search on the 1-Wire bus.
+     *
+     * @param pvDeviceId deviceId, may start with <code>uncached/</code>
+     * @return the cached path of the device
+     */
+    public static String getCachedDevicePath(String pvDeviceId) {
+        String lvDevicePath = StringUtils.removeStart(pvDeviceId.trim(), "/");
+        return StringUtils.removeStart(lvDevicePath, UNCACHED_PREFIX);
+    }
+
+    /**
+     * Returns an idle connection or opens a new one. Blocks until a connection
+     * is available if the maximum number of connections is in use. Every
+     * acquired connection must be released afterwards.
+     *
+     * @return a connection to the owserver
+     * @throws IOException if no connection could be opened
+     */
+    static OwfsConnection acquireConnection() throws IOException {
+        synchronized (cvIdleConnections) {
+            while (cvIdleConnections.isEmpty() && cvOpenConnections >= cvMaxConnections) {
+                try {
+                    cvIdleConnections.wait();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for an owserver connection");
+                }
+            }
+            OwfsConnection lvConnection = cvIdleConnections.pollFirst();
+            if (lvConnection != null) {
+                return lvConnection;
+            }
+            cvOpenConnections++;
+        }
+
+        try {
+            return createConnection();
+        } catch (RuntimeException ex) {
+            connectionClosed();
+            throw ex;
+        }
+    }
+
+    /**
+     * Returns the connection to the pool. Connections which are not reusable,
+     * e.g. because of a network error, are closed.
+     *
+     * @param pvConnection
+     * @param pvReusable
+     */
+    static void releaseConnection(OwfsConnection pvConnection, boolean pvReusable) {
+        synchronized (cvIdleConnections) {
+            if (pvReusable && cvOpenConnections <= cvMaxConnections) {
+                cvIdleConnections.offerFirst(pvConnection);
+                cvIdleConnections.notifyAll();
+                return;
+            }
+        }
+        disconnect(pvConnection);
+        connectionClosed();
+    }
+
+    private static OwfsConnection createConnection() {
+        OwfsConnectionFactory owfsConnectorFactory = new OwfsConnectionFactory(cvIp, cvPort);
+        OwfsConnectionConfig owConnectionConfig = new OwfsConnectionConfig(cvIp, cvPort);
+        owConnectionConfig.setTemperatureScale(cvTempScale);
+        owConnectionConfig.setPersistence(OwPersistence.ON);
+        owConnectionConfig.setBusReturn(OwBusReturn.ON);
+        owfsConnectorFactory.setConnectionConfig(owConnectionConfig);
+
+        logger.debug("Opening new connection to owserver [IP '{}' Port '{}']", cvIp, cvPort);
+        return new PooledConnection(owfsConnectorFactory.createNewConnection());
+    }
+
+    private static void connectionClosed() {
+        synchronized (cvIdleConnections) {
+            cvOpenConnections--;
+            cvIdleConnections.notifyAll();
+        }
+    }
+
+    private static void closeIdleConnections() {
+        OwfsConnection lvConnection;
+        while (true) {
+            synchronized (cvIdleConnections) {
+                lvConnection = cvIdleConnections.pollFirst();
+            }
+            if (lvConnection == null) {
+                return;
+            }
+            disconnect(lvConnection);
+            connectionClosed();
+        }
+    }
+
+    private static void disconnect(OwfsConnection pvConnection) {
+        try {
+            pvConnection.disconnect();
+        } catch (Exception lvException) {
+            logger.error("Error while disconnecting from owserver: " + lvException, lvException);
+        }
+    }
+
+    /**
+     * Starts a temperature conversion of all temperature sensors on the bus
+     * at once. Subsequent reads of the temperature don't have to wait for a
+     * conversion of every single sensor.
+     *
+     * @return true, if the conversion has been started
+     */
+    public static boolean startSimultaneousConversion() {
+        OwfsConnection lvConnection = null;
+        boolean lvReusable = false;
+        try {
+            lvConnection = acquireConnection();
+            lvConnection.write("simultaneous/temperature", "1");
+            lvReusable = true;
+            return true;
+        } catch (OwfsException oe) {
+            lvReusable = true;
+            logger.error("starting simultaneous temperature conversion throws exception", oe);
+        } catch (IOException ioe) {
+            logger.error("couldn't establish network connection while starting simultaneous temperature conversion"
+                    + " ip:port=" + cvIp + ":" + cvPort, ioe);
+        } finally {
+            if (lvConnection != null) {
+                releaseConnection(lvConnection, lvReusable);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Writes String to 1-Wire device property
+     * 
+     * @param pvDevicePropertyPath
+     * @param pvValue
+     */
+    public static void writeToOneWire(String pvDevicePropertyPath, String pvValue) {
+        String lvDevicePath = getCachedDevicePath(pvDevicePropertyPath).split("/")[0];
+
+        int lvAttempt = 1;
+        while (lvAttempt <= cvRetry) {
+            OwfsConnection lvConnection = null;
+            boolean lvReusable = false;
+            try {
+                lvConnection = acquireConnection();
+                logger.debug("trying to write '{}' to '{}', write attempt={}",
+                        new Object[] { pvValue, pvDevicePropertyPath, lvAttempt });
+                if (lvConnection.exists(lvDevicePath)) {
+                    lvConnection.write(pvDevicePropertyPath, pvValue);
+                    lvReusable = true;
+                    return; // Success, exit
+                } else {
+                    lvReusable = true;
+                    logger.info("there is no device for path {}, write attempt={}",
+                            new Object[] { pvDevicePropertyPath, lvAttempt });
+                }
+            } catch (OwfsException oe) {
+                lvReusable = true;
+                logger.error("writing " + pvValue + " to path " + pvDevicePropertyPath + " attempt " + lvAttempt
+                        + " throws exception", oe);
+            } catch (IOException ioe) {
+                logger.error("couldn't establish network connection while write attempt " + lvAttempt + " to '"
+                        + pvDevicePropertyPath + "' ip:port=" + cvIp + ":" + cvPort, ioe);
+            } finally {
+                if (lvConnection != null) {
+                    releaseConnection(lvConnection, lvReusable);
+                }
+                lvAttempt++;
+            }
+        }
+    }
+
+    /**
+     * A pooled connection. If the owserver has closed the connection, e.g.
+     * because it has been restarted, jowfsclient reads no response and fails
+     * with a {@link NullPointerException}. This is reported as an
+     * {@link IOException}, so that the connection is not reused.
+     */
+    private static class PooledConnection implements OwfsConnection {
+        private final OwfsConnection connection;
+
+        private PooledConnection(OwfsConnection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void setConfiguration(OwfsConnectionConfig config) {
+            connection.setConfiguration(config);
+        }
+
+        @Override
+        public void disconnect() throws IOException {
+            connection.disconnect();
+        }
+
+        @Override
+        public String read(String path) throws IOException, OwfsException {
+            try {
+                return connection.read(path);
+            } catch (NullPointerException ex) {
+                throw closedByOwserver(ex);
+            }
+        }
+
+        @Override
+        public void write(String path, String value) throws IOException, OwfsException {
+            try {
+                connection.write(path, value);
+            } catch (NullPointerException ex) {
+                throw closedByOwserver(ex);
+            }
+        }
+
+        @Override
+        public Boolean exists(String path) throws IOException, OwfsException {
+            try {
+                return connection.exists(path);
+            } catch (NullPointerException ex) {
+                throw closedByOwserver(ex);
+            }
+        }
+
+        @Override
+        public List<String> listDirectoryAll(String path) throws OwfsException, IOException {
+            return connection.listDirectoryAll(path);
+        }
+
+        @Override
+        public List<String> listDirectory(String path) throws OwfsException, IOException {
+            return connection.listDirectory(path);
+        }
+
+        private static IOException closedByOwserver(NullPointerException ex) {
+            IOException lvException = new EOFException("Connection closed by owserver");
+            lvException.initCause(ex);
+            return lvException;
+        }
+    }
+}
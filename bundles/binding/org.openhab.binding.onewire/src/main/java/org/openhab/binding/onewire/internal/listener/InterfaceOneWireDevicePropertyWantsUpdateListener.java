@@ -9,6 +9,7 @@
 package org.openhab.binding.onewire.internal.listener;
 
 import java.util.EventListener;
+import java.util.List;
 
 /**
  * This Interface definies a Listener for Items which wanted to be updated
@@ -26,4 +27,12 @@ public interface InterfaceOneWireDevicePropertyWantsUpdateListener extends Event
      */
     public void devicePropertyWantsUpdate(OneWireDevicePropertyWantsUpdateEvent wantsUpdateEvent);
 
+    /**
+     * Called with all items which want to be updated at the same time, so
+     * that their device properties can be read together
+     *
+     * @param wantsUpdateEvents
+     */
+    public void devicePropertiesWantUpdate(List<OneWireDevicePropertyWantsUpdateEvent> wantsUpdateEvents);
+
 }
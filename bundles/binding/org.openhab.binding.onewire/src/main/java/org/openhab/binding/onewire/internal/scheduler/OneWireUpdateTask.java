@@ -11,6 +11,10 @@
  */
 package org.openhab.binding.onewire.internal.scheduler;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.concurrent.BlockingQueue;
 
 import org.openhab.binding.onewire.internal.listener.InterfaceOneWireDevicePropertyWantsUpdateListener;
@@ -48,18 +52,24 @@ public class OneWireUpdateTask extends Thread {
      */
     @Override
     public void run() {
-        String lvItemName = null;
+        List<String> lvQueuedItemNames = new ArrayList<String>();
         try {
             while (true) {
                 logger.debug("Autorefresh: Waiting for new item in update queue");
-                lvItemName = ivUpdateQueue.take();
-                logger.debug("Autorefresh: got new item {} in update queue", lvItemName);
+                lvQueuedItemNames.add(ivUpdateQueue.take());
+                // all items which are due now are read together
+                ivUpdateQueue.drainTo(lvQueuedItemNames);
+                logger.debug("Autorefresh: got new items {} in update queue", lvQueuedItemNames);
 
-                if (lvItemName != null) {
+                Set<String> lvItemNames = new LinkedHashSet<String>(lvQueuedItemNames);
+                lvQueuedItemNames.clear();
+
+                List<OneWireDevicePropertyWantsUpdateEvent> lvWantsUpdateEvents = new ArrayList<OneWireDevicePropertyWantsUpdateEvent>();
+                for (String lvItemName : lvItemNames) {
                     logger.debug("Autorefresh: Trying to update Item: {}", lvItemName);
-                    ivWantsUpdateListener
-                            .devicePropertyWantsUpdate(new OneWireDevicePropertyWantsUpdateEvent(this, lvItemName));
+                    lvWantsUpdateEvents.add(new OneWireDevicePropertyWantsUpdateEvent(this, lvItemName));
                 }
+                ivWantsUpdateListener.devicePropertiesWantUpdate(lvWantsUpdateEvents);
             }
         } catch (InterruptedException ex) {
             logger.debug("Autorefresh: OneWireUpdateTask wait on blockingqueue interrupted: {}", ex.getMessage());
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.nio.charset.Charset;
+
+import org.junit.Test;
+
+/**
+ * Test class for {@link ByteRingBuffer}.
+ *
+ * @since 1.9.0
+ */
+public class ByteRingBufferTest {
+
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    @Test
+    public void testWriteAndRead() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        write(buffer, "abc");
+        assertEquals(3, buffer.size());
+        assertEquals('b', buffer.get(1));
+        assertEquals("ab", text(buffer.peek(2)));
+        assertEquals("ab", text(buffer.read(2)));
+        assertEquals(1, buffer.size());
+        assertEquals("c", text(buffer.read(1)));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testWrapAround() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        write(buffer, "abcdef");
+        buffer.skip(4);
+        // the data now continues at the start of the array
+        write(buffer, "ghijk");
+        assertEquals(7, buffer.size());
+        assertEquals('e', buffer.get(0));
+        assertEquals('k', buffer.get(6));
+        assertEquals(3, buffer.indexOf("hi".getBytes(LATIN1)));
+        // the pattern spans the end and the start of the array
+        assertEquals(1, buffer.indexOf("fgh".getBytes(LATIN1)));
+        assertEquals("efghijk", text(buffer.peek(7)));
+        assertEquals("efg", text(buffer.read(3)));
+        assertEquals("hijk", text(buffer.read(4)));
+        assertEquals(0, buffer.getOverflowCount());
+    }
+
+    @Test
+    public void testOverflowDiscardsOldestData() {
+        ByteRingBuffer buffer = new ByteRingBuffer(4);
+        write(buffer, "abcdef");
+        assertEquals(4, buffer.size());
+        assertEquals(2, buffer.getOverflowCount());
+        assertEquals("cdef", text(buffer.peek(4)));
+
+        write(buffer, "g");
+        assertEquals(3, buffer.getOverflowCount());
+        assertEquals("defg", text(buffer.read(4)));
+    }
+
+    @Test
+    public void testIndexOf() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        write(buffer, "abab");
+        assertEquals(0, buffer.indexOf("ab".getBytes(LATIN1)));
+        assertEquals(1, buffer.indexOf("ba".getBytes(LATIN1)));
+        assertEquals(-1, buffer.indexOf("abc".getBytes(LATIN1)));
+        assertEquals(-1, buffer.indexOf("ababa".getBytes(LATIN1)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testReadBeyondSize() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        write(buffer, "abc");
+        buffer.read(4);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testGetBeyondSize() {
+        ByteRingBuffer buffer = new ByteRingBuffer(8);
+        write(buffer, "abc");
+        buffer.get(3);
+    }
+
+    static void write(ByteRingBuffer buffer, String data) {
+        byte[] bytes = data.getBytes(LATIN1);
+        buffer.write(bytes, 0, bytes.length);
+    }
+
+    static String text(byte[] bytes) {
+        return bytes != null ? new String(bytes, LATIN1) : null;
+    }
+
+}
@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.openhab.binding.serial.internal.ByteRingBufferTest.text;
+import static org.openhab.binding.serial.internal.ByteRingBufferTest.write;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.model.item.binding.BindingConfigParseException;
+
+/**
+ * Test class for {@link FrameDecoder}. Every framing is fed with frames split
+ * across several reads and several frames merged into one read.
+ *
+ * @since 1.9.0
+ */
+public class FrameDecoderTest {
+
+    private ByteRingBuffer buffer;
+
+    @Before
+    public void init() {
+        buffer = new ByteRingBuffer(32);
+    }
+
+    @Test
+    public void testDelimiter() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("DELIMITER:\\r\\n");
+
+        write(buffer, "T=1");
+        assertNull(decoder.nextFrame(buffer));
+        // the delimiter itself is split
+        write(buffer, "2\r");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "\nT=3\r\nT=4\r\nT");
+
+        assertEquals("T=12", text(decoder.nextFrame(buffer)));
+        assertEquals("T=3", text(decoder.nextFrame(buffer)));
+        assertEquals("T=4", text(decoder.nextFrame(buffer)));
+        assertNull(decoder.nextFrame(buffer));
+        assertEquals(1, buffer.size());
+    }
+
+    @Test
+    public void testDelimiterHexEscape() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("DELIMITER:\\x03");
+
+        write(buffer, "ab\u0003cd\u0003");
+        assertEquals("ab", text(decoder.nextFrame(buffer)));
+        assertEquals("cd", text(decoder.nextFrame(buffer)));
+        assertNull(decoder.nextFrame(buffer));
+    }
+
+    @Test
+    public void testFixed() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("FIXED:4");
+
+        write(buffer, "ab");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "cdefghij");
+
+        assertEquals("abcd", text(decoder.nextFrame(buffer)));
+        assertEquals("efgh", text(decoder.nextFrame(buffer)));
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "kl");
+        assertEquals("ijkl", text(decoder.nextFrame(buffer)));
+    }
+
+    @Test
+    public void testLength() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("LENGTH:2");
+
+        // the length field itself is split
+        write(buffer, "\u0000");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "\u0003ab");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "c\u0000\u0001x\u0000\u0002y");
+
+        assertEquals("abc", text(decoder.nextFrame(buffer)));
+        assertEquals("x", text(decoder.nextFrame(buffer)));
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "z");
+        assertEquals("yz", text(decoder.nextFrame(buffer)));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testLengthResynchronizes() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("LENGTH:2");
+
+        // 0x7f00 doesn't fit into the buffer, so 0x7f is skipped as garbage
+        write(buffer, "\u007f\u0000\u0002hi");
+        assertEquals("hi", text(decoder.nextFrame(buffer)));
+    }
+
+    @Test
+    public void testRegex() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("REGEX:T=\\d+;");
+
+        write(buffer, "xxT=1");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "2;T=3;yyT=");
+
+        // data in front of a match is discarded
+        assertEquals("T=12;", text(decoder.nextFrame(buffer)));
+        assertEquals("T=3;", text(decoder.nextFrame(buffer)));
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "45;");
+        assertEquals("T=45;", text(decoder.nextFrame(buffer)));
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    public void testRegexMatchAtEndIsNotComplete() throws BindingConfigParseException {
+        FrameDecoder decoder = FrameDecoder.parse("REGEX:\\d+");
+
+        // more digits might follow
+        write(buffer, "12");
+        assertNull(decoder.nextFrame(buffer));
+        write(buffer, "3a");
+        assertEquals("123", text(decoder.nextFrame(buffer)));
+    }
+
+    @Test
+    public void testEquals() throws BindingConfigParseException {
+        assertEquals(FrameDecoder.parse("FIXED:4"), FrameDecoder.parse("FIXED:4"));
+    }
+
+    @Test(expected = BindingConfigParseException.class)
+    public void testUnknownFraming() throws BindingConfigParseException {
+        FrameDecoder.parse("LINES:1");
+    }
+
+    @Test(expected = BindingConfigParseException.class)
+    public void testInvalidLengthField() throws BindingConfigParseException {
+        FrameDecoder.parse("LENGTH:5");
+    }
+
+    @Test(expected = BindingConfigParseException.class)
+    public void testInvalidFixedLength() throws BindingConfigParseException {
+        FrameDecoder.parse("FIXED:0");
+    }
+
+}
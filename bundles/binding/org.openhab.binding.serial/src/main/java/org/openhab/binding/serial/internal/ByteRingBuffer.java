@@ -0,0 +1,141 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+/**
+ * A fixed size circular byte buffer which collects the data received on a serial port until a complete frame can be
+ * taken from it. If more data is written than fits into the buffer, the oldest bytes are overwritten.
+ *
+ * The buffer is not thread safe, it is only accessed from the thread delivering the serial port events.
+ *
+ * @since 1.9.0
+ */
+public class ByteRingBuffer {
+
+    private final byte[] buffer;
+    private int head = 0;
+    private int size = 0;
+    private long overflowCount = 0;
+
+    public ByteRingBuffer(int capacity) {
+        buffer = new byte[capacity];
+    }
+
+    /**
+     * Appends bytes to the buffer, dropping the oldest data if the buffer is full.
+     *
+     * @param data the array holding the bytes
+     * @param offset the offset of the first byte within the array
+     * @param length the number of bytes to append
+     */
+    public void write(byte[] data, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            if (size == buffer.length) {
+                head = (head + 1) % buffer.length;
+                size--;
+                overflowCount++;
+            }
+            buffer[(head + size) % buffer.length] = data[offset + i];
+            size++;
+        }
+    }
+
+    /**
+     * @param index the position relative to the oldest byte in the buffer
+     * @return the byte at the given position
+     */
+    public byte get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return buffer[(head + index) % buffer.length];
+    }
+
+    /**
+     * Searches the buffer for a sequence of bytes.
+     *
+     * @param pattern the bytes to search for
+     * @return the position of the first occurrence or -1 if the sequence is not contained
+     */
+    public int indexOf(byte[] pattern) {
+        for (int i = 0; i + pattern.length <= size; i++) {
+            int j = 0;
+            while (j < pattern.length && get(i + j) == pattern[j]) {
+                j++;
+            }
+            if (j == pattern.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Copies bytes from the beginning of the buffer without removing them.
+     *
+     * @param length the number of bytes to copy
+     * @return the copied bytes
+     */
+    public byte[] peek(int length) {
+        if (length > size) {
+            throw new IndexOutOfBoundsException("Length " + length + ", size " + size);
+        }
+        byte[] result = new byte[length];
+        int first = Math.min(length, buffer.length - head);
+        System.arraycopy(buffer, head, result, 0, first);
+        System.arraycopy(buffer, 0, result, first, length - first);
+        return result;
+    }
+
+    /**
+     * Removes bytes from the beginning of the buffer and returns them.
+     *
+     * @param length the number of bytes to remove
+     * @return the removed bytes
+     */
+    public byte[] read(int length) {
+        byte[] result = peek(length);
+        skip(length);
+        return result;
+    }
+
+    /**
+     * Removes bytes from the beginning of the buffer.
+     *
+     * @param length the number of bytes to remove
+     */
+    public void skip(int length) {
+        if (length > size) {
+            throw new IndexOutOfBoundsException("Length " + length + ", size " + size);
+        }
+        head = (head + length) % buffer.length;
+        size -= length;
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return the number of bytes that have been dropped because the buffer was full
+     */
+    public long getOverflowCount() {
+        return overflowCount;
+    }
+
+}
@@ -0,0 +1,245 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.serial.internal;
+
+import java.nio.charset.Charset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.openhab.model.item.binding.BindingConfigParseException;
+
+/**
+ * A FrameDecoder splits the data received on a serial port into frames, so that items are only updated with complete
+ * messages. The following framings are supported and configured by the FRAMING() option of the binding configuration:
+ * <ul>
+ * <li><code>DELIMITER:&lt;chars&gt;</code> - frames are terminated by the given characters, which are not part of the
+ * frame. <code>\r</code>, <code>\n</code>, <code>\t</code> and <code>\xHH</code> may be used as escapes.</li>
+ * <li><code>FIXED:&lt;length&gt;</code> - all frames consist of the given number of bytes.</li>
+ * <li><code>LENGTH:&lt;bytes&gt;</code> - every frame starts with a big endian length field of the given number of
+ * bytes (1-4), followed by the frame itself.</li>
+ * <li><code>REGEX:&lt;regex&gt;</code> - a frame is the next match of the given regular expression, data in front of
+ * the match is discarded.</li>
+ * </ul>
+ *
+ * @since 1.9.0
+ */
+public abstract class FrameDecoder {
+
+    /**
+     * Charset mapping every byte to exactly one char, used where frames are matched as text
+     */
+    private static final Charset LATIN1 = Charset.forName("ISO-8859-1");
+
+    private final String config;
+
+    protected FrameDecoder(String config) {
+        this.config = config;
+    }
+
+    /**
+     * Removes the next complete frame from the buffer.
+     *
+     * @param buffer the buffer holding the received data
+     * @return the frame or null if the buffer does not contain a complete frame yet
+     */
+    public abstract byte[] nextFrame(ByteRingBuffer buffer);
+
+    /**
+     * Creates a FrameDecoder from the value of the FRAMING() option.
+     *
+     * @param config the framing configuration, e.g. <code>DELIMITER:\r\n</code>
+     * @return the decoder
+     * @throws BindingConfigParseException if the configuration is invalid
+     */
+    public static FrameDecoder parse(String config) throws BindingConfigParseException {
+        int indexOf = config.indexOf(':');
+        if (indexOf == -1) {
+            throw new BindingConfigParseException("Framing '" + config + "' is missing a parameter");
+        }
+        String type = config.substring(0, indexOf).trim().toUpperCase();
+        String parameter = config.substring(indexOf + 1);
+
+        try {
+            if ("DELIMITER".equals(type)) {
+                byte[] delimiter = unescape(parameter).getBytes(LATIN1);
+                if (delimiter.length == 0) {
+                    throw new BindingConfigParseException("Framing '" + config + "' requires a delimiter");
+                }
+                return new DelimiterFrameDecoder(config, delimiter);
+            } else if ("FIXED".equals(type)) {
+                int length = Integer.parseInt(parameter.trim());
+                if (length < 1) {
+                    throw new BindingConfigParseException("Framing '" + config + "' requires a positive length");
+                }
+                return new FixedLengthFrameDecoder(config, length);
+            } else if ("LENGTH".equals(type)) {
+                int fieldLength = Integer.parseInt(parameter.trim());
+                if (fieldLength < 1 || fieldLength > 4) {
+                    throw new BindingConfigParseException(
+                            "Framing '" + config + "' requires a length field of 1 to 4 bytes");
+                }
+                return new LengthPrefixedFrameDecoder(config, fieldLength);
+            } else if ("REGEX".equals(type)) {
+                return new RegexFrameDecoder(config, Pattern.compile(parameter, Pattern.DOTALL));
+            }
+        } catch (NumberFormatException e) {
+            throw new BindingConfigParseException("Framing '" + config + "' requires a numeric parameter");
+        } catch (PatternSyntaxException e) {
+            throw new BindingConfigParseException("Framing '" + config + "' is no valid regex: " + e.getMessage());
+        }
+
+        throw new BindingConfigParseException(
+                "Unknown framing '" + type + "', valid framings are DELIMITER, FIXED, LENGTH and REGEX");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                switch (next) {
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'x':
+                        if (i + 2 < value.length()) {
+                            sb.append((char) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                            i += 2;
+                        } else {
+                            sb.append(next);
+                        }
+                        break;
+                    default:
+                        sb.append(next);
+                }
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof FrameDecoder && config.equals(((FrameDecoder) obj).config);
+    }
+
+    @Override
+    public int hashCode() {
+        return config.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return config;
+    }
+
+    static class DelimiterFrameDecoder extends FrameDecoder {
+
+        private final byte[] delimiter;
+
+        DelimiterFrameDecoder(String config, byte[] delimiter) {
+            super(config);
+            this.delimiter = delimiter;
+        }
+
+        @Override
+        public byte[] nextFrame(ByteRingBuffer buffer) {
+            int indexOf = buffer.indexOf(delimiter);
+            if (indexOf == -1) {
+                return null;
+            }
+            byte[] frame = buffer.read(indexOf);
+            buffer.skip(delimiter.length);
+            return frame;
+        }
+    }
+
+    static class FixedLengthFrameDecoder extends FrameDecoder {
+
+        private final int length;
+
+        FixedLengthFrameDecoder(String config, int length) {
+            super(config);
+            this.length = length;
+        }
+
+        @Override
+        public byte[] nextFrame(ByteRingBuffer buffer) {
+            if (buffer.size() < length) {
+                return null;
+            }
+            return buffer.read(length);
+        }
+    }
+
+    static class LengthPrefixedFrameDecoder extends FrameDecoder {
+
+        private final int fieldLength;
+
+        LengthPrefixedFrameDecoder(String config, int fieldLength) {
+            super(config);
+            this.fieldLength = fieldLength;
+        }
+
+        @Override
+        public byte[] nextFrame(ByteRingBuffer buffer) {
+            while (buffer.size() >= fieldLength) {
+                long length = 0;
+                for (int i = 0; i < fieldLength; i++) {
+                    length = (length << 8) | (buffer.get(i) & 0xFF);
+                }
+                if (length > buffer.capacity() - fieldLength) {
+                    // the frame can never fit into the buffer, we are out of sync
+                    buffer.skip(1);
+                    continue;
+                }
+                if (buffer.size() < fieldLength + length) {
+                    return null;
+                }
+                buffer.skip(fieldLength);
+                return buffer.read((int) length);
+            }
+            return null;
+        }
+    }
+
+    static class RegexFrameDecoder extends FrameDecoder {
+
+        private final Pattern pattern;
+
+        RegexFrameDecoder(String config, Pattern pattern) {
+            super(config);
+            this.pattern = pattern;
+        }
+
+        @Override
+        public byte[] nextFrame(ByteRingBuffer buffer) {
+            if (buffer.size() == 0) {
+                return null;
+            }
+            Matcher matcher = pattern.matcher(new String(buffer.peek(buffer.size()), LATIN1));
+            // a match touching the end of the data might still change when more data arrives
+            if (!matcher.find() || matcher.hitEnd() || matcher.end() == matcher.start()) {
+                return null;
+            }
+            buffer.skip(matcher.start());
+            return buffer.read(matcher.end() - matcher.start());
+        }
+    }
+
+}
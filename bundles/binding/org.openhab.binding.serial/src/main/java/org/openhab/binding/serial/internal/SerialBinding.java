@@ -20,7 +20,6 @@ import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.library.items.StringItem;
 import org.openhab.core.library.items.SwitchItem;
 import org.openhab.core.library.types.StringType;
-import org.openhab.core.transform.TransformationService;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.model.item.binding.BindingConfigParseException;
@@ -44,6 +43,11 @@ import org.openhab.model.item.binding.BindingConfigReader;
  * a Switch item is
  * sent out as data through the serial interface.
  * </p>
+ * <p>
+ * By default all data received within 100ms is treated as one message. The option FRAMING(&lt;framing&gt;) splits the
+ * received data into frames instead, e.g. serial="/dev/ttyS0@9600,FRAMING(DELIMITER:\r\n),REGEX(T=(.*))". See
+ * {@link FrameDecoder} for the available framings. The framing applies to all items bound to the same port.
+ * </p>
  *
  * @author Kai Kreuzer
  *
@@ -65,8 +69,6 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
 
     private EventPublisher eventPublisher = null;
 
-    private TransformationService transformationService;
-
     public void setEventPublisher(EventPublisher eventPublisher) {
         this.eventPublisher = eventPublisher;
 
@@ -83,20 +85,6 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
         }
     }
 
-    public void setTransformationService(TransformationService transformationService) {
-        this.transformationService = transformationService;
-        for (SerialDevice serialDevice : serialDevices.values()) {
-            serialDevice.setTransformationService(transformationService);
-        }
-    }
-
-    public void unsetTransformationService(TransformationService transformationService) {
-        this.transformationService = null;
-        for (SerialDevice serialDevice : serialDevices.values()) {
-            serialDevice.setTransformationService(null);
-        }
-    }
-
     /**
      * {@inheritDoc}
      */
@@ -149,11 +137,25 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
         String serialPart = bindingConfig;
         String pattern = null;
         boolean base64 = false;
+        FrameDecoder frameDecoder = null;
 
         if (indexOf != -1) {
             String substring = bindingConfig.substring(indexOf + 1);
             serialPart = bindingConfig.substring(0, indexOf);
 
+            if (substring.startsWith("FRAMING(")) {
+                int end = substring.indexOf("),");
+                if (end == -1) {
+                    if (!substring.endsWith(")")) {
+                        throw new BindingConfigParseException("FRAMING option of item '" + item.getName()
+                                + "' is missing the closing bracket");
+                    }
+                    end = substring.length() - 1;
+                }
+                frameDecoder = FrameDecoder.parse(substring.substring(8, end));
+                substring = end + 2 < substring.length() ? substring.substring(end + 2) : "";
+            }
+
             if (substring.startsWith("REGEX(")) {
                 pattern = substring.substring(6, substring.length() - 1);
             }
@@ -180,7 +182,6 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
                 serialDevice = new SerialDevice(port);
             }
 
-            serialDevice.setTransformationService(transformationService);
             serialDevice.setEventPublisher(eventPublisher);
             try {
                 serialDevice.initialize();
@@ -193,6 +194,9 @@ public class SerialBinding extends AbstractEventSubscriber implements BindingCon
             serialDevices.put(port, serialDevice);
         }
 
+        if (frameDecoder != null) {
+            serialDevice.setFrameDecoder(frameDecoder);
+        }
         serialDevice.addConfig(item.getName(), item.getClass(), pattern, base64);
 
         Set<String> itemNames = contextMap.get(context);
@@ -12,10 +12,13 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Enumeration;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.TooManyListenersException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.IOUtils;
@@ -26,8 +29,7 @@ import org.openhab.core.library.items.SwitchItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.StringType;
-import org.openhab.core.transform.TransformationException;
-import org.openhab.core.transform.TransformationService;
+import org.openhab.model.item.binding.BindingConfigParseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -48,12 +50,15 @@ public class SerialDevice implements SerialPortEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(SerialDevice.class);
 
+    /**
+     * Size of the buffer collecting the received data until a frame is complete
+     */
+    private static final int FRAME_BUFFER_SIZE = 4096;
+
     private String port;
     private int baud = 9600;
 
     private EventPublisher eventPublisher;
-    private TransformationService transformationService;
-
     private CommPortIdentifier portId;
     private SerialPort serialPort;
 
@@ -63,8 +68,15 @@ public class SerialDevice implements SerialPortEventListener {
 
     private Map<String, ItemType> configMap;
 
+    private FrameDecoder frameDecoder;
+
+    private final byte[] readBuffer = new byte[256];
+
+    private final ByteRingBuffer frameBuffer = new ByteRingBuffer(FRAME_BUFFER_SIZE);
+
     class ItemType {
         String pattern;
+        Pattern compiledPattern;
         boolean base64;
         Class<?> type;
     }
@@ -73,9 +85,10 @@ public class SerialDevice implements SerialPortEventListener {
         return configMap.isEmpty();
     }
 
-    public void addConfig(String itemName, Class<?> type, String pattern, boolean base64) {
+    public void addConfig(String itemName, Class<?> type, String pattern, boolean base64)
+            throws BindingConfigParseException {
         if (configMap == null) {
-            configMap = new HashMap<String, ItemType>();
+            configMap = new ConcurrentHashMap<String, ItemType>();
         }
 
         ItemType typeItem = new ItemType();
@@ -83,9 +96,33 @@ public class SerialDevice implements SerialPortEventListener {
         typeItem.base64 = base64;
         typeItem.type = type;
 
+        if (pattern != null) {
+            // same semantics as the REGEX transformation, compiled once instead of for every message
+            try {
+                typeItem.compiledPattern = Pattern.compile("^" + pattern + "$", Pattern.DOTALL);
+            } catch (PatternSyntaxException e) {
+                throw new BindingConfigParseException("Invalid regex '" + pattern + "': " + e.getMessage());
+            }
+        }
+
         configMap.put(itemName, typeItem);
     }
 
+    /**
+     * Sets the framing of the data received on this port. Without a framing, all data received within 100ms is
+     * treated as one message.
+     *
+     * @param frameDecoder the framing to use
+     * @throws BindingConfigParseException if a different framing is already set for this port
+     */
+    public void setFrameDecoder(FrameDecoder frameDecoder) throws BindingConfigParseException {
+        if (this.frameDecoder != null && !this.frameDecoder.equals(frameDecoder)) {
+            throw new BindingConfigParseException("Serial port " + port + " is already configured with framing '"
+                    + this.frameDecoder + "', it can't be changed to '" + frameDecoder + "'");
+        }
+        this.frameDecoder = frameDecoder;
+    }
+
     public void removeConfig(String itemName) {
         if (configMap != null) {
             configMap.remove(itemName);
@@ -109,10 +146,6 @@ public class SerialDevice implements SerialPortEventListener {
         this.eventPublisher = null;
     }
 
-    public void setTransformationService(TransformationService transformationService) {
-        this.transformationService = transformationService;
-    }
-
     public String getPort() {
         return port;
     }
@@ -201,74 +234,12 @@ public class SerialDevice implements SerialPortEventListener {
                 break;
             case SerialPortEvent.DATA_AVAILABLE:
                 // we get here if data has been received
-                StringBuilder sb = new StringBuilder();
-                byte[] readBuffer = new byte[20];
                 try {
-                    do {
-                        // read data from serial device
-                        while (inputStream.available() > 0) {
-                            int bytes = inputStream.read(readBuffer);
-                            sb.append(new String(readBuffer, 0, bytes));
-                        }
-                        try {
-                            // add wait states around reading the stream, so that interrupted transmissions are merged
-                            Thread.sleep(100);
-                        } catch (InterruptedException e) {
-                            // ignore interruption
-                        }
-                    } while (inputStream.available() > 0);
-                    // sent data
-                    String result = sb.toString();
-
-                    // send data to the bus
-                    logger.debug("Received message '{}' on serial port {}", new String[] { result, port });
-
-                    if (eventPublisher != null) {
-                        if (configMap != null && !configMap.isEmpty()) {
-                            for (Entry<String, ItemType> entry : configMap.entrySet()) {
-
-                                // use pattern
-                                if (entry.getValue().pattern != null) {
-
-                                    if (transformationService == null) {
-                                        logger.error("No transformation service available!");
-
-                                    } else {
-                                        try {
-                                            String value = transformationService.transform(entry.getValue().pattern,
-                                                    result);
-                                            if (entry.getValue().type.equals(NumberItem.class)) {
-                                                try {
-                                                    eventPublisher.postUpdate(entry.getKey(), new DecimalType(value));
-                                                } catch (NumberFormatException e) {
-                                                    logger.warn(
-                                                            "Unable to convert regex result '{}' for item {} to number",
-                                                            new String[] { result, entry.getKey() });
-                                                }
-                                            } else {
-                                                eventPublisher.postUpdate(entry.getKey(), new StringType(value));
-                                            }
-
-                                        } catch (TransformationException e) {
-                                            logger.error("Unable to transform!", e);
-                                        }
-                                    }
-
-                                } else if (entry.getValue().type == StringItem.class) {
-                                    if (entry.getValue().base64) {
-                                        result = Base64.encodeBase64String(result.getBytes());
-                                    }
-                                    eventPublisher.postUpdate(entry.getKey(), new StringType(result));
-
-                                } else if (entry.getValue().type == SwitchItem.class && result.trim().isEmpty()) {
-                                    eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
-                                    eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
-                                }
-                            }
-                        }
-
+                    if (frameDecoder != null) {
+                        readFrames();
+                    } else {
+                        readMessage();
                     }
-
                 } catch (IOException e) {
                     logger.debug("Error receiving data on serial port {}: {}", new String[] { port, e.getMessage() });
                 }
@@ -276,6 +247,104 @@ public class SerialDevice implements SerialPortEventListener {
         }
     }
 
+    /**
+     * Reads all available data into the frame buffer and processes every complete frame.
+     */
+    private void readFrames() throws IOException {
+        while (inputStream.available() > 0) {
+            int bytes = inputStream.read(readBuffer);
+            if (bytes <= 0) {
+                break;
+            }
+            long overflows = frameBuffer.getOverflowCount();
+            frameBuffer.write(readBuffer, 0, bytes);
+            if (frameBuffer.getOverflowCount() != overflows) {
+                logger.warn("Receive buffer of serial port {} overflowed, data has been lost - check the framing '{}'",
+                        port, frameDecoder);
+            }
+
+            byte[] frame;
+            while ((frame = frameDecoder.nextFrame(frameBuffer)) != null) {
+                processMessage(new String(frame));
+            }
+        }
+    }
+
+    /**
+     * Reads all data received until the port stays silent for 100ms and processes it as one message.
+     */
+    private void readMessage() throws IOException {
+        StringBuilder sb = new StringBuilder();
+        do {
+            // read data from serial device
+            while (inputStream.available() > 0) {
+                int bytes = inputStream.read(readBuffer);
+                sb.append(new String(readBuffer, 0, bytes));
+            }
+            try {
+                // add wait states around reading the stream, so that interrupted transmissions are merged
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                // ignore interruption
+            }
+        } while (inputStream.available() > 0);
+
+        processMessage(sb.toString());
+    }
+
+    /**
+     * Updates all items interested in the received message.
+     *
+     * @param result the received message
+     */
+    private void processMessage(String result) {
+        // send data to the bus
+        logger.debug("Received message '{}' on serial port {}", new String[] { result, port });
+
+        if (eventPublisher == null || configMap == null || configMap.isEmpty()) {
+            return;
+        }
+
+        String trimmed = null;
+        for (Entry<String, ItemType> entry : configMap.entrySet()) {
+            ItemType itemType = entry.getValue();
+
+            // use pattern
+            if (itemType.compiledPattern != null) {
+                if (trimmed == null) {
+                    trimmed = result.trim();
+                }
+                Matcher matcher = itemType.compiledPattern.matcher(trimmed);
+                if (!matcher.matches()) {
+                    // the message is not meant for this item
+                    continue;
+                }
+                String value = matcher.groupCount() > 0 ? matcher.group(1) : result;
+                if (itemType.type.equals(NumberItem.class)) {
+                    try {
+                        eventPublisher.postUpdate(entry.getKey(), new DecimalType(value));
+                    } catch (NumberFormatException e) {
+                        logger.warn("Unable to convert regex result '{}' for item {} to number",
+                                new String[] { result, entry.getKey() });
+                    }
+                } else {
+                    eventPublisher.postUpdate(entry.getKey(), new StringType(value));
+                }
+
+            } else if (itemType.type == StringItem.class) {
+                String value = result;
+                if (itemType.base64) {
+                    value = Base64.encodeBase64String(result.getBytes());
+                }
+                eventPublisher.postUpdate(entry.getKey(), new StringType(value));
+
+            } else if (itemType.type == SwitchItem.class && result.trim().isEmpty()) {
+                eventPublisher.postUpdate(entry.getKey(), OnOffType.ON);
+                eventPublisher.postUpdate(entry.getKey(), OnOffType.OFF);
+            }
+        }
+    }
+
     /**
      * Sends a string to the serial port of this device
      * 
@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.snmp.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.IOException;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.binding.snmp.SnmpBindingProvider;
+import org.openhab.core.binding.BindingChangeListener;
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.items.Item;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.StringItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.snmp4j.CommandResponder;
+import org.snmp4j.CommandResponderEvent;
+import org.snmp4j.MessageException;
+import org.snmp4j.PDU;
+import org.snmp4j.Snmp;
+import org.snmp4j.mp.SnmpConstants;
+import org.snmp4j.mp.StatusInformation;
+import org.snmp4j.smi.Address;
+import org.snmp4j.smi.GenericAddress;
+import org.snmp4j.smi.Integer32;
+import org.snmp4j.smi.OID;
+import org.snmp4j.smi.OctetString;
+import org.snmp4j.smi.UdpAddress;
+import org.snmp4j.smi.VariableBinding;
+import org.snmp4j.transport.DefaultUdpTransportMapping;
+
+/**
+ * Tests the polling of {@link SnmpBinding} against an SNMPv1 agent on
+ * localhost.
+ *
+ * @since 1.9.0
+ */
+public class SnmpBindingTest {
+
+    private static final long TIMEOUT = 5000;
+    private static final String OID_PREFIX = "1.3.6.1.4.1.9999.1.";
+    private static final OID UNKNOWN_OID = new OID("1.3.6.1.4.1.9999.2.0");
+
+    private Snmp agent;
+    private Address agentAddress;
+    // the number of OIDs of every GET the agent received
+    private final List<Integer> requestSizes = new CopyOnWriteArrayList<Integer>();
+    private final Map<String, State> updates = new ConcurrentHashMap<String, State>();
+
+    private SnmpBinding binding;
+    private ProviderStub provider;
+
+    @Before
+    public void setUp() throws Exception {
+        // SNMP4J doesn't report the port it has been bound to, so a free one is looked up first
+        DatagramSocket socket = new DatagramSocket(0, InetAddress.getByName("127.0.0.1"));
+        int port = socket.getLocalPort();
+        socket.close();
+        agent = new Snmp(new DefaultUdpTransportMapping(new UdpAddress("127.0.0.1/" + port)));
+        agent.addCommandResponder(new Agent());
+        agent.listen();
+        agentAddress = GenericAddress.parse("udp:127.0.0.1/" + port);
+
+        binding = new SnmpBinding();
+        binding.setEventPublisher(new EventPublisher() {
+            @Override
+            public void sendCommand(String itemName, Command command) {
+            }
+
+            @Override
+            public void postCommand(String itemName, Command command) {
+            }
+
+            @Override
+            public void postUpdate(String itemName, State newState) {
+                updates.put(itemName, newState);
+            }
+        });
+        Hashtable<String, Object> config = new Hashtable<String, Object>();
+        config.put("port", "0");
+        config.put("timeout", "1000");
+        binding.updated(config);
+
+        // added after the configuration, so that the refresh thread isn't started
+        provider = new ProviderStub();
+        binding.addBindingProvider(provider);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        binding.deactivate();
+        agent.close();
+    }
+
+    @Test
+    public void testOidsAreRequestedInGroupsOfTen() throws InterruptedException {
+        for (int i = 1; i <= 23; i++) {
+            provider.addItem("item" + i, new OID(OID_PREFIX + i + ".0"), NumberItem.class);
+        }
+
+        binding.execute();
+
+        waitForUpdates(23);
+        assertEquals(Arrays.asList(10, 10, 3), requestSizes);
+        for (int i = 1; i <= 23; i++) {
+            assertEquals(new DecimalType(i), updates.get("item" + i));
+        }
+    }
+
+    @Test
+    public void testOidsAreRequestedOneByOneOnError() throws InterruptedException {
+        provider.addItem("item1", new OID(OID_PREFIX + "1.0"), NumberItem.class);
+        provider.addItem("unknown", UNKNOWN_OID, StringItem.class);
+        provider.addItem("item2", new OID(OID_PREFIX + "2.0"), NumberItem.class);
+
+        binding.execute();
+
+        // the error answer to the single request for the unknown OID is dispatched as well
+        waitForUpdates(3);
+        assertEquals(Arrays.asList(3, 1, 1, 1), requestSizes);
+        assertEquals(new DecimalType(1), updates.get("item1"));
+        assertEquals(new DecimalType(2), updates.get("item2"));
+    }
+
+    @Test
+    public void testOutBindingItemsAreNotPolled() throws InterruptedException {
+        provider.addItem("item1", new OID(OID_PREFIX + "1.0"), NumberItem.class);
+        provider.addItem("item2", new OID(OID_PREFIX + "2.0"), NumberItem.class);
+        provider.inBindingItems.remove("item2");
+
+        binding.execute();
+
+        waitForUpdates(1);
+        Thread.sleep(100);
+        assertEquals(Collections.singletonList(1), requestSizes);
+        assertFalse(updates.containsKey("item2"));
+    }
+
+    private void waitForUpdates(int expected) throws InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (updates.size() < expected && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, updates.size());
+    }
+
+    /**
+     * Answers GETs like an SNMPv1 agent, a request containing an unknown OID
+     * is rejected as a whole with noSuchName.
+     */
+    private class Agent implements CommandResponder {
+        @Override
+        public void processPdu(CommandResponderEvent event) {
+            PDU pdu = event.getPDU();
+            if (pdu == null || pdu.getType() != PDU.GET) {
+                return;
+            }
+            requestSizes.add(pdu.size());
+
+            pdu.setType(PDU.RESPONSE);
+            for (int i = 0; i < pdu.size(); i++) {
+                VariableBinding varBind = pdu.get(i);
+                if (varBind.getOid().equals(UNKNOWN_OID)) {
+                    pdu.setErrorStatus(PDU.noSuchName);
+                    pdu.setErrorIndex(i + 1);
+                    break;
+                }
+                varBind.setVariable(new Integer32(varBind.getOid().get(OID_PREFIX.split("\\.").length)));
+            }
+            try {
+                event.getMessageDispatcher().returnResponsePdu(event.getMessageProcessingModel(),
+                        event.getSecurityModel(), event.getSecurityName(), event.getSecurityLevel(), pdu,
+                        event.getMaxSizeResponsePDU(), event.getStateReference(), new StatusInformation());
+            } catch (MessageException e) {
+                throw new IllegalStateException(e);
+            }
+            event.setProcessed(true);
+        }
+    }
+
+    private class ProviderStub implements SnmpBindingProvider {
+        private final Map<String, OID> oids = new LinkedHashMap<String, OID>();
+        private final Map<String, Class<? extends Item>> itemTypes = new HashMap<String, Class<? extends Item>>();
+        private final List<String> inBindingItems = new ArrayList<String>();
+
+        public void addItem(String itemName, OID oid, Class<? extends Item> itemType) {
+            oids.put(itemName, oid);
+            itemTypes.put(itemName, itemType);
+            inBindingItems.add(itemName);
+            binding.bindingChanged(this, itemName);
+        }
+
+        @Override
+        public void addBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public void removeBindingChangeListener(BindingChangeListener listener) {
+        }
+
+        @Override
+        public boolean providesBindingFor(String itemName) {
+            return oids.containsKey(itemName);
+        }
+
+        @Override
+        public boolean providesBinding() {
+            // keeps the refresh thread from being started, the tests call execute()
+            return false;
+        }
+
+        @Override
+        public Collection<String> getItemNames() {
+            return oids.keySet();
+        }
+
+        @Override
+        public Class<? extends Item> getItemType(String itemName) {
+            return itemTypes.get(itemName);
+        }
+
+        @Override
+        public OID getOID(String itemName) {
+            return oids.get(itemName);
+        }
+
+        @Override
+        public OID getOID(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public int getSnmpVersion(String itemName) {
+            return SnmpConstants.version1;
+        }
+
+        @Override
+        public int getSnmpVersion(String itemName, Command command) {
+            return SnmpConstants.version1;
+        }
+
+        @Override
+        public int getRefreshInterval(String itemName) {
+            return 60000;
+        }
+
+        @Override
+        public List<String> getInBindingItemNames() {
+            return inBindingItems;
+        }
+
+        @Override
+        public Address getAddress(String itemName) {
+            return agentAddress;
+        }
+
+        @Override
+        public Address getAddress(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public OctetString getCommunity(String itemName) {
+            return new OctetString("public");
+        }
+
+        @Override
+        public OctetString getCommunity(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public Integer32 getValue(String itemName, Command command) {
+            return null;
+        }
+
+        @Override
+        public String doTransformation(String itemName, String value) {
+            return value;
+        }
+    }
+
+}
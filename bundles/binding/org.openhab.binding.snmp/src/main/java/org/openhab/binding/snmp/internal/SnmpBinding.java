@@ -9,13 +9,18 @@
 package org.openhab.binding.snmp.internal;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Dictionary;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.snmp.SnmpBindingProvider;
 import org.openhab.core.binding.AbstractActiveBinding;
+import org.openhab.core.binding.BindingProvider;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.items.NumberItem;
 import org.openhab.core.library.items.StringItem;
@@ -23,6 +28,7 @@ import org.openhab.core.library.items.SwitchItem;
 import org.openhab.core.library.types.DecimalType;
 import org.openhab.core.library.types.OnOffType;
 import org.openhab.core.library.types.StringType;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.transform.TransformationException;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
@@ -84,6 +90,18 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
 
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
+    /**
+     * the maximum number of OIDs requested with one GET, agents answer larger
+     * requests with tooBig
+     */
+    private static final int MAX_OIDS_PER_PDU = 10;
+
+    private static final String RESPONSE_METRIC = "snmp.response.";
+    private static final String TIMEOUT_METRIC = "snmp.timeouts.";
+
+    /** the in-binding items by agent address and OID, rebuilt when the bindings change */
+    private Map<Address, Map<OID, List<BoundItem>>> itemIndex;
+
     @Override
     public void activate() {
         logger.debug("SNMP binding activated");
@@ -96,6 +114,33 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
         logger.debug("SNMP binding deactivated");
     }
 
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void bindingChanged(BindingProvider provider, String itemName) {
+        super.bindingChanged(provider, itemName);
+        invalidateItemIndex();
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void allBindingsChanged(BindingProvider provider) {
+        super.allBindingsChanged(provider);
+        invalidateItemIndex();
+    }
+
+    /**
+     * @{inheritDoc
+     */
+    @Override
+    public void removeBindingProvider(BindingProvider provider) {
+        super.removeBindingProvider(provider);
+        invalidateItemIndex();
+    }
+
     /**
      * @{inheritDoc
      */
@@ -206,55 +251,119 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
      */
     @Override
     public void onResponse(ResponseEvent event) {
-        dispatchPdu(event.getPeerAddress(), event.getResponse());
+        // asynchronous requests have to be cancelled, otherwise SNMP4J keeps them
+        ((Snmp) event.getSource()).cancel(event.getRequest(), this);
+
+        SnmpRequest request = (SnmpRequest) event.getUserObject();
+        PDU response = event.getResponse();
+        if (request != null) {
+            String agent = request.target.getAddress().toString();
+            if (response == null) {
+                logger.debug("SNMP: Request to {} timed out", agent);
+                MetricsRegistry.getInstance().mark(TIMEOUT_METRIC + agent);
+                return;
+            }
+            MetricsRegistry.getInstance().record(RESPONSE_METRIC + agent, System.nanoTime() - request.startTime);
+
+            // SNMPv1 agents reject the whole request if one of the OIDs is unknown
+            PDU pdu = event.getRequest();
+            if (response.getErrorStatus() != PDU.noError && pdu.getType() == PDU.GET && pdu.size() > 1) {
+                logger.debug("SNMP: {} answered with '{}', requesting the OIDs one by one", agent,
+                        response.getErrorStatusText());
+                for (VariableBinding varBind : pdu.getVariableBindings()) {
+                    sendGet(request.target, Collections.singletonList(varBind.getOid()));
+                }
+                return;
+            }
+        }
+        dispatchPdu(event.getPeerAddress(), response);
     }
 
     private void dispatchPdu(Address address, PDU pdu) {
         if (pdu != null & address != null) {
             logger.debug("Received PDU from '{}' '{}'", address, pdu);
+            Map<OID, List<BoundItem>> itemsByOID = getItemIndex().get(address);
+            if (itemsByOID == null) {
+                logger.trace("No item is bound to '{}'", address);
+                return;
+            }
+
+            for (VariableBinding varBind : pdu.getVariableBindings()) {
+                List<BoundItem> items = itemsByOID.get(varBind.getOid());
+                if (items == null) {
+                    logger.trace("No item is bound to OID ‘{}‘", varBind.getOid());
+                    continue;
+                }
+                for (BoundItem item : items) {
+                    updateItem(item.provider, item.itemName, varBind.getVariable());
+                }
+            }
+        }
+    }
+
+    private void updateItem(SnmpBindingProvider provider, String itemName, Variable variable) {
+        Class<? extends Item> itemType = provider.getItemType(itemName);
+
+        // Do any transformations
+        String value = variable.toString();
+        try {
+            value = provider.doTransformation(itemName, value);
+        } catch (TransformationException e) {
+            logger.error("Transformation error with item {}: {}", itemName, e);
+        }
+
+        // Change to a state
+        State state = null;
+        if (itemType.isAssignableFrom(StringItem.class)) {
+            state = StringType.valueOf(value);
+        } else if (itemType.isAssignableFrom(NumberItem.class)) {
+            state = DecimalType.valueOf(value);
+        } else if (itemType.isAssignableFrom(SwitchItem.class)) {
+            state = OnOffType.valueOf(value);
+        }
+
+        if (state != null) {
+            eventPublisher.postUpdate(itemName, state);
+        } else {
+            logger.debug("'{}' couldn't be parsed to a State. Valid State-Types are String and Number",
+                    variable.toString());
+        }
+    }
+
+    /**
+     * Returns the in-binding items by agent address and OID, so that the
+     * variables of a PDU can be dispatched without checking every item.
+     */
+    private synchronized Map<Address, Map<OID, List<BoundItem>>> getItemIndex() {
+        if (itemIndex == null) {
+            itemIndex = new HashMap<Address, Map<OID, List<BoundItem>>>();
             for (SnmpBindingProvider provider : providers) {
-                for (String itemName : provider.getItemNames()) {
-                    // Check the IP address
-                    if (!provider.getAddress(itemName).equals(address)) {
+                for (String itemName : provider.getInBindingItemNames()) {
+                    Address address = provider.getAddress(itemName);
+                    OID oid = provider.getOID(itemName);
+                    if (address == null || oid == null) {
                         continue;
                     }
 
-                    // Check the OID
-                    OID oid = provider.getOID(itemName);
-                    Variable variable = pdu.getVariable(oid);
-                    if (variable != null) {
-                        Class<? extends Item> itemType = provider.getItemType(itemName);
-
-                        // Do any transformations
-                        String value = variable.toString();
-                        try {
-                            value = provider.doTransformation(itemName, value);
-                        } catch (TransformationException e) {
-                            logger.error("Transformation error with item {}: {}", itemName, e);
-                        }
-
-                        // Change to a state
-                        State state = null;
-                        if (itemType.isAssignableFrom(StringItem.class)) {
-                            state = StringType.valueOf(value);
-                        } else if (itemType.isAssignableFrom(NumberItem.class)) {
-                            state = DecimalType.valueOf(value);
-                        } else if (itemType.isAssignableFrom(SwitchItem.class)) {
-                            state = OnOffType.valueOf(value);
-                        }
-
-                        if (state != null) {
-                            eventPublisher.postUpdate(itemName, state);
-                        } else {
-                            logger.debug("'{}' couldn't be parsed to a State. Valid State-Types are String and Number",
-                                    variable.toString());
-                        }
-                    } else {
-                        logger.trace("PDU doesn't contain a variable with OID ‘{}‘", oid.toString());
+                    Map<OID, List<BoundItem>> itemsByOID = itemIndex.get(address);
+                    if (itemsByOID == null) {
+                        itemsByOID = new HashMap<OID, List<BoundItem>>();
+                        itemIndex.put(address, itemsByOID);
+                    }
+                    List<BoundItem> items = itemsByOID.get(oid);
+                    if (items == null) {
+                        items = new ArrayList<BoundItem>(1);
+                        itemsByOID.put(oid, items);
                     }
+                    items.add(new BoundItem(provider, itemName));
                 }
             }
         }
+        return itemIndex;
+    }
+
+    private synchronized void invalidateItemIndex() {
+        itemIndex = null;
     }
 
     /**
@@ -313,6 +422,8 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
      */
     @Override
     public void execute() {
+        // the OIDs which are due are requested with one GET per agent
+        Map<PollingTarget, List<OID>> requests = new LinkedHashMap<PollingTarget, List<OID>>();
         for (SnmpBindingProvider provider : providers) {
             for (String itemName : provider.getInBindingItemNames()) {
                 int refreshInterval = provider.getRefreshInterval(itemName);
@@ -333,25 +444,16 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
                 if (needsUpdate) {
                     logger.debug("Item '{}' is about to be refreshed", itemName);
 
-                    // Set up the target
-                    CommunityTarget target = new CommunityTarget();
-                    target.setCommunity(provider.getCommunity(itemName));
-                    target.setAddress(provider.getAddress(itemName));
-                    target.setRetries(retries);
-                    target.setTimeout(timeout);
-                    target.setVersion(provider.getSnmpVersion(itemName));
-
-                    // Create the PDU
-                    PDU pdu = new PDU();
-                    pdu.add(new VariableBinding(provider.getOID(itemName)));
-                    pdu.setType(PDU.GET);
-
-                    logger.debug("SNMP: Send PDU {} {}", provider.getAddress(itemName), pdu);
-
-                    if (snmp == null) {
-                        logger.error("SNMP: snmp not initialised - aborting request");
-                    } else {
-                        sendPDU(target, pdu);
+                    PollingTarget pollingTarget = new PollingTarget(provider.getAddress(itemName),
+                            provider.getCommunity(itemName), provider.getSnmpVersion(itemName));
+                    List<OID> oids = requests.get(pollingTarget);
+                    if (oids == null) {
+                        oids = new ArrayList<OID>();
+                        requests.put(pollingTarget, oids);
+                    }
+                    OID oid = provider.getOID(itemName);
+                    if (!oids.contains(oid)) {
+                        oids.add(oid);
                     }
 
                     lastUpdateMap.put(itemName, System.currentTimeMillis());
@@ -359,6 +461,21 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
             }
         }
 
+        if (requests.isEmpty()) {
+            return;
+        }
+        if (snmp == null) {
+            logger.error("SNMP: snmp not initialised - aborting request");
+            return;
+        }
+
+        for (Map.Entry<PollingTarget, List<OID>> request : requests.entrySet()) {
+            CommunityTarget target = request.getKey().createTarget();
+            List<OID> oids = request.getValue();
+            for (int i = 0; i < oids.size(); i += MAX_OIDS_PER_PDU) {
+                sendGet(target, oids.subList(i, Math.min(i + MAX_OIDS_PER_PDU, oids.size())));
+            }
+        }
     }
 
     /**
@@ -430,12 +547,96 @@ public class SnmpBinding extends AbstractActiveBinding<SnmpBindingProvider>
         setProperlyConfigured(true);
     }
 
+    private void sendGet(CommunityTarget target, List<OID> oids) {
+        // Create the PDU
+        PDU pdu = new PDU();
+        for (OID oid : oids) {
+            pdu.add(new VariableBinding(oid));
+        }
+        pdu.setType(PDU.GET);
+
+        logger.debug("SNMP: Send PDU {} {}", target.getAddress(), pdu);
+
+        sendPDU(target, pdu);
+    }
+
     private void sendPDU(CommunityTarget target, PDU pdu) {
+        Snmp snmp = this.snmp;
+        if (snmp == null) {
+            logger.error("SNMP: snmp not initialised - aborting request");
+            return;
+        }
         try {
-            snmp.send(pdu, target, null, this);
+            snmp.send(pdu, target, new SnmpRequest(target), this);
         } catch (IOException e) {
             logger.error("Error sending PDU", e);
         }
     }
 
+    /**
+     * The agent, community and version of the items which are polled with
+     * one request.
+     */
+    private static class PollingTarget {
+        private final Address address;
+        private final OctetString community;
+        private final int version;
+
+        public PollingTarget(Address address, OctetString community, int version) {
+            this.address = address;
+            this.community = community;
+            this.version = version;
+        }
+
+        public CommunityTarget createTarget() {
+            CommunityTarget target = new CommunityTarget();
+            target.setCommunity(community);
+            target.setAddress(address);
+            target.setRetries(retries);
+            target.setTimeout(timeout);
+            target.setVersion(version);
+            return target;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = address != null ? address.hashCode() : 0;
+            result = 31 * result + (community != null ? community.hashCode() : 0);
+            return 31 * result + version;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof PollingTarget)) {
+                return false;
+            }
+            PollingTarget other = (PollingTarget) obj;
+            return version == other.version && (address == null ? other.address == null : address.equals(other.address))
+                    && (community == null ? other.community == null : community.equals(other.community));
+        }
+    }
+
+    /**
+     * The target and the start time of a request, passed to SNMP4J as user
+     * object.
+     */
+    private static class SnmpRequest {
+        private final CommunityTarget target;
+        private final long startTime = System.nanoTime();
+
+        public SnmpRequest(CommunityTarget target) {
+            this.target = target;
+        }
+    }
+
+    private static class BoundItem {
+        private final SnmpBindingProvider provider;
+        private final String itemName;
+
+        public BoundItem(SnmpBindingProvider provider, String itemName) {
+            this.provider = provider;
+            this.itemName = itemName;
+        }
+    }
+
 }
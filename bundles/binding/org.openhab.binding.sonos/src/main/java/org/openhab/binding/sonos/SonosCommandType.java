@@ -9,7 +9,10 @@
 package org.openhab.binding.sonos;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.binding.sonos.internal.Direction;
@@ -682,23 +685,11 @@ public enum SonosCommandType {
     }
 
     public static List<SonosCommandType> getSubscriptions() {
-        List<SonosCommandType> result = new ArrayList<SonosCommandType>();
-        for (SonosCommandType c : SonosCommandType.values()) {
-            if (c.getVariable() != null && c.getSonosCommand() != null && c.isPolling() == false) {
-                result.add(c);
-            }
-        }
-        return result;
+        return SUBSCRIPTIONS;
     }
 
     public static List<SonosCommandType> getPolling() {
-        List<SonosCommandType> result = new ArrayList<SonosCommandType>();
-        for (SonosCommandType c : SonosCommandType.values()) {
-            if (c.isPolling()) {
-                result.add(c);
-            }
-        }
-        return result;
+        return POLLING;
     }
 
     public static SonosCommandType getCommandType(String sonosCommand, Direction direction)
@@ -720,13 +711,44 @@ public enum SonosCommandType {
     }
 
     public static List<SonosCommandType> getCommandByVariable(String stateVariable) {
-        List<SonosCommandType> result = new ArrayList<SonosCommandType>();
+        List<SonosCommandType> result = BY_VARIABLE.get(stateVariable);
+        return result != null ? result : Collections.<SonosCommandType> emptyList();
+    }
+
+    /*
+     * The lookups below are done for every state variable of every GENA event
+     * and every polling cycle, so they are computed once.
+     */
+    private static final List<SonosCommandType> SUBSCRIPTIONS;
+    private static final List<SonosCommandType> POLLING;
+    private static final Map<String, List<SonosCommandType>> BY_VARIABLE;
+
+    static {
+        List<SonosCommandType> subscriptions = new ArrayList<SonosCommandType>();
+        List<SonosCommandType> polling = new ArrayList<SonosCommandType>();
+        Map<String, List<SonosCommandType>> byVariable = new HashMap<String, List<SonosCommandType>>();
         for (SonosCommandType c : SonosCommandType.values()) {
-            if (c.getVariable() != null && c.getVariable().equals(stateVariable)) {
-                result.add(c);
+            if (c.getVariable() != null && c.getSonosCommand() != null && c.isPolling() == false) {
+                subscriptions.add(c);
+            }
+            if (c.isPolling()) {
+                polling.add(c);
+            }
+            if (c.getVariable() != null) {
+                List<SonosCommandType> commands = byVariable.get(c.getVariable());
+                if (commands == null) {
+                    commands = new ArrayList<SonosCommandType>();
+                    byVariable.put(c.getVariable(), commands);
+                }
+                commands.add(c);
             }
         }
-        return result;
+        for (Map.Entry<String, List<SonosCommandType>> entry : byVariable.entrySet()) {
+            entry.setValue(Collections.unmodifiableList(entry.getValue()));
+        }
+        SUBSCRIPTIONS = Collections.unmodifiableList(subscriptions);
+        POLLING = Collections.unmodifiableList(polling);
+        BY_VARIABLE = byVariable;
     }
 
 }
\ No newline at end of file
@@ -11,7 +11,6 @@ package org.openhab.binding.sonos.internal;
 import static org.quartz.JobBuilder.newJob;
 import static org.quartz.SimpleScheduleBuilder.simpleSchedule;
 import static org.quartz.TriggerBuilder.newTrigger;
-import static org.quartz.impl.matchers.GroupMatcher.jobGroupEquals;
 
 import java.util.ArrayList;
 import java.util.Dictionary;
@@ -87,6 +86,7 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
     private static Logger logger = LoggerFactory.getLogger(SonosBinding.class);
 
     private static final Pattern EXTRACT_SONOS_CONFIG_PATTERN = Pattern.compile("^(.*?)\\.(udn)$");
+    private static final Pattern SONOS_UDN_PATTERN = Pattern.compile("RINCON_(\\w{17})");
 
     static protected UpnpService upnpService;
     static protected SonosBinding self;
@@ -388,6 +388,9 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                 return;
             }
 
+            String playerId = associatedPlayer.getId();
+            String playerUdn = associatedPlayer.getUdn().getIdentifierString();
+
             for (String stateVariable : values.keySet()) {
 
                 // find all the CommandTypes that are defined for each
@@ -410,10 +413,9 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                     }
 
                     for (SonosBindingProvider provider : providers) {
-                        List<String> qualifiedItems = provider.getItemNames(
-                                sonosZonePlayerCache.getByDevice(device).getId(), sonosCommandType.getSonosCommand());
-                        List<String> qualifiedItemsByUDN = provider.getItemNames(
-                                sonosZonePlayerCache.getByDevice(device).getUdn().getIdentifierString(),
+                        List<String> qualifiedItems = provider.getItemNames(playerId,
+                                sonosCommandType.getSonosCommand());
+                        List<String> qualifiedItemsByUDN = provider.getItemNames(playerUdn,
                                 sonosCommandType.getSonosCommand());
 
                         for (String item : qualifiedItemsByUDN) {
@@ -779,7 +781,6 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                             // the device is not yet discovered on the network or not defined in the .cfg
 
                             // Verify that the sonosID has the format of a valid UDN
-                            Pattern SONOS_UDN_PATTERN = Pattern.compile("RINCON_(\\w{17})");
                             Matcher matcher = SONOS_UDN_PATTERN.matcher(sonosID);
                             if (matcher.matches()) {
                                 // Add device to the cached Configs
@@ -815,24 +816,17 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
 
                                 // Only set up a polling job if the device supports the given SonosCommandType
                                 // Not all Sonos devices have the same capabilities
-                                if (theDevice != null) {
+                                if (theDevice != null && sched != null) {
                                     if (theDevice
                                             .findService(new UDAServiceId(sonosCommandType.getService())) != null) {
 
+                                        String jobName = provider.getSonosID(itemName, aCommand) + "-"
+                                                + sonosCommandType.getJobClass().toString();
                                         boolean jobExists = false;
 
-                                        // enumerate each job group
                                         try {
-                                            for (String group : sched.getJobGroupNames()) {
-                                                // enumerate each job in group
-                                                for (JobKey jobKey : sched.getJobKeys(jobGroupEquals(group))) {
-                                                    if (jobKey.getName().equals(provider.getSonosID(itemName, aCommand)
-                                                            + "-" + sonosCommandType.getJobClass().toString())) {
-                                                        jobExists = true;
-                                                        break;
-                                                    }
-                                                }
-                                            }
+                                            jobExists = sched.checkExists(
+                                                    new JobKey(jobName, "Sonos-" + provider.toString()));
                                         } catch (SchedulerException e1) {
                                             logger.error(
                                                     "An exception occurred while quering the Quartz Scheduler ({})",
@@ -844,16 +838,12 @@ public class SonosBinding extends AbstractActiveBinding<SonosBindingProvider>imp
                                             JobDataMap map = new JobDataMap();
                                             map.put("Player", thePlayer);
 
-                                            JobDetail job = newJob(sonosCommandType.getJobClass()).withIdentity(
-                                                    provider.getSonosID(itemName, aCommand) + "-"
-                                                            + sonosCommandType.getJobClass().toString(),
-                                                    "Sonos-" + provider.toString()).usingJobData(map).build();
+                                            JobDetail job = newJob(sonosCommandType.getJobClass())
+                                                    .withIdentity(jobName, "Sonos-" + provider.toString())
+                                                    .usingJobData(map).build();
 
                                             Trigger trigger = newTrigger()
-                                                    .withIdentity(
-                                                            provider.getSonosID(itemName, aCommand) + "-"
-                                                                    + sonosCommandType.getJobClass().toString(),
-                                                            "Sonos-" + provider.toString())
+                                                    .withIdentity(jobName, "Sonos-" + provider.toString())
                                                     .startNow().withSchedule(simpleSchedule().repeatForever()
                                                             .withIntervalInMilliseconds(pollingPeriod))
                                                     .build();
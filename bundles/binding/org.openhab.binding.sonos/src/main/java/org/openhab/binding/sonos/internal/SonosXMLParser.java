@@ -101,6 +101,37 @@ public class SonosXMLParser {
         desc;
     }
 
+    /**
+     * The SAX readers of the threads parsing the GENA events and action
+     * results, creating a reader for each of them is expensive.
+     */
+    private static final ThreadLocal<XMLReader> READERS = new ThreadLocal<XMLReader>();
+
+    /** a handler which ignores everything, so that idle readers don't hold on to the last handler */
+    private static final DefaultHandler NO_HANDLER = new DefaultHandler();
+
+    /**
+     * Parses the xml string with the reader of the current thread.
+     *
+     * @param xml
+     * @param handler
+     * @throws SAXException
+     * @throws IOException
+     */
+    private static void parse(String xml, DefaultHandler handler) throws SAXException, IOException {
+        XMLReader reader = READERS.get();
+        if (reader == null) {
+            reader = XMLReaderFactory.createXMLReader();
+            READERS.set(reader);
+        }
+        reader.setContentHandler(handler);
+        try {
+            reader.parse(new InputSource(new StringReader(xml)));
+        } finally {
+            reader.setContentHandler(NO_HANDLER);
+        }
+    }
+
     /**
      * @param xml
      * @return a list of alarms from the given xml string.
@@ -108,11 +139,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosAlarm> getAlarmsFromStringResult(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         AlarmHandler handler = new AlarmHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Alarms from String {}", xml);
         }
@@ -126,11 +155,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosEntry> getEntriesFromString(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         EntryHandler handler = new EntryHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Entries from String {}", xml);
         }
@@ -146,11 +173,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static SonosResourceMetaData getEmbededMetaDataFromResource(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         EmbededMetaDataHandler handler = new EmbededMetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             logger.error("Could not parse Entries from String {}", xml);
         }
@@ -165,11 +190,9 @@ public class SonosXMLParser {
      * @throws SAXException
      */
     public static List<SonosZoneGroup> getZoneGroupFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         ZoneGroupHandler handler = new ZoneGroupHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse ZoneGroup from String {}", xml);
@@ -180,11 +203,9 @@ public class SonosXMLParser {
     }
 
     public static List<String> getRadioTimeFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         OpmlHandler handler = new OpmlHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse RadioTime from String {}", xml);
@@ -195,11 +216,9 @@ public class SonosXMLParser {
     }
 
     public static Map<String, StateVariableValue> getRenderingControlFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         RenderingControlEventHandler handler = new RenderingControlEventHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.debug("Could not parse Rendering Control event: {}", e);
@@ -208,11 +227,9 @@ public class SonosXMLParser {
     }
 
     public static Map<String, StateVariableValue> getAVTransportFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         AVTransportEventHandler handler = new AVTransportEventHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse AV Transport Event: {}", e);
@@ -221,12 +238,10 @@ public class SonosXMLParser {
     }
 
     public static SonosMetaData getMetaDataFromXML(String xml) throws SAXException {
-        XMLReader reader = XMLReaderFactory.createXMLReader();
         // logger.debug("getTrackFromXML {}",xml);
         MetaDataHandler handler = new MetaDataHandler();
-        reader.setContentHandler(handler);
         try {
-            reader.parse(new InputSource(new StringReader(xml)));
+            parse(xml, handler);
         } catch (IOException e) {
             // This should never happen - we're not performing I/O!
             logger.error("Could not parse AV Transport Event: {}", e);
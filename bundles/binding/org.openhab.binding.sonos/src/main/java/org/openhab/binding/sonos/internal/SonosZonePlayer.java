@@ -147,12 +147,42 @@ class SonosZonePlayer {
         return false;
     }
 
+    /**
+     * Stores the values which differ from the state of the player. The
+     * comparison and the update are done atomically, so that concurrent
+     * events and action results can't publish the same change twice.
+     *
+     * @param values the new values of the state variables
+     * @return the values that have actually changed
+     */
+    protected Map<String, StateVariableValue> updateStateMap(Map<String, StateVariableValue> values) {
+        Map<String, StateVariableValue> changedValues = new HashMap<String, StateVariableValue>();
+        synchronized (stateMap) {
+            for (Map.Entry<String, StateVariableValue> entry : values.entrySet()) {
+                if (isUpdatedValue(entry.getKey(), entry.getValue())) {
+                    changedValues.put(entry.getKey(), entry.getValue());
+                    stateMap.put(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return changedValues;
+    }
+
+    /**
+     * Stores the values and maps only the changed ones to items.
+     *
+     * @param values the new values of the state variables
+     */
+    protected void processStateVariableValues(Map<String, StateVariableValue> values) {
+        Map<String, StateVariableValue> changedValues = updateStateMap(values);
+        if (!changedValues.isEmpty()) {
+            sonosBinding.processVariableMap(device, changedValues);
+        }
+    }
+
     protected void processStateVariableValue(String valueName, StateVariableValue newValue) {
-        if (newValue != null && isUpdatedValue(valueName, newValue)) {
-            Map<String, StateVariableValue> mapToProcess = new HashMap<String, StateVariableValue>();
-            mapToProcess.put(valueName, newValue);
-            stateMap.putAll(mapToProcess);
-            sonosBinding.processVariableMap(device, mapToProcess);
+        if (newValue != null && valueName != null) {
+            processStateVariableValues(Collections.singletonMap(valueName, newValue));
         }
     }
 
@@ -199,7 +229,6 @@ class SonosZonePlayer {
             // get the device linked to this service linked to this subscription
             Map<String, StateVariableValue> values = sub.getCurrentValues();
             Map<String, StateVariableValue> mapToProcess = new HashMap<String, StateVariableValue>();
-            Map<String, StateVariableValue> parsedValues = null;
 
             // now, lets deal with the specials - some UPNP responses require some XML parsing
             // or we need to update our internal data structure
@@ -208,13 +237,8 @@ class SonosZonePlayer {
             for (String stateVariable : values.keySet()) {
                 if (stateVariable.equals("LastChange") && service.getServiceType().getType().equals("AVTransport")) {
                     try {
-                        parsedValues = SonosXMLParser.getAVTransportFromXML(values.get(stateVariable).toString());
-                        for (String someValue : parsedValues.keySet()) {
-                            // logger.debug("Lastchange parsed into {}:{}",someValue,parsedValues.get(someValue));
-                            if (isUpdatedValue(someValue, parsedValues.get(someValue))) {
-                                mapToProcess.put(someValue, parsedValues.get(someValue));
-                            }
-                        }
+                        mapToProcess.putAll(
+                                SonosXMLParser.getAVTransportFromXML(values.get(stateVariable).toString()));
                     } catch (SAXException e) {
                         logger.error("Could not parse AVTransport from String {}",
                                 values.get(stateVariable).toString());
@@ -223,25 +247,21 @@ class SonosZonePlayer {
                 } else if (stateVariable.equals("LastChange")
                         && service.getServiceType().getType().equals("RenderingControl")) {
                     try {
-                        parsedValues = SonosXMLParser.getRenderingControlFromXML(values.get(stateVariable).toString());
-                        for (String someValue : parsedValues.keySet()) {
-                            if (isUpdatedValue(someValue, parsedValues.get(someValue))) {
-                                mapToProcess.put(someValue, parsedValues.get(someValue));
-                            }
-                        }
+                        mapToProcess.putAll(
+                                SonosXMLParser.getRenderingControlFromXML(values.get(stateVariable).toString()));
                     } catch (SAXException e) {
                         logger.error("Could not parse RenderingControl from String {}",
                                 values.get(stateVariable).toString());
                     }
-                } else if (isUpdatedValue(stateVariable, values.get(stateVariable))) {
+                } else {
                     mapToProcess.put(stateVariable, values.get(stateVariable));
                 }
 
             }
 
+            // only the variables that have changed value are mapped to items
             if (isConfigured) {
-                stateMap.putAll(mapToProcess);
-                sonosBinding.processVariableMap(device, mapToProcess);
+                processStateVariableValues(mapToProcess);
             }
         }
 
@@ -731,21 +751,17 @@ class SonosZonePlayer {
             Map<String, StateVariableValue> mapToProcess = new HashMap<String, StateVariableValue>();
             if (result != null) {
 
-                // only process the variables that have changed value
                 for (String variable : result.keySet()) {
                     ActionArgumentValue newArgument = result.get(variable);
 
                     StateVariable newVariable = new StateVariable(variable,
                             new StateVariableTypeDetails(newArgument.getDatatype()));
                     StateVariableValue newValue = new StateVariableValue(newVariable, newArgument.getValue());
-
-                    if (isUpdatedValue(variable, newValue)) {
-                        mapToProcess.put(variable, newValue);
-                    }
+                    mapToProcess.put(variable, newValue);
                 }
 
-                stateMap.putAll(mapToProcess);
-                sonosBinding.processVariableMap(device, mapToProcess);
+                // only process the variables that have changed value
+                processStateVariableValues(mapToProcess);
             }
         }
     }
@@ -11,6 +11,7 @@ package org.openhab.binding.systeminfo.internal;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Dictionary;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,8 +22,8 @@ import org.hyperic.sigar.Sigar;
 import org.hyperic.sigar.SigarException;
 import org.hyperic.sigar.SigarProxy;
 import org.hyperic.sigar.SigarProxyCache;
-import org.hyperic.sigar.ptql.ProcessFinder;
 import org.openhab.binding.systeminfo.SysteminfoBindingProvider;
+import org.openhab.binding.systeminfo.internal.SysteminfoCommandType.Category;
 import org.openhab.core.binding.AbstractActiveBinding;
 import org.openhab.core.items.Item;
 import org.openhab.core.library.types.DecimalType;
@@ -35,7 +36,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * Binding for system and process information gathering.
+ * Binding for system and process information gathering. The values of a
+ * refresh cycle are read from one {@link SysteminfoSnapshot}. The minimum
+ * refresh interval of the items of a category can be configured, e.g.
+ * <code>processInterval</code> to scan the processes less often.
  *
  * @author Pauli Anttila
  * @since 1.3.0
@@ -51,6 +55,9 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
 
     private Map<String, Long> lastUpdateMap = new HashMap<String, Long>();
 
+    /** the minimum refresh intervals of the categories, by default the interval of the item applies */
+    private Map<Category, Integer> categoryIntervals = new EnumMap<Category, Integer>(Category.class);
+
     private static Sigar sigarImpl;
     private static SigarProxy sigar;
 
@@ -85,9 +92,15 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
      */
     @Override
     protected void execute() {
+        SysteminfoSnapshot snapshot = null;
         for (SysteminfoBindingProvider provider : providers) {
             for (String itemName : provider.getItemNames()) {
+                SysteminfoCommandType commmandType = provider.getCommandType(itemName);
                 int refreshInterval = provider.getRefreshInterval(itemName);
+                Integer categoryInterval = categoryIntervals.get(commmandType.getCategory());
+                if (categoryInterval != null && categoryInterval > refreshInterval) {
+                    refreshInterval = categoryInterval;
+                }
 
                 Long lastUpdateTimeStamp = lastUpdateMap.get(itemName);
                 if (lastUpdateTimeStamp == null) {
@@ -101,11 +114,13 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
 
                     logger.debug("item '{}' is about to be refreshed now", itemName);
 
-                    SysteminfoCommandType commmandType = provider.getCommandType(itemName);
                     Class<? extends Item> itemType = provider.getItemType(itemName);
                     String target = provider.getTarget(itemName);
 
-                    State state = getData(commmandType, itemType, target);
+                    if (snapshot == null) {
+                        snapshot = new SysteminfoSnapshot(sigar, sigarImpl);
+                    }
+                    State state = getData(snapshot, commmandType, itemType, target);
 
                     if (state != null) {
                         eventPublisher.postUpdate(itemName, state);
@@ -119,160 +134,152 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
         }
     }
 
-    private State getData(SysteminfoCommandType commandType, Class<? extends Item> itemType, String target) {
+    private State getData(SysteminfoSnapshot snapshot, SysteminfoCommandType commandType,
+            Class<? extends Item> itemType, String target) {
         State state = UnDefType.UNDEF;
-        long pid;
 
         try {
             switch (commandType) {
                 case LOAD_AVERAGE_1MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[0]);
+                    state = new DecimalType(snapshot.getLoadAverage()[0]);
                     break;
                 case LOAD_AVERAGE_5MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[1]);
+                    state = new DecimalType(snapshot.getLoadAverage()[1]);
                     break;
                 case LOAD_AVERAGE_15MIN:
-                    state = new DecimalType(sigar.getLoadAverage()[2]);
+                    state = new DecimalType(snapshot.getLoadAverage()[2]);
                     break;
 
                 case CPU_COMBINED:
-                    state = new DecimalType(sigar.getCpuPerc().getCombined() * 100);
+                    state = new DecimalType(snapshot.getCpuPerc().getCombined() * 100);
                     break;
                 case CPU_USER:
-                    state = new DecimalType(sigar.getCpuPerc().getUser() * 100);
+                    state = new DecimalType(snapshot.getCpuPerc().getUser() * 100);
                     break;
                 case CPU_SYSTEM:
-                    state = new DecimalType(sigar.getCpuPerc().getSys() * 100);
+                    state = new DecimalType(snapshot.getCpuPerc().getSys() * 100);
                     break;
                 case CPU_NICE:
-                    state = new DecimalType(sigar.getCpuPerc().getNice() * 100);
+                    state = new DecimalType(snapshot.getCpuPerc().getNice() * 100);
                     break;
                 case CPU_WAIT:
-                    state = new DecimalType(sigar.getCpuPerc().getWait() * 100);
+                    state = new DecimalType(snapshot.getCpuPerc().getWait() * 100);
                     break;
 
                 case UPTIME:
-                    state = new DecimalType(sigar.getUptime().getUptime());
+                    state = new DecimalType(snapshot.getUptime().getUptime());
                     break;
                 case UPTIME_FORMATTED:
-                    state = new StringType(getElapsedTime((long) sigar.getUptime().getUptime()));
+                    state = new StringType(getElapsedTime((long) snapshot.getUptime().getUptime()));
                     break;
 
                 case MEM_FREE_PERCENT:
-                    state = new DecimalType(sigar.getMem().getFreePercent());
+                    state = new DecimalType(snapshot.getMem().getFreePercent());
                     break;
                 case MEM_USED_PERCENT:
-                    state = new DecimalType(sigar.getMem().getUsedPercent());
+                    state = new DecimalType(snapshot.getMem().getUsedPercent());
                     break;
                 case MEM_FREE:
-                    state = new DecimalType(formatBytes(sigar.getMem().getFree(), units));
+                    state = new DecimalType(formatBytes(snapshot.getMem().getFree(), units));
                     break;
                 case MEM_USED:
-                    state = new DecimalType(formatBytes(sigar.getMem().getUsed(), units));
+                    state = new DecimalType(formatBytes(snapshot.getMem().getUsed(), units));
                     break;
                 case MEM_ACTUAL_FREE:
-                    state = new DecimalType(formatBytes(sigar.getMem().getActualFree(), units));
+                    state = new DecimalType(formatBytes(snapshot.getMem().getActualFree(), units));
                     break;
                 case MEM_ACTUAL_USED:
-                    state = new DecimalType(formatBytes(sigar.getMem().getActualUsed(), units));
+                    state = new DecimalType(formatBytes(snapshot.getMem().getActualUsed(), units));
                     break;
                 case MEM_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getMem().getTotal(), units));
+                    state = new DecimalType(formatBytes(snapshot.getMem().getTotal(), units));
                     break;
 
                 case SWAP_FREE:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getFree(), units));
+                    state = new DecimalType(formatBytes(snapshot.getSwap().getFree(), units));
                     break;
                 case SWAP_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getTotal(), units));
+                    state = new DecimalType(formatBytes(snapshot.getSwap().getTotal(), units));
                     break;
                 case SWAP_USED:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getUsed(), units));
+                    state = new DecimalType(formatBytes(snapshot.getSwap().getUsed(), units));
                     break;
                 case SWAP_PAGE_IN:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getPageIn(), units));
+                    state = new DecimalType(formatBytes(snapshot.getSwap().getPageIn(), units));
                     break;
                 case SWAP_PAGE_OUT:
-                    state = new DecimalType(formatBytes(sigar.getSwap().getPageOut(), units));
+                    state = new DecimalType(formatBytes(snapshot.getSwap().getPageOut(), units));
                     break;
 
                 case NET_RX_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getNetInterfaceStat(target).getRxBytes(), units));
+                    state = new DecimalType(formatBytes(snapshot.getNetInterfaceStat(target).getRxBytes(), units));
                     break;
                 case NET_TX_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getNetInterfaceStat(target).getTxBytes(), units));
+                    state = new DecimalType(formatBytes(snapshot.getNetInterfaceStat(target).getTxBytes(), units));
                     break;
 
                 case DISK_READS:
-                    state = new DecimalType(sigar.getDiskUsage(target).getReads());
+                    state = new DecimalType(snapshot.getDiskUsage(target).getReads());
                     break;
                 case DISK_WRITES:
-                    state = new DecimalType(sigar.getDiskUsage(target).getWrites());
+                    state = new DecimalType(snapshot.getDiskUsage(target).getWrites());
                     break;
                 case DISK_READ_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getDiskUsage(target).getReadBytes(), units));
+                    state = new DecimalType(formatBytes(snapshot.getDiskUsage(target).getReadBytes(), units));
                     break;
                 case DISK_WRITE_BYTES:
-                    state = new DecimalType(formatBytes(sigar.getDiskUsage(target).getWriteBytes(), units));
+                    state = new DecimalType(formatBytes(snapshot.getDiskUsage(target).getWriteBytes(), units));
                     break;
 
                 case FS_USED:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getUsed() * 1024, units));
+                    state = new DecimalType(formatBytes(snapshot.getFileSystemUsage(target).getUsed() * 1024, units));
                     break;
                 case FS_FREE:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getFree() * 1024, units));
+                    state = new DecimalType(formatBytes(snapshot.getFileSystemUsage(target).getFree() * 1024, units));
                     break;
                 case FS_TOTAL:
-                    state = new DecimalType(formatBytes(sigar.getFileSystemUsage(target).getTotal() * 1024, units));
+                    state = new DecimalType(formatBytes(snapshot.getFileSystemUsage(target).getTotal() * 1024, units));
                     break;
                 case FS_USE_PERCENT:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getUsePercent() * 100);
+                    state = new DecimalType(snapshot.getFileSystemUsage(target).getUsePercent() * 100);
                     break;
                 case FS_FILES:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getFiles());
+                    state = new DecimalType(snapshot.getFileSystemUsage(target).getFiles());
                     break;
                 case FS_FREE_FILES:
-                    state = new DecimalType(sigar.getFileSystemUsage(target).getFreeFiles());
+                    state = new DecimalType(snapshot.getFileSystemUsage(target).getFreeFiles());
                     break;
 
                 case DIR_USAGE:
-                    state = new DecimalType(formatBytes(sigar.getDirUsage(target).getDiskUsage(), units));
+                    state = new DecimalType(formatBytes(snapshot.getDirUsage(target).getDiskUsage(), units));
                     break;
                 case DIR_FILES:
-                    state = new DecimalType(sigar.getDirUsage(target).getFiles());
+                    state = new DecimalType(snapshot.getDirUsage(target).getFiles());
                     break;
 
                 case PROCESS_REAL_MEM:
-                    pid = getPid(target);
-                    state = new DecimalType(formatBytes(sigar.getProcMem(pid).getResident(), units));
+                    state = new DecimalType(formatBytes(snapshot.getProcMem(target).getResident(), units));
                     break;
                 case PROCESS_VIRTUAL_MEM:
-                    pid = getPid(target);
-                    state = new DecimalType(formatBytes(sigar.getProcMem(pid).getSize(), units));
+                    state = new DecimalType(formatBytes(snapshot.getProcMem(target).getSize(), units));
                     break;
                 case PROCESS_CPU_PERCENT:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getPercent() * 100);
+                    state = new DecimalType(snapshot.getProcCpu(target).getPercent() * 100);
                     break;
                 case PROCESS_CPU_SYSTEM:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getSys());
+                    state = new DecimalType(snapshot.getProcCpu(target).getSys());
                     break;
                 case PROCESS_CPU_USER:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getUser());
+                    state = new DecimalType(snapshot.getProcCpu(target).getUser());
                     break;
                 case PROCESS_CPU_TOTAL:
-                    pid = getPid(target);
-                    state = new DecimalType(sigar.getProcCpu(pid).getTotal());
+                    state = new DecimalType(snapshot.getProcCpu(target).getTotal());
                     break;
                 case PROCESS_UPTIME:
-                    pid = getPid(target);
-                    state = new DecimalType(getProcessUptime(pid));
+                    state = new DecimalType(getProcessUptime(snapshot, target));
                     break;
                 case PROCESS_UPTIME_FORMATTED:
-                    pid = getPid(target);
-                    state = new StringType(getElapsedTime(getProcessUptime(pid)));
+                    state = new StringType(getElapsedTime(getProcessUptime(snapshot, target)));
                     break;
 
                 default:
@@ -286,41 +293,12 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
         return state;
     }
 
-    private long getProcessUptime(long pid) throws SigarException {
-        long processStartTime = sigar.getProcTime(pid).getStartTime();
+    private long getProcessUptime(SysteminfoSnapshot snapshot, String processName) throws SigarException {
+        long processStartTime = snapshot.getProcTime(processName).getStartTime();
         long currentTime = System.currentTimeMillis();
         return (currentTime - processStartTime) / 1000;
     }
 
-    private long getPid(String processName) throws SigarException {
-        long pid;
-
-        ProcessFinder processFinder = new ProcessFinder(sigarImpl);
-        String query;
-
-        if (processName.equals("$$")) {
-            pid = sigar.getPid();
-            logger.debug("Return own pid {}", pid);
-            return pid;
-        } else if (processName.startsWith("*")) {
-            query = "State.Name.sw=" + processName.replace("*", "");
-        } else if (processName.endsWith("*")) {
-            query = "State.Name.ew=" + processName.replace("*", "");
-        } else if (processName.startsWith("=")) {
-            query = "State.Name.eq=" + processName.replace("=", "");
-        } else if (processName.startsWith("#")) {
-            query = processName.replace("#", "");
-        } else {
-            query = "State.Name.ct=" + processName;
-        }
-
-        logger.debug("Query pid by '{}'", query);
-        pid = processFinder.findSingleProcess(query);
-
-        logger.debug("Return pid {}", pid);
-        return pid;
-    }
-
     private static String getElapsedTime(long sec) {
 
         final int SECOND = 1;
@@ -395,6 +373,20 @@ public class SysteminfoBinding extends AbstractActiveBinding<SysteminfoBindingPr
             }
 
             logger.debug("Using units: {}", units);
+
+            categoryIntervals.clear();
+            for (Category category : Category.values()) {
+                String key = category.name().toLowerCase() + "Interval";
+                String intervalString = (String) config.get(key);
+                if (StringUtils.isNotBlank(intervalString)) {
+                    if (!intervalString.matches("\\d+")) {
+                        throw new ConfigurationException(key, "Illegal interval");
+                    }
+                    categoryIntervals.put(category, Integer.valueOf(intervalString));
+                }
+            }
+
+            logger.debug("Category intervals: {}", categoryIntervals);
         }
 
         initializeSystemMonitor();
@@ -22,68 +22,84 @@ import org.openhab.core.library.items.StringItem;
  */
 public enum SysteminfoCommandType {
 
-    LOAD_AVERAGE_1MIN("LoadAverage1Min", NumberItem.class),
-    LOAD_AVERAGE_5MIN("LoadAverage5Min", NumberItem.class),
-    LOAD_AVERAGE_15MIN("LoadAverage15Min", NumberItem.class),
-
-    CPU_COMBINED("CpuCombined", NumberItem.class),
-    CPU_USER("CpuUser", NumberItem.class),
-    CPU_SYSTEM("CpuSystem", NumberItem.class),
-    CPU_NICE("CpuNice", NumberItem.class),
-    CPU_WAIT("CpuWait", NumberItem.class),
-
-    UPTIME("Uptime", NumberItem.class),
-    UPTIME_FORMATTED("UptimeFormatted", StringItem.class),
-
-    MEM_FREE_PERCENT("MemFreePercent", NumberItem.class),
-    MEM_USED_PERCENT("MemUsedPercent", NumberItem.class),
-
-    MEM_FREE("MemFree", NumberItem.class),
-    MEM_USED("MemUsed", NumberItem.class),
-    MEM_ACTUAL_FREE("MemActualFree", NumberItem.class),
-    MEM_ACTUAL_USED("MemActualUsed", NumberItem.class),
-    MEM_TOTAL("MemTotal", NumberItem.class),
-
-    SWAP_FREE("SwapFree", NumberItem.class),
-    SWAP_TOTAL("SwapTotal", NumberItem.class),
-    SWAP_USED("SwapUsed", NumberItem.class),
-    SWAP_PAGE_IN("SwapPageIn", NumberItem.class),
-    SWAP_PAGE_OUT("SwapPageOut", NumberItem.class),
-
-    NET_TX_BYTES("NetTxBytes", NumberItem.class),
-    NET_RX_BYTES("NetRxBytes", NumberItem.class),
-
-    DISK_READS("DiskReads", NumberItem.class),
-    DISK_WRITES("DiskWrites", NumberItem.class),
-    DISK_READ_BYTES("DiskReadBytes", NumberItem.class),
-    DISK_WRITE_BYTES("DiskWriteBytes", NumberItem.class),
-
-    FS_USED("FileSystemUsed", NumberItem.class),
-    FS_FREE("FileSystemFree", NumberItem.class),
-    FS_TOTAL("FileSystemTotal", NumberItem.class),
-    FS_USE_PERCENT("FileSystemUsagePercent", NumberItem.class),
-    FS_FILES("FileSystemFiles", NumberItem.class),
-    FS_FREE_FILES("FileSystemFreeFiles", NumberItem.class),
-
-    DIR_USAGE("DirUsage", NumberItem.class),
-    DIR_FILES("DirFiles", NumberItem.class),
-
-    PROCESS_REAL_MEM("ProcessRealMem", NumberItem.class),
-    PROCESS_VIRTUAL_MEM("ProcessVirtualMem", NumberItem.class),
-
-    PROCESS_CPU_PERCENT("ProcessCpuPercent", NumberItem.class),
-    PROCESS_CPU_SYSTEM("ProcessCpuSystem", NumberItem.class),
-    PROCESS_CPU_USER("ProcessCpuUser", NumberItem.class),
-    PROCESS_CPU_TOTAL("ProcessCpuTotal", NumberItem.class),
-    PROCESS_UPTIME("ProcessUptime", NumberItem.class),
-    PROCESS_UPTIME_FORMATTED("ProcessUptimeFormatted", StringItem.class),;
+    LOAD_AVERAGE_1MIN("LoadAverage1Min", NumberItem.class, Category.LOAD),
+    LOAD_AVERAGE_5MIN("LoadAverage5Min", NumberItem.class, Category.LOAD),
+    LOAD_AVERAGE_15MIN("LoadAverage15Min", NumberItem.class, Category.LOAD),
+
+    CPU_COMBINED("CpuCombined", NumberItem.class, Category.CPU),
+    CPU_USER("CpuUser", NumberItem.class, Category.CPU),
+    CPU_SYSTEM("CpuSystem", NumberItem.class, Category.CPU),
+    CPU_NICE("CpuNice", NumberItem.class, Category.CPU),
+    CPU_WAIT("CpuWait", NumberItem.class, Category.CPU),
+
+    UPTIME("Uptime", NumberItem.class, Category.UPTIME),
+    UPTIME_FORMATTED("UptimeFormatted", StringItem.class, Category.UPTIME),
+
+    MEM_FREE_PERCENT("MemFreePercent", NumberItem.class, Category.MEMORY),
+    MEM_USED_PERCENT("MemUsedPercent", NumberItem.class, Category.MEMORY),
+
+    MEM_FREE("MemFree", NumberItem.class, Category.MEMORY),
+    MEM_USED("MemUsed", NumberItem.class, Category.MEMORY),
+    MEM_ACTUAL_FREE("MemActualFree", NumberItem.class, Category.MEMORY),
+    MEM_ACTUAL_USED("MemActualUsed", NumberItem.class, Category.MEMORY),
+    MEM_TOTAL("MemTotal", NumberItem.class, Category.MEMORY),
+
+    SWAP_FREE("SwapFree", NumberItem.class, Category.MEMORY),
+    SWAP_TOTAL("SwapTotal", NumberItem.class, Category.MEMORY),
+    SWAP_USED("SwapUsed", NumberItem.class, Category.MEMORY),
+    SWAP_PAGE_IN("SwapPageIn", NumberItem.class, Category.MEMORY),
+    SWAP_PAGE_OUT("SwapPageOut", NumberItem.class, Category.MEMORY),
+
+    NET_TX_BYTES("NetTxBytes", NumberItem.class, Category.NETWORK),
+    NET_RX_BYTES("NetRxBytes", NumberItem.class, Category.NETWORK),
+
+    DISK_READS("DiskReads", NumberItem.class, Category.DISK),
+    DISK_WRITES("DiskWrites", NumberItem.class, Category.DISK),
+    DISK_READ_BYTES("DiskReadBytes", NumberItem.class, Category.DISK),
+    DISK_WRITE_BYTES("DiskWriteBytes", NumberItem.class, Category.DISK),
+
+    FS_USED("FileSystemUsed", NumberItem.class, Category.FILESYSTEM),
+    FS_FREE("FileSystemFree", NumberItem.class, Category.FILESYSTEM),
+    FS_TOTAL("FileSystemTotal", NumberItem.class, Category.FILESYSTEM),
+    FS_USE_PERCENT("FileSystemUsagePercent", NumberItem.class, Category.FILESYSTEM),
+    FS_FILES("FileSystemFiles", NumberItem.class, Category.FILESYSTEM),
+    FS_FREE_FILES("FileSystemFreeFiles", NumberItem.class, Category.FILESYSTEM),
+
+    DIR_USAGE("DirUsage", NumberItem.class, Category.FILESYSTEM),
+    DIR_FILES("DirFiles", NumberItem.class, Category.FILESYSTEM),
+
+    PROCESS_REAL_MEM("ProcessRealMem", NumberItem.class, Category.PROCESS),
+    PROCESS_VIRTUAL_MEM("ProcessVirtualMem", NumberItem.class, Category.PROCESS),
+
+    PROCESS_CPU_PERCENT("ProcessCpuPercent", NumberItem.class, Category.PROCESS),
+    PROCESS_CPU_SYSTEM("ProcessCpuSystem", NumberItem.class, Category.PROCESS),
+    PROCESS_CPU_USER("ProcessCpuUser", NumberItem.class, Category.PROCESS),
+    PROCESS_CPU_TOTAL("ProcessCpuTotal", NumberItem.class, Category.PROCESS),
+    PROCESS_UPTIME("ProcessUptime", NumberItem.class, Category.PROCESS),
+    PROCESS_UPTIME_FORMATTED("ProcessUptimeFormatted", StringItem.class, Category.PROCESS),;
+
+    /**
+     * The groups of values which are read from Sigar together.
+     */
+    public enum Category {
+        LOAD,
+        CPU,
+        UPTIME,
+        MEMORY,
+        NETWORK,
+        DISK,
+        FILESYSTEM,
+        PROCESS;
+    }
 
     private final String text;
     private Class<? extends Item> itemClass;
+    private final Category category;
 
-    private SysteminfoCommandType(final String text, Class<? extends Item> itemClass) {
+    private SysteminfoCommandType(final String text, Class<? extends Item> itemClass, Category category) {
         this.text = text;
         this.itemClass = itemClass;
+        this.category = category;
     }
 
     @Override
@@ -95,6 +111,10 @@ public enum SysteminfoCommandType {
         return itemClass;
     }
 
+    public Category getCategory() {
+        return category;
+    }
+
     /**
      * Procedure to validate command type string.
      * 
@@ -0,0 +1,208 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.systeminfo.internal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hyperic.sigar.CpuPerc;
+import org.hyperic.sigar.DirUsage;
+import org.hyperic.sigar.DiskUsage;
+import org.hyperic.sigar.FileSystemUsage;
+import org.hyperic.sigar.Mem;
+import org.hyperic.sigar.NetInterfaceStat;
+import org.hyperic.sigar.ProcCpu;
+import org.hyperic.sigar.ProcMem;
+import org.hyperic.sigar.ProcTime;
+import org.hyperic.sigar.Sigar;
+import org.hyperic.sigar.SigarException;
+import org.hyperic.sigar.SigarProxy;
+import org.hyperic.sigar.Swap;
+import org.hyperic.sigar.Uptime;
+import org.hyperic.sigar.ptql.ProcessFinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The values of one refresh cycle. Every value is read from Sigar at most
+ * once per cycle and target, so that all items of a category show the values
+ * of the same instant and processes are looked up only once.
+ *
+ * @since 1.9.0
+ */
+public class SysteminfoSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(SysteminfoSnapshot.class);
+
+    private final SigarProxy sigar;
+    private final Sigar sigarImpl;
+
+    private double[] loadAverage;
+    private CpuPerc cpuPerc;
+    private Uptime uptime;
+    private Mem mem;
+    private Swap swap;
+    private final Map<String, NetInterfaceStat> netInterfaceStats = new HashMap<String, NetInterfaceStat>();
+    private final Map<String, DiskUsage> diskUsages = new HashMap<String, DiskUsage>();
+    private final Map<String, FileSystemUsage> fileSystemUsages = new HashMap<String, FileSystemUsage>();
+    private final Map<String, DirUsage> dirUsages = new HashMap<String, DirUsage>();
+    private final Map<String, Long> pids = new HashMap<String, Long>();
+    private final Map<Long, ProcMem> procMems = new HashMap<Long, ProcMem>();
+    private final Map<Long, ProcCpu> procCpus = new HashMap<Long, ProcCpu>();
+    private final Map<Long, ProcTime> procTimes = new HashMap<Long, ProcTime>();
+
+    public SysteminfoSnapshot(SigarProxy sigar, Sigar sigarImpl) {
+        this.sigar = sigar;
+        this.sigarImpl = sigarImpl;
+    }
+
+    public double[] getLoadAverage() throws SigarException {
+        if (loadAverage == null) {
+            loadAverage = sigar.getLoadAverage();
+        }
+        return loadAverage;
+    }
+
+    public CpuPerc getCpuPerc() throws SigarException {
+        if (cpuPerc == null) {
+            cpuPerc = sigar.getCpuPerc();
+        }
+        return cpuPerc;
+    }
+
+    public Uptime getUptime() throws SigarException {
+        if (uptime == null) {
+            uptime = sigar.getUptime();
+        }
+        return uptime;
+    }
+
+    public Mem getMem() throws SigarException {
+        if (mem == null) {
+            mem = sigar.getMem();
+        }
+        return mem;
+    }
+
+    public Swap getSwap() throws SigarException {
+        if (swap == null) {
+            swap = sigar.getSwap();
+        }
+        return swap;
+    }
+
+    public NetInterfaceStat getNetInterfaceStat(String name) throws SigarException {
+        NetInterfaceStat stat = netInterfaceStats.get(name);
+        if (stat == null) {
+            stat = sigar.getNetInterfaceStat(name);
+            netInterfaceStats.put(name, stat);
+        }
+        return stat;
+    }
+
+    public DiskUsage getDiskUsage(String name) throws SigarException {
+        DiskUsage usage = diskUsages.get(name);
+        if (usage == null) {
+            usage = sigar.getDiskUsage(name);
+            diskUsages.put(name, usage);
+        }
+        return usage;
+    }
+
+    public FileSystemUsage getFileSystemUsage(String name) throws SigarException {
+        FileSystemUsage usage = fileSystemUsages.get(name);
+        if (usage == null) {
+            usage = sigar.getFileSystemUsage(name);
+            fileSystemUsages.put(name, usage);
+        }
+        return usage;
+    }
+
+    public DirUsage getDirUsage(String name) throws SigarException {
+        DirUsage usage = dirUsages.get(name);
+        if (usage == null) {
+            usage = sigar.getDirUsage(name);
+            dirUsages.put(name, usage);
+        }
+        return usage;
+    }
+
+    public ProcMem getProcMem(String processName) throws SigarException {
+        long pid = getPid(processName);
+        ProcMem procMem = procMems.get(pid);
+        if (procMem == null) {
+            procMem = sigar.getProcMem(pid);
+            procMems.put(pid, procMem);
+        }
+        return procMem;
+    }
+
+    public ProcCpu getProcCpu(String processName) throws SigarException {
+        long pid = getPid(processName);
+        ProcCpu procCpu = procCpus.get(pid);
+        if (procCpu == null) {
+            procCpu = sigar.getProcCpu(pid);
+            procCpus.put(pid, procCpu);
+        }
+        return procCpu;
+    }
+
+    public ProcTime getProcTime(String processName) throws SigarException {
+        long pid = getPid(processName);
+        ProcTime procTime = procTimes.get(pid);
+        if (procTime == null) {
+            procTime = sigar.getProcTime(pid);
+            procTimes.put(pid, procTime);
+        }
+        return procTime;
+    }
+
+    /**
+     * Returns the pid of the process, the processes are scanned only once
+     * per process name.
+     */
+    private long getPid(String processName) throws SigarException {
+        Long pid = pids.get(processName);
+        if (pid == null) {
+            pid = findPid(processName);
+            pids.put(processName, pid);
+        }
+        return pid;
+    }
+
+    private long findPid(String processName) throws SigarException {
+        long pid;
+
+        ProcessFinder processFinder = new ProcessFinder(sigarImpl);
+        String query;
+
+        if (processName.equals("$$")) {
+            pid = sigar.getPid();
+            logger.debug("Return own pid {}", pid);
+            return pid;
+        } else if (processName.startsWith("*")) {
+            query = "State.Name.sw=" + processName.replace("*", "");
+        } else if (processName.endsWith("*")) {
+            query = "State.Name.ew=" + processName.replace("*", "");
+        } else if (processName.startsWith("=")) {
+            query = "State.Name.eq=" + processName.replace("=", "");
+        } else if (processName.startsWith("#")) {
+            query = processName.replace("#", "");
+        } else {
+            query = "State.Name.ct=" + processName;
+        }
+
+        logger.debug("Query pid by '{}'", query);
+        pid = processFinder.findSingleProcess(query);
+
+        logger.debug("Return pid {}", pid);
+        return pid;
+    }
+
+}
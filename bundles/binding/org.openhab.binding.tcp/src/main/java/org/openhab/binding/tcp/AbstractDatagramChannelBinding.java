@@ -14,7 +14,9 @@ import static org.quartz.TriggerBuilder.newTrigger;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.DatagramChannel;
 import java.nio.channels.NotYetConnectedException;
@@ -24,8 +26,12 @@ import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.binding.AbstractActiveBinding;
@@ -83,10 +89,20 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
     protected boolean useAddressMask = true;
     // refresh interval for the worker thread
     protected long refreshInterval = 250;
+    // service the selector from a dedicated event loop thread instead of the worker thread
+    protected boolean useEventLoop = true;
+    // maximum number of direct read buffers kept for reuse
+    protected int maximumPooledBuffers = 4;
 
     protected DatagramChannel listenerChannel = null;
     protected SelectionKey listenerKey = null;
 
+    // Thread that blocks on the selector and dispatches the network events as soon as they occur
+    protected SelectorEventLoop eventLoop = null;
+
+    // Direct buffers that are used to read from the channels
+    protected ByteBufferPool bufferPool = new ByteBufferPool(maximumBufferSize, maximumPooledBuffers);
+
     // Queue to store BufferElements that need to be written to the network
     protected List<WriteBufferElement> writeQueue = Collections.synchronizedList(new ArrayList<WriteBufferElement>());
 
@@ -209,18 +225,120 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
      * getAll() - return a collection of all the Channels that match the given criteria
      * contains() - return true if a channel that matches the provided criteria exists in the ChannelTracker
      * replace() - replaces the underlying Java NIO channel on the Channels that match the provided criteria
-     * 
+     *
+     * Channels are indexed by Item name and by remote address, so that queries that are qualified by either of them
+     * do not have to walk all the Channels. The indexes are maintained by add(), remove() and clear().
+     *
      * @author Karel Goderis
      * @since 1.4.0
-     * 
+     *
      **/
     protected class ChannelTracker<C extends Channel> extends ArrayList<C> {
 
         private static final long serialVersionUID = 1543958347565096785L;
 
+        private final Map<String, List<C>> itemIndex = new HashMap<String, List<C>>();
+        private final Map<InetSocketAddress, List<C>> remoteIndex = new HashMap<InetSocketAddress, List<C>>();
+        // Channels that are defined with an address mask, and have thus no remote address to index on
+        private final List<C> maskedChannels = new ArrayList<C>();
+
+        @Override
+        public boolean add(C aChannel) {
+            synchronized (this) {
+                index(aChannel);
+                return super.add(aChannel);
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            synchronized (this) {
+                boolean removed = super.remove(o);
+                if (removed) {
+                    unindex(o);
+                }
+                return removed;
+            }
+        }
+
+        @Override
+        public C remove(int index) {
+            synchronized (this) {
+                C aChannel = super.remove(index);
+                unindex(aChannel);
+                return aChannel;
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (this) {
+                super.clear();
+                itemIndex.clear();
+                remoteIndex.clear();
+                maskedChannels.clear();
+            }
+        }
+
+        private void index(C aChannel) {
+            List<C> itemChannels = itemIndex.get(aChannel.item);
+            if (itemChannels == null) {
+                itemChannels = new ArrayList<C>();
+                itemIndex.put(aChannel.item, itemChannels);
+            }
+            itemChannels.add(aChannel);
+
+            if (aChannel.remote != null) {
+                List<C> remoteChannels = remoteIndex.get(aChannel.remote);
+                if (remoteChannels == null) {
+                    remoteChannels = new ArrayList<C>();
+                    remoteIndex.put(aChannel.remote, remoteChannels);
+                }
+                remoteChannels.add(aChannel);
+            } else {
+                maskedChannels.add(aChannel);
+            }
+        }
+
+        private void unindex(Object o) {
+            for (List<C> itemChannels : itemIndex.values()) {
+                itemChannels.remove(o);
+            }
+            for (List<C> remoteChannels : remoteIndex.values()) {
+                remoteChannels.remove(o);
+            }
+            maskedChannels.remove(o);
+        }
+
+        private List<C> forItem(String itemName) {
+            List<C> itemChannels = itemIndex.get(itemName);
+            return itemChannels != null ? itemChannels : Collections.<C> emptyList();
+        }
+
+        private List<C> forRemote(InetSocketAddress remoteAddress) {
+            List<C> remoteChannels = remoteIndex.get(remoteAddress);
+            return remoteChannels != null ? remoteChannels : Collections.<C> emptyList();
+        }
+
+        /**
+         * Returns the Channels that can possibly be bound to the given DatagramChannel. A connected DatagramChannel
+         * is only shared between Channels with the same remote address, or with masked Channels, so if there are no
+         * masked Channels, the remote address index can be used. In all other cases, e.g. for the listener channel,
+         * all the Channels are returned
+         */
+        private List<C> forDatagramChannel(DatagramChannel theDatagramChannel) {
+            if (maskedChannels.isEmpty()) {
+                SocketAddress remoteAddress = theDatagramChannel.socket().getRemoteSocketAddress();
+                if (remoteAddress instanceof InetSocketAddress) {
+                    return forRemote((InetSocketAddress) remoteAddress);
+                }
+            }
+            return this;
+        }
+
         public boolean contains(String item, Command command, Direction direction, InetSocketAddress remote) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -235,7 +353,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel get(String item, Command command, Direction direction, InetSocketAddress remote) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -250,7 +368,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel get(String item, Command command, Direction direction, String host, String port) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -268,7 +386,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel get(DatagramChannel theDatagramChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel)) {
@@ -281,7 +399,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirst(Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel == null
@@ -290,7 +408,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                     }
                 }
 
-                Iterator<C> it2 = iterator();
+                Iterator<C> it2 = forRemote(remoteAddress).iterator();
                 while (it2.hasNext()) {
                     C aChannel = it2.next();
                     if (remoteAddress.equals(aChannel.remote)) {
@@ -304,7 +422,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirst(String itemName, Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && remoteAddress.equals(aChannel.remote)
@@ -319,7 +437,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirstServed(String itemName, Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && remoteAddress.equals(aChannel.remote)
@@ -335,7 +453,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
         public void replace(String itemName, Direction direction, DatagramChannel theDatagramChannel,
                 DatagramChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && theDatagramChannel.equals(aChannel.channel)
@@ -350,7 +468,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
         public void replace(String itemName, Direction direction, InetSocketAddress remoteAddress,
                 DatagramChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && remoteAddress.equals(aChannel.remote)
@@ -367,7 +485,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && theDatagramChannel.equals(aChannel.channel)
@@ -386,7 +504,8 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
                 if (useAddressMask) {
-                    Iterator<C> it = iterator();
+                    // only Channels defined with an address mask can match
+                    Iterator<C> it = maskedChannels.iterator();
                     while (it.hasNext()) {
                         C aChannel = it.next();
                         if (direction.equals(aChannel.direction)) {
@@ -400,7 +519,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                         }
                     }
                 } else {
-                    Iterator<C> it = iterator();
+                    Iterator<C> it = forRemote(remote).iterator();
                     while (it.hasNext()) {
                         C aChannel = it.next();
                         if (remote.equals(aChannel.remote) && direction.equals(aChannel.direction)) {
@@ -415,7 +534,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void setAll(String itemName, Direction direction, DatagramChannel theDatagramChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && theDatagramChannel.equals(aChannel.channel)
@@ -428,7 +547,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirstServed(InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel != null) {
@@ -454,7 +573,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void replace(Direction direction, InetSocketAddress remoteAddress, DatagramChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && direction.equals(aChannel.direction)
@@ -469,7 +588,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
             synchronized (this) {
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel) && direction.equals(aChannel.direction)) {
@@ -483,7 +602,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void setAllBlocking(Direction direction, DatagramChannel theDatagramChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel) && direction.equals(aChannel.direction)) {
@@ -495,7 +614,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirstServed(Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel != null
@@ -510,7 +629,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void replace(DatagramChannel oldDatagramChannel, DatagramChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(oldDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (oldDatagramChannel.equals(aChannel.channel)) {
@@ -523,7 +642,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void replace(InetSocketAddress remoteAddress, DatagramChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && !channel.equals(aChannel.channel)) {
@@ -538,7 +657,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
             synchronized (this) {
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel)) {
@@ -552,7 +671,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void setAllBlocking(DatagramChannel theDatagramChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel)) {
@@ -564,7 +683,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public void setAllReconnecting(DatagramChannel theDatagramChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel)) {
@@ -576,7 +695,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getFirstNotServed(Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && direction.equals(aChannel.direction)
@@ -595,7 +714,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(clientAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (clientAddress.equals(aChannel.remote) && theDatagramChannel.equals(aChannel.channel)
@@ -610,7 +729,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public boolean isBlocking(DatagramChannel theDatagramChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel) && aChannel.isBlocking) {
@@ -623,7 +742,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
         public Channel getBlocking(DatagramChannel theDatagramChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forDatagramChannel(theDatagramChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theDatagramChannel.equals(aChannel.channel) && aChannel.isBlocking) {
@@ -701,6 +820,45 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
         }
     }
 
+    /**
+     * Starts the thread that services the selector, if not yet running
+     */
+    protected void startEventLoop() {
+        if (selector != null && (eventLoop == null || !eventLoop.isRunning())) {
+            eventLoop = new SelectorEventLoop(getName() + " EventLoop", selector) {
+                @Override
+                protected void updateInterestOps() {
+                    updateChannelInterestOps();
+                }
+
+                @Override
+                protected void processSelectedKeys() {
+                    processSelectedChannels();
+                }
+            };
+            eventLoop.start();
+        }
+    }
+
+    /**
+     * Stops the thread that services the selector, if running. The worker thread will fall back to polling the
+     * selector
+     */
+    protected void stopEventLoop() {
+        if (eventLoop != null) {
+            eventLoop.shutdown();
+            eventLoop = null;
+        }
+    }
+
+    /**
+     * @return true if the selector is serviced by the event loop
+     */
+    protected boolean isEventLoopRunning() {
+        SelectorEventLoop loop = eventLoop;
+        return loop != null && loop.isRunning();
+    }
+
     /**
      * Activate.
      */
@@ -713,6 +871,10 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
         } catch (IOException e) {
             logger.error("An exception occurred while registering the selector: {}", e.getMessage());
         }
+
+        if (useEventLoop) {
+            startEventLoop();
+        }
     }
 
     /**
@@ -721,6 +883,8 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
     @Override
     public void deactivate() {
 
+        stopEventLoop();
+
         try {
             selector.close();
         } catch (IOException e) {
@@ -779,6 +943,13 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                 logger.info("The maximum buffer will be set to the default value of {}", maximumBufferSize);
             }
 
+            String poolString = (String) config.get("bufferpoolsize");
+            if (StringUtils.isNotBlank(poolString)) {
+                maximumPooledBuffers = Integer.parseInt((poolString));
+            }
+
+            bufferPool = new ByteBufferPool(maximumBufferSize, maximumPooledBuffers);
+
             String reconnectString = (String) config.get("retryinterval");
             if (StringUtils.isNotBlank(reconnectString)) {
                 reconnectInterval = Integer.parseInt((reconnectString));
@@ -863,10 +1034,24 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                         refreshInterval);
             }
 
+            String eventLoopString = (String) config.get("eventloop");
+            if (StringUtils.isNotBlank(eventLoopString)) {
+                useEventLoop = Boolean.parseBoolean(eventLoopString);
+            } else {
+                logger.info("The setting to use a dedicated event loop thread will be set to the default value of {}",
+                        useEventLoop);
+            }
+
             if (listenerPort != 0) {
                 configureListenerChannel();
             }
 
+            if (useEventLoop) {
+                startEventLoop();
+            } else {
+                stopEventLoop();
+            }
+
             setProperlyConfigured(true);
 
         }
@@ -1040,19 +1225,25 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
             if (theBuffer != null) {
                 writeQueue.add(new WriteBufferElement(theChannel, theBuffer, true));
+                selector.wakeup();
 
-                long currentElapsedTimeMillis = System.currentTimeMillis();
+                long deadline = System.currentTimeMillis() + timeOut;
 
-                while (theChannel.buffer == null && (System.currentTimeMillis() - currentElapsedTimeMillis) < timeOut) {
-                    try {
-                        Thread.sleep(50);
-                    } catch (InterruptedException e) {
-                        logger.warn("An Exception occurred while waiting waiting during a blocking buffer write");
+                ByteBuffer responseBuffer = null;
+                synchronized (theChannel) {
+                    // the response is handed over, and we are notified, by the thread that services the selector
+                    long remaining = timeOut;
+                    while (theChannel.buffer == null && remaining > 0) {
+                        try {
+                            theChannel.wait(remaining);
+                        } catch (InterruptedException e) {
+                            logger.warn("An Exception occurred while waiting waiting during a blocking buffer write");
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        remaining = deadline - System.currentTimeMillis();
                     }
-                }
 
-                ByteBuffer responseBuffer = null;
-                synchronized (this) {
                     responseBuffer = theChannel.buffer;
                     theChannel.buffer = null;
                     theChannel.isBlocking = false;
@@ -1066,6 +1257,7 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
             if (theBuffer != null) {
                 writeQueue.add(new WriteBufferElement(theChannel, theBuffer, false));
+                selector.wakeup();
             }
 
             return theBuffer;
@@ -1381,15 +1573,61 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
             }
         }
 
-        // Check on channels for which we have to process data
-        synchronized (selector) {
-            try {
-                // Wait for an event
-                selector.selectNow();
-            } catch (IOException e) {
-                logger.error("An exception occurred while Selecting ({})", e.getMessage());
+        // Check on channels for which we have to process data, unless the event loop takes care of that
+        if (!isEventLoopRunning()) {
+            synchronized (selector) {
+                try {
+                    // Wait for an event
+                    selector.selectNow();
+                } catch (IOException e) {
+                    logger.error("An exception occurred while Selecting ({})", e.getMessage());
+                }
+            }
+
+            processSelectedChannels();
+        }
+    }
+
+    /**
+     * Adapts the interest set of the registered DatagramChannels, so that a blocking select() only returns when
+     * there is actually something to do: DatagramChannels are always readable, but only writable if there is data in
+     * the write queue for them
+     */
+    protected void updateChannelInterestOps() {
+
+        Set<DatagramChannel> pendingWrites = new HashSet<DatagramChannel>();
+        synchronized (writeQueue) {
+            for (WriteBufferElement anElement : writeQueue) {
+                if (anElement.channel.channel != null) {
+                    pendingWrites.add(anElement.channel.channel);
+                }
+            }
+        }
+
+        for (SelectionKey selKey : selector.keys()) {
+            if (selKey.isValid()) {
+                DatagramChannel theDatagramChannel = (DatagramChannel) selKey.channel();
+
+                int interestSet = SelectionKey.OP_READ;
+                if (pendingWrites.contains(theDatagramChannel) && !channels.isBlocking(theDatagramChannel)) {
+                    interestSet |= SelectionKey.OP_WRITE;
+                }
+
+                try {
+                    if (selKey.interestOps() != interestSet) {
+                        selKey.interestOps(interestSet);
+                    }
+                } catch (CancelledKeyException e) {
+                    // the key got cancelled by a reconnection in the mean time
+                }
             }
         }
+    }
+
+    /**
+     * Processes the keys selected by the last select operation on the selector
+     */
+    protected void processSelectedChannels() {
 
         // Get list of selection keys with pending events
         Iterator<SelectionKey> it = selector.selectedKeys().iterator();
@@ -1405,16 +1643,16 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
                 if (selKey.isReadable()) {
                     InetSocketAddress clientAddress = null;
-                    ByteBuffer readBuffer = ByteBuffer.allocate(maximumBufferSize);
+                    ByteBuffer pooledBuffer = bufferPool.acquire();
                     int numberBytesRead = 0;
                     boolean error = false;
 
                     if (selKey == listenerKey) {
                         try {
-                            clientAddress = (InetSocketAddress) theDatagramChannel.receive(readBuffer);
-                            logger.debug("Received {} on the listener port from {}", new String(readBuffer.array()),
+                            clientAddress = (InetSocketAddress) theDatagramChannel.receive(pooledBuffer);
+                            numberBytesRead = pooledBuffer.position();
+                            logger.debug("Received {} bytes on the listener port from {}", numberBytesRead,
                                     clientAddress);
-                            numberBytesRead = readBuffer.position();
                         } catch (Exception e) {
                             error = true;
                         }
@@ -1426,11 +1664,9 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                             // remote end is not correctly fragemented. Could be handed of to implementation class if
                             // for example, the buffer needs to be split based on a special character like line feed or
                             // carriage return
-                            numberBytesRead = theDatagramChannel.read(readBuffer);
-                            logger.debug("Received {} bytes ({}) on the channel {}->{}",
-                                    new Object[] { numberBytesRead, new String(readBuffer.array()),
-                                            theDatagramChannel.getLocalAddress(),
-                                            theDatagramChannel.getRemoteAddress() });
+                            numberBytesRead = theDatagramChannel.read(pooledBuffer);
+                            logger.debug("Received {} bytes on the channel {}->{}", new Object[] { numberBytesRead,
+                                    theDatagramChannel.getLocalAddress(), theDatagramChannel.getRemoteAddress() });
                         } catch (NotYetConnectedException e) {
                             try {
                                 logger.warn("The channel for {} has no connection pending ({})",
@@ -1455,6 +1691,10 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                         }
                     }
 
+                    // hand over a copy of the data received, so that the direct buffer can be reused
+                    ByteBuffer readBuffer = ByteBufferPool.copyOf(pooledBuffer);
+                    bufferPool.release(pooledBuffer);
+
                     if (numberBytesRead == -1) {
                         try {
                             if (selKey != listenerKey) {
@@ -1531,8 +1771,6 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
                         if (channelsToServe.size() > 0) {
 
-                            readBuffer.flip();
-
                             if (channels.isBlocking(theDatagramChannel)) {
                                 // if we are in a blocking operation, we get are now finished and we have to reset the
                                 // flag. The read buffer will be returned to the instance
@@ -1540,7 +1778,10 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
 
                                 // find the Channel with this DGC that is holding a Blocking flag
                                 theChannel = channels.getBlocking(theDatagramChannel);
-                                theChannel.buffer = readBuffer;
+                                synchronized (theChannel) {
+                                    theChannel.buffer = readBuffer;
+                                    theChannel.notifyAll();
+                                }
 
                             } else {
                                 for (Channel aChannel : channelsToServe) {
@@ -1574,12 +1815,14 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                     WriteBufferElement theElement = null;
 
                     if (selKey == listenerKey) {
-                        Iterator<WriteBufferElement> iterator = writeQueue.iterator();
-                        while (iterator.hasNext()) {
-                            WriteBufferElement anElement = iterator.next();
-                            if (anElement.channel.channel.equals(listenerChannel)) {
-                                theElement = anElement;
-                                break;
+                        synchronized (writeQueue) {
+                            Iterator<WriteBufferElement> iterator = writeQueue.iterator();
+                            while (iterator.hasNext()) {
+                                WriteBufferElement anElement = iterator.next();
+                                if (listenerChannel.equals(anElement.channel.channel)) {
+                                    theElement = anElement;
+                                    break;
+                                }
                             }
                         }
                     }
@@ -1593,12 +1836,14 @@ public abstract class AbstractDatagramChannelBinding<P extends ChannelBindingPro
                     } else {
 
                         if (selKey != listenerKey) {
-                            Iterator<WriteBufferElement> iterator = writeQueue.iterator();
-                            while (iterator.hasNext()) {
-                                WriteBufferElement anElement = iterator.next();
-                                if (anElement.channel.channel.equals(theDatagramChannel)) {
-                                    theElement = anElement;
-                                    break;
+                            synchronized (writeQueue) {
+                                Iterator<WriteBufferElement> iterator = writeQueue.iterator();
+                                while (iterator.hasNext()) {
+                                    WriteBufferElement anElement = iterator.next();
+                                    if (theDatagramChannel.equals(anElement.channel.channel)) {
+                                        theElement = anElement;
+                                        break;
+                                    }
                                 }
                             }
                         }
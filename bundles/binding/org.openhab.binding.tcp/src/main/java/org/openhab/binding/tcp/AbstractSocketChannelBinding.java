@@ -15,7 +15,9 @@ import static org.quartz.TriggerBuilder.newTrigger;
 
 import java.io.IOException;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
 import java.nio.ByteBuffer;
+import java.nio.channels.CancelledKeyException;
 import java.nio.channels.ClosedChannelException;
 import java.nio.channels.NoConnectionPendingException;
 import java.nio.channels.NotYetConnectedException;
@@ -26,8 +28,12 @@ import java.nio.channels.SocketChannel;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.apache.commons.lang.StringUtils;
 import org.openhab.core.binding.AbstractActiveBinding;
@@ -87,10 +93,20 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
     protected boolean useAddressMask = true;
     // refresh interval for the worker thread
     protected long refreshInterval = 250;
+    // service the selector from a dedicated event loop thread instead of the worker thread
+    protected boolean useEventLoop = true;
+    // maximum number of direct read buffers kept for reuse
+    protected int maximumPooledBuffers = 4;
 
     protected ServerSocketChannel listenerChannel = null;
     protected SelectionKey listenerKey = null;
 
+    // Thread that blocks on the selector and dispatches the network events as soon as they occur
+    protected SelectorEventLoop eventLoop = null;
+
+    // Direct buffers that are used to read from the channels
+    protected ByteBufferPool bufferPool = new ByteBufferPool(maximumBufferSize, maximumPooledBuffers);
+
     // Queue to store BufferElements that need to be written to the network
     protected List<WriteBufferElement> writeQueue = Collections.synchronizedList(new ArrayList<WriteBufferElement>());
 
@@ -212,18 +228,120 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
      * getAll() - return a collection of all the Channels that match the given criteria
      * contains() - return true if a channel that matches the provided criteria exists in the ChannelTracker
      * replace() - replaces the underlying Java NIO channel on the Channels that match the provided criteria
-     * 
+     *
+     * Channels are indexed by Item name and by remote address, so that queries that are qualified by either of them
+     * do not have to walk all the Channels. The indexes are maintained by add(), remove() and clear().
+     *
      * @author Karel Goderis
      * @since 1.4.0
-     * 
+     *
      **/
     protected class ChannelTracker<C extends Channel> extends ArrayList<C> {
 
         private static final long serialVersionUID = 1543958347565096785L;
 
+        private final Map<String, List<C>> itemIndex = new HashMap<String, List<C>>();
+        private final Map<InetSocketAddress, List<C>> remoteIndex = new HashMap<InetSocketAddress, List<C>>();
+        // Channels that are defined with an address mask, and have thus no remote address to index on
+        private final List<C> maskedChannels = new ArrayList<C>();
+
+        @Override
+        public boolean add(C aChannel) {
+            synchronized (this) {
+                index(aChannel);
+                return super.add(aChannel);
+            }
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            synchronized (this) {
+                boolean removed = super.remove(o);
+                if (removed) {
+                    unindex(o);
+                }
+                return removed;
+            }
+        }
+
+        @Override
+        public C remove(int index) {
+            synchronized (this) {
+                C aChannel = super.remove(index);
+                unindex(aChannel);
+                return aChannel;
+            }
+        }
+
+        @Override
+        public void clear() {
+            synchronized (this) {
+                super.clear();
+                itemIndex.clear();
+                remoteIndex.clear();
+                maskedChannels.clear();
+            }
+        }
+
+        private void index(C aChannel) {
+            List<C> itemChannels = itemIndex.get(aChannel.item);
+            if (itemChannels == null) {
+                itemChannels = new ArrayList<C>();
+                itemIndex.put(aChannel.item, itemChannels);
+            }
+            itemChannels.add(aChannel);
+
+            if (aChannel.remote != null) {
+                List<C> remoteChannels = remoteIndex.get(aChannel.remote);
+                if (remoteChannels == null) {
+                    remoteChannels = new ArrayList<C>();
+                    remoteIndex.put(aChannel.remote, remoteChannels);
+                }
+                remoteChannels.add(aChannel);
+            } else {
+                maskedChannels.add(aChannel);
+            }
+        }
+
+        private void unindex(Object o) {
+            for (List<C> itemChannels : itemIndex.values()) {
+                itemChannels.remove(o);
+            }
+            for (List<C> remoteChannels : remoteIndex.values()) {
+                remoteChannels.remove(o);
+            }
+            maskedChannels.remove(o);
+        }
+
+        private List<C> forItem(String itemName) {
+            List<C> itemChannels = itemIndex.get(itemName);
+            return itemChannels != null ? itemChannels : Collections.<C> emptyList();
+        }
+
+        private List<C> forRemote(InetSocketAddress remoteAddress) {
+            List<C> remoteChannels = remoteIndex.get(remoteAddress);
+            return remoteChannels != null ? remoteChannels : Collections.<C> emptyList();
+        }
+
+        /**
+         * Returns the Channels that can possibly be bound to the given SocketChannel. A SocketChannel is only
+         * shared between Channels with the same remote address, or with masked Channels, so if the SocketChannel is
+         * connected and there are no masked Channels, the remote address index can be used. In all other cases all
+         * the Channels are returned
+         */
+        private List<C> forSocketChannel(SocketChannel theSocketChannel) {
+            if (maskedChannels.isEmpty()) {
+                SocketAddress remoteAddress = theSocketChannel.socket().getRemoteSocketAddress();
+                if (remoteAddress instanceof InetSocketAddress) {
+                    return forRemote((InetSocketAddress) remoteAddress);
+                }
+            }
+            return this;
+        }
+
         public boolean contains(String item, Command command, Direction direction, InetSocketAddress remote) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -238,7 +356,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel get(String item, Command command, Direction direction, InetSocketAddress remote) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -253,7 +371,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel get(String item, Command command, Direction direction, String host, String port) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(item).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (item.equals(aChannel.item) && command.equals(aChannel.command)
@@ -271,7 +389,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel get(SocketChannel theChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theChannel.equals(aChannel.channel)) {
@@ -284,7 +402,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getFirst(Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel == null
@@ -293,7 +411,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                     }
                 }
 
-                Iterator<C> it2 = iterator();
+                Iterator<C> it2 = forRemote(remoteAddress).iterator();
                 while (it2.hasNext()) {
                     C aChannel = it2.next();
                     if (remoteAddress.equals(aChannel.remote)) {
@@ -307,7 +425,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getFirst(String itemName, Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && remoteAddress.equals(aChannel.remote)
@@ -322,7 +440,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getFirstServed(String itemName, Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && remoteAddress.equals(aChannel.remote)
@@ -338,7 +456,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
         public void replace(String itemName, Direction direction, SocketChannel oldSocketChannel,
                 SocketChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && oldSocketChannel.equals(aChannel.channel)
@@ -353,7 +471,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
         public void replace(String itemName, Direction direction, InetSocketAddress remoteAddress,
                 SocketChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (useAddressMask && (aChannel.host.equals("*") || aChannel.port.equals("*"))
@@ -381,7 +499,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && theSocketChannel.equals(aChannel.channel)
@@ -396,7 +514,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void setAllBlocking(String itemName, Direction direction, SocketChannel theSocketChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forItem(itemName).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (itemName.equals(aChannel.item) && theSocketChannel.equals(aChannel.channel)
@@ -409,7 +527,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getFirstServed(InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel != null) {
@@ -423,7 +541,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void replace(Direction direction, SocketChannel oldSocketChannel, SocketChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(oldSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (oldSocketChannel.equals(aChannel.channel) && direction.equals(aChannel.direction)) {
@@ -435,7 +553,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void replace(Direction direction, InetSocketAddress remoteAddress, SocketChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (useAddressMask && (aChannel.host.equals("*") || aChannel.port.equals("*"))
@@ -461,7 +579,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
             synchronized (this) {
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel) && direction.equals(aChannel.direction)) {
@@ -475,7 +593,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void setAllBlocking(Direction direction, SocketChannel theSocketChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel) && direction.equals(aChannel.direction)) {
@@ -487,7 +605,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getFirstServed(Direction direction, InetSocketAddress remoteAddress) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forRemote(remoteAddress).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (remoteAddress.equals(aChannel.remote) && aChannel.channel != null
@@ -502,7 +620,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void replace(SocketChannel oldSocketChannel, SocketChannel channel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(oldSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (oldSocketChannel.equals(aChannel.channel)) {
@@ -540,7 +658,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
             synchronized (this) {
                 ArrayList<Channel> selectedChannels = new ArrayList<Channel>();
 
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel)) {
@@ -554,7 +672,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void setAllBlocking(SocketChannel theSocketChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel)) {
@@ -566,7 +684,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public void setAllReconnecting(SocketChannel theSocketChannel, boolean b) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel)) {
@@ -604,7 +722,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public boolean isBlocking(SocketChannel theSocketChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel) && aChannel.isBlocking) {
@@ -617,7 +735,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
         public Channel getBlocking(SocketChannel theSocketChannel) {
             synchronized (this) {
-                Iterator<C> it = iterator();
+                Iterator<C> it = forSocketChannel(theSocketChannel).iterator();
                 while (it.hasNext()) {
                     C aChannel = it.next();
                     if (theSocketChannel.equals(aChannel.channel) && aChannel.isBlocking) {
@@ -697,6 +815,45 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
         }
     }
 
+    /**
+     * Starts the thread that services the selector, if not yet running
+     */
+    protected void startEventLoop() {
+        if (selector != null && (eventLoop == null || !eventLoop.isRunning())) {
+            eventLoop = new SelectorEventLoop(getName() + " EventLoop", selector) {
+                @Override
+                protected void updateInterestOps() {
+                    updateChannelInterestOps();
+                }
+
+                @Override
+                protected void processSelectedKeys() {
+                    processSelectedChannels();
+                }
+            };
+            eventLoop.start();
+        }
+    }
+
+    /**
+     * Stops the thread that services the selector, if running. The worker thread will fall back to polling the
+     * selector
+     */
+    protected void stopEventLoop() {
+        if (eventLoop != null) {
+            eventLoop.shutdown();
+            eventLoop = null;
+        }
+    }
+
+    /**
+     * @return true if the selector is serviced by the event loop
+     */
+    protected boolean isEventLoopRunning() {
+        SelectorEventLoop loop = eventLoop;
+        return loop != null && loop.isRunning();
+    }
+
     /**
      * Activate.
      */
@@ -709,6 +866,10 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
         } catch (IOException e) {
             logger.error("An exception occurred while registering the selector: {}", e.getMessage());
         }
+
+        if (useEventLoop) {
+            startEventLoop();
+        }
     }
 
     /**
@@ -717,6 +878,8 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
     @Override
     public void deactivate() {
 
+        stopEventLoop();
+
         try {
             selector.close();
         } catch (IOException e) {
@@ -776,6 +939,13 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                 logger.info("The maximum buffer will be set to the default value of {}", maximumBufferSize);
             }
 
+            String poolString = (String) config.get("bufferpoolsize");
+            if (StringUtils.isNotBlank(poolString)) {
+                maximumPooledBuffers = Integer.parseInt((poolString));
+            }
+
+            bufferPool = new ByteBufferPool(maximumBufferSize, maximumPooledBuffers);
+
             String reconnectString = (String) config.get("retryinterval");
             if (StringUtils.isNotBlank(reconnectString)) {
                 reconnectInterval = Integer.parseInt((reconnectString));
@@ -869,10 +1039,24 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                         refreshInterval);
             }
 
+            String eventLoopString = (String) config.get("eventloop");
+            if (StringUtils.isNotBlank(eventLoopString)) {
+                useEventLoop = Boolean.parseBoolean(eventLoopString);
+            } else {
+                logger.info("The setting to use a dedicated event loop thread will be set to the default value of {}",
+                        useEventLoop);
+            }
+
             if (listenerPort != 0) {
                 configureListenerChannel();
             }
 
+            if (useEventLoop) {
+                startEventLoop();
+            } else {
+                stopEventLoop();
+            }
+
             setProperlyConfigured(true);
 
         }
@@ -1059,20 +1243,26 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
             if (theBuffer != null) {
                 if (theSocketChannel.isConnected() || queueUntilConnected) {
                     writeQueue.add(new WriteBufferElement(theChannel, theBuffer, true));
+                    selector.wakeup();
                 }
 
-                long currentElapsedTimeMillis = System.currentTimeMillis();
+                long deadline = System.currentTimeMillis() + timeOut;
 
-                while (theChannel.buffer == null && (System.currentTimeMillis() - currentElapsedTimeMillis) < timeOut) {
-                    try {
-                        Thread.sleep(100);
-                    } catch (InterruptedException e) {
-                        logger.warn("Exception occurred while waiting waiting during a blocking buffer write");
+                ByteBuffer responseBuffer = null;
+                synchronized (theChannel) {
+                    // the response is handed over, and we are notified, by the thread that services the selector
+                    long remaining = timeOut;
+                    while (theChannel.buffer == null && remaining > 0) {
+                        try {
+                            theChannel.wait(remaining);
+                        } catch (InterruptedException e) {
+                            logger.warn("Exception occurred while waiting waiting during a blocking buffer write");
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        remaining = deadline - System.currentTimeMillis();
                     }
-                }
 
-                ByteBuffer responseBuffer = null;
-                synchronized (this) {
                     responseBuffer = theChannel.buffer;
                     theChannel.buffer = null;
                     theChannel.isBlocking = false;
@@ -1087,6 +1277,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
             if (theBuffer != null) {
                 if (theSocketChannel.isConnected() || queueUntilConnected) {
                     writeQueue.add(new WriteBufferElement(theChannel, theBuffer, false));
+                    selector.wakeup();
                 }
             }
 
@@ -1376,15 +1567,66 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
             }
         }
 
-        // Check on channels for which we have to process data
-        synchronized (selector) {
-            try {
-                // Wait for an event
-                selector.selectNow();
-            } catch (IOException e) {
-                logger.error("An exception occurred while Selecting ({})", e.getMessage());
+        // Check on channels for which we have to process data, unless the event loop takes care of that
+        if (!isEventLoopRunning()) {
+            synchronized (selector) {
+                try {
+                    // Wait for an event
+                    selector.selectNow();
+                } catch (IOException e) {
+                    logger.error("An exception occurred while Selecting ({})", e.getMessage());
+                }
+            }
+
+            processSelectedChannels();
+        }
+    }
+
+    /**
+     * Adapts the interest set of the registered SocketChannels to their state, so that a blocking select() only
+     * returns when there is actually something to do: connectable for pending connections, readable for connected
+     * channels and writable only for connected channels that have data in the write queue
+     */
+    protected void updateChannelInterestOps() {
+
+        Set<SocketChannel> pendingWrites = new HashSet<SocketChannel>();
+        synchronized (writeQueue) {
+            for (WriteBufferElement anElement : writeQueue) {
+                if (anElement.channel.channel != null) {
+                    pendingWrites.add(anElement.channel.channel);
+                }
+            }
+        }
+
+        for (SelectionKey selKey : selector.keys()) {
+            if (selKey.isValid() && selKey != listenerKey) {
+                SocketChannel theSocketChannel = (SocketChannel) selKey.channel();
+
+                int interestSet = 0;
+                if (theSocketChannel.isConnectionPending() || !theSocketChannel.isConnected()) {
+                    interestSet = SelectionKey.OP_CONNECT;
+                } else {
+                    interestSet = SelectionKey.OP_READ;
+                    if (pendingWrites.contains(theSocketChannel) && !channels.isBlocking(theSocketChannel)) {
+                        interestSet |= SelectionKey.OP_WRITE;
+                    }
+                }
+
+                try {
+                    if (selKey.interestOps() != interestSet) {
+                        selKey.interestOps(interestSet);
+                    }
+                } catch (CancelledKeyException e) {
+                    // the key got cancelled by a reconnection in the mean time
+                }
             }
         }
+    }
+
+    /**
+     * Processes the keys selected by the last select operation on the selector
+     */
+    protected void processSelectedChannels() {
 
         // Get list of selection keys with pending events
         Iterator<SelectionKey> it = selector.selectedKeys().iterator();
@@ -1664,7 +1906,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
                     } else if (selKey.isReadable()) {
 
-                        ByteBuffer readBuffer = ByteBuffer.allocate(maximumBufferSize);
+                        ByteBuffer pooledBuffer = bufferPool.acquire();
                         int numberBytesRead = 0;
                         boolean error = false;
 
@@ -1673,7 +1915,7 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                             // remote end is not correctly fragemented. Could be handed of to implementation class if
                             // for example, the buffer needs to be split based on a special character like line feed or
                             // carriage return
-                            numberBytesRead = theSocketChannel.read(readBuffer);
+                            numberBytesRead = theSocketChannel.read(pooledBuffer);
                         } catch (NotYetConnectedException e) {
                             logger.warn("The channel for {} has no connection pending ({})", theChannel.remote,
                                     e.getMessage());
@@ -1687,6 +1929,10 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                             error = true;
                         }
 
+                        // hand over a copy of the data received, so that the direct buffer can be reused
+                        ByteBuffer readBuffer = ByteBufferPool.copyOf(pooledBuffer);
+                        bufferPool.release(pooledBuffer);
+
                         if (numberBytesRead == -1) {
                             try {
                                 theSocketChannel.close();
@@ -1747,8 +1993,6 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
                             if (channelsToServe.size() > 0) {
 
-                                readBuffer.flip();
-
                                 boolean isBlocking = channels.isBlocking(theSocketChannel);
 
                                 if (isBlocking) {
@@ -1757,8 +2001,11 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
                                     // that initiated the write opreation - it has to parse the buffer itself
 
                                     theChannel = channels.getBlocking(theSocketChannel);
-                                    theChannel.buffer = readBuffer;
-                                    theChannel.isBlocking = false;
+                                    synchronized (theChannel) {
+                                        theChannel.buffer = readBuffer;
+                                        theChannel.isBlocking = false;
+                                        theChannel.notifyAll();
+                                    }
 
                                 } else {
                                     for (Channel aChannel : channelsToServe) {
@@ -1792,12 +2039,14 @@ public abstract class AbstractSocketChannelBinding<P extends ChannelBindingProvi
 
                             WriteBufferElement theElement = null;
 
-                            Iterator<WriteBufferElement> iterator = writeQueue.iterator();
-                            while (iterator.hasNext()) {
-                                WriteBufferElement anElement = iterator.next();
-                                if (anElement.channel.channel.equals(theSocketChannel)) {
-                                    theElement = anElement;
-                                    break;
+                            synchronized (writeQueue) {
+                                Iterator<WriteBufferElement> iterator = writeQueue.iterator();
+                                while (iterator.hasNext()) {
+                                    WriteBufferElement anElement = iterator.next();
+                                    if (theSocketChannel.equals(anElement.channel.channel)) {
+                                        theElement = anElement;
+                                        break;
+                                    }
                                 }
                             }
 
@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tcp;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * A small pool of direct ByteBuffers of a fixed capacity. Direct buffers are costly to allocate but allow the
+ * underlying NIO channels to read without an intermediate copy, so the read path of the channel bindings borrows
+ * one from this pool for every read operation and hands it back afterwards.
+ *
+ * Buffers handed out by the pool must not escape to protocol implementations, they should copy the received data
+ * into a heap buffer of their own instead.
+ *
+ * @since 1.9.0
+ *
+ **/
+public class ByteBufferPool {
+
+    private final int bufferSize;
+    private final int maximumPooledBuffers;
+    private final Deque<ByteBuffer> pool = new ArrayDeque<ByteBuffer>();
+
+    public ByteBufferPool(int bufferSize, int maximumPooledBuffers) {
+        this.bufferSize = bufferSize;
+        this.maximumPooledBuffers = maximumPooledBuffers;
+    }
+
+    /**
+     * @return a cleared buffer of {@link #getBufferSize()} bytes, either taken from the pool or newly allocated
+     */
+    public synchronized ByteBuffer acquire() {
+        ByteBuffer buffer = pool.pollFirst();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer to the pool. Buffers of a different capacity, or buffers exceeding the maximum pool size, are
+     * left to the garbage collector.
+     *
+     * @param buffer the buffer previously obtained through {@link #acquire()}
+     */
+    public synchronized void release(ByteBuffer buffer) {
+        if (buffer != null && buffer.capacity() == bufferSize && pool.size() < maximumPooledBuffers) {
+            pool.addFirst(buffer);
+        }
+    }
+
+    /**
+     * Copies the content of a buffer that has been filled by a channel read into a new heap buffer of the exact size
+     * of the data received. The returned buffer is flipped and ready to be parsed.
+     *
+     * @param buffer the (direct) buffer that has been filled by a read operation
+     * @return a heap buffer holding the received data
+     */
+    public static ByteBuffer copyOf(ByteBuffer buffer) {
+        buffer.flip();
+        ByteBuffer copy = ByteBuffer.allocate(buffer.remaining());
+        copy.put(buffer);
+        copy.flip();
+        return copy;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.tcp;
+
+import java.io.IOException;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.Selector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The SelectorEventLoop is a dedicated thread that blocks in {@link Selector#select()} and dispatches the selected
+ * keys as soon as the operating system signals them, instead of polling the Selector at a fixed interval.
+ *
+ * Other threads that register channels with the Selector are expected to do so while holding the monitor of the
+ * Selector, and to wake it up first, e.g.
+ *
+ * <pre>
+ * synchronized (selector) {
+ *     selector.wakeup();
+ *     channel.register(selector, ops);
+ * }
+ * </pre>
+ *
+ * The event loop briefly synchronizes on the Selector after each select() so that such a registration is completed
+ * before it blocks again.
+ *
+ * @since 1.9.0
+ *
+ **/
+public abstract class SelectorEventLoop extends Thread {
+
+    private static final Logger logger = LoggerFactory.getLogger(SelectorEventLoop.class);
+
+    private final Selector selector;
+    private volatile boolean running = true;
+
+    public SelectorEventLoop(String name, Selector selector) {
+        super(name);
+        this.selector = selector;
+        setDaemon(true);
+    }
+
+    /**
+     * Stops the event loop. The Selector itself is not closed.
+     */
+    public void shutdown() {
+        running = false;
+        selector.wakeup();
+    }
+
+    public boolean isRunning() {
+        return running && isAlive();
+    }
+
+    @Override
+    public void run() {
+        logger.debug("{} has been started", getName());
+
+        while (running && selector.isOpen()) {
+            try {
+                updateInterestOps();
+
+                selector.select();
+
+                // wait for registrations that woke up the selector to complete
+                synchronized (selector) {
+                }
+
+                if (running) {
+                    processSelectedKeys();
+                }
+            } catch (ClosedSelectorException e) {
+                break;
+            } catch (IOException e) {
+                logger.error("An exception occurred while Selecting ({})", e.getMessage());
+            } catch (RuntimeException e) {
+                logger.error("An exception occurred while processing the selected keys", e);
+            }
+        }
+
+        logger.debug("{} has been shut down", getName());
+    }
+
+    /**
+     * Called before every select() to adapt the interest set of the registered keys to the current state of the
+     * channels, e.g. to only select a channel for writing when data is queued for it.
+     */
+    protected abstract void updateInterestOps();
+
+    /**
+     * Called after every select() to process the selected keys of the Selector
+     */
+    protected abstract void processSelectedKeys();
+
+}
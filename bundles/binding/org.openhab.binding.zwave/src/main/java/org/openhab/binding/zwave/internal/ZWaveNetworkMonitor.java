@@ -463,7 +463,7 @@ public final class ZWaveNetworkMonitor implements ZWaveEventListener {
                 // (neighbors etc)
                 healing.node.setHealState(this.getNodeState(healing.node.getNodeId()));
 
-                ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                 nodeSerializer.SerializeNode(healing.node);
                 return;
             }
@@ -590,7 +590,7 @@ public final class ZWaveNetworkMonitor implements ZWaveEventListener {
                 // (neighbors etc)
                 healing.node.setHealState(this.getNodeState(healing.node.getNodeId()));
 
-                ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                 nodeSerializer.SerializeNode(healing.node);
                 break;
             default:
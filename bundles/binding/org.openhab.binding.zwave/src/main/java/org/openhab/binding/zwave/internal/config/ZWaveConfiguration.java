@@ -992,7 +992,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
                     logger.debug("NODE {}: Saving node", nodeId);
 
                     // Write the node to disk
-                    ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                    ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                     nodeSerializer.SerializeNode(node);
                 }
 
@@ -1000,7 +1000,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
                     logger.debug("NODE {}: re-initialising node", nodeId);
 
                     // Delete the saved XML
-                    ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                    ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                     nodeSerializer.DeleteNode(nodeId);
 
                     this.zController.reinitialiseNode(nodeId);
@@ -1162,7 +1162,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
                 }
 
                 // Write the node to disk
-                ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                 nodeSerializer.SerializeNode(node);
             } else if (splitDomain.length == 4) {
                 if (splitDomain[2].equals("parameters")) {
@@ -1312,7 +1312,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
     public void ZWaveIncomingEvent(ZWaveEvent event) {
         if (event instanceof ZWaveConfigurationParameterEvent) {
             // Write the node to disk
-            ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+            ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
             nodeSerializer.SerializeNode(zController.getNode(event.getNodeId()));
 
             // We've received an updated configuration parameter
@@ -1324,7 +1324,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
 
         if (event instanceof ZWaveAssociationEvent) {
             // Write the node to disk
-            ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+            ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
             nodeSerializer.SerializeNode(zController.getNode(event.getNodeId()));
 
             // We've received an updated association group
@@ -1344,7 +1344,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
             }
 
             // Write the node to disk
-            ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+            ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
             nodeSerializer.SerializeNode(zController.getNode(event.getNodeId()));
 
             // Remove this node from the pending list
@@ -1356,7 +1356,7 @@ public class ZWaveConfiguration implements OpenHABConfigurationService, ZWaveEve
             ZWaveSwitchAllCommandClass.ZWaveSwitchAllModeEvent e = (ZWaveSwitchAllCommandClass.ZWaveSwitchAllModeEvent) event;
 
             // Write the node to disk
-            ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+            ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
             nodeSerializer.SerializeNode(zController.getNode(event.getNodeId()));
 
             // Remove this node from the pending list
@@ -12,7 +12,11 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.osgi.framework.FrameworkUtil;
 import org.slf4j.Logger;
@@ -27,6 +31,11 @@ import com.thoughtworks.xstream.io.xml.StaxDriver;
  * includes helper functions to manipulate the database and facilitate access to
  * the database.
  *
+ * The XML files are parsed once per process and shared by all instances, which
+ * only hold the current selection. The shared data must be treated as read
+ * only. Manufacturers and products are indexed, so lookups don't need to scan
+ * the database.
+ *
  * @author Chris Jackson
  * @since 1.4.0
  *
@@ -34,6 +43,16 @@ import com.thoughtworks.xstream.io.xml.StaxDriver;
 public class ZWaveProductDatabase {
     private static final Logger logger = LoggerFactory.getLogger(ZWaveProductDatabase.class);
 
+    private static ZWaveDbRoot sharedDatabase = null;
+    private static Map<Integer, ZWaveDbManufacturer> manufacturerIndex;
+    private static Map<Long, ZWaveDbProduct> productIndex;
+
+    /**
+     * Parsed product files, by file name
+     */
+    private static final ConcurrentMap<String, ZWaveDbProductFile> productFiles = new ConcurrentHashMap<String, ZWaveDbProductFile>();
+    private static XStream productFileStream = null;
+
     ZWaveDbRoot database = null;
     Languages language = Languages.ENGLISH;
 
@@ -70,11 +89,30 @@ public class ZWaveProductDatabase {
     }
 
     private void loadDatabase() {
+        database = getSharedDatabase();
+    }
+
+    /**
+     * Returns the shared database, loading it on first use.
+     *
+     * @return the database or null if it can't be loaded
+     */
+    private static synchronized ZWaveDbRoot getSharedDatabase() {
+        if (sharedDatabase == null) {
+            ZWaveDbRoot root = parseDatabase();
+            if (root != null && root.Manufacturer != null) {
+                buildIndex(root);
+                sharedDatabase = root;
+            }
+        }
+        return sharedDatabase;
+    }
+
+    private static ZWaveDbRoot parseDatabase() {
         URL entry = FrameworkUtil.getBundle(ZWaveProductDatabase.class).getEntry("database/products.xml");
         if (entry == null) {
-            database = null;
             logger.error("Unable to load ZWave product database!");
-            return;
+            return null;
         }
 
         XStream xstream = new XStream(new StaxDriver());
@@ -85,18 +123,67 @@ public class ZWaveProductDatabase {
 
         xstream.processAnnotations(ZWaveDbRoot.class);
 
+        InputStream x = null;
         try {
-            // this.Manufacturer = (ZWaveDbManufacturer)
-            InputStream x = entry.openStream();
-            database = (ZWaveDbRoot) xstream.fromXML(x);
-            if (database == null) {
-                return;
-            }
+            x = entry.openStream();
+            return (ZWaveDbRoot) xstream.fromXML(x);
         } catch (IOException e) {
-            e.printStackTrace();
+            logger.error("Unable to load ZWave product database: {}", e.toString());
+            return null;
+        } finally {
+            if (x != null) {
+                try {
+                    x.close();
+                } catch (IOException e) {
+                }
+            }
         }
     }
 
+    /**
+     * Indexes manufacturers by ID and products by manufacturer, type and ID.
+     * If an entry is defined more than once, the first one is used, as the
+     * database was previously searched in order.
+     */
+    private static void buildIndex(ZWaveDbRoot root) {
+        Map<Integer, ZWaveDbManufacturer> manufacturers = new HashMap<Integer, ZWaveDbManufacturer>();
+        Map<Long, ZWaveDbProduct> products = new HashMap<Long, ZWaveDbProduct>();
+
+        for (ZWaveDbManufacturer manufacturer : root.Manufacturer) {
+            if (manufacturer.Id == null || manufacturers.containsKey(manufacturer.Id)) {
+                continue;
+            }
+            manufacturers.put(manufacturer.Id, manufacturer);
+
+            if (manufacturer.Product == null) {
+                continue;
+            }
+            for (ZWaveDbProduct product : manufacturer.Product) {
+                if (product.Reference == null) {
+                    continue;
+                }
+                for (ZWaveDbProductReference reference : product.Reference) {
+                    if (reference.Type == null || reference.Id == null) {
+                        continue;
+                    }
+                    Long key = getProductKey(manufacturer.Id, reference.Type, reference.Id);
+                    if (!products.containsKey(key)) {
+                        products.put(key, product);
+                    }
+                }
+            }
+        }
+
+        manufacturerIndex = manufacturers;
+        productIndex = products;
+        logger.debug("Loaded ZWave product database with {} manufacturers and {} product references",
+                manufacturers.size(), products.size());
+    }
+
+    private static Long getProductKey(int manufacturerId, int productType, int productId) {
+        return ((long) manufacturerId << 32) | ((long) (productType & 0xFFFF) << 16) | (productId & 0xFFFF);
+    }
+
     /**
      * Loads the product file relating to the requested version.
      * 
@@ -119,46 +206,69 @@ public class ZWaveProductDatabase {
             return null;
         }
 
+        productFile = productFiles.get(cfgFile);
+        if (productFile == null) {
+            productFile = parseProductFile(cfgFile);
+            if (productFile != null) {
+                ZWaveDbProductFile previous = productFiles.putIfAbsent(cfgFile, productFile);
+                if (previous != null) {
+                    productFile = previous;
+                }
+            }
+        }
+
+        return productFile;
+    }
+
+    private static synchronized ZWaveDbProductFile parseProductFile(String cfgFile) {
         URL entry = FrameworkUtil.getBundle(ZWaveProductDatabase.class).getEntry("database/" + cfgFile);
         if (entry == null) {
-            database = null;
             logger.error("Unable to load ZWave product file: '{}'", cfgFile);
             return null;
         }
 
-        XStream xstream = new XStream(new StaxDriver());
-        xstream.alias("Product", ZWaveDbProductFile.class);
-        xstream.alias("Configuration", ZWaveDbProductFile.ZWaveDbConfiguration.class);
-        xstream.alias("Parameter", ZWaveDbConfigurationParameter.class);
-        xstream.alias("Item", ZWaveDbConfigurationListItem.class);
-        xstream.alias("Associations", ZWaveDbProductFile.ZWaveDbAssociation.class);
-        xstream.alias("Group", ZWaveDbAssociationGroup.class);
-        xstream.alias("CommandClass", ZWaveDbProductFile.ZWaveDbCommandClassList.class);
-        xstream.alias("Class", ZWaveDbCommandClass.class);
-
-        xstream.processAnnotations(ZWaveDbProductFile.class);
+        if (productFileStream == null) {
+            XStream xstream = new XStream(new StaxDriver());
+            xstream.alias("Product", ZWaveDbProductFile.class);
+            xstream.alias("Configuration", ZWaveDbProductFile.ZWaveDbConfiguration.class);
+            xstream.alias("Parameter", ZWaveDbConfigurationParameter.class);
+            xstream.alias("Item", ZWaveDbConfigurationListItem.class);
+            xstream.alias("Associations", ZWaveDbProductFile.ZWaveDbAssociation.class);
+            xstream.alias("Group", ZWaveDbAssociationGroup.class);
+            xstream.alias("CommandClass", ZWaveDbProductFile.ZWaveDbCommandClassList.class);
+            xstream.alias("Class", ZWaveDbCommandClass.class);
+
+            xstream.processAnnotations(ZWaveDbProductFile.class);
+            productFileStream = xstream;
+        }
 
+        InputStream x = null;
         try {
-            // this.Manufacturer = (ZWaveDbManufacturer)
-            InputStream x = entry.openStream();
-            productFile = (ZWaveDbProductFile) xstream.fromXML(x);
+            x = entry.openStream();
+            return (ZWaveDbProductFile) productFileStream.fromXML(x);
         } catch (IOException e) {
             logger.error("Unable to load ZWave product file '{}' : {}", cfgFile, e.toString());
+            return null;
+        } finally {
+            if (x != null) {
+                try {
+                    x.close();
+                } catch (IOException e) {
+                }
+            }
         }
-
-        return productFile;
     }
 
     public List<ZWaveDbManufacturer> GetManufacturers() {
-        return database.Manufacturer;
+        return Collections.unmodifiableList(database.Manufacturer);
     }
 
     public List<ZWaveDbProduct> GetProducts() {
-        if (selManufacturer == null) {
+        if (selManufacturer == null || selManufacturer.Product == null) {
             return Collections.emptyList();
         }
 
-        return selManufacturer.Product;
+        return Collections.unmodifiableList(selManufacturer.Product);
     }
 
     /**
@@ -172,17 +282,11 @@ public class ZWaveProductDatabase {
             return false;
         }
 
-        selManufacturer = null;
+        selManufacturer = manufacturerIndex.get(manufacturerId);
         selProduct = null;
         productFile = null;
 
-        for (ZWaveDbManufacturer manufacturer : database.Manufacturer) {
-            if (manufacturer.Id == manufacturerId) {
-                selManufacturer = manufacturer;
-                return true;
-            }
-        }
-        return false;
+        return selManufacturer != null;
     }
 
     /**
@@ -220,15 +324,13 @@ public class ZWaveProductDatabase {
         }
         productVersion = version;
 
-        for (ZWaveDbProduct product : selManufacturer.Product) {
-            for (ZWaveDbProductReference reference : product.Reference) {
-                if (reference.Type == productType && reference.Id == productId) {
-                    selProduct = product;
-                    return true;
-                }
-            }
+        ZWaveDbProduct product = productIndex.get(getProductKey(selManufacturer.Id, productType, productId));
+        if (product == null) {
+            return false;
         }
-        return false;
+        selProduct = product;
+        productFile = null;
+        return true;
     }
 
     /**
@@ -11,11 +11,20 @@ package org.openhab.binding.zwave.internal.protocol;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.TooManyListenersException;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
@@ -35,6 +44,7 @@ import org.openhab.binding.zwave.internal.protocol.event.ZWaveInclusionEvent;
 import org.openhab.binding.zwave.internal.protocol.event.ZWaveNetworkEvent;
 import org.openhab.binding.zwave.internal.protocol.event.ZWaveNodeStatusEvent;
 import org.openhab.binding.zwave.internal.protocol.event.ZWaveTransactionCompletedEvent;
+import org.openhab.binding.zwave.internal.protocol.initialization.ZWaveNodeInitPlanner;
 import org.openhab.binding.zwave.internal.protocol.initialization.ZWaveNodeSerializer;
 import org.openhab.binding.zwave.internal.protocol.serialmessage.AddNodeMessageClass;
 import org.openhab.binding.zwave.internal.protocol.serialmessage.AssignReturnRouteMessageClass;
@@ -275,9 +285,7 @@ public class ZWaveController {
                 break;
             case SerialApiGetInitData:
                 this.isConnected = true;
-                for (Integer nodeId : ((SerialApiGetInitDataMessageClass) processor).getNodes()) {
-                    addNode(nodeId);
-                }
+                addNodes(((SerialApiGetInitDataMessageClass) processor).getNodes());
                 break;
             case GetSucNodeId:
                 // Remember the SUC ID
@@ -449,7 +457,18 @@ public class ZWaveController {
      * @param nodeId the node number to add
      */
     private void addNode(int nodeId) {
-        new ZWaveInitNodeThread(this, nodeId).start();
+        addNodes(Collections.singletonList(nodeId));
+    }
+
+    /**
+     * Add nodes to the controller. The nodes are restored from file in
+     * parallel and their initialisation is started in the order planned by the
+     * {@link ZWaveNodeInitPlanner}.
+     *
+     * @param nodeIds the node numbers to add
+     */
+    private void addNodes(Collection<Integer> nodeIds) {
+        new ZWaveInitNodeThread(this, nodeIds).start();
     }
 
     /**
@@ -492,107 +511,161 @@ public class ZWaveController {
         }
     }
 
+    /**
+     * Restores a node from file, or creates a new node if it can't be restored.
+     *
+     * @param nodeId the node number
+     * @param restored the node number is added if the node has been restored from file
+     * @return the node
+     */
+    private ZWaveNode restoreNode(int nodeId, Set<Integer> restored) {
+        ZWaveNode node = null;
+        try {
+            ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
+            node = nodeSerializer.DeserializeNode(nodeId);
+        } catch (Exception e) {
+            logger.error("NODE {}: Restore from config: Error deserialising XML file. {}", nodeId, e.toString());
+            node = null;
+        }
+        String name = null;
+        String location = null;
+
+        // Did the node deserialise ok?
+        if (node != null) {
+            // Remember the name and location - in case we decide the file was invalid
+            name = node.getName();
+            location = node.getLocation();
+
+            // Sanity check the data from the file
+            if (node.getManufacturer() == Integer.MAX_VALUE || node.getHomeId() != homeId
+                    || node.getNodeId() != nodeId) {
+                logger.warn("NODE {}: Restore from config: Error. Data invalid, ignoring config.", nodeId);
+                node = null;
+            } else {
+                // The restore was ok, but we have some work to set up the links that aren't
+                // made as the deserialiser doesn't call the constructor
+                logger.debug("NODE {}: Restore from config: Ok.", nodeId);
+                node.setRestoredFromConfigfile(this);
+                restored.add(nodeId);
+
+                // Set the controller and node references for all command classes
+                for (ZWaveCommandClass commandClass : node.getCommandClasses()) {
+                    commandClass.setController(this);
+                    commandClass.setNode(node);
+
+                    // Handle event handlers
+                    if (commandClass instanceof ZWaveEventListener) {
+                        addEventListener((ZWaveEventListener) commandClass);
+                    }
+
+                    // If this is the multi-instance class, add all command classes for the endpoints
+                    if (commandClass instanceof ZWaveMultiInstanceCommandClass) {
+                        for (ZWaveEndpoint endPoint : ((ZWaveMultiInstanceCommandClass) commandClass)
+                                .getEndpoints()) {
+                            for (ZWaveCommandClass endpointCommandClass : endPoint.getCommandClasses()) {
+                                endpointCommandClass.setController(this);
+                                endpointCommandClass.setNode(node);
+                                endpointCommandClass.setEndpoint(endPoint);
+
+                                // Handle event handlers
+                                if (endpointCommandClass instanceof ZWaveEventListener) {
+                                    addEventListener((ZWaveEventListener) endpointCommandClass);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        // Create a new node if it wasn't deserialised ok
+        if (node == null) {
+            node = new ZWaveNode(homeId, nodeId, this);
+
+            // Try to maintain the name and location (user supplied data)
+            // even if the XML file was considered corrupt and we reload data from the device.
+            node.setName(name);
+            node.setLocation(location);
+        }
+
+        if (nodeId == ownNodeId) {
+            // This is the controller node.
+            // We already know the device type, id, manufacturer so set it here
+            // It won't be set later as we probably won't request the manufacturer specific data
+            node.setDeviceId(getDeviceId());
+            node.setDeviceType(getDeviceType());
+            node.setManufacturer(getManufactureId());
+        }
+
+        return node;
+    }
+
     private class ZWaveInitNodeThread extends Thread {
-        int nodeId;
+        private static final int RESTORE_THREADS = 4;
+
+        Collection<Integer> nodeIds;
         ZWaveController controller;
 
-        ZWaveInitNodeThread(ZWaveController controller, int nodeId) {
-            this.nodeId = nodeId;
+        ZWaveInitNodeThread(ZWaveController controller, Collection<Integer> nodeIds) {
+            this.nodeIds = nodeIds;
             this.controller = controller;
         }
 
         @Override
         public void run() {
-            logger.debug("NODE {}: Init node thread start", nodeId);
+            logger.debug("Init node thread start for {} nodes", nodeIds.size());
+            long start = System.currentTimeMillis();
 
-            // Check if the node exists
-            if (zwaveNodes.get(nodeId) != null) {
-                logger.warn("NODE {}: Attempting to add node that already exists", nodeId);
-                return;
-            }
-
-            ZWaveNode node = null;
+            final Set<Integer> restored = Collections.synchronizedSet(new HashSet<Integer>());
+            List<Future<ZWaveNode>> futures = new ArrayList<Future<ZWaveNode>>();
+            ExecutorService executor = Executors
+                    .newFixedThreadPool(Math.max(1, Math.min(RESTORE_THREADS, nodeIds.size())));
             try {
-                ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
-                node = nodeSerializer.DeserializeNode(nodeId);
-            } catch (Exception e) {
-                logger.error("NODE {}: Restore from config: Error deserialising XML file. {}", nodeId, e.toString());
-                node = null;
-            }
-            String name = null;
-            String location = null;
-
-            // Did the node deserialise ok?
-            if (node != null) {
-                // Remember the name and location - in case we decide the file was invalid
-                name = node.getName();
-                location = node.getLocation();
-
-                // Sanity check the data from the file
-                if (node.getManufacturer() == Integer.MAX_VALUE || node.getHomeId() != controller.homeId
-                        || node.getNodeId() != nodeId) {
-                    logger.warn("NODE {}: Restore from config: Error. Data invalid, ignoring config.", nodeId);
-                    node = null;
-                } else {
-                    // The restore was ok, but we have some work to set up the links that aren't
-                    // made as the deserialiser doesn't call the constructor
-                    logger.debug("NODE {}: Restore from config: Ok.", nodeId);
-                    node.setRestoredFromConfigfile(controller);
-
-                    // Set the controller and node references for all command classes
-                    for (ZWaveCommandClass commandClass : node.getCommandClasses()) {
-                        commandClass.setController(controller);
-                        commandClass.setNode(node);
-
-                        // Handle event handlers
-                        if (commandClass instanceof ZWaveEventListener) {
-                            controller.addEventListener((ZWaveEventListener) commandClass);
-                        }
+                for (final Integer nodeId : nodeIds) {
+                    // Check if the node exists
+                    if (zwaveNodes.get(nodeId) != null) {
+                        logger.warn("NODE {}: Attempting to add node that already exists", nodeId);
+                        continue;
+                    }
 
-                        // If this is the multi-instance class, add all command classes for the endpoints
-                        if (commandClass instanceof ZWaveMultiInstanceCommandClass) {
-                            for (ZWaveEndpoint endPoint : ((ZWaveMultiInstanceCommandClass) commandClass)
-                                    .getEndpoints()) {
-                                for (ZWaveCommandClass endpointCommandClass : endPoint.getCommandClasses()) {
-                                    endpointCommandClass.setController(controller);
-                                    endpointCommandClass.setNode(node);
-                                    endpointCommandClass.setEndpoint(endPoint);
-
-                                    // Handle event handlers
-                                    if (endpointCommandClass instanceof ZWaveEventListener) {
-                                        controller.addEventListener((ZWaveEventListener) endpointCommandClass);
-                                    }
-                                }
-                            }
+                    futures.add(executor.submit(new Callable<ZWaveNode>() {
+                        @Override
+                        public ZWaveNode call() {
+                            return restoreNode(nodeId, restored);
                         }
-                    }
+                    }));
                 }
-            }
 
-            // Create a new node if it wasn't deserialised ok
-            if (node == null) {
-                node = new ZWaveNode(controller.homeId, nodeId, controller);
+                List<ZWaveNode> nodes = new ArrayList<ZWaveNode>();
+                for (Future<ZWaveNode> future : futures) {
+                    try {
+                        nodes.add(future.get());
+                    } catch (ExecutionException e) {
+                        logger.error("Error restoring node", e.getCause());
+                    }
+                }
 
-                // Try to maintain the name and location (user supplied data)
-                // even if the XML file was considered corrupt and we reload data from the device.
-                node.setName(name);
-                node.setLocation(location);
-            }
+                ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
+                logger.debug("Restored {} of {} nodes in {}ms (binary: {} in {}ms, XML: {} in {}ms)", restored.size(),
+                        nodes.size(), System.currentTimeMillis() - start, nodeSerializer.getBinaryLoadCount(),
+                        nodeSerializer.getBinaryLoadTime(), nodeSerializer.getXmlLoadCount(),
+                        nodeSerializer.getXmlLoadTime());
 
-            if (nodeId == controller.ownNodeId) {
-                // This is the controller node.
-                // We already know the device type, id, manufacturer so set it here
-                // It won't be set later as we probably won't request the manufacturer specific data
-                node.setDeviceId(controller.getDeviceId());
-                node.setDeviceType(controller.getDeviceType());
-                node.setManufacturer(controller.getManufactureId());
+                for (ZWaveNode node : new ZWaveNodeInitPlanner(ownNodeId).plan(nodes, restored)) {
+                    // Place nodes in the local ZWave Controller
+                    if (controller.zwaveNodes.putIfAbsent(node.getNodeId(), node) != null) {
+                        logger.warn("NODE {}: Attempting to add node that already exists", node.getNodeId());
+                        continue;
+                    }
+                    node.initialiseNode();
+                }
+            } catch (InterruptedException e) {
+                logger.debug("Init node thread interrupted");
+            } finally {
+                executor.shutdownNow();
             }
 
-            // Place nodes in the local ZWave Controller
-            controller.zwaveNodes.putIfAbsent(nodeId, node);
-            node.initialiseNode();
-
-            logger.debug("NODE {}: Init node thread finished", nodeId);
+            logger.debug("Init node thread finished");
         }
     }
 
@@ -677,7 +750,7 @@ public class ZWaveController {
                     this.zwaveNodes.remove(incEvent.getNodeId());
 
                     // Remove the XML file
-                    ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                    ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                     nodeSerializer.DeleteNode(event.getNodeId());
                     break;
                 default:
@@ -694,7 +767,7 @@ public class ZWaveController {
                     this.zwaveNodes.remove(networkEvent.getNodeId());
 
                     // Remove the XML file
-                    ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+                    ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
                     nodeSerializer.DeleteNode(event.getNodeId());
                     break;
                 default:
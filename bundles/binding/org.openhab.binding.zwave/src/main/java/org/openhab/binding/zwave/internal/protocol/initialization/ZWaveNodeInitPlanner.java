@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.binding.zwave.internal.protocol.initialization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.openhab.binding.zwave.internal.protocol.ZWaveNode;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Plans the order in which the nodes of a network are initialised.
+ *
+ * All nodes share the controller, so the order in which their initialisation
+ * is started decides which nodes get the controller first. Nodes restored from
+ * file skip the static stages and only need a few frames, so they are started
+ * first to make the bulk of the network usable quickly. Battery nodes restored
+ * from file come last, as they wait for their wakeup anyway.
+ *
+ * @since 1.9.0
+ */
+public class ZWaveNodeInitPlanner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZWaveNodeInitPlanner.class);
+
+    private final int controllerNodeId;
+
+    /**
+     * Constructor. Creates a new planner.
+     *
+     * @param controllerNodeId
+     *            the node ID of the controller, which is always initialised
+     *            first
+     */
+    public ZWaveNodeInitPlanner(int controllerNodeId) {
+        this.controllerNodeId = controllerNodeId;
+    }
+
+    /**
+     * Orders the nodes in which their initialisation should be started.
+     *
+     * @param nodes
+     *            the nodes to initialise
+     * @param restored
+     *            the IDs of the nodes which have been restored from file
+     * @return the nodes in initialisation order
+     */
+    public List<ZWaveNode> plan(Collection<ZWaveNode> nodes, final Collection<Integer> restored) {
+        List<ZWaveNode> plan = new ArrayList<ZWaveNode>(nodes);
+        Collections.sort(plan, new Comparator<ZWaveNode>() {
+            @Override
+            public int compare(ZWaveNode node1, ZWaveNode node2) {
+                int result = getRank(node1, restored) - getRank(node2, restored);
+                if (result != 0) {
+                    return result;
+                }
+                return node1.getNodeId() - node2.getNodeId();
+            }
+        });
+
+        if (logger.isDebugEnabled()) {
+            int cached = 0;
+            int listening = 0;
+            for (ZWaveNode node : plan) {
+                if (restored.contains(node.getNodeId())) {
+                    cached++;
+                }
+                if (isAwake(node)) {
+                    listening++;
+                }
+            }
+            logger.debug("Initialising {} nodes, {} restored from file, {} listening", plan.size(), cached,
+                    listening);
+        }
+        return plan;
+    }
+
+    /**
+     * Lower ranks are initialised first. Nodes which aren't restored from file
+     * don't know yet if they are listening, they need a full interview and are
+     * ranked after the restored listening nodes.
+     */
+    private int getRank(ZWaveNode node, Collection<Integer> restored) {
+        if (node.getNodeId() == controllerNodeId) {
+            return 0;
+        }
+        if (!restored.contains(node.getNodeId())) {
+            return 2;
+        }
+        if (isAwake(node)) {
+            return 1;
+        }
+        return 3;
+    }
+
+    private boolean isAwake(ZWaveNode node) {
+        return node.isListening() || node.isFrequentlyListening();
+    }
+
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.binding.zwave.internal.protocol.initialization;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.File;
@@ -16,6 +18,11 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import org.openhab.binding.zwave.internal.protocol.ZWaveDeviceClass;
 import org.openhab.binding.zwave.internal.protocol.ZWaveEndpoint;
@@ -27,26 +34,68 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.thoughtworks.xstream.XStream;
+import com.thoughtworks.xstream.XStreamException;
+import com.thoughtworks.xstream.io.binary.BinaryStreamReader;
+import com.thoughtworks.xstream.io.binary.BinaryStreamWriter;
 import com.thoughtworks.xstream.io.xml.PrettyPrintWriter;
 import com.thoughtworks.xstream.io.xml.StaxDriver;
 
 /**
  * ZWaveNodeSerializer class. Serializes nodes to XML and back again.
  *
+ * Next to the XML file, which users may inspect and edit, a binary copy of
+ * every node is written. The binary copy is considerably faster to restore and
+ * is used as long as it is not older than the XML file. The files present in
+ * the folder are indexed once, so that restoring a network doesn't need to
+ * probe the file system for every node.
+ *
  * @author Jan-Willem Spuij
  * @since 1.4.0
  */
 public class ZWaveNodeSerializer {
 
     private static final Logger logger = LoggerFactory.getLogger(ZWaveNodeSerializer.class);
+    private static final Pattern NODE_FILE_PATTERN = Pattern.compile("node(\\d+)\\.(xml|bin)");
+
+    private static ZWaveNodeSerializer instance;
+
     private final XStream stream = new XStream(new StaxDriver());
     private String folderName = "etc/zwave";
 
+    /**
+     * Lock objects per node, XStream itself is thread safe once configured so
+     * different nodes may be (de)serialised concurrently.
+     */
+    private final ConcurrentMap<Integer, Object> nodeLocks = new ConcurrentHashMap<Integer, Object>();
+
+    /**
+     * Node IDs which have a stored file
+     */
+    private final ConcurrentMap<Integer, Boolean> index = new ConcurrentHashMap<Integer, Boolean>();
+
+    private final AtomicLong binaryLoadCount = new AtomicLong();
+    private final AtomicLong binaryLoadTime = new AtomicLong();
+    private final AtomicLong xmlLoadCount = new AtomicLong();
+    private final AtomicLong xmlLoadTime = new AtomicLong();
+
+    /**
+     * Returns the shared serializer. Configuring XStream for all command
+     * classes is expensive, so a single instance should be used.
+     *
+     * @return the {@link ZWaveNodeSerializer}
+     */
+    public static synchronized ZWaveNodeSerializer getInstance() {
+        if (instance == null) {
+            instance = new ZWaveNodeSerializer();
+        }
+        return instance;
+    }
+
     /**
      * Constructor. Creates a new instance of the {@link ZWaveNodeSerializer}
      * class.
      */
-    public ZWaveNodeSerializer() {
+    private ZWaveNodeSerializer() {
         logger.trace("Initializing ZWaveNodeSerializer.");
 
         // Change the folder for OH2
@@ -82,9 +131,45 @@ public class ZWaveNodeSerializer {
             }
         }
         stream.processAnnotations(MeterScale.class);
+
+        buildIndex(folder);
         logger.trace("Initialized ZWaveNodeSerializer.");
     }
 
+    private void buildIndex(File folder) {
+        String[] files = folder.list();
+        if (files == null) {
+            return;
+        }
+        for (String file : files) {
+            Matcher matcher = NODE_FILE_PATTERN.matcher(file);
+            if (matcher.matches()) {
+                index.put(Integer.parseInt(matcher.group(1)), Boolean.TRUE);
+            }
+        }
+        logger.debug("Found stored information for {} nodes in {}", index.size(), folderName);
+    }
+
+    private Object getLock(int nodeId) {
+        Object lock = nodeLocks.get(nodeId);
+        if (lock == null) {
+            nodeLocks.putIfAbsent(nodeId, new Object());
+            lock = nodeLocks.get(nodeId);
+        }
+        return lock;
+    }
+
+    /**
+     * Checks if information for a node has been stored.
+     *
+     * @param nodeId
+     *            the number of the node
+     * @return true if the node can be restored
+     */
+    public boolean hasNode(int nodeId) {
+        return index.containsKey(nodeId);
+    }
+
     /**
      * Serializes an XML tree of a {@link ZWaveNode}
      * 
@@ -92,7 +177,7 @@ public class ZWaveNodeSerializer {
      *            the node to serialize
      */
     public void SerializeNode(ZWaveNode node) {
-        synchronized (stream) {
+        synchronized (getLock(node.getNodeId())) {
             // Don't serialise if the stage is not at least finished static
             // If we do serialise when we haven't completed the static stages
             // then when the binding starts it will have incomplete information!
@@ -101,7 +186,7 @@ public class ZWaveNodeSerializer {
                 return;
             }
 
-            File file = new File(this.folderName, String.format("node%d.xml", node.getNodeId()));
+            File file = getXmlFile(node.getNodeId());
             BufferedWriter writer = null;
 
             logger.debug("NODE {}: Serializing to file {}", node.getNodeId(), file.getPath());
@@ -112,6 +197,7 @@ public class ZWaveNodeSerializer {
                 writer.flush();
             } catch (IOException e) {
                 logger.error("NODE {}: Error serializing to file: {}", node.getNodeId(), e.getMessage());
+                return;
             } finally {
                 if (writer != null) {
                     try {
@@ -120,9 +206,45 @@ public class ZWaveNodeSerializer {
                     }
                 }
             }
+            index.put(node.getNodeId(), Boolean.TRUE);
+
+            SerializeNodeBinary(node);
+        }
+    }
+
+    /**
+     * Writes the binary copy of a node. Must be written after the XML file
+     * so that it is not considered outdated.
+     */
+    private void SerializeNodeBinary(ZWaveNode node) {
+        File file = getBinaryFile(node.getNodeId());
+        BinaryStreamWriter writer = null;
+
+        try {
+            writer = new BinaryStreamWriter(new BufferedOutputStream(new FileOutputStream(file)));
+            stream.marshal(node, writer);
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("NODE {}: Error writing binary cache: {}", node.getNodeId(), e.getMessage());
+            file.delete();
+        } catch (XStreamException e) {
+            logger.warn("NODE {}: Error writing binary cache: {}", node.getNodeId(), e.getMessage());
+            file.delete();
+        } finally {
+            if (writer != null) {
+                writer.close();
+            }
         }
     }
 
+    private File getXmlFile(int nodeId) {
+        return new File(this.folderName, String.format("node%d.xml", nodeId));
+    }
+
+    private File getBinaryFile(int nodeId) {
+        return new File(this.folderName, String.format("node%d.bin", nodeId));
+    }
+
     /**
      * Deserializes an XML tree of a {@link ZWaveNode}
      * 
@@ -131,8 +253,22 @@ public class ZWaveNodeSerializer {
      * @return returns the Node or null in case Serialization failed.
      */
     public ZWaveNode DeserializeNode(int nodeId) {
-        synchronized (stream) {
-            File file = new File(this.folderName, String.format("node%d.xml", nodeId));
+        if (!hasNode(nodeId)) {
+            logger.debug("NODE {}: Error serializing from file: file does not exist.", nodeId);
+            return null;
+        }
+
+        synchronized (getLock(nodeId)) {
+            File file = getXmlFile(nodeId);
+            File binaryFile = getBinaryFile(nodeId);
+
+            if (binaryFile.exists() && (!file.exists() || binaryFile.lastModified() >= file.lastModified())) {
+                ZWaveNode node = DeserializeNodeBinary(nodeId, binaryFile);
+                if (node != null) {
+                    return node;
+                }
+            }
+
             BufferedReader reader = null;
 
             logger.debug("NODE {}: Serializing from file {}", nodeId, file.getPath());
@@ -143,8 +279,17 @@ public class ZWaveNodeSerializer {
             }
 
             try {
+                long start = System.currentTimeMillis();
                 reader = new BufferedReader(new InputStreamReader(new FileInputStream(file), "UTF-8"));
-                return (ZWaveNode) stream.fromXML(reader);
+                ZWaveNode node = (ZWaveNode) stream.fromXML(reader);
+                xmlLoadTime.addAndGet(System.currentTimeMillis() - start);
+                xmlLoadCount.incrementAndGet();
+
+                // the XML file is newer, e.g. it has been edited - refresh the binary copy
+                if (node != null) {
+                    SerializeNodeBinary(node);
+                }
+                return node;
             } catch (IOException e) {
                 logger.error("NODE {}: Error serializing from file: {}", nodeId, e.getMessage());
             } finally {
@@ -159,6 +304,30 @@ public class ZWaveNodeSerializer {
         }
     }
 
+    private ZWaveNode DeserializeNodeBinary(int nodeId, File file) {
+        BinaryStreamReader reader = null;
+
+        logger.debug("NODE {}: Serializing from binary file {}", nodeId, file.getPath());
+
+        try {
+            long start = System.currentTimeMillis();
+            reader = new BinaryStreamReader(new BufferedInputStream(new FileInputStream(file)));
+            ZWaveNode node = (ZWaveNode) stream.unmarshal(reader);
+            binaryLoadTime.addAndGet(System.currentTimeMillis() - start);
+            binaryLoadCount.incrementAndGet();
+            return node;
+        } catch (IOException e) {
+            logger.warn("NODE {}: Error reading binary cache, using XML: {}", nodeId, e.getMessage());
+        } catch (XStreamException e) {
+            logger.warn("NODE {}: Error reading binary cache, using XML: {}", nodeId, e.getMessage());
+        } finally {
+            if (reader != null) {
+                reader.close();
+            }
+        }
+        return null;
+    }
+
     /**
      * Deletes the persistence store for the specified node.
      * 
@@ -166,10 +335,42 @@ public class ZWaveNodeSerializer {
      * @return true if the file was deleted
      */
     public boolean DeleteNode(int nodeId) {
-        synchronized (stream) {
-            File file = new File(this.folderName, String.format("node%d.xml", nodeId));
+        synchronized (getLock(nodeId)) {
+            index.remove(nodeId);
+            getBinaryFile(nodeId).delete();
+
+            File file = getXmlFile(nodeId);
 
             return file.delete();
         }
     }
+
+    /**
+     * @return the number of nodes restored from the binary cache
+     */
+    public long getBinaryLoadCount() {
+        return binaryLoadCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds spent restoring nodes from the
+     *         binary cache
+     */
+    public long getBinaryLoadTime() {
+        return binaryLoadTime.get();
+    }
+
+    /**
+     * @return the number of nodes restored from XML
+     */
+    public long getXmlLoadCount() {
+        return xmlLoadCount.get();
+    }
+
+    /**
+     * @return the total time in milliseconds spent restoring nodes from XML
+     */
+    public long getXmlLoadTime() {
+        return xmlLoadTime.get();
+    }
 }
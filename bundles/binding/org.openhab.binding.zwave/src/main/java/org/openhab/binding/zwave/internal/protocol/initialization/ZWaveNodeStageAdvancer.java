@@ -122,7 +122,7 @@ import org.slf4j.LoggerFactory;
  */
 public class ZWaveNodeStageAdvancer implements ZWaveEventListener {
 
-    private static final ZWaveNodeSerializer nodeSerializer = new ZWaveNodeSerializer();
+    private static final ZWaveNodeSerializer nodeSerializer = ZWaveNodeSerializer.getInstance();
     private static final Logger logger = LoggerFactory.getLogger(ZWaveNodeStageAdvancer.class);
 
     private ZWaveNode node;
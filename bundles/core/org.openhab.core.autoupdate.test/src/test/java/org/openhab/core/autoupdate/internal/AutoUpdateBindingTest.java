@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.autoupdate.internal;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.autoupdate.AutoUpdateBindingProvider;
+import org.openhab.core.binding.BindingChangeListener;
+import org.openhab.core.events.EventConstants;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.ItemRegistryChangeListener;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.OnOffType;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.UnDefType;
+import org.osgi.service.event.Event;
+
+
+/**
+ * Tests that {@link AutoUpdateBinding} receives the commands of all items,
+ * not only of those with an autoupdate configuration.
+ *
+ * @since 1.9.0
+ */
+public class AutoUpdateBindingTest {
+
+	private AutoUpdateBinding binding;
+	private final Map<String, Item> items = new HashMap<String, Item>();
+
+	@Before
+	public void setup() {
+		items.put("configured", new SwitchItem("configured"));
+		items.put("unconfigured", new SwitchItem("unconfigured"));
+
+		binding = new AutoUpdateBinding();
+		binding.setItemRegistry(new TestItemRegistry());
+		// only "configured" has an autoupdate configuration, which disables the update
+		binding.addBindingProvider(new TestAutoUpdateBindingProvider("configured", false));
+	}
+
+	@Test
+	public void testItemWithoutConfigIsUpdated() {
+		binding.handleEvent(createCommandEvent("unconfigured", OnOffType.ON));
+		assertEquals(OnOffType.ON, items.get("unconfigured").getState());
+		assertEquals(0, binding.getFilteredEventCount());
+	}
+
+	@Test
+	public void testItemWithDisabledAutoUpdateIsNotUpdated() {
+		binding.handleEvent(createCommandEvent("configured", OnOffType.ON));
+		assertEquals(UnDefType.NULL, items.get("configured").getState());
+	}
+
+	private static Event createCommandEvent(String itemName, Command command) {
+		Map<String, Object> properties = new HashMap<String, Object>();
+		properties.put("item", itemName);
+		properties.put("command", command);
+		String topic = EventConstants.TOPIC_PREFIX + EventConstants.TOPIC_SEPERATOR + "command"
+				+ EventConstants.TOPIC_SEPERATOR + itemName;
+		return new Event(topic, properties);
+	}
+
+	private static class TestAutoUpdateBindingProvider implements AutoUpdateBindingProvider {
+
+		private final String itemName;
+		private final Boolean autoUpdate;
+
+		TestAutoUpdateBindingProvider(String itemName, Boolean autoUpdate) {
+			this.itemName = itemName;
+			this.autoUpdate = autoUpdate;
+		}
+
+		public Boolean autoUpdate(String itemName) {
+			return this.itemName.equals(itemName) ? autoUpdate : null;
+		}
+
+		public void addBindingChangeListener(BindingChangeListener listener) {
+		}
+
+		public void removeBindingChangeListener(BindingChangeListener listener) {
+		}
+
+		public boolean providesBindingFor(String itemName) {
+			return this.itemName.equals(itemName);
+		}
+
+		public boolean providesBinding() {
+			return true;
+		}
+
+		public Collection<String> getItemNames() {
+			return Collections.singleton(itemName);
+		}
+	}
+
+	private class TestItemRegistry implements ItemRegistry {
+
+		public Item getItem(String name) throws ItemNotFoundException {
+			Item item = items.get(name);
+			if (item == null) {
+				throw new ItemNotFoundException(name);
+			}
+			return item;
+		}
+
+		public Item getItemByPattern(String name) throws ItemNotFoundException {
+			return getItem(name);
+		}
+
+		public Collection<Item> getItems() {
+			return items.values();
+		}
+
+		public Collection<Item> getItems(String pattern) {
+			return items.values();
+		}
+
+		public boolean isValidItemName(String itemName) {
+			return true;
+		}
+
+		public void addItemRegistryChangeListener(ItemRegistryChangeListener listener) {
+		}
+
+		public void removeItemRegistryChangeListener(ItemRegistryChangeListener listener) {
+		}
+	}
+
+}
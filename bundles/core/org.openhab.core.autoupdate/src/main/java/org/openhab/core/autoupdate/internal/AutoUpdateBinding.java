@@ -45,6 +45,14 @@ public class AutoUpdateBinding extends AbstractBinding<AutoUpdateBindingProvider
 		this.itemRegistry = null;
 	}
 	
+	/**
+	 * Commands of items without an autoupdate configuration have to be
+	 * received as well, since autoupdate defaults to <code>true</code>.
+	 */
+	@Override
+	protected boolean isEventRoutingEnabled() {
+		return false;
+	}
 
 	/**
 	 * <p>Iterates through all registered {@link AutoUpdateBindingProvider}s and
@@ -8,9 +8,12 @@
  */
 package org.openhab.core.persistence.internal;
 
+import java.util.concurrent.TimeUnit;
+
 import org.eclipse.emf.ecore.EObject;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.PersistenceService;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.model.core.ModelRepository;
 import org.openhab.model.persistence.persistence.PersistenceConfiguration;
 import org.openhab.model.persistence.persistence.PersistenceModel;
@@ -51,10 +54,12 @@ public class PersistItemsJob implements Job {
 					for(PersistenceConfiguration config : persistModel.getConfigs()) {
 						if(hasStrategy(persistModel, config, strategyName)) {
 							for(Item item : persistenceManager.getAllItems(config)) {
-								long startTime = System.currentTimeMillis();
+								long startTime = System.nanoTime();
 								persistenceService.store(item, config.getAlias());
+								long duration = System.nanoTime() - startTime;
+								MetricsRegistry.getInstance().record("persistence." + modelName, duration);
 								logger.trace("Storing item '{}' with persistence service '{}' took {}ms",
-										new Object[] { item.getName(), modelName, System.currentTimeMillis() - startTime});
+										new Object[] { item.getName(), modelName, TimeUnit.NANOSECONDS.toMillis(duration)});
 							}
 						}
 					}
@@ -36,6 +36,7 @@ import org.openhab.core.persistence.FilterCriteria;
 import org.openhab.core.persistence.HistoricItem;
 import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.QueryablePersistenceService;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.types.State;
 import org.openhab.core.types.UnDefType;
 import org.openhab.model.core.EventType;
@@ -224,7 +225,10 @@ public class PersistenceManager extends AbstractEventSubscriber implements Model
 					for(PersistenceConfiguration config : entry.getValue()) {
 						if(hasStrategy(serviceName, config, onlyChanges ? GlobalStrategies.CHANGE : GlobalStrategies.UPDATE)) {
 							if(appliesToItem(config, item)) {
+								long start = System.nanoTime();
 								persistenceServices.get(serviceName).store(item, config.getAlias());
+								MetricsRegistry.getInstance().record("persistence." + serviceName,
+										System.nanoTime() - start);
 							}
 						}
 					}
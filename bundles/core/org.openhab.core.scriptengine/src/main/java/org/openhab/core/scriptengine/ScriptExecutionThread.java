@@ -9,6 +9,7 @@
 package org.openhab.core.scriptengine;
 
 import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.openhab.core.service.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -40,6 +41,7 @@ public class ScriptExecutionThread extends Thread {
 	@Override
 	public void run() {
 		super.run();
+		long start = System.nanoTime();
 		try {
 			result = script.execute(context);
 		} catch (ScriptExecutionException e) {
@@ -49,6 +51,8 @@ public class ScriptExecutionThread extends Thread {
 			} else {
 				logger.error("Error during the execution of rule '{}': {}", new String[] { getName(), msg });
 			}
+		} finally {
+			MetricsRegistry.getInstance().record("rules." + getName(), System.nanoTime() - start);
 		}
 	}
 
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.binding;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * @since 1.9.0
+ */
+public class BindingRoutingTableTest {
+	
+	private BindingRoutingTable table;
+	private TestBindingProvider provider1;
+	private TestBindingProvider provider2;
+	
+	@Before
+	public void setup() {
+		table = new BindingRoutingTable();
+		provider1 = new TestBindingProvider("item1", "item2");
+		provider2 = new TestBindingProvider("item2", "item3");
+		table.allBindingsChanged(provider1);
+		table.allBindingsChanged(provider2);
+	}
+	
+	@Test
+	public void testRoutes() {
+		assertTrue(table.routes("item1"));
+		assertTrue(table.routes("item2"));
+		assertTrue(table.routes("item3"));
+		assertFalse(table.routes("item4"));
+		assertFalse(table.routes(null));
+		assertEquals(3, table.size());
+	}
+	
+	@Test
+	public void testBindingChanged() {
+		provider1.itemNames.remove("item1");
+		table.bindingChanged(provider1, "item1");
+		assertFalse(table.routes("item1"));
+		
+		// item2 is still bound by provider2
+		provider1.itemNames.remove("item2");
+		table.bindingChanged(provider1, "item2");
+		assertTrue(table.routes("item2"));
+		
+		provider1.itemNames.add("item4");
+		table.bindingChanged(provider1, "item4");
+		assertTrue(table.routes("item4"));
+	}
+	
+	@Test
+	public void testAllBindingsChanged() {
+		provider2.itemNames.clear();
+		provider2.itemNames.add("item5");
+		table.allBindingsChanged(provider2);
+		assertTrue(table.routes("item1"));
+		assertTrue(table.routes("item2"));
+		assertFalse(table.routes("item3"));
+		assertTrue(table.routes("item5"));
+	}
+	
+	@Test
+	public void testRemoveProvider() {
+		table.removeProvider(provider1);
+		assertFalse(table.routes("item1"));
+		assertTrue(table.routes("item2"));
+		assertTrue(table.routes("item3"));
+	}
+	
+	private static class TestBindingProvider implements BindingProvider {
+		
+		private final Set<String> itemNames = new HashSet<String>();
+		
+		TestBindingProvider(String... itemNames) {
+			for (String itemName : itemNames) {
+				this.itemNames.add(itemName);
+			}
+		}
+		
+		public void addBindingChangeListener(BindingChangeListener listener) {
+		}
+
+		public void removeBindingChangeListener(BindingChangeListener listener) {
+		}
+
+		public boolean providesBindingFor(String itemName) {
+			return itemNames.contains(itemName);
+		}
+
+		public boolean providesBinding() {
+			return !itemNames.isEmpty();
+		}
+
+		public Collection<String> getItemNames() {
+			return new ArrayList<String>(itemNames);
+		}
+	}
+
+}
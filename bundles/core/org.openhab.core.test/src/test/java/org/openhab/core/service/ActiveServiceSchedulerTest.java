@@ -0,0 +1,119 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+/**
+ * @since 1.9.0
+ */
+public class ActiveServiceSchedulerTest {
+
+	@Test
+	public void testFixedRateExecution() throws InterruptedException {
+		TestService service = new TestService("fixedRateService", 50, 0, ActiveServiceScheduler.Mode.FIXED_RATE);
+		service.setProperlyConfigured(true);
+		assertTrue(service.isRunning());
+
+		Thread.sleep(500);
+		service.shutdown();
+		Thread.sleep(200);
+
+		assertFalse(service.isRunning());
+		int executions = service.executions.get();
+		assertTrue("executions: " + executions, executions >= 5);
+
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		assertEquals(executions, metrics.getTimers("services.fixedRateService").get("services.fixedRateService")
+				.getCount());
+		assertTrue(metrics.getMeters("services.fixedRateService.overruns").isEmpty());
+	}
+
+	@Test
+	public void testOverrunsAreSkipped() throws InterruptedException {
+		TestService service = new TestService("overrunService", 50, 120, ActiveServiceScheduler.Mode.FIXED_RATE);
+		service.setProperlyConfigured(true);
+
+		Thread.sleep(1000);
+		service.interrupt();
+		Thread.sleep(200);
+
+		assertFalse(service.isRunning());
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		long overruns = metrics.getMeters("services.overrunService.overruns").get("services.overrunService.overruns")
+				.getCount();
+		assertTrue("overruns: " + overruns, overruns > 0);
+		// skipped executions don't pile up, executions never overlap
+		long executions = metrics.getTimers("services.overrunService").get("services.overrunService").getCount();
+		assertTrue("executions: " + executions, executions <= 9);
+	}
+
+	@Test
+	public void testRestartAfterShutdown() throws InterruptedException {
+		TestService service = new TestService("restartService", 50, 0, ActiveServiceScheduler.Mode.FIXED_DELAY);
+		service.setProperlyConfigured(true);
+		Thread.sleep(100);
+		service.shutdown();
+		service.activate();
+		Thread.sleep(200);
+
+		assertTrue(service.isRunning());
+		service.interrupt();
+	}
+
+	private static class TestService extends AbstractActiveService {
+
+		private final String name;
+		private final long interval;
+		private final long duration;
+		private final ActiveServiceScheduler.Mode mode;
+		private final AtomicInteger executions = new AtomicInteger();
+
+		TestService(String name, long interval, long duration, ActiveServiceScheduler.Mode mode) {
+			this.name = name;
+			this.interval = interval;
+			this.duration = duration;
+			this.mode = mode;
+		}
+
+		@Override
+		protected void execute() {
+			executions.incrementAndGet();
+			if (duration > 0) {
+				try {
+					Thread.sleep(duration);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		}
+
+		@Override
+		protected long getRefreshInterval() {
+			return interval;
+		}
+
+		@Override
+		protected String getName() {
+			return name;
+		}
+
+		@Override
+		protected ActiveServiceScheduler.Mode getSchedulingMode() {
+			return mode;
+		}
+	}
+
+}
@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * @since 1.9.0
+ */
+public class MetricsRegistryTest {
+
+	private static long now;
+
+	private MetricsRegistry metrics;
+
+	@Before
+	public void setUp() {
+		now = 1000;
+		metrics = new MetricsRegistry(10) {
+			@Override
+			long currentSecond() {
+				return now;
+			}
+		};
+	}
+
+	@Test
+	public void testMeterWindow() {
+		metrics.mark("events.update");
+		metrics.mark("events.update");
+		now += 5;
+		metrics.mark("events.update");
+
+		MetricsRegistry.Meter meter = metrics.getMeters("events.").get("events.update");
+		assertEquals(3, meter.getCount());
+		assertEquals(3, meter.getWindowCount());
+		assertEquals(0.5, meter.getRate(), 0.001);
+
+		// the first two occurrences leave the window
+		now += 6;
+		assertEquals(1, meter.getWindowCount());
+		assertEquals(3, meter.getCount());
+	}
+
+	@Test
+	public void testTimerWindow() {
+		metrics.record("rules.test", TimeUnit.MILLISECONDS.toNanos(100));
+		metrics.record("rules.test", TimeUnit.MILLISECONDS.toNanos(300));
+		now += 10;
+		metrics.record("rules.test", TimeUnit.MILLISECONDS.toNanos(50));
+
+		MetricsRegistry.Timer timer = metrics.getTimers("rules.").get("rules.test");
+		assertEquals(3, timer.getCount());
+		assertEquals(450, timer.getTotalTime());
+		assertEquals(300, timer.getMaxTime());
+		assertEquals(1, timer.getWindowCount());
+		assertEquals(50, timer.getWindowAverage());
+		assertEquals(50, timer.getWindowMax());
+	}
+
+	@Test
+	public void testNegativeSeconds() {
+		// System.nanoTime() may return negative values
+		now = -25;
+		metrics.mark("events.update");
+		now += 3;
+		metrics.record("rules.test", TimeUnit.MILLISECONDS.toNanos(100));
+		metrics.mark("events.update");
+
+		assertEquals(2, metrics.getMeters("events.").get("events.update").getWindowCount());
+		assertEquals(1, metrics.getTimers("rules.").get("rules.test").getWindowCount());
+
+		now += 10;
+		assertEquals(0, metrics.getMeters("events.").get("events.update").getWindowCount());
+	}
+
+	@Test
+	public void testGaugesAndJson() {
+		metrics.registerGauge("persistence.test.queue", new MetricsRegistry.Gauge() {
+			public long getValue() {
+				return 42;
+			}
+		});
+		metrics.mark("events.item.Some\"Item");
+
+		assertEquals(Long.valueOf(42), metrics.getGauges("persistence.").get("persistence.test.queue"));
+		assertTrue(metrics.getGauges("jvm.").get("jvm.threads") > 0);
+
+		String json = metrics.toJson();
+		assertTrue(json, json.contains("\"persistence.test.queue\":42"));
+		assertTrue(json, json.contains("\"events.item.Some\\\"Item\":{\"count\":1"));
+
+		metrics.unregisterGauge("persistence.test.queue");
+		metrics.reset();
+		assertTrue(metrics.getGauges("persistence.").isEmpty());
+		assertTrue(metrics.getMeters("").isEmpty());
+	}
+
+}
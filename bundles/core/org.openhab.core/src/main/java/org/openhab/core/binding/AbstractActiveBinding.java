@@ -9,6 +9,7 @@
 package org.openhab.core.binding;
 
 import org.openhab.core.service.AbstractActiveService;
+import org.openhab.core.service.ActiveServiceScheduler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -127,6 +128,18 @@ public abstract class AbstractActiveBinding<P extends BindingProvider> extends A
 	 */
 	protected abstract String getName();
 	
+	/**
+	 * Returns how the execute method is scheduled, see
+	 * {@link ActiveServiceScheduler}. Bindings may override this to opt in to
+	 * the shared scheduler.
+	 * 
+	 * @return the scheduling mode
+	 * @since 1.9.0
+	 */
+	protected ActiveServiceScheduler.Mode getSchedulingMode() {
+		return ActiveServiceScheduler.getDefaultMode();
+	}
+	
 	
 	/** private inner class, which delegates method calls to the outer binding instance */
 	private class BindingActiveService extends AbstractActiveService {
@@ -166,6 +179,11 @@ public abstract class AbstractActiveBinding<P extends BindingProvider> extends A
 			return AbstractActiveBinding.this.getName();
 		}
 
+		@Override
+		protected ActiveServiceScheduler.Mode getSchedulingMode() {
+			return AbstractActiveBinding.this.getSchedulingMode();
+		}
+
 	}
 	
 }
\ No newline at end of file
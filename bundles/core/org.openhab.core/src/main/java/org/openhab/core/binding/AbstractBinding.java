@@ -30,6 +30,9 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
 
 	protected Collection<P> providers = new CopyOnWriteArraySet<P>();
 	
+	/** the items any of the providers has a binding for */
+	private final BindingRoutingTable routingTable = new BindingRoutingTable();
+	
 	protected EventPublisher eventPublisher = null;
 	
 	
@@ -56,6 +59,8 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
 	@SuppressWarnings("unchecked")
 	public void addBindingProvider(BindingProvider provider) {
 		this.providers.add((P) provider);
+		provider.addBindingChangeListener(routingTable);
+		routingTable.allBindingsChanged(provider);
         provider.addBindingChangeListener(this);
         allBindingsChanged(provider);
     }
@@ -69,6 +74,8 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
 	public void removeBindingProvider(BindingProvider provider) {
 		this.providers.remove(provider);
 		provider.removeBindingChangeListener(this);
+		provider.removeBindingChangeListener(routingTable);
+		routingTable.removeProvider(provider);
 	}
 	
 	
@@ -85,6 +92,27 @@ public abstract class AbstractBinding<P extends BindingProvider> extends Abstrac
 		return false;
 	}
 	
+	/**
+	 * Drops events for items none of the {@link BindingProvider}s has a binding
+	 * for, unless {@link #isEventRoutingEnabled()} returns <code>false</code>.
+	 */
+	@Override
+	protected boolean acceptsItem(String itemName) {
+		return !isEventRoutingEnabled() || routingTable.routes(itemName);
+	}
+	
+	/**
+	 * Bindings which want to receive the commands and updates of all items,
+	 * not only of those they have a binding for, have to return
+	 * <code>false</code> here.
+	 * 
+	 * @return <code>true</code> if only events for items with a binding are
+	 * dispatched (default)
+	 */
+	protected boolean isEventRoutingEnabled() {
+		return true;
+	}
+	
 	/**
 	 * @{inheritDoc}
 	 */
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.binding;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Keeps track of the items a binding has a configuration for, so that events
+ * for other items can be dropped by a single lookup. The table is built from
+ * {@link BindingProvider#getItemNames()} and kept up to date by the
+ * {@link BindingChangeListener} notifications of the providers.
+ * <p>
+ * Lookups are lock free, changes are synchronized.
+ * 
+ * @since 1.9.0
+ */
+class BindingRoutingTable implements BindingChangeListener {
+
+	/** maps item names to the providers which have a binding for them */
+	private final Map<String, Set<BindingProvider>> routes = new ConcurrentHashMap<String, Set<BindingProvider>>();
+
+	/**
+	 * @param itemName the item name to check
+	 * @return <code>true</code> if any provider has a binding for the item
+	 */
+	boolean routes(String itemName) {
+		return itemName != null && routes.containsKey(itemName);
+	}
+
+	/**
+	 * @return the number of items with a binding
+	 */
+	int size() {
+		return routes.size();
+	}
+
+	/**
+	 * Removes all routes of the given provider.
+	 * 
+	 * @param provider the provider which has been removed
+	 */
+	synchronized void removeProvider(BindingProvider provider) {
+		Iterator<Set<BindingProvider>> iterator = routes.values().iterator();
+		while (iterator.hasNext()) {
+			Set<BindingProvider> providers = iterator.next();
+			if (providers.remove(provider) && providers.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public synchronized void bindingChanged(BindingProvider provider, String itemName) {
+		if (itemName == null) {
+			return;
+		}
+		if (provider.providesBindingFor(itemName)) {
+			addRoute(provider, itemName);
+		} else {
+			Set<BindingProvider> providers = routes.get(itemName);
+			if (providers != null && providers.remove(provider) && providers.isEmpty()) {
+				routes.remove(itemName);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public synchronized void allBindingsChanged(BindingProvider provider) {
+		removeProvider(provider);
+		for (String itemName : provider.getItemNames()) {
+			if (itemName != null && provider.providesBindingFor(itemName)) {
+				addRoute(provider, itemName);
+			}
+		}
+	}
+
+	private void addRoute(BindingProvider provider, String itemName) {
+		Set<BindingProvider> providers = routes.get(itemName);
+		if (providers == null) {
+			providers = new HashSet<BindingProvider>();
+			routes.put(itemName, providers);
+		}
+		providers.add(provider);
+	}
+
+}
@@ -11,6 +11,9 @@ package org.openhab.core.events;
 import static org.openhab.core.events.EventConstants.TOPIC_PREFIX;
 import static org.openhab.core.events.EventConstants.TOPIC_SEPERATOR;
 
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.core.types.EventType;
@@ -19,11 +22,21 @@ import org.osgi.service.event.EventHandler;
 
 abstract public class AbstractEventSubscriber implements EventSubscriber, EventHandler {
 	
+	private final AtomicLong receivedEvents = new AtomicLong();
+	private final AtomicLong filteredEvents = new AtomicLong();
+	private final AtomicLong dispatchedEvents = new AtomicLong();
+	private String metricName;
+	
 	/**
 	 * {@inheritDoc}
 	 */
 	public void handleEvent(Event event) {  
+		receivedEvents.incrementAndGet();
 		String itemName = (String) event.getProperty("item");
+		if (!acceptsItem(itemName)) {
+			filteredEvents.incrementAndGet();
+			return;
+		}
 		
 		String topic = event.getTopic();
 		String[] topicParts = topic.split(TOPIC_SEPERATOR);
@@ -33,14 +46,70 @@ abstract public class AbstractEventSubscriber implements EventSubscriber, EventH
 		}
 		String operation = topicParts[1];
 		
+		long start = System.nanoTime();
+		boolean dispatched = false;
 		if(operation.equals(EventType.UPDATE.toString())) {
 			State newState = (State) event.getProperty("state");
-			if(newState!=null) receiveUpdate(itemName, newState);
+			if(newState!=null) {
+				dispatchedEvents.incrementAndGet();
+				dispatched = true;
+				receiveUpdate(itemName, newState);
+			}
 		}
 		if(operation.equals(EventType.COMMAND.toString())) {
 			Command command = (Command) event.getProperty("command");
-			if(command!=null) receiveCommand(itemName, command);
+			if(command!=null) {
+				dispatchedEvents.incrementAndGet();
+				dispatched = true;
+				receiveCommand(itemName, command);
+			}
+		}
+		if(dispatched) {
+			MetricsRegistry.getInstance().record(getMetricName(), System.nanoTime() - start);
+		}
+	}
+	
+	private String getMetricName() {
+		if (metricName == null) {
+			String name = getClass().getSimpleName();
+			metricName = "subscribers." + (name.isEmpty() ? getClass().getName() : name);
 		}
+		return metricName;
+	}
+	
+	/**
+	 * Is called for every received event before its topic is parsed. Subscribers
+	 * which are only interested in some items can drop all other events here
+	 * cheaply.
+	 * 
+	 * @param itemName the name of the item the event refers to
+	 * @return <code>true</code> if the event should be dispatched to
+	 * <code>receiveCommand()</code> or <code>receiveUpdate()</code>
+	 */
+	protected boolean acceptsItem(String itemName) {
+		return true;
+	}
+	
+	/**
+	 * @return the number of events delivered to this subscriber
+	 */
+	public long getReceivedEventCount() {
+		return receivedEvents.get();
+	}
+	
+	/**
+	 * @return the number of events dropped by {@link #acceptsItem(String)}
+	 */
+	public long getFilteredEventCount() {
+		return filteredEvents.get();
+	}
+	
+	/**
+	 * @return the number of commands and updates passed to
+	 * <code>receiveCommand()</code> and <code>receiveUpdate()</code>
+	 */
+	public long getDispatchedEventCount() {
+		return dispatchedEvents.get();
 	}
 	
 	/**
@@ -15,6 +15,7 @@ import java.util.Dictionary;
 import java.util.Hashtable;
 
 import org.openhab.core.events.EventPublisher;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.EventType;
 import org.openhab.core.types.State;
@@ -82,6 +83,7 @@ public class EventPublisherImpl implements EventPublisher {
 	}
 	
 	private Event createUpdateEvent(String itemName, State newState) {
+		mark(EventType.UPDATE, itemName);
 		Dictionary<String, Object> properties = new Hashtable<String, Object>();
 		properties.put("item", itemName);
 		properties.put("state", newState);
@@ -89,12 +91,22 @@ public class EventPublisherImpl implements EventPublisher {
 	}
 
 	private Event createCommandEvent(String itemName, Command command) {
+		mark(EventType.COMMAND, itemName);
 		Dictionary<String, Object> properties = new Hashtable<String, Object>();
 		properties.put("item", itemName);
 		properties.put("command", command);
 		return new Event(createTopic(EventType.COMMAND, itemName) , properties);
 	}
 
+	private void mark(EventType type, String itemName) {
+		if (!MetricsRegistry.isEnabled()) {
+			return;
+		}
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		metrics.mark("events." + type.toString().toLowerCase());
+		metrics.mark("events.item." + itemName);
+	}
+
 	private String createTopic(EventType type, String itemName) {
 		return TOPIC_PREFIX + TOPIC_SEPERATOR + type + TOPIC_SEPERATOR + itemName;
 	}
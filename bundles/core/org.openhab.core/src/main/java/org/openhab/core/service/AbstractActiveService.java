@@ -38,6 +38,12 @@ public abstract class AbstractActiveService {
 	 */
 	private Thread refreshThread;
 	
+	/**
+	 * holds the handle of the service on the shared scheduler or is <code>null</code>
+	 * if the service isn't scheduled there
+	 */
+	private ActiveServiceScheduler.ScheduledService scheduledService;
+	
 	
 	public AbstractActiveService() {
 		super();
@@ -64,8 +70,13 @@ public abstract class AbstractActiveService {
 				
 		shutdown = false;
 		if (!isRunning()) {
-			this.refreshThread = new RefreshThread(getName(), getRefreshInterval());
-			this.refreshThread.start();
+			ActiveServiceScheduler.Mode mode = getSchedulingMode();
+			if (mode == null || mode == ActiveServiceScheduler.Mode.THREAD) {
+				this.refreshThread = new RefreshThread(getName(), getRefreshInterval());
+				this.refreshThread.start();
+			} else {
+				this.scheduledService = ActiveServiceScheduler.getInstance().schedule(this, mode);
+			}
 		} else {
 			logger.trace("{} is already started > calling start() changed nothing.", getName());
 		}
@@ -84,7 +95,14 @@ public abstract class AbstractActiveService {
 	 */
 	public void interrupt() {
 		if (isRunning()) {
-			this.refreshThread.interrupt();
+			Thread thread = this.refreshThread;
+			if (thread != null) {
+				thread.interrupt();
+			}
+			ActiveServiceScheduler.ScheduledService scheduled = this.scheduledService;
+			if (scheduled != null) {
+				scheduled.cancel(true);
+			}
 			logger.trace("{} has been interrupted.", getName());
 		}
 	}
@@ -93,12 +111,27 @@ public abstract class AbstractActiveService {
 	 * {@inheritDoc}
 	 */
 	public boolean isRunning() {
-		if (this.refreshThread != null) {
-			return this.refreshThread.isAlive();
+		Thread thread = this.refreshThread;
+		if (thread != null) {
+			return thread.isAlive();
+		}
+		ActiveServiceScheduler.ScheduledService scheduled = this.scheduledService;
+		if (scheduled != null) {
+			return scheduled.isActive();
 		}
 		return false;
 	}
 	
+	/**
+	 * Called by the {@link ActiveServiceScheduler} when the service won't be
+	 * executed any more.
+	 */
+	void scheduledServiceFinished(ActiveServiceScheduler.ScheduledService scheduled) {
+		if (this.scheduledService == scheduled) {
+			this.scheduledService = null;
+		}
+	}
+	
 	/**
 	 * @return <code>true</code> if this binding is configured properly which means
 	 * that all necessary data is available
@@ -146,6 +179,18 @@ public abstract class AbstractActiveService {
 	 */
 	protected abstract String getName();
 	
+	/**
+	 * Returns how the execute method is scheduled. Services may override this
+	 * to opt in to the shared {@link ActiveServiceScheduler}, by default the
+	 * mode configured for all services is used.
+	 * 
+	 * @return the scheduling mode
+	 * @since 1.9.0
+	 */
+	protected ActiveServiceScheduler.Mode getSchedulingMode() {
+		return ActiveServiceScheduler.getDefaultMode();
+	}
+	
 	/**
 	 * Worker thread which calls the execute method frequently.
 	 *  
@@ -169,10 +214,13 @@ public abstract class AbstractActiveService {
 			logger.info(getName() + " has been started");
 			
 			while (!shutdown) {
+				long start = System.nanoTime();
 				try {
 					execute();
 				} catch(RuntimeException e) {
 					logger.error("Error while executing background thread " + getName(), e);
+				} finally {
+					MetricsRegistry.getInstance().record("services." + getName(), System.nanoTime() - start);
 				}
 				pause(refreshInterval);
 			}
@@ -0,0 +1,275 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Runs the <code>execute()</code> method of {@link AbstractActiveService}s on a
+ * shared pool of threads instead of a dedicated thread per service.
+ * <p>
+ * The shared runtime is opt-in. Services use it if they return another
+ * {@link Mode} than {@link Mode#THREAD} from
+ * {@link AbstractActiveService#getSchedulingMode()}, which by default returns
+ * the mode configured by the system property
+ * <code>openhab.activeservice.scheduling</code> (<code>thread</code>,
+ * <code>fixedrate</code> or <code>fixeddelay</code>). The pool size is set by
+ * <code>openhab.activeservice.threads</code> (default 4).
+ * <p>
+ * With {@link Mode#FIXED_RATE} an execution which is started more than one
+ * refresh interval late, because the previous one took too long, is skipped
+ * and counted as overrun. The execution times are recorded by the
+ * {@link MetricsRegistry} as <code>services.&lt;name&gt;</code>, overruns and
+ * stuck executions as <code>services.&lt;name&gt;.overruns</code> and
+ * <code>services.&lt;name&gt;.stuck</code>. A watchdog reports executions which take longer than
+ * <code>openhab.activeservice.watchdog</code> milliseconds (default 60000) or
+ * the refresh interval of the service, whichever is longer. Note that services
+ * blocking forever keep a pool thread busy.
+ *
+ * @since 1.9.0
+ */
+public class ActiveServiceScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(ActiveServiceScheduler.class);
+
+	private static final long WATCHDOG_INTERVAL = 10000;
+
+	/**
+	 * How the <code>execute()</code> method of an active service is scheduled.
+	 */
+	public enum Mode {
+		/** a dedicated thread sleeping for the refresh interval after each execution */
+		THREAD,
+		/** the shared pool, executions start every refresh interval */
+		FIXED_RATE,
+		/** the shared pool, executions start a refresh interval after the previous one finished */
+		FIXED_DELAY
+	}
+
+	private static ActiveServiceScheduler instance;
+
+	private final ScheduledExecutorService executor;
+	private final ScheduledExecutorService watchdog;
+	private final long watchdogTimeout;
+
+	private final Map<ScheduledService, Boolean> scheduledServices = new ConcurrentHashMap<ScheduledService, Boolean>();
+
+	private ActiveServiceScheduler(int threads, long watchdogTimeout) {
+		this.watchdogTimeout = watchdogTimeout;
+		this.executor = new ScheduledThreadPoolExecutor(threads, new NamedThreadFactory("ActiveService"));
+		this.watchdog = new ScheduledThreadPoolExecutor(1, new NamedThreadFactory("ActiveServiceWatchdog"));
+		this.watchdog.scheduleWithFixedDelay(new Runnable() {
+			public void run() {
+				checkStuckServices();
+			}
+		}, WATCHDOG_INTERVAL, WATCHDOG_INTERVAL, TimeUnit.MILLISECONDS);
+	}
+
+	/**
+	 * @return the shared scheduler, created on first use
+	 */
+	public static synchronized ActiveServiceScheduler getInstance() {
+		if (instance == null) {
+			int threads = getIntProperty("openhab.activeservice.threads", 4);
+			long timeout = getIntProperty("openhab.activeservice.watchdog", 60000);
+			instance = new ActiveServiceScheduler(Math.max(1, threads), timeout);
+			logger.debug("Created shared scheduler for active services with {} threads", threads);
+		}
+		return instance;
+	}
+
+	/**
+	 * @return the scheduling mode configured by the system property
+	 *         <code>openhab.activeservice.scheduling</code>
+	 */
+	public static Mode getDefaultMode() {
+		String mode = System.getProperty("openhab.activeservice.scheduling");
+		if ("fixedrate".equalsIgnoreCase(mode)) {
+			return Mode.FIXED_RATE;
+		} else if ("fixeddelay".equalsIgnoreCase(mode)) {
+			return Mode.FIXED_DELAY;
+		}
+		return Mode.THREAD;
+	}
+
+	private static int getIntProperty(String name, int defaultValue) {
+		String value = System.getProperty(name);
+		if (value != null) {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException e) {
+				logger.warn("Invalid value '{}' for {}, using {}", value, name, defaultValue);
+			}
+		}
+		return defaultValue;
+	}
+
+	/**
+	 * Schedules the periodic execution of a service.
+	 *
+	 * @param service the service to execute
+	 * @param mode {@link Mode#FIXED_RATE} or {@link Mode#FIXED_DELAY}
+	 * @return the handle of the scheduled service
+	 */
+	ScheduledService schedule(AbstractActiveService service, Mode mode) {
+		String name = service.getName();
+		long interval = Math.max(1, service.getRefreshInterval());
+
+		ScheduledService scheduled = new ScheduledService(service, name, interval, mode);
+		scheduledServices.put(scheduled, Boolean.TRUE);
+		if (mode == Mode.FIXED_DELAY) {
+			scheduled.future = executor.scheduleWithFixedDelay(scheduled, 0, interval, TimeUnit.MILLISECONDS);
+		} else {
+			scheduled.future = executor.scheduleAtFixedRate(scheduled, 0, interval, TimeUnit.MILLISECONDS);
+		}
+		if (scheduled.cancelled) {
+			// cancelled by the first execution before the future was known
+			scheduled.future.cancel(false);
+		}
+		logger.info("{} has been started ({})", name, mode);
+		return scheduled;
+	}
+
+	private void checkStuckServices() {
+		long now = System.currentTimeMillis();
+		for (ScheduledService scheduled : scheduledServices.keySet()) {
+			long start = scheduled.executionStart;
+			Thread thread = scheduled.executingThread;
+			if (start == 0 || thread == null || scheduled.reportedStart == start) {
+				continue;
+			}
+			long duration = now - start;
+			if (duration > Math.max(watchdogTimeout, scheduled.interval)) {
+				scheduled.reportedStart = start;
+				MetricsRegistry.getInstance().mark("services." + scheduled.name + ".stuck");
+
+				StringBuilder trace = new StringBuilder();
+				for (StackTraceElement element : thread.getStackTrace()) {
+					trace.append("\n\tat ").append(element);
+				}
+				logger.warn("{} has been executing for {}ms, it seems to be stuck:{}", scheduled.name, duration,
+						trace);
+			}
+		}
+	}
+
+	/**
+	 * A service scheduled on the shared pool.
+	 */
+	class ScheduledService implements Runnable {
+
+		private final AbstractActiveService service;
+		private final String name;
+		private final long interval;
+		private final Mode mode;
+
+		private volatile ScheduledFuture<?> future;
+		private volatile boolean cancelled = false;
+		private long firstRun = 0;
+		private long runCount = 0;
+
+		private volatile long executionStart = 0;
+		private volatile Thread executingThread;
+		private volatile long reportedStart = 0;
+
+		ScheduledService(AbstractActiveService service, String name, long interval, Mode mode) {
+			this.service = service;
+			this.name = name;
+			this.interval = interval;
+			this.mode = mode;
+		}
+
+		public void run() {
+			if (service.shutdown) {
+				cancel(false);
+				logger.info("{} has been shut down", name);
+				return;
+			}
+
+			long now = System.currentTimeMillis();
+			if (mode == Mode.FIXED_RATE) {
+				if (runCount == 0) {
+					firstRun = now;
+				}
+				long expected = firstRun + runCount * interval;
+				runCount++;
+				if (now - expected >= interval) {
+					// the previous execution took too long, wait for the next regular slot
+					MetricsRegistry.getInstance().mark("services." + name + ".overruns");
+					logger.debug("{} is running late, skipping execution", name);
+					return;
+				}
+			}
+
+			executingThread = Thread.currentThread();
+			executionStart = now;
+			long start = System.nanoTime();
+			try {
+				service.execute();
+			} catch (RuntimeException e) {
+				logger.error("Error while executing background thread " + name, e);
+			} finally {
+				MetricsRegistry.getInstance().record("services." + name, System.nanoTime() - start);
+				executionStart = 0;
+				executingThread = null;
+			}
+		}
+
+		/**
+		 * Stops further executions.
+		 *
+		 * @param interrupt <code>true</code> if a running execution should be
+		 *            interrupted
+		 */
+		void cancel(boolean interrupt) {
+			cancelled = true;
+			scheduledServices.remove(this);
+			if (future != null) {
+				future.cancel(interrupt);
+			}
+			service.scheduledServiceFinished(this);
+		}
+
+		/**
+		 * @return <code>true</code> if further executions are scheduled or the
+		 *         service is executing right now
+		 */
+		boolean isActive() {
+			return (!cancelled && (future == null || !future.isDone())) || executionStart != 0;
+		}
+	}
+
+	private static class NamedThreadFactory implements ThreadFactory {
+
+		private final String prefix;
+		private final AtomicInteger count = new AtomicInteger();
+
+		NamedThreadFactory(String prefix) {
+			this.prefix = prefix;
+		}
+
+		public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+}
@@ -0,0 +1,457 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.core.service;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.lang.management.ThreadMXBean;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Collects runtime statistics of openHAB, like the number of events per item
+ * or the execution times of rules.
+ * <p>
+ * There are three kinds of metrics, which are identified by dot separated
+ * names:
+ * <ul>
+ * <li>{@link Meter}s count occurrences, e.g. <code>events.item.Light</code></li>
+ * <li>{@link Timer}s record durations, e.g. <code>rules.Wake up</code></li>
+ * <li>{@link Gauge}s report a current value, e.g. <code>jvm.threads</code></li>
+ * </ul>
+ * Meters and timers report totals since openHAB has been started as well as
+ * values for a sliding window of the last <code>openhab.metrics.window</code>
+ * seconds (default 60). Recording can be switched off by setting the system
+ * property <code>openhab.metrics</code> to <code>false</code>.
+ *
+ * @since 1.9.0
+ */
+public class MetricsRegistry {
+
+	private static final Logger logger = LoggerFactory.getLogger(MetricsRegistry.class);
+
+	private static final boolean enabled = !"false".equalsIgnoreCase(System.getProperty("openhab.metrics"));
+
+	private static MetricsRegistry instance;
+
+	private final int window;
+	private final long started;
+
+	private final ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<String, Meter>();
+	private final ConcurrentMap<String, Timer> timers = new ConcurrentHashMap<String, Timer>();
+	private final ConcurrentMap<String, Gauge> gauges = new ConcurrentHashMap<String, Gauge>();
+
+	/**
+	 * Reports the current value of a metric.
+	 */
+	public interface Gauge {
+
+		/** @return the current value */
+		long getValue();
+	}
+
+	MetricsRegistry(int window) {
+		this.window = window;
+		this.started = currentSecond();
+		registerJvmGauges();
+	}
+
+	/**
+	 * @return the registry, created on first use
+	 */
+	public static synchronized MetricsRegistry getInstance() {
+		if (instance == null) {
+			int window = 60;
+			String value = System.getProperty("openhab.metrics.window");
+			if (value != null) {
+				try {
+					window = Math.max(1, Integer.parseInt(value.trim()));
+				} catch (NumberFormatException e) {
+					logger.warn("Invalid value '{}' for openhab.metrics.window, using {}", value, window);
+				}
+			}
+			instance = new MetricsRegistry(window);
+		}
+		return instance;
+	}
+
+	/**
+	 * @return <code>true</code> if metrics are recorded
+	 */
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Counts an occurrence.
+	 *
+	 * @param name the name of the meter
+	 */
+	public void mark(String name) {
+		if (!enabled) {
+			return;
+		}
+		Meter meter = meters.get(name);
+		if (meter == null) {
+			meter = new Meter();
+			Meter existing = meters.putIfAbsent(name, meter);
+			if (existing != null) {
+				meter = existing;
+			}
+		}
+		meter.mark(currentSecond());
+	}
+
+	/**
+	 * Records a duration.
+	 *
+	 * @param name the name of the timer
+	 * @param nanos the duration in nanoseconds
+	 */
+	public void record(String name, long nanos) {
+		if (!enabled) {
+			return;
+		}
+		Timer timer = timers.get(name);
+		if (timer == null) {
+			timer = new Timer();
+			Timer existing = timers.putIfAbsent(name, timer);
+			if (existing != null) {
+				timer = existing;
+			}
+		}
+		timer.record(currentSecond(), nanos);
+	}
+
+	/**
+	 * Registers a gauge, replacing any gauge of the same name.
+	 *
+	 * @param name the name of the gauge
+	 * @param gauge the gauge
+	 */
+	public void registerGauge(String name, Gauge gauge) {
+		gauges.put(name, gauge);
+	}
+
+	/**
+	 * @param name the name of the gauge to remove
+	 */
+	public void unregisterGauge(String name) {
+		gauges.remove(name);
+	}
+
+	/**
+	 * @param prefix the prefix of the names to return, e.g. <code>events.</code>
+	 * @return the meters whose names start with the prefix, sorted by name
+	 */
+	public SortedMap<String, Meter> getMeters(String prefix) {
+		return filter(meters, prefix);
+	}
+
+	/**
+	 * @param prefix the prefix of the names to return, e.g. <code>rules.</code>
+	 * @return the timers whose names start with the prefix, sorted by name
+	 */
+	public SortedMap<String, Timer> getTimers(String prefix) {
+		return filter(timers, prefix);
+	}
+
+	/**
+	 * @param prefix the prefix of the names to return, e.g. <code>jvm.</code>
+	 * @return the current values of the gauges whose names start with the
+	 *         prefix, sorted by name
+	 */
+	public SortedMap<String, Long> getGauges(String prefix) {
+		SortedMap<String, Long> values = new TreeMap<String, Long>();
+		for (Map.Entry<String, Gauge> entry : filter(gauges, prefix).entrySet()) {
+			try {
+				values.put(entry.getKey(), entry.getValue().getValue());
+			} catch (RuntimeException e) {
+				logger.debug("Gauge {} failed: {}", entry.getKey(), e.getMessage());
+			}
+		}
+		return values;
+	}
+
+	/**
+	 * @return the length of the sliding window in seconds
+	 */
+	public int getWindow() {
+		return window;
+	}
+
+	/**
+	 * Removes all meters and timers, gauges are kept.
+	 */
+	public void reset() {
+		meters.clear();
+		timers.clear();
+	}
+
+	/**
+	 * @return all metrics as a JSON object
+	 */
+	public String toJson() {
+		StringBuilder json = new StringBuilder();
+		json.append("{\"window\":").append(window);
+		json.append(",\"meters\":{");
+		boolean first = true;
+		for (Map.Entry<String, Meter> entry : getMeters("").entrySet()) {
+			Meter meter = entry.getValue();
+			first = appendName(json, entry.getKey(), first);
+			json.append("{\"count\":").append(meter.getCount());
+			json.append(",\"windowCount\":").append(meter.getWindowCount());
+			json.append(",\"rate\":").append(String.format(Locale.US, "%.3f", meter.getRate())).append('}');
+		}
+		json.append("},\"timers\":{");
+		first = true;
+		for (Map.Entry<String, Timer> entry : getTimers("").entrySet()) {
+			Timer timer = entry.getValue();
+			first = appendName(json, entry.getKey(), first);
+			json.append("{\"count\":").append(timer.getCount());
+			json.append(",\"totalTime\":").append(timer.getTotalTime());
+			json.append(",\"maxTime\":").append(timer.getMaxTime());
+			json.append(",\"windowCount\":").append(timer.getWindowCount());
+			json.append(",\"windowAverage\":").append(timer.getWindowAverage());
+			json.append(",\"windowMax\":").append(timer.getWindowMax()).append('}');
+		}
+		json.append("},\"gauges\":{");
+		first = true;
+		for (Map.Entry<String, Long> entry : getGauges("").entrySet()) {
+			first = appendName(json, entry.getKey(), first);
+			json.append(entry.getValue());
+		}
+		json.append("}}");
+		return json.toString();
+	}
+
+	private static boolean appendName(StringBuilder json, String name, boolean first) {
+		if (!first) {
+			json.append(',');
+		}
+		json.append('"');
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			if (c == '"' || c == '\\') {
+				json.append('\\').append(c);
+			} else if (c < 0x20) {
+				json.append(String.format("\\u%04x", (int) c));
+			} else {
+				json.append(c);
+			}
+		}
+		json.append("\":");
+		return false;
+	}
+
+	private static <T> SortedMap<String, T> filter(Map<String, T> metrics, String prefix) {
+		SortedMap<String, T> result = new TreeMap<String, T>();
+		for (Map.Entry<String, T> entry : metrics.entrySet()) {
+			if (entry.getKey().startsWith(prefix)) {
+				result.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return Collections.unmodifiableSortedMap(result);
+	}
+
+	private void registerJvmGauges() {
+		final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+		registerGauge("jvm.heap.used", new Gauge() {
+			public long getValue() {
+				return getHeapUsage().getUsed();
+			}
+		});
+		registerGauge("jvm.heap.committed", new Gauge() {
+			public long getValue() {
+				return getHeapUsage().getCommitted();
+			}
+		});
+		registerGauge("jvm.heap.max", new Gauge() {
+			public long getValue() {
+				return getHeapUsage().getMax();
+			}
+		});
+		registerGauge("jvm.threads", new Gauge() {
+			public long getValue() {
+				return threads.getThreadCount();
+			}
+		});
+		registerGauge("jvm.threads.daemon", new Gauge() {
+			public long getValue() {
+				return threads.getDaemonThreadCount();
+			}
+		});
+		registerGauge("jvm.threads.peak", new Gauge() {
+			public long getValue() {
+				return threads.getPeakThreadCount();
+			}
+		});
+	}
+
+	private static MemoryUsage getHeapUsage() {
+		return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+	}
+
+	long currentSecond() {
+		return TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+	}
+
+	/**
+	 * @return the bucket of a second, the seconds derived from
+	 *         {@link System#nanoTime()} may be negative
+	 */
+	private int getBucket(long second) {
+		// equivalent to Math.floorMod(second, window), which requires Java 8
+		return (int) (((second % window) + window) % window);
+	}
+
+	/**
+	 * @return the number of seconds the rates are calculated for, which is
+	 *         shorter than the window right after start
+	 */
+	private long getRateSeconds() {
+		return Math.max(1, Math.min(window, currentSecond() - started + 1));
+	}
+
+	/**
+	 * Counts occurrences in buckets of one second.
+	 */
+	public class Meter {
+
+		private final long[] seconds = new long[window];
+		private final long[] counts = new long[window];
+		private long count = 0;
+
+		private synchronized void mark(long second) {
+			int index = getBucket(second);
+			if (seconds[index] != second) {
+				seconds[index] = second;
+				counts[index] = 0;
+			}
+			counts[index]++;
+			count++;
+		}
+
+		/** @return the number of occurrences since start */
+		public synchronized long getCount() {
+			return count;
+		}
+
+		/** @return the number of occurrences within the sliding window */
+		public synchronized long getWindowCount() {
+			long now = currentSecond();
+			long sum = 0;
+			for (int i = 0; i < window; i++) {
+				if (now - seconds[i] < window) {
+					sum += counts[i];
+				}
+			}
+			return sum;
+		}
+
+		/** @return the occurrences per second within the sliding window */
+		public double getRate() {
+			return (double) getWindowCount() / getRateSeconds();
+		}
+	}
+
+	/**
+	 * Records durations in buckets of one second. All times are reported in
+	 * milliseconds.
+	 */
+	public class Timer {
+
+		private final long[] seconds = new long[window];
+		private final long[] counts = new long[window];
+		private final long[] totals = new long[window];
+		private final long[] maxima = new long[window];
+		private long count = 0;
+		private long total = 0;
+		private long max = 0;
+
+		private synchronized void record(long second, long nanos) {
+			int index = getBucket(second);
+			if (seconds[index] != second) {
+				seconds[index] = second;
+				counts[index] = 0;
+				totals[index] = 0;
+				maxima[index] = 0;
+			}
+			counts[index]++;
+			totals[index] += nanos;
+			maxima[index] = Math.max(maxima[index], nanos);
+			count++;
+			total += nanos;
+			max = Math.max(max, nanos);
+		}
+
+		/** @return the number of recorded durations since start */
+		public synchronized long getCount() {
+			return count;
+		}
+
+		/** @return the sum of all durations since start */
+		public synchronized long getTotalTime() {
+			return TimeUnit.NANOSECONDS.toMillis(total);
+		}
+
+		/** @return the longest duration since start */
+		public synchronized long getMaxTime() {
+			return TimeUnit.NANOSECONDS.toMillis(max);
+		}
+
+		/** @return the number of durations recorded within the sliding window */
+		public synchronized long getWindowCount() {
+			long now = currentSecond();
+			long sum = 0;
+			for (int i = 0; i < window; i++) {
+				if (now - seconds[i] < window) {
+					sum += counts[i];
+				}
+			}
+			return sum;
+		}
+
+		/** @return the average duration within the sliding window */
+		public synchronized long getWindowAverage() {
+			long now = currentSecond();
+			long sum = 0;
+			long windowCount = 0;
+			for (int i = 0; i < window; i++) {
+				if (now - seconds[i] < window) {
+					sum += totals[i];
+					windowCount += counts[i];
+				}
+			}
+			return windowCount > 0 ? TimeUnit.NANOSECONDS.toMillis(sum / windowCount) : 0;
+		}
+
+		/** @return the longest duration within the sliding window */
+		public synchronized long getWindowMax() {
+			long now = currentSecond();
+			long windowMax = 0;
+			for (int i = 0; i < window; i++) {
+				if (now - seconds[i] < window) {
+					windowMax = Math.max(windowMax, maxima[i]);
+				}
+			}
+			return TimeUnit.NANOSECONDS.toMillis(windowMax);
+		}
+	}
+
+}
@@ -8,7 +8,14 @@
  */
 package org.openhab.io.console;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 
 import javax.script.ScriptEngine;
 
@@ -18,6 +25,9 @@ import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemNotUniqueException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.service.MetricsRegistry;
+import org.openhab.core.service.MetricsRegistry.Meter;
+import org.openhab.core.service.MetricsRegistry.Timer;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.State;
 import org.openhab.core.types.TypeParser;
@@ -57,6 +67,8 @@ public class ConsoleInterpreter {
             ConsoleInterpreter.handleStatus(args, console);
         } else if (arg.equals("say")) {
             ConsoleInterpreter.handleSay(args, console);
+        } else if (arg.equals("stats")) {
+            ConsoleInterpreter.handleStats(args, console);
         } else if (arg.equals(">")) {
             ConsoleInterpreter.handleScript(args, console);
         } else {
@@ -262,6 +274,147 @@ public class ConsoleInterpreter {
         }
     }
 
+    /**
+     * This method handles a stats command.
+     * 
+     * @param args array which contains the arguments for the stats command
+     * @param console the console for printing messages for the user
+     */
+    static public void handleStats(String[] args, Console console) {
+        MetricsRegistry metrics = MetricsRegistry.getInstance();
+        String arg = args.length > 0 ? args[0] : "";
+        if (!MetricsRegistry.isEnabled() && !arg.equals("jvm")) {
+            console.println("Statistics are disabled by the system property openhab.metrics.");
+            return;
+        }
+        if (arg.isEmpty()) {
+            console.println("Events (last " + metrics.getWindow() + "s):");
+            printMeters(metrics.getMeters("events."), "events.", true, console);
+            console.println("Most active items:");
+            printTopMeters(metrics.getMeters("events.item."), "events.item.", 5, console);
+            console.println("Slowest rules:");
+            printTopTimers(metrics.getTimers("rules."), "rules.", 5, console);
+            console.println("JVM:");
+            printGauges(metrics.getGauges("jvm."), console);
+        } else if (arg.equals("events")) {
+            printMeters(metrics.getMeters("events."), "events.", true, console);
+        } else if (arg.equals("items")) {
+            int count = 10;
+            if (args.length > 1) {
+                try {
+                    count = Integer.parseInt(args[1]);
+                } catch (NumberFormatException e) {
+                    console.printUsage(getStatsUsage());
+                    return;
+                }
+            }
+            printTopMeters(metrics.getMeters("events.item."), "events.item.", count, console);
+        } else if (arg.equals("subscribers") || arg.equals("rules") || arg.equals("services")) {
+            printTimers(metrics.getTimers(arg + "."), arg + ".", console);
+        } else if (arg.equals("persistence")) {
+            printTimers(metrics.getTimers("persistence."), "persistence.", console);
+            printGauges(metrics.getGauges("persistence."), console);
+        } else if (arg.equals("jvm")) {
+            printGauges(metrics.getGauges("jvm."), console);
+        } else if (arg.equals("json")) {
+            console.println(metrics.toJson());
+        } else if (arg.equals("reset")) {
+            metrics.reset();
+            console.println("Statistics have been reset.");
+        } else {
+            console.printUsage(getStatsUsage());
+        }
+    }
+
+    private static void printMeters(Map<String, Meter> meters, String prefix, boolean skipNested,
+            Console console) {
+        if (meters.isEmpty()) {
+            console.println("  none");
+        }
+        for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+            String name = entry.getKey().substring(prefix.length());
+            if (skipNested && name.contains(".")) {
+                continue;
+            }
+            Meter meter = entry.getValue();
+            console.println(String.format(Locale.US, "  %-40s %8.2f/s %10d in window %12d total", name,
+                    meter.getRate(), meter.getWindowCount(), meter.getCount()));
+        }
+    }
+
+    private static void printTopMeters(Map<String, Meter> meters, String prefix, int count, Console console) {
+        final Map<Meter, Long> windowCounts = new IdentityHashMap<Meter, Long>();
+        List<Map.Entry<String, Meter>> entries = new ArrayList<Map.Entry<String, Meter>>();
+        for (Map.Entry<String, Meter> entry : meters.entrySet()) {
+            long windowCount = entry.getValue().getWindowCount();
+            if (windowCount > 0) {
+                windowCounts.put(entry.getValue(), windowCount);
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, Meter>>() {
+            @Override
+            public int compare(Map.Entry<String, Meter> entry1, Map.Entry<String, Meter> entry2) {
+                return windowCounts.get(entry2.getValue()).compareTo(windowCounts.get(entry1.getValue()));
+            }
+        });
+        if (entries.isEmpty()) {
+            console.println("  none");
+        }
+        for (Map.Entry<String, Meter> entry : entries.subList(0, Math.min(count, entries.size()))) {
+            Meter meter = entry.getValue();
+            console.println(String.format(Locale.US, "  %-40s %8.2f/s %10d in window %12d total",
+                    entry.getKey().substring(prefix.length()), meter.getRate(), windowCounts.get(meter),
+                    meter.getCount()));
+        }
+    }
+
+    private static void printTimers(Map<String, Timer> timers, String prefix, Console console) {
+        if (timers.isEmpty()) {
+            console.println("  none");
+            return;
+        }
+        console.println(String.format("  %-40s %8s %8s %8s %10s %8s", "name", "window", "avg ms", "max ms", "total",
+                "max ms"));
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            printTimer(entry.getKey().substring(prefix.length()), entry.getValue(), console);
+        }
+    }
+
+    private static void printTopTimers(Map<String, Timer> timers, String prefix, int count, Console console) {
+        final Map<Timer, Long> averages = new IdentityHashMap<Timer, Long>();
+        List<Map.Entry<String, Timer>> entries = new ArrayList<Map.Entry<String, Timer>>();
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            if (entry.getValue().getWindowCount() > 0) {
+                averages.put(entry.getValue(), entry.getValue().getWindowAverage());
+                entries.add(entry);
+            }
+        }
+        Collections.sort(entries, new Comparator<Map.Entry<String, Timer>>() {
+            @Override
+            public int compare(Map.Entry<String, Timer> entry1, Map.Entry<String, Timer> entry2) {
+                return averages.get(entry2.getValue()).compareTo(averages.get(entry1.getValue()));
+            }
+        });
+        if (entries.isEmpty()) {
+            console.println("  none");
+        }
+        for (Map.Entry<String, Timer> entry : entries.subList(0, Math.min(count, entries.size()))) {
+            printTimer(entry.getKey().substring(prefix.length()), entry.getValue(), console);
+        }
+    }
+
+    private static void printTimer(String name, Timer timer, Console console) {
+        console.println(String.format("  %-40s %8d %8d %8d %10d %8d", name, timer.getWindowCount(),
+                timer.getWindowAverage(), timer.getWindowMax(), timer.getCount(), timer.getMaxTime()));
+    }
+
+    private static void printGauges(Map<String, Long> gauges, Console console) {
+        for (Map.Entry<String, Long> entry : gauges.entrySet()) {
+            console.println(String.format("  %-40s %12d", entry.getKey(), entry.getValue()));
+        }
+    }
+
     public static void handleScript(String[] args, Console console) {
         ScriptEngine scriptEngine = ConsoleActivator.scriptEngineTracker.getService();
         if (scriptEngine != null) {
@@ -298,7 +451,7 @@ public class ConsoleInterpreter {
     /** returns an array of the usage texts for all available commands */
     static public String[] getUsages() {
         return new String[] { getUpdateUsage(), getCommandUsage(), getStatusUsage(), getItemsUsage(), getSayUsage(),
-                getScriptUsage() };
+                getStatsUsage(), getScriptUsage() };
     }
 
     static public String getUpdateUsage() {
@@ -321,6 +474,10 @@ public class ConsoleInterpreter {
         return "say <sentence to say> - Says a message through TTS on the host machine";
     }
 
+    public static String getStatsUsage() {
+        return "stats [events|items [<count>]|subscribers|rules|services|persistence|jvm|json|reset] - shows runtime statistics";
+    }
+
     public static String getScriptUsage() {
         return "> <script to execute> - Executes a script";
     }
@@ -26,6 +26,7 @@ import org.openhab.core.persistence.PersistenceService;
 import org.openhab.core.persistence.QueryablePersistenceService;
 import org.openhab.io.cv.internal.resources.LoginResource;
 import org.openhab.io.cv.internal.resources.ReadResource;
+import org.openhab.io.cv.internal.resources.RrdDbCache;
 import org.openhab.io.cv.internal.resources.RrdResource;
 import org.openhab.io.cv.internal.resources.WriteResource;
 import org.openhab.io.net.http.SecureHttpContext;
@@ -184,6 +185,8 @@ public class CVApplication extends PackagesResourceConfig {
             discoveryService.unregisterService(getDefaultServiceDescription());
             discoveryService.unregisterService(getSSLServiceDescription());
         }
+
+        RrdDbCache.getInstance().clear();
     }
 
     /**
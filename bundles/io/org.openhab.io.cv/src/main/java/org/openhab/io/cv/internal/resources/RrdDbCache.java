@@ -0,0 +1,156 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.cv.internal.resources;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.openhab.core.service.MetricsRegistry;
+import org.rrd4j.core.RrdDb;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps RRD files open for reading between requests.
+ * <p>
+ * The files are written by the rrd4j persistence service through its own
+ * handles, and rrd4j caches header values like the last update time in every
+ * handle. A handle is therefore only reused as long as the modification time
+ * of its file is unchanged; otherwise it is closed as soon as no request uses
+ * it any more and the file is opened again. Reused and opened files are
+ * counted by the {@link MetricsRegistry} as <code>cometvisu.rrd.hit</code>
+ * and <code>cometvisu.rrd.miss</code>.
+ *
+ * @since 1.9.0
+ */
+public class RrdDbCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(RrdDbCache.class);
+
+    /** the maximum number of files kept open */
+    private static final int CAPACITY = 32;
+
+    private static final String HIT_METRIC = "cometvisu.rrd.hit";
+    private static final String MISS_METRIC = "cometvisu.rrd.miss";
+
+    private static final RrdDbCache instance = new RrdDbCache();
+
+    private final Map<String, Handle> handles = new LinkedHashMap<String, Handle>(16, 0.75f, true);
+
+    public static RrdDbCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Returns a read-only handle for an RRD file, which must be released after
+     * use.
+     *
+     * @param path the path of the RRD file
+     * @return the handle
+     * @throws FileNotFoundException if the file does not exist
+     * @throws IOException if the file cannot be opened
+     */
+    public synchronized Handle acquire(String path) throws IOException {
+        File file = new File(path);
+        if (!file.exists()) {
+            throw new FileNotFoundException(path);
+        }
+        long modified = file.lastModified();
+
+        Handle handle = handles.get(path);
+        if (handle != null && handle.modified != modified) {
+            handles.remove(path);
+            retire(handle);
+            handle = null;
+        }
+        if (handle == null) {
+            MetricsRegistry.getInstance().mark(MISS_METRIC);
+            handle = new Handle(new RrdDb(path, true), modified);
+            handles.put(path, handle);
+            evict();
+        } else {
+            MetricsRegistry.getInstance().mark(HIT_METRIC);
+        }
+        handle.users++;
+        return handle;
+    }
+
+    private void evict() {
+        Iterator<Handle> iterator = handles.values().iterator();
+        while (handles.size() > CAPACITY && iterator.hasNext()) {
+            Handle handle = iterator.next();
+            iterator.remove();
+            retire(handle);
+        }
+    }
+
+    private void retire(Handle handle) {
+        handle.retired = true;
+        if (handle.users == 0) {
+            close(handle);
+        }
+    }
+
+    private synchronized void release(Handle handle) {
+        handle.users--;
+        if (handle.retired && handle.users == 0) {
+            close(handle);
+        }
+    }
+
+    private void close(Handle handle) {
+        try {
+            handle.db.close();
+        } catch (IOException e) {
+            logger.debug("Error closing rrd4j database '{}': {}", handle.db.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Closes all files which are not in use.
+     */
+    public synchronized void clear() {
+        for (Handle handle : handles.values()) {
+            retire(handle);
+        }
+        handles.clear();
+    }
+
+    /**
+     * An open RRD file.
+     */
+    public class Handle {
+
+        private final RrdDb db;
+        private final long modified;
+        private int users = 0;
+        private boolean retired = false;
+
+        private Handle(RrdDb db, long modified) {
+            this.db = db;
+            this.modified = modified;
+        }
+
+        public RrdDb getRrdDb() {
+            return db;
+        }
+
+        /**
+         * Returns the handle to the cache; it must not be used afterwards.
+         */
+        public void release() {
+            RrdDbCache.this.release(this);
+        }
+    }
+
+}
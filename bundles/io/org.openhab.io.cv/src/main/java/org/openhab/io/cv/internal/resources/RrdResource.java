@@ -8,12 +8,17 @@
  */
 package org.openhab.io.cv.internal.resources;
 
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
@@ -28,8 +33,12 @@ import javax.ws.rs.Produces;
 import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.Context;
 import javax.ws.rs.core.HttpHeaders;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.MediaType;
+import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
+import javax.ws.rs.core.Response.ResponseBuilder;
+import javax.ws.rs.core.StreamingOutput;
 import javax.ws.rs.core.UriInfo;
 
 import org.apache.commons.lang.StringUtils;
@@ -45,7 +54,6 @@ import org.openhab.core.types.State;
 import org.openhab.io.cv.CVApplication;
 import org.rrd4j.ConsolFun;
 import org.rrd4j.core.FetchData;
-import org.rrd4j.core.FetchRequest;
 import org.rrd4j.core.RrdDb;
 import org.rrd4j.core.Util;
 import org.slf4j.Logger;
@@ -75,20 +83,12 @@ public class RrdResource {
     // pattern RRDTool uses to format doubles in XML files
     static final String PATTERN = "0.0000000000E00";
 
-    static final DecimalFormat df;
-
-    static {
-        df = (DecimalFormat) NumberFormat.getNumberInstance(Locale.ENGLISH);
-        df.applyPattern(PATTERN);
-        // df.setPositivePrefix("+");
-    }
-
     @Context
     UriInfo uriInfo;
 
     @GET
     @Produces({ MediaType.APPLICATION_JSON })
-    public Response getRrd(@Context HttpHeaders headers, @QueryParam("rrd") String itemName,
+    public Response getRrd(@Context HttpHeaders headers, @Context Request request, @QueryParam("rrd") String itemName,
             @QueryParam("ds") String consFunction, @QueryParam("start") String start, @QueryParam("end") String end,
             @QueryParam("res") long resolution) {
 
@@ -139,13 +139,20 @@ public class RrdResource {
                         throw new IllegalArgumentException("No Persistence service found.");
                     }
                 }
-                Object data = null;
                 if (persistenceService.getName().equals("rrd4j")) {
-                    data = getRrdSeries(persistenceService, item, consilidationFunction, startTime, endTime,
-                            resolution);
-                } else {
-                    data = getPersistenceSeries(persistenceService, item, startTime, endTime, resolution);
+                    RrdSeries series = getRrdSeries(item, consilidationFunction, startTime, endTime, resolution);
+                    if (series != null) {
+                        EntityTag tag = new EntityTag(series.getTag());
+                        Date lastModified = new Date(series.lastUpdate * 1000L);
+                        ResponseBuilder builder = request.evaluatePreconditions(lastModified, tag);
+                        if (builder == null) {
+                            builder = Response.ok(series, responseType);
+                        }
+                        return builder.tag(tag).lastModified(lastModified).build();
+                    }
+                    // rrd file does not exist, fallback to generic persistence service
                 }
+                Object data = getPersistenceSeries(persistenceService, item, startTime, endTime, resolution);
                 return Response.ok(data, responseType).build();
             } catch (ItemNotFoundException e) {
                 logger.error("Item '{}' not found error while requesting series data.", itemName);
@@ -157,43 +164,51 @@ public class RrdResource {
     }
 
     /**
-     * returns a rrd series data, an array of [[timestamp,data1,data2,...]]
-     * 
-     * @param persistenceService
-     * @param item
-     * @param consilidationFunction
-     * @param timeBegin
-     * @param timeEnd
-     * @param resolution
-     * @return
+     * Fetches the rrd series of an item or of all members of a group.
+     *
+     * @param item the item or group
+     * @param consilidationFunction the consolidation function of the archive to read
+     * @param timeBegin the start of the series
+     * @param timeEnd the end of the series
+     * @param resolution the requested resolution in seconds
+     * @return the series or <code>null</code> if the rrd files cannot be read
      */
-    public Object getRrdSeries(QueryablePersistenceService persistenceService, Item item,
-            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) {
-        Map<Long, ArrayList<String>> data = new TreeMap<Long, ArrayList<String>>();
-        try {
-            List<String> itemNames = new ArrayList<String>();
-
-            if (item instanceof GroupItem) {
-                GroupItem groupItem = (GroupItem) item;
-                for (Item member : groupItem.getMembers()) {
-                    itemNames.add(member.getName());
-                }
-            } else {
-                itemNames.add(item.getName());
+    private RrdSeries getRrdSeries(Item item, ConsolFun consilidationFunction, Date timeBegin, Date timeEnd,
+            long resolution) {
+        List<String> itemNames = new ArrayList<String>();
+        if (item instanceof GroupItem) {
+            GroupItem groupItem = (GroupItem) item;
+            for (Item member : groupItem.getMembers()) {
+                itemNames.add(member.getName());
             }
+        } else {
+            itemNames.add(item.getName());
+        }
+
+        RrdSeries series = new RrdSeries(consilidationFunction, resolution);
+        try {
             for (String itemName : itemNames) {
-                addRrdData(data, itemName, consilidationFunction, timeBegin, timeEnd, resolution);
+                RrdDbCache.Handle handle = RrdDbCache.getInstance()
+                        .acquire(RRD_FOLDER + File.separator + itemName + ".rrd");
+                try {
+                    RrdDb rrdDb = handle.getRrdDb();
+                    FetchData fetchData = rrdDb.createFetchRequest(consilidationFunction,
+                            Util.getTimestamp(timeBegin), Util.getTimestamp(timeEnd), resolution).fetchData();
+                    logger.debug("RRD fetch returned '{}' rows and '{}' columns", fetchData.getRowCount(),
+                            fetchData.getColumnCount());
+                    series.add(itemName, fetchData, rrdDb.getLastUpdateTime());
+                } finally {
+                    handle.release();
+                }
             }
-
         } catch (FileNotFoundException e) {
-            // rrd file does not exist, fallback to generic persistance service
-            logger.debug("no rrd file found '{}'", (RRD_FOLDER + File.separator + item.getName() + ".rrd"));
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
+            logger.debug("no rrd file found '{}'", e.getMessage());
+            return null;
         } catch (Exception e) {
             logger.error(e.getLocalizedMessage() + ": fallback to generic persistance service");
-            return getPersistenceSeries(persistenceService, item, timeBegin, timeEnd, resolution);
+            return null;
         }
-        return convertToRrd(data);
+        return series;
     }
 
     public Object getPersistenceSeries(QueryablePersistenceService persistenceService, Item item, Date timeBegin,
@@ -238,50 +253,216 @@ public class RrdResource {
             buffer.append("\"" + StringUtils.join(data.get(time), "\",\"") + "\"");
             buffer.append("]],");
         }
-        buffer.deleteCharAt(buffer.length() - 1);
+        if (buffer.length() > 1) {
+            buffer.deleteCharAt(buffer.length() - 1);
+        }
         buffer.append("]");
 
         return buffer.toString();
     }
 
-    private Map<Long, ArrayList<String>> addRrdData(Map<Long, ArrayList<String>> data, String itemName,
-            ConsolFun consilidationFunction, Date timeBegin, Date timeEnd, long resolution) throws IOException {
-        RrdDb rrdDb = new RrdDb(RRD_FOLDER + File.separator + itemName + ".rrd");
-        FetchRequest fetchRequest = rrdDb.createFetchRequest(consilidationFunction, Util.getTimestamp(timeBegin),
-                Util.getTimestamp(timeEnd), resolution);
-        FetchData fetchData = fetchRequest.fetchData();
-        // logger.info(fetchData.toString());
-        long[] timestamps = fetchData.getTimestamps();
-        double[][] values = fetchData.getValues();
+    static String formatDouble(double x, String nanString, boolean forceExponents) {
+        return formatDouble(createFormat(), x, nanString, forceExponents);
+    }
 
-        logger.debug("RRD fetch returned '{}' rows and '{}' columns", fetchData.getRowCount(),
-                fetchData.getColumnCount());
+    static String formatDouble(DecimalFormat df, double x, String nanString, boolean forceExponents) {
+        if (Double.isNaN(x)) {
+            return nanString;
+        }
+        if (forceExponents) {
+            return df.format(x);
+        }
+        return "" + x;
+    }
 
-        for (int row = 0; row < fetchData.getRowCount(); row++) {
-            // change to microseconds
-            long time = timestamps[row] * 1000L;
+    /**
+     * DecimalFormat is not thread safe, so every response creates its own.
+     */
+    static DecimalFormat createFormat() {
+        DecimalFormat df = (DecimalFormat) NumberFormat.getNumberInstance(Locale.ENGLISH);
+        df.applyPattern(PATTERN);
+        return df;
+    }
 
-            if (!data.containsKey(time)) {
-                data.put(time, new ArrayList<String>());
-            }
-            ArrayList<String> vals = data.get(time);
-            int indexOffset = vals.size();
-            for (int dsIndex = 0; dsIndex < fetchData.getColumnCount(); dsIndex++) {
-                vals.add(dsIndex + indexOffset, formatDouble(values[dsIndex][row], "null", true));
+    /**
+     * Consolidates the rows of a fetch result to the requested resolution.
+     *
+     * @param timestamps the timestamps of the rows
+     * @param values the values of the rows by data source
+     * @param factor the number of rows to consolidate into one
+     * @param function the consolidation function
+     * @return the consolidated timestamps at index 0 and values at the following indexes
+     */
+    static Object[] consolidate(long[] timestamps, double[][] values, int factor, ConsolFun function) {
+        int rows = (timestamps.length + factor - 1) / factor;
+        long[] newTimestamps = new long[rows];
+        double[][] newValues = new double[values.length][rows];
+        for (int row = 0; row < rows; row++) {
+            int first = row * factor;
+            int last = Math.min(first + factor, timestamps.length) - 1;
+            // rrd timestamps mark the end of the consolidated interval
+            newTimestamps[row] = timestamps[last];
+            for (int ds = 0; ds < values.length; ds++) {
+                newValues[ds][row] = consolidate(values[ds], first, last, function);
             }
         }
-        rrdDb.close();
+        return new Object[] { newTimestamps, newValues };
+    }
 
-        return data;
+    private static double consolidate(double[] values, int first, int last, ConsolFun function) {
+        double result = Double.NaN;
+        int count = 0;
+        for (int i = first; i <= last; i++) {
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (count == 0) {
+                result = value;
+            } else {
+                switch (function) {
+                    case MIN:
+                        result = Math.min(result, value);
+                        break;
+                    case MAX:
+                        result = Math.max(result, value);
+                        break;
+                    case FIRST:
+                        break;
+                    case LAST:
+                        result = value;
+                        break;
+                    default:
+                        // AVERAGE and TOTAL sum up first
+                        result += value;
+                }
+            }
+            count++;
+        }
+        if (function == ConsolFun.AVERAGE && count > 0) {
+            result = result / count;
+        }
+        return result;
     }
 
-    static String formatDouble(double x, String nanString, boolean forceExponents) {
-        if (Double.isNaN(x)) {
-            return nanString;
+    /**
+     * The rrd series of one or more items, which is written directly to the
+     * response as an array of <code>[timestamp,["value1","value2",...]]</code>.
+     */
+    static class RrdSeries implements StreamingOutput {
+
+        private final ConsolFun function;
+        private final long resolution;
+        private final List<long[]> timestamps = new ArrayList<long[]>();
+        private final List<double[][]> values = new ArrayList<double[][]>();
+        private final StringBuilder tag = new StringBuilder();
+        private long lastUpdate = 0;
+
+        RrdSeries(ConsolFun function, long resolution) {
+            this.function = function;
+            this.resolution = resolution;
+            tag.append(function).append(':').append(resolution);
         }
-        if (forceExponents) {
-            return df.format(x);
+
+        void add(String itemName, FetchData fetchData, long lastUpdateTime) {
+            long[] fetchedTimestamps = fetchData.getTimestamps();
+            double[][] fetchedValues = fetchData.getValues();
+            long step = fetchData.getStep();
+            if (step > 0 && resolution > step && fetchedTimestamps.length > 1) {
+                Object[] consolidated = consolidate(fetchedTimestamps, fetchedValues, (int) (resolution / step),
+                        function);
+                fetchedTimestamps = (long[]) consolidated[0];
+                fetchedValues = (double[][]) consolidated[1];
+            }
+            timestamps.add(fetchedTimestamps);
+            values.add(fetchedValues);
+            lastUpdate = Math.max(lastUpdate, lastUpdateTime);
+
+            tag.append(':').append(itemName).append(':').append(lastUpdateTime);
+            if (fetchedTimestamps.length > 0) {
+                tag.append(':').append(fetchedTimestamps[0]).append(':')
+                        .append(fetchedTimestamps[fetchedTimestamps.length - 1]);
+            }
+        }
+
+        /**
+         * @return an entity tag, which changes if the rrd files have been updated or the requested
+         *         time range covers other rows
+         */
+        String getTag() {
+            return Integer.toHexString(tag.toString().hashCode()) + "-" + Long.toHexString(lastUpdate);
+        }
+
+        @Override
+        public void write(OutputStream output) throws IOException {
+            DecimalFormat df = createFormat();
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, "UTF-8"));
+
+            // all series of a group usually share their timestamps, otherwise the rows are merged
+            long[] rowTimestamps = timestamps.isEmpty() ? new long[0] : timestamps.get(0);
+            for (long[] seriesTimestamps : timestamps) {
+                if (!Arrays.equals(rowTimestamps, seriesTimestamps)) {
+                    rowTimestamps = mergeTimestamps();
+                    break;
+                }
+            }
+
+            int[] positions = new int[timestamps.size()];
+            writer.write('[');
+            for (int row = 0; row < rowTimestamps.length; row++) {
+                long time = rowTimestamps[row];
+                if (row > 0) {
+                    writer.write(',');
+                }
+                // change to milliseconds
+                writer.write('[');
+                writer.write(Long.toString(time * 1000L));
+                writer.write(",[");
+                boolean first = true;
+                for (int series = 0; series < timestamps.size(); series++) {
+                    long[] seriesTimestamps = timestamps.get(series);
+                    double[][] seriesValues = values.get(series);
+                    boolean hasRow = positions[series] < seriesTimestamps.length
+                            && seriesTimestamps[positions[series]] == time;
+                    for (int ds = 0; ds < seriesValues.length; ds++) {
+                        if (!first) {
+                            writer.write(',');
+                        }
+                        first = false;
+                        writer.write('"');
+                        writer.write(hasRow ? formatDouble(df, seriesValues[ds][positions[series]], "null", true)
+                                : "null");
+                        writer.write('"');
+                    }
+                    if (hasRow) {
+                        positions[series]++;
+                    }
+                }
+                writer.write("]]");
+            }
+            writer.write(']');
+            writer.flush();
+        }
+
+        private long[] mergeTimestamps() {
+            int count = 0;
+            for (long[] seriesTimestamps : timestamps) {
+                count += seriesTimestamps.length;
+            }
+            long[] merged = new long[count];
+            int index = 0;
+            for (long[] seriesTimestamps : timestamps) {
+                System.arraycopy(seriesTimestamps, 0, merged, index, seriesTimestamps.length);
+                index += seriesTimestamps.length;
+            }
+            Arrays.sort(merged);
+            int unique = 0;
+            for (int i = 0; i < merged.length; i++) {
+                if (unique == 0 || merged[i] != merged[unique - 1]) {
+                    merged[unique++] = merged[i];
+                }
+            }
+            return Arrays.copyOf(merged, unique);
         }
-        return "" + x;
     }
 }
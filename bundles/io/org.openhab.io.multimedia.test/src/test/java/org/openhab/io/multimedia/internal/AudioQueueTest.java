@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import javax.sound.sampled.AudioInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.multimedia.tts.SynthesizingTTSService;
+import org.openhab.io.multimedia.tts.TTSService;
+
+/**
+ * Test class for {@link AudioQueue}. The first announcement of every test
+ * blocks the queue, so that the following ones are waiting in the queue.
+ *
+ * @since 1.9.0
+ */
+public class AudioQueueTest {
+
+    private static final long TIMEOUT = 5000;
+
+    private final List<String> spoken = new CopyOnWriteArrayList<String>();
+    private final CountDownLatch blocking = new CountDownLatch(1);
+    private final CountDownLatch gate = new CountDownLatch(1);
+
+    private final TTSService tts = new TTSService() {
+        @Override
+        public void say(String text, String voice, String outputDevice) {
+            if (text.equals("block")) {
+                blocking.countDown();
+                try {
+                    gate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            spoken.add(text);
+        }
+    };
+
+    private AudioQueue queue;
+
+    @Before
+    public void init() throws InterruptedException {
+        queue = AudioQueue.getInstance();
+        queue.say(tts, "block", null, null, AudioQueue.DEFAULT_PRIORITY);
+        assertTrue(blocking.await(TIMEOUT, TimeUnit.MILLISECONDS));
+    }
+
+    @After
+    public void shutdown() {
+        gate.countDown();
+        AudioQueue.shutdown();
+    }
+
+    @Test
+    public void testHigherPriorityIsPlayedFirst() throws InterruptedException {
+        queue.say(tts, "a", null, null, 0);
+        queue.say(tts, "b", null, null, 5);
+        queue.say(tts, "c", null, null, 2);
+        queue.say(tts, "d", null, null, 0);
+        queue.say(tts, "e", null, null, 5);
+
+        assertEquals(Arrays.asList("block", "b", "e", "c", "a", "d"), play(6));
+    }
+
+    @Test
+    public void testDuplicateIsDropped() throws InterruptedException {
+        long dropped = UtteranceCacheTest.getCount(AudioQueue.DROPPED_METRIC);
+        queue.say(tts, "a", null, null, 0);
+        queue.say(tts, "b", null, null, 0);
+        queue.say(tts, "a", null, null, 0);
+        queue.say(tts, "a", "voice", null, 0);
+
+        assertEquals(Arrays.asList("block", "a", "b", "a"), play(4));
+        assertEquals(dropped + 1, UtteranceCacheTest.getCount(AudioQueue.DROPPED_METRIC));
+    }
+
+    @Test
+    public void testDuplicateWithHigherPriorityReplacesWaitingEntry() throws InterruptedException {
+        queue.say(tts, "a", null, null, 0);
+        queue.say(tts, "b", null, null, 0);
+        queue.say(tts, "a", null, null, 1);
+
+        assertEquals(Arrays.asList("block", "a", "b"), play(3));
+    }
+
+    @Test
+    public void testConcurrentlyReplacedEntryIsPlayedOnce() throws InterruptedException {
+        final CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            final int priority = i;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    queue.say(tts, "a", null, null, priority);
+                }
+            };
+            threads[i].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join(TIMEOUT);
+        }
+
+        assertEquals(Arrays.asList("block", "a"), play(2));
+    }
+
+    @Test
+    public void testDuplicateIsNotSynthesized() {
+        SynthesizingTTSService synthesizer = new SynthesizingTTSService() {
+            @Override
+            public void say(String text, String voice, String outputDevice) {
+            }
+
+            @Override
+            public AudioInputStream synthesize(String text, String voice) {
+                return null;
+            }
+        };
+        long lookups = UtteranceCacheTest.getCount(UtteranceCache.HIT_METRIC)
+                + UtteranceCacheTest.getCount(UtteranceCache.MISS_METRIC);
+        queue.say(synthesizer, "a", null, null, 0);
+        queue.say(synthesizer, "a", null, null, 0);
+
+        assertEquals(lookups + 1, UtteranceCacheTest.getCount(UtteranceCache.HIT_METRIC)
+                + UtteranceCacheTest.getCount(UtteranceCache.MISS_METRIC));
+    }
+
+    /*
+     * Unblocks the queue and waits until the expected number of texts has been spoken
+     */
+    private List<String> play(int expected) throws InterruptedException {
+        gate.countDown();
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (spoken.size() < expected && System.currentTimeMillis() < end) {
+            Thread.sleep(10);
+        }
+        // give dropped duplicates the chance to show up
+        Thread.sleep(100);
+        return spoken;
+    }
+
+}
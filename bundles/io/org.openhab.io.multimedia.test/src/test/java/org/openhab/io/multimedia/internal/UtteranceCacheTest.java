@@ -0,0 +1,107 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import javax.sound.sampled.AudioFormat;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.service.MetricsRegistry;
+import org.openhab.io.multimedia.internal.UtteranceCache.Utterance;
+
+/**
+ * Test class for {@link UtteranceCache}.
+ *
+ * @since 1.9.0
+ */
+public class UtteranceCacheTest {
+
+    private static final AudioFormat FORMAT = new AudioFormat(8000f, 16, 1, true, false);
+
+    private UtteranceCache cache;
+
+    @Before
+    public void init() {
+        cache = new UtteranceCache(100);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedIsEvicted() {
+        Utterance a = utterance(40);
+        Utterance b = utterance(40);
+        Utterance c = utterance(40);
+        cache.put("a", a);
+        cache.put("b", b);
+        assertSame(a, cache.get("a"));
+
+        cache.put("c", c);
+        assertNull(cache.get("b"));
+        assertSame(a, cache.get("a"));
+        assertSame(c, cache.get("c"));
+        assertEquals(2, cache.getCount());
+        assertEquals(80, cache.getSize());
+    }
+
+    @Test
+    public void testReplacedUtteranceIsNotCountedTwice() {
+        cache.put("a", utterance(40));
+        cache.put("a", utterance(60));
+        assertEquals(1, cache.getCount());
+        assertEquals(60, cache.getSize());
+    }
+
+    @Test
+    public void testUtteranceLargerThanCacheIsNotCached() {
+        cache.put("a", utterance(40));
+        cache.put("b", utterance(101));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("a"));
+        assertEquals(40, cache.getSize());
+    }
+
+    @Test
+    public void testHitsAndMissesAreCounted() {
+        long hits = getCount(UtteranceCache.HIT_METRIC);
+        long misses = getCount(UtteranceCache.MISS_METRIC);
+        cache.put("a", utterance(10));
+        cache.get("a");
+        cache.get("a");
+        cache.get("b");
+        assertEquals(hits + 2, getCount(UtteranceCache.HIT_METRIC));
+        assertEquals(misses + 1, getCount(UtteranceCache.MISS_METRIC));
+    }
+
+    @Test
+    public void testKey() {
+        assertEquals("service||text", UtteranceCache.getKey("service", "text", null));
+        assertEquals("service|voice|text", UtteranceCache.getKey("service", "text", "voice"));
+    }
+
+    @Test
+    public void testStream() throws Exception {
+        Utterance utterance = utterance(40);
+        assertEquals(20, utterance.getStream().getFrameLength());
+        assertEquals(40, utterance.getStream().available());
+    }
+
+    private static Utterance utterance(int size) {
+        return new Utterance(FORMAT, new byte[size]);
+    }
+
+    static long getCount(String meter) {
+        MetricsRegistry.Meter counter = MetricsRegistry.getInstance().getMeters(meter).get(meter);
+        return counter != null ? counter.getCount() : 0;
+    }
+
+}
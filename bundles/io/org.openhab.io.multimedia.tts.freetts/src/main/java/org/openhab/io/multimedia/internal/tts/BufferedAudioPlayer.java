@@ -0,0 +1,123 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal.tts;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import com.sun.speech.freetts.audio.AudioPlayer;
+
+/**
+ * A FreeTTS {@link AudioPlayer} which collects the synthesized audio in memory
+ * instead of playing it.
+ *
+ * @since 1.9.0
+ *
+ */
+class BufferedAudioPlayer implements AudioPlayer {
+
+    private final ByteArrayOutputStream data = new ByteArrayOutputStream();
+    private AudioFormat format = new AudioFormat(8000f, 16, 1, true, true);
+    private float volume = 1.0f;
+
+    /**
+     * Returns the collected audio
+     */
+    AudioInputStream getAudio() {
+        byte[] bytes = data.toByteArray();
+        return new AudioInputStream(new ByteArrayInputStream(bytes), format,
+                bytes.length / Math.max(1, format.getFrameSize()));
+    }
+
+    @Override
+    public void setAudioFormat(AudioFormat format) {
+        this.format = format;
+    }
+
+    @Override
+    public AudioFormat getAudioFormat() {
+        return format;
+    }
+
+    @Override
+    public void pause() {
+    }
+
+    @Override
+    public void resume() {
+    }
+
+    @Override
+    public void reset() {
+    }
+
+    @Override
+    public boolean drain() {
+        return true;
+    }
+
+    @Override
+    public void begin(int size) {
+    }
+
+    @Override
+    public boolean end() {
+        return true;
+    }
+
+    @Override
+    public void cancel() {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public float getVolume() {
+        return volume;
+    }
+
+    @Override
+    public void setVolume(float volume) {
+        this.volume = volume;
+    }
+
+    @Override
+    public long getTime() {
+        return 0;
+    }
+
+    @Override
+    public void resetTime() {
+    }
+
+    @Override
+    public void startFirstSampleTimer() {
+    }
+
+    @Override
+    public boolean write(byte[] audioData) {
+        return write(audioData, 0, audioData.length);
+    }
+
+    @Override
+    public boolean write(byte[] audioData, int offset, int size) {
+        data.write(audioData, offset, size);
+        return true;
+    }
+
+    @Override
+    public void showMetrics() {
+    }
+
+}
@@ -11,11 +11,14 @@ package org.openhab.io.multimedia.internal.tts;
 import java.util.HashMap;
 import java.util.Map;
 
-import org.openhab.io.multimedia.tts.TTSService;
+import javax.sound.sampled.AudioInputStream;
+
+import org.openhab.io.multimedia.tts.SynthesizingTTSService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.sun.speech.freetts.Voice;
+import com.sun.speech.freetts.audio.AudioPlayer;
 import com.sun.speech.freetts.en.us.cmu_time_awb.AlanVoiceDirectory;
 import com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory;
 
@@ -26,7 +29,7 @@ import com.sun.speech.freetts.en.us.cmu_us_kal.KevinVoiceDirectory;
  * @since 0.8.0
  *
  */
-public class TTSServiceFreeTTS implements TTSService {
+public class TTSServiceFreeTTS implements SynthesizingTTSService {
 
     private static final Logger logger = LoggerFactory.getLogger(TTSServiceFreeTTS.class);
 
@@ -58,12 +61,45 @@ public class TTSServiceFreeTTS implements TTSService {
      * {@inheritDoc}
      */
     @Override
-    public void say(String text, String voiceName, String outputDevice) {
+    public synchronized void say(String text, String voiceName, String outputDevice) {
 
         if (text == null) {
             return;
         }
 
+        Voice voice = getVoice(voiceName);
+        if (voice != null) {
+            voice.speak(text);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public synchronized AudioInputStream synthesize(String text, String voiceName) {
+
+        if (text == null) {
+            return null;
+        }
+
+        Voice voice = getVoice(voiceName);
+        if (voice == null) {
+            return null;
+        }
+
+        AudioPlayer player = voice.getAudioPlayer();
+        BufferedAudioPlayer buffer = new BufferedAudioPlayer();
+        voice.setAudioPlayer(buffer);
+        try {
+            voice.speak(text);
+        } finally {
+            voice.setAudioPlayer(player);
+        }
+        return buffer.getAudio();
+    }
+
+    private Voice getVoice(String voiceName) {
         if (voiceName == null) {
             voiceName = "kevin16";
         }
@@ -74,7 +110,6 @@ public class TTSServiceFreeTTS implements TTSService {
             if (!voice.isLoaded()) {
                 voice.allocate();
             }
-            voice.speak(text);
         } else {
             logger.error("Could not find voice: " + voiceName);
             StringBuilder sb = new StringBuilder();
@@ -85,6 +120,7 @@ public class TTSServiceFreeTTS implements TTSService {
                 logger.info("Available voices are: [ {}]", sb.toString());
             }
         }
+        return voice;
     }
 
 }
@@ -13,7 +13,7 @@ import java.util.Locale;
 import javax.sound.sampled.AudioInputStream;
 
 import org.apache.commons.lang.StringUtils;
-import org.openhab.io.multimedia.tts.TTSService;
+import org.openhab.io.multimedia.tts.SynthesizingTTSService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,7 +31,7 @@ import marytts.util.data.audio.AudioPlayer;
  * @since 1.1.0
  *
  */
-public class TTSServiceMaryTTS implements TTSService {
+public class TTSServiceMaryTTS implements SynthesizingTTSService {
 
     private static final Logger logger = LoggerFactory.getLogger(TTSServiceMaryTTS.class);
 
@@ -62,12 +62,28 @@ public class TTSServiceMaryTTS implements TTSService {
      * {@inheritDoc}
      */
     public void say(String text, String voiceName, String outputDevice) {
+        AudioInputStream audio = synthesize(text, voiceName);
+        if (audio != null) {
+            try {
+                AudioPlayer player = new AudioPlayer(audio);
+                player.start();
+                player.join();
+            } catch (InterruptedException e) {
+                logger.error("Error during tts playback: {}", e.getLocalizedMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public synchronized AudioInputStream synthesize(String text, String voiceName) {
         if (marytts == null) {
             logger.error("Mary TTS is not available");
-            return;
+            return null;
         }
         if (text == null) {
-            return;
+            return null;
         }
         Voice voice = null;
         if (StringUtils.isBlank(voiceName)) {
@@ -87,19 +103,14 @@ public class TTSServiceMaryTTS implements TTSService {
             marytts.setLocale(voice.getLocale());
             marytts.setVoice(voice.getName());
             try {
-                AudioInputStream audio = marytts.generateAudio(text);
-                AudioPlayer player = new AudioPlayer(audio);
-                player.start();
-                player.join();
-
+                return marytts.generateAudio(text);
             } catch (SynthesisException e) {
                 logger.error("Error during tts generation: {}", e.getLocalizedMessage(), e);
-            } catch (InterruptedException e) {
-                logger.error("Error during tts playback: {}", e.getLocalizedMessage(), e);
             }
         } else {
             logger.error("Could not find voice: {}", voiceName);
             logger.info("Available Voices are {} ", StringUtils.join(marytts.getAvailableVoices(), ", "));
         }
+        return null;
     }
 }
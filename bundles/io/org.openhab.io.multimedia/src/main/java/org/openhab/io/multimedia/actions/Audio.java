@@ -9,8 +9,6 @@
 package org.openhab.io.multimedia.actions;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -22,14 +20,11 @@ import java.util.Collection;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
 import javax.sound.sampled.FloatControl;
 import javax.sound.sampled.LineUnavailableException;
 import javax.sound.sampled.Mixer;
 import javax.sound.sampled.Port;
-import javax.sound.sampled.UnsupportedAudioFileException;
 
 import org.apache.commons.collections.Closure;
 import org.apache.commons.io.IOUtils;
@@ -37,6 +32,7 @@ import org.apache.commons.lang.StringUtils;
 import org.openhab.core.library.types.PercentType;
 import org.openhab.core.scriptengine.action.ActionDoc;
 import org.openhab.core.scriptengine.action.ParamDoc;
+import org.openhab.io.multimedia.internal.AudioQueue;
 import org.openhab.io.multimedia.internal.MultimediaActivator;
 import org.openhab.io.multimedia.tts.TTSService;
 import org.osgi.framework.BundleContext;
@@ -63,28 +59,12 @@ public class Audio {
 
     @ActionDoc(text = "plays a sound from the sounds folder")
     static public void playSound(@ParamDoc(name = "filename", text = "the filename with extension") String filename) {
-        try {
-            InputStream is = new FileInputStream(SOUND_DIR + File.separator + filename);
-            if (filename.toLowerCase().endsWith(".mp3")) {
-                Player player = new Player(is);
-                playInThread(player);
-            } else {
-                AudioInputStream ais = AudioSystem.getAudioInputStream(is);
-                Clip clip = AudioSystem.getClip();
-                clip.open(ais);
-                playInThread(clip);
-            }
-        } catch (FileNotFoundException e) {
-            logger.error("Cannot play sound '{}': {}", new String[] { filename, e.getMessage() });
-        } catch (JavaLayerException e) {
-            logger.error("Cannot play sound '{}': {}", new String[] { filename, e.getMessage() });
-        } catch (UnsupportedAudioFileException e) {
-            logger.error("Format of sound file '{}' is not supported: {}", new String[] { filename, e.getMessage() });
-        } catch (IOException e) {
-            logger.error("Cannot play sound '{}': {}", new String[] { filename, e.getMessage() });
-        } catch (LineUnavailableException e) {
-            logger.error("Cannot play sound '{}': {}", new String[] { filename, e.getMessage() });
+        File file = new File(SOUND_DIR + File.separator + filename);
+        if (!file.isFile()) {
+            logger.error("Cannot play sound '{}': file not found", filename);
+            return;
         }
+        AudioQueue.getInstance().playSound(file, AudioQueue.DEFAULT_PRIORITY);
     }
 
     @ActionDoc(text = "plays an audio stream from an url")
@@ -204,19 +184,61 @@ public class Audio {
     @ActionDoc(text = "says a given text through the default TTS service with a given voice")
     static public void say(@ParamDoc(name = "text") Object text, @ParamDoc(name = "voice") String voice,
             @ParamDoc(name = "device") String device) {
+        say(text, voice, device, AudioQueue.DEFAULT_PRIORITY);
+    }
+
+    /**
+     * Text-to-speech with a given voice and priority.
+     * 
+     * <p>
+     * The text is queued and spoken after all announcements with the same or a
+     * higher priority which have been queued before. If the same text is
+     * already waiting in the queue, it is not queued again.
+     * </p>
+     * 
+     * @param text the text to speak
+     * @param voice the name of the voice to use or null, if the default voice should be used
+     * @param device the name of audio device to be used to play the audio or null, if the default output device should
+     *            be used
+     * @param priority the priority of the announcement, higher priorities are spoken first
+     */
+    @ActionDoc(text = "says a given text through the default TTS service with a given voice and priority")
+    static public void say(@ParamDoc(name = "text") Object text, @ParamDoc(name = "voice") String voice,
+            @ParamDoc(name = "device") String device, @ParamDoc(name = "priority") int priority) {
         if (StringUtils.isNotBlank(text.toString())) {
-            TTSService ttsService = getTTSService(MultimediaActivator.getContext(), System.getProperty("osgi.os"));
-            if (ttsService == null) {
-                ttsService = getTTSService(MultimediaActivator.getContext(), "any");
-            }
+            TTSService ttsService = getTTSService();
             if (ttsService != null) {
-                ttsService.say(text.toString(), voice, device);
+                AudioQueue.getInstance().say(ttsService, text.toString(), voice, device, priority);
             } else {
                 logger.error("No TTS service available - tried to say: {}", text);
             }
         }
     }
 
+    /**
+     * Synthesizes a text in advance.
+     * 
+     * <p>
+     * The audio of the text is cached, so that a later call of <code>say</code>
+     * with the same text and voice can speak it without delay. This is only
+     * supported by TTS services which can synthesize text without speaking it.
+     * </p>
+     * 
+     * @param text the text to synthesize
+     * @param voice the name of the voice to use or null, if the default voice should be used
+     */
+    @ActionDoc(text = "synthesizes a given text in advance, so that it can be said without delay")
+    static public void prepareSay(@ParamDoc(name = "text") Object text, @ParamDoc(name = "voice") String voice) {
+        if (StringUtils.isNotBlank(text.toString())) {
+            TTSService ttsService = getTTSService();
+            if (ttsService != null) {
+                AudioQueue.getInstance().prepare(ttsService, text.toString(), voice);
+            } else {
+                logger.error("No TTS service available - tried to prepare: {}", text);
+            }
+        }
+    }
+
     @ActionDoc(text = "sets the master volume of the host")
     static public void setMasterVolume(
             @ParamDoc(name = "volume", text = "volume in the range [0,1]") final float volume) throws IOException {
@@ -347,43 +369,38 @@ public class Audio {
         }
     }
 
-    private static void playInThread(final Clip clip) {
-        // run in new thread
-        new Thread() {
-            @Override
-            public void run() {
-                try {
-                    clip.start();
-                    while (clip.isActive()) {
-                        sleep(1000L);
-                    }
-                    clip.close();
-                } catch (Exception e) {
-                    throw new RuntimeException(e.getMessage());
-                }
-            }
-        }.start();
-    }
-
     static private void playInThread(final Player player) {
-        // run in new thread
-        new Thread() {
+        final Socket socket = shoutCastSocket;
+        AudioQueue.getInstance().playStream(new Runnable() {
             @Override
             public void run() {
                 try {
                     player.play();
                 } catch (Exception e) {
-                    throw new RuntimeException(e.getMessage());
+                    logger.error("Error while playing stream: {}", e.getMessage());
                 } finally {
-                    if (shoutCastSocket != null) {
+                    if (socket != null) {
                         try {
-                            shoutCastSocket.close();
+                            socket.close();
                         } catch (IOException e) {
                         }
                     }
                 }
             }
-        }.start();
+        });
+    }
+
+    /**
+     * Returns the TTS service for the current OS or a platform-independent one.
+     * 
+     * @return a service instance or null, if none could be found
+     */
+    static private TTSService getTTSService() {
+        TTSService ttsService = getTTSService(MultimediaActivator.getContext(), System.getProperty("osgi.os"));
+        if (ttsService == null) {
+            ttsService = getTTSService(MultimediaActivator.getContext(), "any");
+        }
+        return ttsService;
     }
 
     /**
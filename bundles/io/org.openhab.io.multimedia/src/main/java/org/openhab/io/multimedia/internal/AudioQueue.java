@@ -0,0 +1,418 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.Mixer;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+import org.openhab.core.service.MetricsRegistry;
+import org.openhab.io.multimedia.internal.UtteranceCache.Utterance;
+import org.openhab.io.multimedia.tts.SynthesizingTTSService;
+import org.openhab.io.multimedia.tts.TTSService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javazoom.jl.decoder.JavaLayerException;
+import javazoom.jl.player.Player;
+
+/**
+ * Plays announcements and sounds one after another on a dedicated thread, so
+ * that the calling rules don't block and concurrent announcements don't
+ * overlap.
+ * <p>
+ * Entries with a higher priority are played first, entries with the same
+ * priority in the order they have been queued. An entry which equals an entry
+ * waiting in the queue is dropped, or replaces it if it has a higher priority.
+ * <p>
+ * Text for {@link SynthesizingTTSService}s is synthesized as soon as it is
+ * queued, while earlier entries are still playing, and the audio is kept in an
+ * {@link UtteranceCache} of <code>openhab.audio.cachesize</code> kilobytes
+ * (default 16384) for repeated announcements. Text can also be synthesized in
+ * advance, so that the audio is ready when it is needed.
+ * <p>
+ * Audio streams are played on a separate thread, as they usually play until
+ * they are stopped.
+ * <p>
+ * Played and dropped entries are counted by the {@link MetricsRegistry} as
+ * <code>audio.played</code> and <code>audio.dropped</code>, the number of
+ * waiting entries is the gauge <code>audio.queue</code>.
+ *
+ * @since 1.9.0
+ */
+public class AudioQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AudioQueue.class);
+
+    /** the priority of entries queued without a priority */
+    public static final int DEFAULT_PRIORITY = 0;
+
+    static final String PLAYED_METRIC = "audio.played";
+    static final String DROPPED_METRIC = "audio.dropped";
+    static final String QUEUE_METRIC = "audio.queue";
+
+    private static AudioQueue instance;
+
+    private final ThreadPoolExecutor player;
+    private final ExecutorService synthesizer;
+    private final ExecutorService streamer;
+
+    private final UtteranceCache cache;
+    private final ConcurrentMap<String, Future<Utterance>> synthesizing = new ConcurrentHashMap<String, Future<Utterance>>();
+
+    /** the entries waiting in the queue by key, guarded by this */
+    private final Map<String, Playback> queued = new HashMap<String, Playback>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    private AudioQueue(long cacheSize) {
+        player = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new PriorityBlockingQueue<Runnable>(),
+                new NamedThreadFactory("AudioPlayer"));
+        synthesizer = Executors.newSingleThreadExecutor(new NamedThreadFactory("AudioSynthesizer"));
+        streamer = Executors.newSingleThreadExecutor(new NamedThreadFactory("AudioStream"));
+        cache = new UtteranceCache(cacheSize);
+        MetricsRegistry.getInstance().registerGauge(QUEUE_METRIC, new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return player.getQueue().size();
+            }
+        });
+    }
+
+    /**
+     * @return the audio queue, created on first use
+     */
+    public static synchronized AudioQueue getInstance() {
+        if (instance == null) {
+            long cacheSize = 16384;
+            String value = System.getProperty("openhab.audio.cachesize");
+            if (value != null) {
+                try {
+                    cacheSize = Long.parseLong(value.trim());
+                } catch (NumberFormatException e) {
+                    logger.warn("Invalid value '{}' for openhab.audio.cachesize, using {}", value, cacheSize);
+                }
+            }
+            instance = new AudioQueue(cacheSize * 1024);
+        }
+        return instance;
+    }
+
+    /**
+     * Stops the audio queue, if it has been created. Queued entries are
+     * discarded.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.running = false;
+            instance.player.shutdownNow();
+            instance.synthesizer.shutdownNow();
+            instance.streamer.shutdownNow();
+            instance.cache.clear();
+            MetricsRegistry.getInstance().unregisterGauge(QUEUE_METRIC);
+            instance = null;
+        }
+    }
+
+    /**
+     * Queues a text to be spoken.
+     *
+     * @param service the TTS service to use
+     * @param text the text to speak
+     * @param voice the name of the voice to use or null, if the default voice should be used
+     * @param device the name of audio device to be used to play the audio or null, if the default output device
+     *            should be used
+     * @param priority the priority of the announcement, higher priorities are played first
+     */
+    public void say(final TTSService service, final String text, final String voice, final String device,
+            int priority) {
+        String key = "say|" + device + "|" + UtteranceCache.getKey(service.getClass().getName(), text, voice);
+        if (service instanceof SynthesizingTTSService) {
+            queue(new Playback(key, priority) {
+                private Future<Utterance> utterance;
+
+                @Override
+                void queued() {
+                    utterance = synthesize((SynthesizingTTSService) service, text, voice);
+                }
+
+                @Override
+                void play() throws Exception {
+                    Utterance audio = utterance.get();
+                    if (audio != null) {
+                        playAudio(audio.getStream(), device);
+                    } else {
+                        logger.warn("Could not synthesize '{}', nothing to say", text);
+                    }
+                }
+            });
+        } else {
+            queue(new Playback(key, priority) {
+                @Override
+                void play() {
+                    service.say(text, voice, device);
+                }
+            });
+        }
+    }
+
+    /**
+     * Synthesizes a text in the background and caches the audio, so that it
+     * can be spoken without delay later on. Services which can't synthesize
+     * without speaking are ignored.
+     *
+     * @param service the TTS service to use
+     * @param text the text to synthesize
+     * @param voice the name of the voice to use or null, if the default voice should be used
+     */
+    public void prepare(TTSService service, String text, String voice) {
+        if (service instanceof SynthesizingTTSService) {
+            synthesize((SynthesizingTTSService) service, text, voice);
+        } else {
+            logger.debug("TTS service {} can't synthesize text in advance", service.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Queues a sound file to be played.
+     *
+     * @param file the sound file
+     * @param priority the priority of the sound, higher priorities are played first
+     */
+    public void playSound(final File file, int priority) {
+        queue(new Playback("sound|" + file.getPath(), priority) {
+            @Override
+            void play() throws Exception {
+                if (file.getName().toLowerCase().endsWith(".mp3")) {
+                    InputStream is = new FileInputStream(file);
+                    try {
+                        new Player(is).play();
+                    } finally {
+                        is.close();
+                    }
+                } else {
+                    playAudio(AudioSystem.getAudioInputStream(file), null);
+                }
+            }
+        });
+    }
+
+    /**
+     * Plays an audio stream on the stream thread. A stream which is already
+     * playing has to be closed first.
+     *
+     * @param stream plays the stream until it is closed
+     */
+    public void playStream(Runnable stream) {
+        streamer.execute(stream);
+    }
+
+    private Future<Utterance> synthesize(final SynthesizingTTSService service, final String text,
+            final String voice) {
+        final String key = UtteranceCache.getKey(service.getClass().getName(), text, voice);
+        final Utterance cached = cache.get(key);
+        FutureTask<Utterance> task = new FutureTask<Utterance>(new Callable<Utterance>() {
+            @Override
+            public Utterance call() throws IOException {
+                if (cached != null) {
+                    return cached;
+                }
+                try {
+                    long start = System.currentTimeMillis();
+                    AudioInputStream stream = service.synthesize(text, voice);
+                    if (stream == null) {
+                        return null;
+                    }
+                    Utterance utterance = Utterance.read(stream);
+                    cache.put(key, utterance);
+                    logger.debug("Synthesized '{}' in {}ms", text, System.currentTimeMillis() - start);
+                    return utterance;
+                } finally {
+                    synthesizing.remove(key);
+                }
+            }
+        });
+        if (cached != null) {
+            task.run();
+            return task;
+        }
+        Future<Utterance> existing = synthesizing.putIfAbsent(key, task);
+        if (existing != null) {
+            return existing;
+        }
+        synthesizer.execute(task);
+        return task;
+    }
+
+    /*
+     * The entry is handed to the player while holding the lock, otherwise it
+     * could be replaced before it has been added to the player's queue.
+     */
+    private synchronized void queue(Playback playback) {
+        Playback existing = queued.get(playback.key);
+        if (existing != null) {
+            if (existing.priority >= playback.priority) {
+                MetricsRegistry.getInstance().mark(DROPPED_METRIC);
+                logger.debug("Dropping '{}', it is already queued", playback.key);
+                return;
+            }
+            player.remove(existing);
+            MetricsRegistry.getInstance().mark(DROPPED_METRIC);
+        }
+        queued.put(playback.key, playback);
+        playback.queued();
+        player.execute(playback);
+    }
+
+    private void playAudio(AudioInputStream stream, String device) throws LineUnavailableException, IOException {
+        try {
+            AudioFormat format = stream.getFormat();
+            DataLine.Info info = new DataLine.Info(SourceDataLine.class, format);
+            Mixer.Info mixer = getMixer(device);
+            SourceDataLine line = (SourceDataLine) (mixer != null ? AudioSystem.getMixer(mixer).getLine(info)
+                    : AudioSystem.getLine(info));
+            line.open(format);
+            try {
+                line.start();
+                byte[] buffer = new byte[Math.max(format.getFrameSize(), 1) * 1024];
+                int read;
+                while (running && (read = stream.read(buffer)) != -1) {
+                    line.write(buffer, 0, read);
+                }
+                if (running) {
+                    line.drain();
+                }
+            } finally {
+                line.close();
+            }
+        } finally {
+            stream.close();
+        }
+    }
+
+    private Mixer.Info getMixer(String device) {
+        if (device == null) {
+            return null;
+        }
+        for (Mixer.Info info : AudioSystem.getMixerInfo()) {
+            if (info.getName().equals(device)) {
+                return info;
+            }
+        }
+        logger.warn("Audio device '{}' not found, using the default device", device);
+        return null;
+    }
+
+    /**
+     * An entry of the queue.
+     */
+    private abstract class Playback implements Runnable, Comparable<Playback> {
+
+        private final String key;
+        private final int priority;
+        private final long number = sequence.incrementAndGet();
+
+        Playback(String key, int priority) {
+            this.key = key;
+            this.priority = priority;
+        }
+
+        /**
+         * Called when the entry has been queued, i.e. it is not a duplicate of
+         * a waiting entry.
+         */
+        void queued() {
+        }
+
+        abstract void play() throws Exception;
+
+        @Override
+        public void run() {
+            synchronized (AudioQueue.this) {
+                if (queued.get(key) != this) {
+                    // replaced by an entry with a higher priority after it has been taken from the queue
+                    return;
+                }
+                queued.remove(key);
+            }
+            try {
+                play();
+                MetricsRegistry.getInstance().mark(PLAYED_METRIC);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error("Cannot synthesize '" + key + "'", e.getCause());
+            } catch (UnsupportedAudioFileException e) {
+                logger.error("Format of '{}' is not supported: {}", key, e.getMessage());
+            } catch (LineUnavailableException e) {
+                logger.error("Cannot play '{}': {}", key, e.getMessage());
+            } catch (IOException e) {
+                logger.error("Cannot play '{}': {}", key, e.getMessage());
+            } catch (JavaLayerException e) {
+                logger.error("Cannot play '{}': {}", key, e.getMessage());
+            } catch (Exception e) {
+                logger.error("Error while playing '" + key + "'", e);
+            }
+        }
+
+        @Override
+        public int compareTo(Playback other) {
+            if (priority != other.priority) {
+                return priority > other.priority ? -1 : 1;
+            }
+            return number < other.number ? -1 : (number == other.number ? 0 : 1);
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, prefix + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+}
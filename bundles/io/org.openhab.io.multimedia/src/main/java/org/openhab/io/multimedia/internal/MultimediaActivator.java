@@ -42,6 +42,8 @@ public class MultimediaActivator implements BundleActivator {
     public void stop(BundleContext bc) throws Exception {
         // stop any playing stream
         Audio.playStream(null);
+        // discard queued announcements and sounds
+        AudioQueue.shutdown();
         context = null;
         logger.debug("Multimedia I/O bundle has been stopped.");
     }
@@ -0,0 +1,159 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.internal;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+
+import org.openhab.core.service.MetricsRegistry;
+
+/**
+ * A cache of synthesized utterances, so that repeated announcements are only
+ * synthesized once. The least recently used utterances are evicted when the
+ * total size of the cached audio exceeds the configured maximum. Hits and
+ * misses are counted by the {@link MetricsRegistry} as
+ * <code>audio.cache.hit</code> and <code>audio.cache.miss</code>.
+ *
+ * @since 1.9.0
+ */
+public class UtteranceCache {
+
+    static final String HIT_METRIC = "audio.cache.hit";
+    static final String MISS_METRIC = "audio.cache.miss";
+
+    private final long maxSize;
+    private final Map<String, Utterance> utterances = new LinkedHashMap<String, Utterance>(16, 0.75f, true);
+    private long size = 0;
+
+    /**
+     * @param maxSize the maximum total size of the cached audio in bytes
+     */
+    public UtteranceCache(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Creates the key of an utterance
+     *
+     * @param service the name of the TTS service
+     * @param text the synthesized text
+     * @param voice the voice or null, if the default voice is used
+     * @return the key
+     */
+    public static String getKey(String service, String text, String voice) {
+        return service + "|" + (voice != null ? voice : "") + "|" + text;
+    }
+
+    /**
+     * @param key the key of the utterance
+     * @return the cached utterance or null, if it isn't cached
+     */
+    public synchronized Utterance get(String key) {
+        Utterance utterance = utterances.get(key);
+        MetricsRegistry.getInstance().mark(utterance != null ? HIT_METRIC : MISS_METRIC);
+        return utterance;
+    }
+
+    /**
+     * Adds an utterance to the cache. Utterances larger than the cache are not
+     * cached.
+     *
+     * @param key the key of the utterance
+     * @param utterance the utterance
+     */
+    public synchronized void put(String key, Utterance utterance) {
+        if (utterance.getSize() > maxSize) {
+            return;
+        }
+        Utterance previous = utterances.put(key, utterance);
+        if (previous != null) {
+            size -= previous.getSize();
+        }
+        size += utterance.getSize();
+        Iterator<Utterance> iterator = utterances.values().iterator();
+        while (size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getSize();
+            iterator.remove();
+        }
+    }
+
+    public synchronized void clear() {
+        utterances.clear();
+        size = 0;
+    }
+
+    /** @return the number of cached utterances */
+    public synchronized int getCount() {
+        return utterances.size();
+    }
+
+    /** @return the total size of the cached audio in bytes */
+    public synchronized long getSize() {
+        return size;
+    }
+
+    /**
+     * The audio of a synthesized utterance.
+     */
+    public static class Utterance {
+
+        private final AudioFormat format;
+        private final byte[] data;
+
+        public Utterance(AudioFormat format, byte[] data) {
+            this.format = format;
+            this.data = data;
+        }
+
+        /**
+         * Reads the audio of a stream completely.
+         *
+         * @param stream the stream to read, it is closed afterwards
+         * @return the utterance
+         * @throws IOException if the stream cannot be read
+         */
+        public static Utterance read(AudioInputStream stream) throws IOException {
+            try {
+                ByteArrayOutputStream data = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = stream.read(buffer)) != -1) {
+                    data.write(buffer, 0, read);
+                }
+                return new Utterance(stream.getFormat(), data.toByteArray());
+            } finally {
+                stream.close();
+            }
+        }
+
+        public AudioFormat getFormat() {
+            return format;
+        }
+
+        public int getSize() {
+            return data.length;
+        }
+
+        /**
+         * @return a new stream of the audio
+         */
+        public AudioInputStream getStream() {
+            int frameSize = Math.max(1, format.getFrameSize());
+            return new AudioInputStream(new ByteArrayInputStream(data), format, data.length / frameSize);
+        }
+    }
+
+}
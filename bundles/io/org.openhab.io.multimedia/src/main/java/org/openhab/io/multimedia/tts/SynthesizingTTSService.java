@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.multimedia.tts;
+
+import javax.sound.sampled.AudioInputStream;
+
+/**
+ * This is the interface that a text-to-speech service implements if it can
+ * synthesize speech without playing it. The audio of such services is cached
+ * and played by the audio queue, so that repeated announcements don't have to
+ * be synthesized again.
+ *
+ * @since 1.9.0
+ *
+ */
+public interface SynthesizingTTSService extends TTSService {
+
+    /**
+     * Synthesizes the text with a given voice
+     *
+     * @param text the text to synthesize
+     * @param voice the name of the voice to use or null, if the default voice should be used
+     * @return the synthesized audio or null, if the text could not be synthesized
+     */
+    AudioInputStream synthesize(String text, String voice);
+
+}
@@ -0,0 +1,197 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.myopenhab.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.io.myopenhab.internal.MyOpenHABStandIn.Event;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests the proxying of requests by {@link MyOHClient} between a local stand-in
+ * for the my.openHAB cloud and a local HTTP server standing in for openHAB.
+ *
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+public class MyOHClientTest {
+
+    private static final long TIMEOUT = 10000;
+    private static final String CONTENT = "Hello openHAB";
+
+    private MyOpenHABStandIn myOpenHAB;
+    private HttpServer openHAB;
+    private MyOHClient client;
+
+    // requests which arrived at /slow, they are answered when the gate is opened
+    private final Semaphore slowArrived = new Semaphore(0);
+    private final CountDownLatch slowGate = new CountDownLatch(1);
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger maxRunning = new AtomicInteger();
+
+    @Before
+    public void setUp() throws Exception {
+        openHAB = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        openHAB.createContext("/fast", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                respond(exchange);
+            }
+        });
+        openHAB.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                int now = running.incrementAndGet();
+                if (now > maxRunning.get()) {
+                    maxRunning.set(now);
+                }
+                slowArrived.release();
+                try {
+                    slowGate.await(TIMEOUT, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                respond(exchange);
+            }
+        });
+        openHAB.setExecutor(Executors.newCachedThreadPool());
+        openHAB.start();
+
+        myOpenHAB = new MyOpenHABStandIn();
+        myOpenHAB.start();
+
+        client = new MyOHClient("test-uuid", "test-secret");
+        client.setMyOHBaseUrl(myOpenHAB.getUrl());
+        client.setOHBaseUrl("http://127.0.0.1:" + openHAB.getAddress().getPort());
+        client.setOpenHABVersion("1.9.0");
+    }
+
+    @After
+    public void tearDown() {
+        slowGate.countDown();
+        client.shutdown();
+        myOpenHAB.stop();
+        openHAB.stop(0);
+    }
+
+    @Test
+    public void testRequestIsProxied() throws Exception {
+        connect();
+        myOpenHAB.emit("request", request(1, "/fast"));
+
+        Event header = nextEvent("responseHeader");
+        assertEquals(1, header.data.getInt("id"));
+        assertEquals(200, header.data.getInt("responseStatusCode"));
+
+        Event content = nextEvent("responseContentBinary");
+        assertEquals(1, content.data.getInt("id"));
+        assertEquals(1, content.attachments.size());
+        assertEquals(CONTENT, new String(content.attachments.get(0), "UTF-8"));
+
+        assertEquals(1, nextEvent("responseFinished").data.getInt("id"));
+    }
+
+    @Test
+    public void testMaxRunningRequests() throws Exception {
+        client.setMaxRunningRequests(1);
+        connect();
+        myOpenHAB.emit("request", request(1, "/slow"));
+        myOpenHAB.emit("request", request(2, "/slow"));
+
+        assertTrue(slowArrived.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+        // the second request is queued until the first one is finished
+        Thread.sleep(500);
+        assertEquals(0, slowArrived.availablePermits());
+
+        slowGate.countDown();
+        assertTrue(slowArrived.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+        assertEquals(1, nextEvent("responseFinished").data.getInt("id"));
+        assertEquals(2, nextEvent("responseFinished").data.getInt("id"));
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    public void testCancelReleasesPermit() throws Exception {
+        client.setMaxRunningRequests(1);
+        connect();
+        myOpenHAB.emit("request", request(1, "/slow"));
+        assertTrue(slowArrived.tryAcquire(TIMEOUT, TimeUnit.MILLISECONDS));
+
+        JSONObject cancel = new JSONObject();
+        cancel.put("id", 1);
+        myOpenHAB.emit("cancel", cancel);
+        myOpenHAB.emit("request", request(2, "/fast"));
+
+        // the first request is still running at openHAB, but does not hold the permit anymore
+        Event finished = nextEvent("responseFinished");
+        assertEquals(2, finished.data.getInt("id"));
+        assertEquals(1, running.get());
+    }
+
+    private void connect() throws InterruptedException {
+        client.connect();
+        long end = System.currentTimeMillis() + TIMEOUT;
+        while (!client.isConnected() && System.currentTimeMillis() < end) {
+            Thread.sleep(50);
+        }
+        assertTrue(client.isConnected());
+        assertEquals("test-uuid", myOpenHAB.getUuid());
+    }
+
+    private Event nextEvent(String name) throws InterruptedException {
+        long end = System.currentTimeMillis() + TIMEOUT;
+        Event event;
+        do {
+            event = myOpenHAB.nextEvent(end - System.currentTimeMillis());
+        } while (event != null && !event.name.equals(name));
+        assertNotNull("no " + name + " received", event);
+        return event;
+    }
+
+    private static JSONObject request(int id, String path) throws JSONException {
+        JSONObject request = new JSONObject();
+        request.put("id", id);
+        request.put("path", path);
+        request.put("method", "GET");
+        request.put("body", "");
+        request.put("headers", new JSONObject());
+        request.put("query", new JSONObject());
+        return request;
+    }
+
+    private static void respond(HttpExchange exchange) throws IOException {
+        byte[] body = CONTENT.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type", "text/plain");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+}
@@ -0,0 +1,234 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.myopenhab.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * A local stand-in for the my.openHAB cloud. It speaks just enough of the
+ * Engine.IO (protocol 3, long polling without upgrades) and Socket.IO protocols
+ * to connect a {@link MyOHClient}, send events to it and receive its events.
+ *
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+public class MyOpenHABStandIn {
+
+    private static final String SESSION_ID = "standin";
+    private static final long POLL_TIMEOUT = 1000;
+
+    /**
+     * An event received from the client, the binary attachments are in the
+     * order of their placeholders.
+     */
+    public static class Event {
+        public final String name;
+        public final JSONObject data;
+        public final List<byte[]> attachments = new ArrayList<byte[]>();
+
+        private Event(String name, JSONObject data) {
+            this.name = name;
+            this.data = data;
+        }
+    }
+
+    private final BlockingQueue<String> outgoing = new LinkedBlockingQueue<String>();
+    private final BlockingQueue<Event> events = new LinkedBlockingQueue<Event>();
+    private volatile String uuid;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    // the binary event which waits for its attachments
+    private Event binaryEvent;
+    private int missingAttachments;
+
+    /**
+     * Starts listening on a free local port.
+     */
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/socket.io/", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    if ("POST".equals(exchange.getRequestMethod())) {
+                        byte[] payload = readAll(exchange.getRequestBody());
+                        if (payload.length > 0 && payload[0] > 1) {
+                            receivePayload(new String(payload, "UTF-8"));
+                        } else {
+                            receivePayload(payload);
+                        }
+                        respond(exchange, "ok");
+                    } else if (exchange.getRequestURI().getQuery().contains("sid=")) {
+                        respond(exchange, poll());
+                    } else {
+                        uuid = exchange.getRequestHeaders().getFirst("uuid");
+                        respond(exchange, encode("0{\"sid\":\"" + SESSION_ID
+                                + "\",\"upgrades\":[],\"pingInterval\":25000,\"pingTimeout\":60000}") + encode("40"));
+                    }
+                } catch (Exception e) {
+                    exchange.sendResponseHeaders(500, -1);
+                } finally {
+                    exchange.close();
+                }
+            }
+        });
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * @return the URL to be set as my.openHAB base URL of the client
+     */
+    public String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+    }
+
+    /**
+     * @return the uuid sent by the client when it connected
+     */
+    public String getUuid() {
+        return uuid;
+    }
+
+    /**
+     * Sends an event to the client.
+     */
+    public void emit(String name, JSONObject data) {
+        outgoing.offer("42" + new JSONArray().put(name).put(data));
+    }
+
+    /**
+     * Waits for the next event received from the client.
+     *
+     * @return the event or null if none has been received within the timeout
+     */
+    public Event nextEvent(long timeout) throws InterruptedException {
+        return events.poll(timeout, TimeUnit.MILLISECONDS);
+    }
+
+    private String poll() throws InterruptedException {
+        String packet = outgoing.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+        if (packet == null) {
+            return encode("6");
+        }
+        StringBuilder payload = new StringBuilder(encode(packet));
+        while ((packet = outgoing.poll()) != null) {
+            payload.append(encode(packet));
+        }
+        return payload.toString();
+    }
+
+    private static String encode(String packet) {
+        return packet.length() + ":" + packet;
+    }
+
+    /*
+     * Decodes a text payload, each packet is preceded by its length and a colon
+     */
+    private synchronized void receivePayload(String payload) throws JSONException {
+        int i = 0;
+        while (i < payload.length()) {
+            int colon = payload.indexOf(':', i);
+            int length = Integer.parseInt(payload.substring(i, colon));
+            receivePacket(payload.substring(colon + 1, colon + 1 + length));
+            i = colon + 1 + length;
+        }
+    }
+
+    /*
+     * Decodes a binary payload, each packet is a string (0) or binary (1) flag,
+     * the length as digits, 0xFF and the packet
+     */
+    private synchronized void receivePayload(byte[] payload) throws IOException, JSONException {
+        int i = 0;
+        while (i < payload.length) {
+            boolean binary = payload[i++] == 1;
+            int length = 0;
+            while ((payload[i] & 0xFF) != 0xFF) {
+                length = length * 10 + payload[i++];
+            }
+            i++;
+            byte[] packet = Arrays.copyOfRange(payload, i, i + length);
+            i += length;
+            if (binary) {
+                // the first byte is the Engine.IO message type
+                binaryEvent.attachments.add(Arrays.copyOfRange(packet, 1, packet.length));
+                if (--missingAttachments == 0) {
+                    events.offer(binaryEvent);
+                }
+            } else {
+                receivePacket(new String(packet, "UTF-8"));
+            }
+        }
+    }
+
+    private void receivePacket(String packet) throws JSONException {
+        if (packet.equals("2")) {
+            outgoing.offer("3");
+        } else if (packet.startsWith("42")) {
+            events.offer(toEvent(packet.substring(2)));
+        } else if (packet.startsWith("45")) {
+            int separator = packet.indexOf('-');
+            missingAttachments = Integer.parseInt(packet.substring(2, separator));
+            binaryEvent = toEvent(packet.substring(separator + 1));
+        }
+    }
+
+    private static Event toEvent(String json) throws JSONException {
+        JSONArray array = new JSONArray(json);
+        return new Event(array.getString(0), array.optJSONObject(1));
+    }
+
+    private static void respond(HttpExchange exchange, String payload) throws IOException {
+        byte[] body = payload.getBytes("UTF-8");
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=UTF-8");
+        exchange.sendResponseHeaders(200, body.length);
+        OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int read;
+        while ((read = in.read(buffer)) > 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+}
@@ -17,11 +17,20 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.eclipse.jetty.client.HttpClient;
+import org.eclipse.jetty.client.HttpExchange;
+import org.eclipse.jetty.io.Buffer;
+import org.eclipse.jetty.io.ByteArrayBuffer;
 import org.eclipse.jetty.util.URIUtil;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.openhab.core.service.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -58,6 +67,22 @@ public class MyOHClient {
      * 30 seconds minimum to make it work for long polling requests
      */
     private static final int HTTP_CLIENT_TIMEOUT = 30000;
+    /*
+     * This constant defines the default maximum number of requests to local openHAB which
+     * are running at the same time, further requests are queued
+     */
+    private static final int DEFAULT_MAX_RUNNING_REQUESTS = 50;
+    /*
+     * This constant defines the maximum size of a response body chunk sent to my.openHAB
+     */
+    private static final int RESPONSE_CHUNK_SIZE = 32 * 1024;
+    /*
+     * These constants define the names of the metrics about the proxied requests
+     */
+    static final String REQUESTS_METRIC = "myopenhab.requests";
+    static final String COMPLETED_METRIC = "myopenhab.requests.completed";
+    static final String FAILED_METRIC = "myopenhab.requests.failed";
+    static final String CANCELLED_METRIC = "myopenhab.requests.cancelled";
     /*
      * This variable holds base URL for my.openHAB cloud connections, has a default
      * value but can be changed
@@ -79,15 +104,29 @@ public class MyOHClient {
     /*
      * This variable holds instance of Jetty HTTP client to make requests to local openHAB
      */
-    private HttpClient mJettyClient;
+    private volatile HttpClient mJettyClient;
+    /*
+     * This map holds HTTP requests to local openHAB which are currently running or queued,
+     * it is accessed from Socket.IO and Jetty threads
+     */
+    private final Map<Integer, MyOHExchange> mRunningRequests = new ConcurrentHashMap<Integer, MyOHExchange>();
+    /*
+     * This queue holds HTTP requests which wait for a free slot to be sent to local openHAB
+     */
+    private final Queue<MyOHExchange> mPendingRequests = new ConcurrentLinkedQueue<MyOHExchange>();
+    /*
+     * This semaphore limits the number of requests running at the same time, it is
+     * replaced when the maximum is changed
+     */
+    private volatile Semaphore mRequestPermits = new Semaphore(DEFAULT_MAX_RUNNING_REQUESTS);
     /*
-     * This hashmap holds HTTP requests to local openHAB which are currently running
+     * This variable indicates if response bodies should be gzipped for clients accepting it
      */
-    private HashMap<Integer, MyOHExchange> mRunningRequests;
+    private boolean mCompressResponses = false;
     /*
      * This variable indicates if connection to my.openHAB cloud is currently in an established state
      */
-    private boolean mIsConnected;
+    private volatile boolean mIsConnected;
     /*
      * This variable holds version of local openHAB
      */
@@ -114,7 +153,6 @@ public class MyOHClient {
     public MyOHClient(String uuid, String secret) {
         mUUID = uuid;
         mSecret = secret;
-        mRunningRequests = new HashMap<Integer, MyOHExchange>();
     }
 
     /**
@@ -229,6 +267,8 @@ public class MyOHClient {
         logger.info("Disconnected from my.openHAB service (UUID = {}, local base URL = {})", this.mUUID,
                 this.mOHBaseUrl);
         mIsConnected = false;
+        // Responses to running requests can't be delivered anymore, my.openHAB will not wait for them
+        cancelAllRequests();
         // Stop Jetty client to shut down ongoing remote requests - we will never be able to serve them after disconnect
         stopJetty();
     }
@@ -295,7 +335,7 @@ public class MyOHClient {
             // Now perform the request to openHAB
             // If method is GET
             logger.debug("Request method is " + requestMethod);
-            MyOHExchange exchange = new MyOHExchange(requestId);
+            MyOHExchange exchange = new MyOHExchange(requestId, requestPath);
             exchange.setURI(requestUri);
             exchange.setRequestHeaders(requestHeadersJson);
             exchange.setRequestHeader("X-Forwarded-Proto", "https");
@@ -310,14 +350,16 @@ public class MyOHClient {
                 Buffer requestContent = new ByteArrayBuffer(requestBody);
                 exchange.setRequestContent(requestContent);
             } else {
-                // TODO: Reject unsupported methods
                 logger.error("Unsupported request method " + requestMethod);
+                sendResponseError(requestId, "Unsupported request method " + requestMethod);
                 return;
             }
-            mJettyClient.send(exchange);
-            // If successfully submitted request to http client, add it to the list of currently
-            // running requests to be able to cancel it if needed
+            // Add the request to the list of currently running requests to be able to cancel it if
+            // needed and send it as soon as the number of running requests permits
+            MetricsRegistry.getInstance().mark(REQUESTS_METRIC);
             mRunningRequests.put(requestId, exchange);
+            mPendingRequests.offer(exchange);
+            sendPendingRequests();
         } catch (JSONException e) {
             logger.error(e.getMessage());
         } catch (IOException e) {
@@ -327,15 +369,80 @@ public class MyOHClient {
         }
     }
 
+    /*
+     * Sends queued requests to local openHAB as long as the maximum number of running
+     * requests is not reached
+     */
+    private void sendPendingRequests() {
+        while (!mPendingRequests.isEmpty()) {
+            Semaphore requestPermits = mRequestPermits;
+            if (!requestPermits.tryAcquire()) {
+                break;
+            }
+            MyOHExchange exchange = mPendingRequests.poll();
+            if (exchange == null || !exchange.start(requestPermits)) {
+                // Another thread took the request or it has been cancelled meanwhile
+                requestPermits.release();
+                continue;
+            }
+            HttpClient jettyClient = mJettyClient;
+            if (jettyClient == null) {
+                exchange.fail("openHAB connection error: not connected");
+                continue;
+            }
+            try {
+                jettyClient.send(exchange);
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+                exchange.fail("openHAB connection error: " + e.getMessage());
+            } catch (IllegalStateException e) {
+                // The request has been cancelled after it was started, failing it releases the permit
+                // if the cancellation did not
+                logger.debug("Request {} could not be sent: {}", exchange.mRequestId, e.getMessage());
+                exchange.fail("openHAB connection error: " + e.getMessage());
+            }
+        }
+    }
+
+    /*
+     * Called exactly once for every request when it has been completed, failed or
+     * cancelled
+     */
+    private void requestFinished(MyOHExchange exchange, Semaphore requestPermits) {
+        mRunningRequests.remove(exchange.mRequestId);
+        if (requestPermits != null) {
+            requestPermits.release();
+        } else {
+            mPendingRequests.remove(exchange);
+        }
+        sendPendingRequests();
+    }
+
+    private void cancelAllRequests() {
+        for (MyOHExchange exchange : mRunningRequests.values()) {
+            exchange.cancelRequest();
+        }
+    }
+
+    private void sendResponseError(int requestId, String message) {
+        JSONObject responseJson = new JSONObject();
+        try {
+            responseJson.put("id", requestId);
+            responseJson.put("responseStatusText", message);
+            mSocket.emit("responseError", responseJson);
+        } catch (JSONException e) {
+            logger.error(e.getMessage());
+        }
+    }
+
     private void handleCancelEvent(JSONObject data) {
         try {
             int requestId = data.getInt("id");
             logger.debug("Received cancel for request {}", requestId);
             // Find and cancel running request
-            if (mRunningRequests.containsKey(requestId)) {
-                MyOHExchange requestExchange = mRunningRequests.get(requestId);
-                requestExchange.cancel();
-                mRunningRequests.remove(requestId);
+            MyOHExchange requestExchange = mRunningRequests.get(requestId);
+            if (requestExchange != null) {
+                requestExchange.cancelRequest();
             }
         } catch (JSONException e) {
             logger.error(e.getMessage());
@@ -490,6 +597,7 @@ public class MyOHClient {
 
     public void shutdown() {
         logger.info("Shutting down my.openHAB service connection");
+        cancelAllRequests();
         try {
             mJettyClient.stop();
         } catch (Exception e) {
@@ -532,19 +640,58 @@ public class MyOHClient {
         this.mListener = mListener;
     }
 
-    /*
-     * An internal class which extends ContentExchange and forwards response
-     * headers and data back to my.openHAB
+    /**
+     * Set the maximum number of requests to local openHAB which run at the same
+     * time, further requests are queued. Requests which are running already are
+     * not counted against the new maximum.
+     * 
+     * @param maxRunningRequests the maximum number of running requests
+     * 
+     */
+
+    public void setMaxRunningRequests(int maxRunningRequests) {
+        mRequestPermits = new Semaphore(Math.max(1, maxRunningRequests));
+    }
+
+    /**
+     * Set whether response bodies are gzipped for clients accepting it
+     * 
+     * @param compressResponses true to compress response bodies
      * 
      */
 
-    private class MyOHExchange extends ContentExchange {
+    public void setCompressResponses(boolean compressResponses) {
+        mCompressResponses = compressResponses;
+    }
 
-        private int mRequestId;
-        private HashMap<String, String> mResponseHeaders;
+    /*
+     * An internal class which extends HttpExchange and forwards response
+     * headers and data back to my.openHAB as they arrive
+     * 
+     */
+
+    private class MyOHExchange extends HttpExchange {
+
+        private final int mRequestId;
+        private final String mRequestPath;
+        private final long mCreated;
+        private final HashMap<String, String> mResponseHeaders;
+        private boolean mAcceptsGzip;
+        private int mResponseStatus;
+        private String mResponseStatusText = "OK";
+        private ResponseBodyEncoder mEncoder;
+        private long mFirstContent = 0;
+        /*
+         * State transitions are guarded by synchronizing on the exchange
+         */
+        private Semaphore mPermits = null;
+        private boolean mFinished = false;
+        private volatile boolean mCancelled = false;
 
-        public MyOHExchange(int requestId) {
+        public MyOHExchange(int requestId, String requestPath) {
             mRequestId = requestId;
+            mRequestPath = requestPath;
+            mCreated = System.nanoTime();
             mResponseHeaders = new HashMap<String, String>();
         }
 
@@ -560,6 +707,9 @@ public class MyOHClient {
                     if (!headerName.equalsIgnoreCase("Content-Length")) {
                         this.setRequestHeader(headerName, headerValue);
                     }
+                    if (headerName.equalsIgnoreCase("Accept-Encoding")) {
+                        mAcceptsGzip = headerValue.toLowerCase().contains("gzip");
+                    }
                 } catch (JSONException e) {
                     logger.error("Error processing request headers: {}", e.getMessage());
                 }
@@ -579,103 +729,224 @@ public class MyOHClient {
         }
 
         /*
-         * This is old onResponseContent which used base64 encoding, keep it here commented for some time
-         * The new onResponseContent uses 'responseContentBinary' to send response data
-         * 
-         * @Override
-         * public void onResponseContent(Buffer content) {
-         * logger.debug("Jetty received response content of size " + String.valueOf(content.length()));
-         * JSONObject responseJson = new JSONObject();
-         * String base64ResponseBody = Base64.encodeBytes(content.asArray());
-         * try {
-         * responseJson.put("id", mRequestId);
-         * responseJson.put("body", base64ResponseBody);
-         * if (this.getStatus() != STATUS_CANCELLING && this.getStatus() != STATUS_CANCELLED)
-         * mSocket.emit("responseContent", responseJson);
-         * logger.debug(String.format("Sent content to request %d", mRequestId));
-         * } catch (JSONException e) {
-         * e.printStackTrace();
-         * }
-         * 
-         * }
+         * Marks the request as sent to openHAB holding a permit of the specified semaphore,
+         * returns false if it has been cancelled before
          */
+        synchronized boolean start(Semaphore requestPermits) {
+            if (mFinished) {
+                return false;
+            }
+            mPermits = requestPermits;
+            return true;
+        }
 
         /*
-         * This is a new onResponseContent which uses binary encoding
+         * Marks the request as finished, returns false if it has been finished before
          */
+        private boolean finish() {
+            Semaphore requestPermits;
+            synchronized (this) {
+                if (mFinished) {
+                    return false;
+                }
+                mFinished = true;
+                requestPermits = mPermits;
+            }
+            requestFinished(this, requestPermits);
+            return true;
+        }
 
-        @Override
-        public void onResponseContent(Buffer content) {
-            logger.debug("Jetty received response content of size " + String.valueOf(content.length()));
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("body", content.asArray());
-                if (this.getStatus() != STATUS_CANCELLING && this.getStatus() != STATUS_CANCELLED) {
-                    mSocket.emit("responseContentBinary", responseJson);
+        /*
+         * Cancels the request, no further responses are sent to my.openHAB
+         */
+        void cancelRequest() {
+            mCancelled = true;
+            if (finish()) {
+                MetricsRegistry.getInstance().mark(CANCELLED_METRIC);
+                logger.debug("Cancelled request {}", mRequestId);
+                cancel();
+            }
+        }
+
+        /*
+         * Fails the request, sending an error to my.openHAB
+         */
+        void fail(String message) {
+            if (!isCancelled()) {
+                sendResponseError(mRequestId, message);
+            }
+            if (finish()) {
+                MetricsRegistry.getInstance().mark(FAILED_METRIC);
+            }
+        }
+
+        private boolean isCancelled() {
+            int status = getStatus();
+            return mCancelled || status == STATUS_CANCELLING || status == STATUS_CANCELLED;
+        }
+
+        private void emit(String event, JSONObject responseJson) {
+            if (!isCancelled()) {
+                mSocket.emit(event, responseJson);
+            }
+        }
+
+        private String getResponseHeader(String name) {
+            for (Map.Entry<String, String> responseHeader : mResponseHeaders.entrySet()) {
+                if (responseHeader.getKey().equalsIgnoreCase(name)) {
+                    return responseHeader.getValue();
+                }
+            }
+            return null;
+        }
+
+        private void removeResponseHeader(String name) {
+            Iterator<String> iterator = mResponseHeaders.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().equalsIgnoreCase(name)) {
+                    iterator.remove();
+                }
+            }
+        }
+
+        /*
+         * Only compress textual responses which aren't already encoded
+         */
+        private boolean shouldCompress() {
+            if (!mCompressResponses || !mAcceptsGzip || getResponseHeader("Content-Encoding") != null) {
+                return false;
+            }
+            String contentType = getResponseHeader("Content-Type");
+            if (contentType == null) {
+                return false;
+            }
+            contentType = contentType.toLowerCase();
+            return contentType.startsWith("text/") || contentType.contains("json")
+                    || contentType.contains("javascript") || contentType.contains("xml");
+        }
+
+        private void sendContent(List<byte[]> chunks) {
+            for (byte[] chunk : chunks) {
+                JSONObject responseJson = new JSONObject();
+                try {
+                    responseJson.put("id", mRequestId);
+                    responseJson.put("body", chunk);
+                    emit("responseContentBinary", responseJson);
+                } catch (JSONException e) {
+                    logger.error(e.getMessage());
                 }
-                logger.debug("Sent content to request {}", mRequestId);
-            } catch (JSONException e) {
-                logger.error(e.getMessage());
             }
         }
 
         @Override
-        public void onResponseHeader(Buffer name, Buffer value) {
+        protected void onResponseStatus(Buffer version, int status, Buffer reason) {
+            mResponseStatus = status;
+            if (reason != null) {
+                mResponseStatusText = reason.toString();
+            }
+        }
+
+        @Override
+        protected void onResponseHeader(Buffer name, Buffer value) {
             mResponseHeaders.put(name.toString(), value.toString());
             logger.debug("Jetty received header " + name.toString() + " = " + value.toString());
         }
 
         @Override
-        public void onResponseHeaderComplete() {
+        protected void onResponseHeaderComplete() {
             logger.debug("Jetty finished receiving response header");
+            try {
+                mEncoder = new ResponseBodyEncoder(shouldCompress(), RESPONSE_CHUNK_SIZE);
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+                fail("openHAB response error: " + e.getMessage());
+                return;
+            }
+            if (mEncoder.isCompressing()) {
+                removeResponseHeader("Content-Length");
+                mResponseHeaders.put("Content-Encoding", "gzip");
+            }
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
                 responseJson.put("headers", getJSONHeaders());
-                responseJson.put("responseStatusCode", getResponseStatus());
-                responseJson.put("responseStatusText", "OK");
-                if (this.getStatus() != STATUS_CANCELLING && this.getStatus() != STATUS_CANCELLED) {
-                    mSocket.emit("responseHeader", responseJson);
-                }
+                responseJson.put("responseStatusCode", mResponseStatus);
+                responseJson.put("responseStatusText", mResponseStatusText);
+                emit("responseHeader", responseJson);
                 logger.debug("Sent headers to request {}", mRequestId);
             } catch (JSONException e) {
                 logger.error(e.getMessage());
             }
         }
 
+        @Override
+        protected void onResponseContent(Buffer content) {
+            logger.debug("Jetty received response content of size " + String.valueOf(content.length()));
+            if (mEncoder == null || isCancelled()) {
+                return;
+            }
+            if (mFirstContent == 0) {
+                mFirstContent = System.nanoTime();
+            }
+            try {
+                sendContent(mEncoder.encode(content.asArray()));
+                logger.debug("Sent content to request {}", mRequestId);
+            } catch (IOException e) {
+                logger.error(e.getMessage());
+            }
+        }
+
         @Override
         protected void onResponseComplete() {
-            int status = getResponseStatus();
-            logger.debug("Jetty request complete {} with status {}", mRequestId, status);
-            // Remove this request from list of running requests
-            mRunningRequests.remove(mRequestId);
+            logger.debug("Jetty request complete {} with status {}", mRequestId, mResponseStatus);
+            if (mEncoder != null) {
+                try {
+                    sendContent(mEncoder.finish());
+                } catch (IOException e) {
+                    logger.error(e.getMessage());
+                }
+            }
             JSONObject responseJson = new JSONObject();
             try {
                 responseJson.put("id", mRequestId);
-                if (this.getStatus() != STATUS_CANCELLING && this.getStatus() != STATUS_CANCELLED) {
-                    mSocket.emit("responseFinished", responseJson);
-                }
+                emit("responseFinished", responseJson);
                 logger.debug("Finished responding to request {}", mRequestId);
             } catch (JSONException e) {
-                // TODO Auto-generated catch block
                 logger.error(e.getMessage());
             }
+            // Remove this request from list of running requests
+            if (finish()) {
+                long now = System.nanoTime();
+                long latency = TimeUnit.NANOSECONDS.toMillis(now - mCreated);
+                long received = mEncoder != null ? mEncoder.getRawSize() : 0;
+                long sent = mEncoder != null ? mEncoder.getEncodedSize() : 0;
+                MetricsRegistry.getInstance().record(COMPLETED_METRIC, now - mCreated);
+                if (logger.isDebugEnabled()) {
+                    long firstContent = mFirstContent != 0 ? TimeUnit.NANOSECONDS.toMillis(mFirstContent - mCreated)
+                            : latency;
+                    logger.debug("Request {} to {} finished with status {} after {}ms (first content after {}ms), "
+                            + "{} bytes received, {} bytes sent", mRequestId, mRequestPath, mResponseStatus, latency,
+                            firstContent, received, sent);
+                }
+            }
         }
 
         @Override
         protected void onConnectionFailed(Throwable x) {
             logger.error(x.getMessage());
-            JSONObject responseJson = new JSONObject();
-            try {
-                responseJson.put("id", mRequestId);
-                responseJson.put("responseStatusText", "openHAB connection error: " + x.getMessage());
-                if (this.getStatus() != STATUS_CANCELLING && this.getStatus() != STATUS_CANCELLED) {
-                    mSocket.emit("responseError", responseJson);
-                }
-            } catch (JSONException e) {
-                logger.error(e.getMessage());
-            }
+            fail("openHAB connection error: " + x.getMessage());
+        }
+
+        @Override
+        protected void onException(Throwable x) {
+            logger.error(x.getMessage());
+            fail("openHAB connection error: " + x.getMessage());
+        }
+
+        @Override
+        protected void onExpire() {
+            logger.debug("Request {} to {} timed out", mRequestId, mRequestPath);
+            fail("openHAB connection error: request timed out");
         }
 
     }
@@ -62,6 +62,8 @@ public class MyOpenHABServiceImpl
 
     private String mMyOHBaseUrl;
     private int mLocalPort = 8080;
+    private int mMaxRequests = 0;
+    private boolean mCompression = false;
 
     protected ItemUIRegistry mItemUIRegistry = null;
     protected EventPublisher mEventPublisher = null;
@@ -116,6 +118,14 @@ public class MyOpenHABServiceImpl
             if (StringUtils.isNotBlank(localPortString)) {
                 mLocalPort = Integer.valueOf(localPortString);
             }
+            String maxRequestsString = (String) config.get("maxRequests");
+            if (StringUtils.isNotBlank(maxRequestsString)) {
+                mMaxRequests = Integer.valueOf(maxRequestsString);
+            }
+            String compressionString = (String) config.get("compression");
+            if (StringUtils.isNotBlank(compressionString)) {
+                mCompression = Boolean.valueOf(compressionString);
+            }
         } else {
             logger.debug("config is null");
         }
@@ -127,6 +137,10 @@ public class MyOpenHABServiceImpl
         if (mLocalPort != 8080) {
             myOHClient.setOHBaseUrl("http://localhost:" + String.valueOf(mLocalPort));
         }
+        if (mMaxRequests > 0) {
+            myOHClient.setMaxRunningRequests(mMaxRequests);
+        }
+        myOHClient.setCompressResponses(mCompression);
         myOHClient.setOpenHABVersion(getVersion());
         myOHClient.connect();
         myOHClient.setListener(this);
@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.myopenhab.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * This class turns the body of a proxied response into the chunks which are
+ * sent to my.openHAB. Every piece of content received from openHAB is passed
+ * on right away, so long polling and streaming responses are not delayed, but
+ * it is split into chunks of at most <code>chunkSize</code> bytes to keep the
+ * Socket.IO messages small. If compression is enabled the body is gzipped,
+ * flushing the compressor after every piece of content.
+ *
+ * Instances are not thread safe, Jetty delivers the content of an exchange
+ * sequentially.
+ *
+ * @since 1.9.0
+ */
+class ResponseBodyEncoder {
+
+    private final int chunkSize;
+    private final ByteArrayOutputStream buffer;
+    private final GZIPOutputStream gzip;
+
+    private long rawSize = 0;
+    private long encodedSize = 0;
+
+    /**
+     * Constructor of ResponseBodyEncoder
+     *
+     * @param compress true if the body should be gzipped
+     * @param chunkSize maximum size of a chunk in bytes
+     *
+     */
+
+    ResponseBodyEncoder(boolean compress, int chunkSize) throws IOException {
+        this.chunkSize = Math.max(1, chunkSize);
+        if (compress) {
+            buffer = new ByteArrayOutputStream();
+            gzip = new GZIPOutputStream(buffer, true);
+        } else {
+            buffer = null;
+            gzip = null;
+        }
+    }
+
+    /**
+     * Returns true if the body is gzipped
+     */
+
+    boolean isCompressing() {
+        return gzip != null;
+    }
+
+    /**
+     * Encodes a piece of the response body
+     *
+     * @param content the content received from openHAB
+     * @return the chunks to send, might be empty
+     *
+     */
+
+    List<byte[]> encode(byte[] content) throws IOException {
+        rawSize += content.length;
+        if (gzip == null) {
+            return split(content);
+        }
+        gzip.write(content);
+        gzip.flush();
+        return drain();
+    }
+
+    /**
+     * Finishes the response body
+     *
+     * @return the remaining chunks to send, might be empty
+     *
+     */
+
+    List<byte[]> finish() throws IOException {
+        if (gzip == null) {
+            return Collections.emptyList();
+        }
+        gzip.finish();
+        return drain();
+    }
+
+    /**
+     * Returns the number of bytes received from openHAB
+     */
+
+    long getRawSize() {
+        return rawSize;
+    }
+
+    /**
+     * Returns the number of bytes sent to my.openHAB
+     */
+
+    long getEncodedSize() {
+        return encodedSize;
+    }
+
+    private List<byte[]> drain() {
+        byte[] data = buffer.toByteArray();
+        buffer.reset();
+        return split(data);
+    }
+
+    private List<byte[]> split(byte[] data) {
+        encodedSize += data.length;
+        if (data.length == 0) {
+            return Collections.emptyList();
+        }
+        if (data.length <= chunkSize) {
+            return Collections.singletonList(data);
+        }
+        List<byte[]> chunks = new ArrayList<byte[]>(data.length / chunkSize + 1);
+        for (int offset = 0; offset < data.length; offset += chunkSize) {
+            chunks.add(Arrays.copyOfRange(data, offset, Math.min(data.length, offset + chunkSize)));
+        }
+        return chunks;
+    }
+
+}
@@ -50,8 +50,12 @@ public class Ping {
                 SocketAddress socketAddress = new InetSocketAddress(host, port);
 
                 Socket socket = new Socket();
-                socket.connect(socketAddress, timeout);
-                success = true;
+                try {
+                    socket.connect(socketAddress, timeout);
+                    success = true;
+                } finally {
+                    socket.close();
+                }
             }
         }
 
@@ -0,0 +1,116 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.cul.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+import org.openhab.core.service.MetricsRegistry;
+
+/**
+ * Tests for the ordering, coalescing and airtime estimation of the
+ * {@link CULSendScheduler}.
+ *
+ * @since 1.9.0
+ */
+public class CULSendSchedulerTest {
+
+    private static final String METRIC_PREFIX = "cul.test";
+
+    @Test
+    public void testSystemCommandsFirst() throws InterruptedException {
+        CULSendScheduler scheduler = new CULSendScheduler(METRIC_PREFIX);
+        scheduler.add("T12340126");
+        scheduler.add("F12340110");
+        scheduler.add("V");
+
+        assertEquals("V", scheduler.take());
+        assertEquals("F12340110", scheduler.take());
+        assertEquals("T12340126", scheduler.take());
+        assertEquals(0, scheduler.size());
+    }
+
+    @Test
+    public void testCoalescing() throws InterruptedException {
+        long coalesced = getCount(METRIC_PREFIX + ".coalesced");
+        CULSendScheduler scheduler = new CULSendScheduler(METRIC_PREFIX);
+        scheduler.add("F12340110");
+        scheduler.add("F12340210");
+        scheduler.add("F12340100");
+
+        assertEquals(2, scheduler.size());
+        assertEquals(coalesced + 1, getCount(METRIC_PREFIX + ".coalesced"));
+        assertEquals("F12340100", scheduler.take());
+        assertEquals("F12340210", scheduler.take());
+    }
+
+    @Test
+    public void testNoCoalescingForRelativeCommands() throws InterruptedException {
+        CULSendScheduler scheduler = new CULSendScheduler(METRIC_PREFIX);
+        // toggle, dim up, dim up, dim down
+        scheduler.add("F12340112");
+        scheduler.add("F12340113");
+        scheduler.add("F12340113");
+        scheduler.add("F12340114");
+        // an absolute command doesn't replace the relative ones
+        scheduler.add("F12340111");
+
+        assertEquals(5, scheduler.size());
+        assertEquals("F12340112", scheduler.take());
+        assertEquals("F12340113", scheduler.take());
+        assertEquals("F12340113", scheduler.take());
+        assertEquals("F12340114", scheduler.take());
+        assertEquals("F12340111", scheduler.take());
+    }
+
+    @Test
+    public void testCoalesceKey() {
+        assertEquals("F123401", CULSendScheduler.getCoalesceKey("F12340100"));
+        assertEquals("F123401", CULSendScheduler.getCoalesceKey("F12340108"));
+        assertEquals("F123401", CULSendScheduler.getCoalesceKey("F12340111"));
+        assertNull(CULSendScheduler.getCoalesceKey("F12340112"));
+        assertNull(CULSendScheduler.getCoalesceKey("F12340115"));
+        // with timer extension
+        assertNull(CULSendScheduler.getCoalesceKey("F1234013920"));
+        assertEquals("T123401", CULSendScheduler.getCoalesceKey("T12340126"));
+    }
+
+    @Test
+    public void testNoCoalescingForMax() {
+        assertNull(CULSendScheduler.getCoalesceKey("Zs0B0100401234560000000019"));
+    }
+
+    @Test
+    public void testEstimateCredit() {
+        assertEquals(0, CULSendScheduler.estimateCredit("V"));
+        assertEquals(21, CULSendScheduler.estimateCredit("F12340110"));
+        assertEquals(10, CULSendScheduler.estimateCredit("Zf0B0100401234560000000019"));
+        assertEquals(110, CULSendScheduler.estimateCredit("Zs0B0100401234560000000019"));
+    }
+
+    @Test
+    public void testCommandWithinCreditIsSent() throws InterruptedException {
+        long deferred = getCount(METRIC_PREFIX + ".deferred");
+        CULSendScheduler scheduler = new CULSendScheduler(METRIC_PREFIX);
+        scheduler.creditReported(50);
+        scheduler.add("F12340110");
+        scheduler.add("F12340210");
+
+        assertEquals("F12340110", scheduler.take());
+        assertEquals("F12340210", scheduler.take());
+        assertEquals(deferred, getCount(METRIC_PREFIX + ".deferred"));
+    }
+
+    private static long getCount(String meter) {
+        MetricsRegistry.Meter counter = MetricsRegistry.getInstance().getMeters(meter).get(meter);
+        return counter != null ? counter.getCount() : 0;
+    }
+
+}
@@ -15,11 +15,11 @@ import java.net.SocketException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.io.transport.cul.CULCommunicationException;
 import org.openhab.io.transport.cul.CULDeviceException;
 import org.openhab.io.transport.cul.CULHandler;
@@ -32,6 +32,13 @@ import org.slf4j.LoggerFactory;
  * Abstract base class for all CULHandler which brings some convenience
  * regarding registering listeners and detecting forbidden messages.
  *
+ * The messages of a CUL are counted by the {@link MetricsRegistry} with the
+ * prefix <code>cul.&lt;device name&gt;</code>: the meters
+ * <code>received</code> and <code>lost</code>, the gauges
+ * <code>pending</code> (commands waiting to be sent) and
+ * <code>receivequeue</code> (messages waiting for a receive thread) and the
+ * metrics of the {@link CULSendScheduler}.
+ *
  * @author Till Klocke
  * @since 1.4.0
  */
@@ -40,7 +47,20 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
     private final static Logger log = LoggerFactory.getLogger(AbstractCULHandler.class);
 
     /**
-     * Thread which sends all queued commands to the CUL.
+     * Number of threads notifying the listeners about received messages.
+     */
+    private final static int RECEIVE_THREADS = 4;
+
+    /**
+     * Number of received messages which may wait for a free receive thread.
+     * If more messages are pending, the reading thread notifies the listeners
+     * itself, which slows down reading from the CUL.
+     */
+    private final static int RECEIVE_QUEUE_SIZE = 100;
+
+    /**
+     * Thread which sends all queued commands to the CUL. It blocks until the
+     * send scheduler hands out the next command.
      * 
      * @author Till Klocke
      * @since 1.4.0
@@ -53,21 +73,20 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
         @Override
         public void run() {
             while (!isInterrupted()) {
-                String command = sendQueue.poll();
-                if (command != null) {
-                    if (!command.endsWith("\r\n")) {
-                        command = command + "\r\n";
-                    }
-                    try {
-                        writeMessage(command);
-                    } catch (CULCommunicationException e) {
-                        logger.error("Error while writing command to CUL", e);
-                    }
-                }
+                String command;
                 try {
-                    Thread.sleep(10);
+                    command = sendScheduler.take();
                 } catch (InterruptedException e) {
-                    logger.debug("Error while sleeping in SendThread", e);
+                    logger.debug("SendThread has been interrupted");
+                    break;
+                }
+                if (!command.endsWith("\r\n")) {
+                    command = command + "\r\n";
+                }
+                try {
+                    writeMessage(command);
+                } catch (CULCommunicationException e) {
+                    logger.error("Error while writing command to CUL", e);
                 }
             }
         }
@@ -93,31 +112,43 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
 
         @Override
         public void run() {
-            listener.dataReceived(message);
+            try {
+                listener.dataReceived(message);
+            } catch (RuntimeException e) {
+                log.error("Listener failed to process message '" + message + "'", e);
+            }
         }
 
     }
 
     /**
-     * Executor to handle received messages. Every listern should be called in
-     * its own thread.
+     * Executor to handle received messages. Listeners are called by a bounded
+     * number of threads, so that a burst of messages can't create an unbounded
+     * number of threads.
      */
-    protected Executor receiveExecutor = Executors.newCachedThreadPool();
+    protected ThreadPoolExecutor receiveExecutor = new ThreadPoolExecutor(RECEIVE_THREADS, RECEIVE_THREADS, 60L,
+            TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(RECEIVE_QUEUE_SIZE),
+            new ThreadPoolExecutor.CallerRunsPolicy());
     protected SendThread sendThread = new SendThread();
+    protected CULSendScheduler sendScheduler;
+
+    private final String metricPrefix;
 
     protected String deviceName;
     protected CULMode mode;
 
     protected List<CULListener> listeners = new ArrayList<CULListener>();
 
-    protected Queue<String> sendQueue = new ConcurrentLinkedQueue<String>();
-    protected int credit10ms = 0;
+    protected volatile int credit10ms = 0;
     protected BufferedReader br;
     protected BufferedWriter bw;
 
     protected AbstractCULHandler(String deviceName, CULMode mode) {
         this.mode = mode;
         this.deviceName = deviceName;
+        metricPrefix = "cul." + deviceName;
+        sendScheduler = new CULSendScheduler(metricPrefix);
+        receiveExecutor.allowCoreThreadTimeOut(true);
     }
 
     @Override
@@ -151,11 +182,26 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
     public void open() throws CULDeviceException {
         openHardware();
         sendThread.start();
+        MetricsRegistry.getInstance().registerGauge(metricPrefix + ".pending", new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return sendScheduler.size();
+            }
+        });
+        MetricsRegistry.getInstance().registerGauge(metricPrefix + ".receivequeue", new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return receiveExecutor.getQueue().size();
+            }
+        });
     }
 
     @Override
     public void close() {
+        MetricsRegistry.getInstance().unregisterGauge(metricPrefix + ".pending");
+        MetricsRegistry.getInstance().unregisterGauge(metricPrefix + ".receivequeue");
         sendThread.interrupt();
+        receiveExecutor.shutdown();
         closeHardware();
     }
 
@@ -174,13 +220,13 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
     @Override
     public void send(String command) {
         if (isMessageAllowed(command)) {
-            sendQueue.add(command);
+            sendScheduler.add(command);
         }
     }
 
     @Override
     public void sendWithoutCheck(String message) throws CULCommunicationException {
-        sendQueue.add(message);
+        sendScheduler.add(message);
     }
 
     /**
@@ -206,6 +252,7 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
      * @param data
      */
     protected void notifyDataReceived(String data) {
+        MetricsRegistry.getInstance().mark(metricPrefix + ".received");
         for (final CULListener listener : listeners) {
             receiveExecutor.execute(new NotifyDataReceivedRunner(listener, data));
         }
@@ -235,10 +282,13 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
             log.debug("Received raw message from CUL: " + data);
             if ("EOB".equals(data)) {
                 log.warn("(EOB) End of Buffer. Last message lost. Try sending less messages per time slot to the CUL");
+                MetricsRegistry.getInstance().mark(metricPrefix + ".lost");
                 return;
             } else if ("LOVF".equals(data)) {
                 log.warn(
                         "(LOVF) Limit Overflow: Last message lost. You are using more than 1% transmitting time. Reduce the number of rf messages");
+                MetricsRegistry.getInstance().mark(metricPrefix + ".lost");
+                sendScheduler.creditExhausted();
                 return;
             } else if (data.matches("^\\d+\\s+\\d+")) {
                 processCreditReport(data);
@@ -273,6 +323,7 @@ public abstract class AbstractCULHandler implements CULHandler, CULHandlerIntern
         String[] report = data.split(" ");
         credit10ms = Integer.parseInt(report[report.length - 1]);
         log.debug("credit10ms = " + credit10ms);
+        sendScheduler.creditReported(credit10ms);
     }
 
     /**
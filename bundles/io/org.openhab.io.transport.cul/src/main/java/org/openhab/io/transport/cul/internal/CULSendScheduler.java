@@ -0,0 +1,335 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.io.transport.cul.internal;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openhab.core.service.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Blocking send queue for culfw commands which respects the 1% duty cycle of
+ * the 868MHz band. culfw refuses to transmit (LOVF) when its transmit credit
+ * (credit10ms) is used up, so instead of handing every command to the CUL
+ * immediately, each RF command is delayed until the estimated credit covers its
+ * estimated airtime.
+ *
+ * Commands are sent in order of their {@link Priority}. Absolute RF commands
+ * to the same FS20 device or FHT function which are still waiting in the
+ * queue are coalesced, i.e. only the latest command is sent.
+ *
+ * Sent, coalesced and deferred commands are counted by the
+ * {@link MetricsRegistry} as <code>&lt;prefix&gt;.sent</code>,
+ * <code>&lt;prefix&gt;.coalesced</code> and <code>&lt;prefix&gt;.deferred</code>,
+ * the time spent waiting for credit is recorded as
+ * <code>&lt;prefix&gt;.creditwait</code>.
+ *
+ * @since 1.9.0
+ */
+public class CULSendScheduler {
+
+    private final static Logger logger = LoggerFactory.getLogger(CULSendScheduler.class);
+
+    /**
+     * culfw gains one credit (10ms of airtime) per second, which equals the 1%
+     * duty cycle.
+     */
+    final static long MILLIS_PER_CREDIT = 1000;
+
+    /**
+     * Upper limit of credits culfw accumulates.
+     */
+    final static int MAX_CREDIT = 900;
+
+    /**
+     * Additional credits needed by MAX! messages sent with the long wake up
+     * preamble.
+     */
+    private final static int MAX_SLOW_PREAMBLE_CREDIT = 100;
+
+    /**
+     * The highest FS20 command which sets an absolute state: 0x00 is off,
+     * 0x01-0x10 dim to a level and 0x11 is on. The commands above toggle, dim
+     * relatively or start timers, none of them may replace another one.
+     */
+    private final static int FS20_MAX_ABSOLUTE_COMMAND = 0x11;
+
+    /**
+     * Send priorities, in descending order.
+     */
+    public enum Priority {
+        /** commands which don't use the RF link, e.g. configuration commands */
+        SYSTEM,
+        /** switching commands where a user waits for the result (FS20, Intertechno) */
+        SWITCH,
+        /** commands for devices which tolerate delays (FHT, MAX!) */
+        CLIMATE
+    }
+
+    private static class QueuedCommand {
+        private String command;
+        private final String coalesceKey;
+        private final Priority priority;
+        private int credit;
+
+        private QueuedCommand(String command, String coalesceKey, Priority priority, int credit) {
+            this.command = command;
+            this.coalesceKey = coalesceKey;
+            this.priority = priority;
+            this.credit = credit;
+        }
+    }
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+
+    private final Map<Priority, Deque<QueuedCommand>> queues = new EnumMap<Priority, Deque<QueuedCommand>>(
+            Priority.class);
+    private final Map<String, QueuedCommand> coalescable = new HashMap<String, QueuedCommand>();
+
+    private boolean creditKnown = false;
+    private int reportedCredit = 0;
+    private long reportTimestamp = 0;
+    private int creditUsedSinceReport = 0;
+
+    private final String sentMetric;
+    private final String coalescedMetric;
+    private final String deferredMetric;
+    private final String creditWaitMetric;
+
+    /**
+     * @param metricPrefix
+     *            the prefix of the names the commands are counted by
+     */
+    public CULSendScheduler(String metricPrefix) {
+        sentMetric = metricPrefix + ".sent";
+        coalescedMetric = metricPrefix + ".coalesced";
+        deferredMetric = metricPrefix + ".deferred";
+        creditWaitMetric = metricPrefix + ".creditwait";
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<QueuedCommand>());
+        }
+    }
+
+    /**
+     * Queue a command. If a command for the same device and function is
+     * still waiting to be sent, it is replaced by this one.
+     *
+     * @param command
+     *            the culfw command without line terminator
+     */
+    public void add(String command) {
+        String key = getCoalesceKey(command);
+        lock.lock();
+        try {
+            if (key != null) {
+                QueuedCommand queued = coalescable.get(key);
+                if (queued != null) {
+                    logger.debug("Replacing queued command '{}' with '{}'", queued.command, command);
+                    queued.command = command;
+                    queued.credit = estimateCredit(command);
+                    MetricsRegistry.getInstance().mark(coalescedMetric);
+                    return;
+                }
+            }
+            QueuedCommand queued = new QueuedCommand(command, key, getPriority(command), estimateCredit(command));
+            queues.get(queued.priority).addLast(queued);
+            if (key != null) {
+                coalescable.put(key, queued);
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Take the next command which can be sent now. Blocks until a command is
+     * available and enough credit is available to send it.
+     *
+     * @return the next command to send
+     * @throws InterruptedException
+     *             if the calling thread is interrupted while waiting
+     */
+    public String take() throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            boolean deferred = false;
+            while (true) {
+                QueuedCommand next = peek();
+                if (next == null) {
+                    changed.await();
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                int available = getAvailableCredit(now);
+                if (next.credit == 0 || !creditKnown || next.credit <= available) {
+                    queues.get(next.priority).pollFirst();
+                    if (next.coalesceKey != null) {
+                        coalescable.remove(next.coalesceKey);
+                    }
+                    creditUsedSinceReport += next.credit;
+                    MetricsRegistry.getInstance().mark(sentMetric);
+                    return next.command;
+                }
+                if (!deferred) {
+                    deferred = true;
+                    MetricsRegistry.getInstance().mark(deferredMetric);
+                    logger.debug("Not enough credit to send '{}' (needs {}, available {}), delaying", next.command,
+                            next.credit, available);
+                }
+                long waitMillis = (next.credit - available) * MILLIS_PER_CREDIT;
+                long start = System.nanoTime();
+                changed.await(waitMillis, TimeUnit.MILLISECONDS);
+                MetricsRegistry.getInstance().record(creditWaitMetric, System.nanoTime() - start);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private QueuedCommand peek() {
+        for (Priority priority : Priority.values()) {
+            QueuedCommand queued = queues.get(priority).peekFirst();
+            if (queued != null) {
+                return queued;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Update the credit as reported by culfw.
+     *
+     * @param credit10ms
+     *            the remaining credit in 10ms units
+     */
+    public void creditReported(int credit10ms) {
+        lock.lock();
+        try {
+            creditKnown = true;
+            reportedCredit = credit10ms;
+            reportTimestamp = System.currentTimeMillis();
+            creditUsedSinceReport = 0;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Called if culfw reports that it dropped a message because it ran out of
+     * credit.
+     */
+    public void creditExhausted() {
+        creditReported(0);
+    }
+
+    /**
+     * @return the estimated credit culfw has at the given time
+     */
+    private int getAvailableCredit(long now) {
+        long regained = (now - reportTimestamp) / MILLIS_PER_CREDIT;
+        long credit = Math.min(MAX_CREDIT, reportedCredit + regained) - creditUsedSinceReport;
+        return (int) Math.max(0, credit);
+    }
+
+    /**
+     * Get the number of commands waiting to be sent.
+     */
+    public int size() {
+        lock.lock();
+        try {
+            int size = 0;
+            for (Deque<QueuedCommand> queue : queues.values()) {
+                size += queue.size();
+            }
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Estimate the airtime of a command in credits (10ms units), including
+     * the repetitions culfw sends.
+     *
+     * @param command
+     *            the culfw command
+     * @return estimated credits needed, 0 for commands not using the RF link
+     */
+    static int estimateCredit(String command) {
+        if (command.startsWith("F") || command.startsWith("T")) {
+            // FS20 and FHT: 13 bit sync + 9 bits per byte incl. checksum,
+            // ~1ms per bit plus 10ms pause, sent 3 times
+            int bytes = (command.length() - 1) / 2 + 1;
+            return ceilCredit(3 * (13 + 9 * bytes + 10));
+        } else if (command.startsWith("Zs") || command.startsWith("Zf")) {
+            // MAX!: same estimation as the MAX!CUL binding, slow messages
+            // have an additional 1s wake up preamble
+            int credit = (int) Math.ceil(((command.length() - 2) * 4) / 10.0);
+            return command.startsWith("Zs") ? credit + MAX_SLOW_PREAMBLE_CREDIT : credit;
+        } else if (command.startsWith("is")) {
+            // Intertechno: 2 bits per tri-state, ~1.7ms per bit plus
+            // ~13ms sync, sent 6 times
+            int bits = (command.length() - 2) * 2;
+            return ceilCredit(6 * (bits * 1.7 + 13));
+        }
+        return 0;
+    }
+
+    private static int ceilCredit(double millis) {
+        return (int) Math.ceil(millis / 10.0);
+    }
+
+    static Priority getPriority(String command) {
+        if (command.startsWith("F") || command.startsWith("is")) {
+            return Priority.SWITCH;
+        } else if (command.startsWith("T") || command.startsWith("Z")) {
+            return Priority.CLIMATE;
+        }
+        return Priority.SYSTEM;
+    }
+
+    /**
+     * Commands with the same key set the same device and function to an
+     * absolute value, so only the last of them needs to be sent. Relative
+     * commands like toggle or dim up must all be sent.
+     *
+     * @return the key or null if the command must not be coalesced
+     */
+    static String getCoalesceKey(String command) {
+        if (command.startsWith("F") && command.length() == 9) {
+            // F + housecode (4) + address (2) + command (2), commands with
+            // an extension byte start timers
+            return isAbsoluteFS20Command(command.substring(7)) ? command.substring(0, 7) : null;
+        } else if (command.startsWith("T") && command.length() == 9) {
+            // T + housecode (4) + function (2) + value (2)
+            return command.substring(0, 7);
+        }
+        return null;
+    }
+
+    private static boolean isAbsoluteFS20Command(String hex) {
+        try {
+            return Integer.parseInt(hex, 16) <= FS20_MAX_ABSOLUTE_COMMAND;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+}
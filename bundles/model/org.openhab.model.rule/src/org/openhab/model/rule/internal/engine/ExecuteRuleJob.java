@@ -12,6 +12,7 @@ import org.eclipse.emf.ecore.EObject;
 import org.openhab.core.scriptengine.Script;
 import org.openhab.core.scriptengine.ScriptEngine;
 import org.openhab.core.scriptengine.ScriptExecutionException;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.model.core.ModelRepository;
 import org.openhab.model.rule.internal.RuleModelActivator;
 import org.openhab.model.rule.rules.Rule;
@@ -49,12 +50,15 @@ public class ExecuteRuleJob implements Job {
 				RuleModel ruleModel = (RuleModel) model;
 				Rule rule = getRule(ruleModel, ruleName);
 				if(rule!=null) {
-					Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+					Script script = RuleScriptCache.getInstance().getScript(rule, scriptEngine);
 					logger.debug("Executing scheduled rule '{}'", rule.getName());
+					long start = System.nanoTime();
 					try {
 						script.execute(RuleContextHelper.getContext(rule));
 					} catch (ScriptExecutionException e) {
 						logger.error("Error during the execution of rule {}", rule.getName(), e.getCause());
+					} finally {
+						MetricsRegistry.getInstance().record("rules." + rule.getName(), System.nanoTime() - start);
 					}
 				} else {
 					logger.debug("Scheduled rule '{}' does not exist", ruleName);
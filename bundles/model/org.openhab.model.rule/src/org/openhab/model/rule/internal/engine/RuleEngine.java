@@ -32,6 +32,7 @@ import org.openhab.core.scriptengine.Script;
 import org.openhab.core.scriptengine.ScriptEngine;
 import org.openhab.core.scriptengine.ScriptExecutionException;
 import org.openhab.core.scriptengine.ScriptExecutionThread;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.types.Command;
 import org.openhab.core.types.EventType;
 import org.openhab.core.types.State;
@@ -66,6 +67,8 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 
 	private RuleTriggerManager triggerManager;
 
+	private final RuleScriptCache scriptCache = RuleScriptCache.getInstance();
+
 	public void activate() {
 		triggerManager = new RuleTriggerManager();
 
@@ -84,6 +87,7 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 			if (model instanceof RuleModel) {
 				RuleModel ruleModel = (RuleModel) model;
 				triggerManager.addRuleModel(ruleModel);
+				scriptCache.prepare(ruleModel, scriptEngine);
 			}
 		}
 
@@ -99,6 +103,7 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 		executeRules(triggerManager.getRules(SHUTDOWN));
 		triggerManager.clearAll();
 		triggerManager = null;
+		scriptCache.clear();
 	}
 
 	public void setItemRegistry(ItemRegistry itemRegistry) {
@@ -240,12 +245,14 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 				if (type == org.openhab.model.core.EventType.REMOVED
 						|| type == org.openhab.model.core.EventType.MODIFIED) {
 					triggerManager.removeRuleModel(model);
+					scriptCache.remove(model);
 				}
 
 				// add new and modified rules to the trigger sets
 				if (model != null
 						&& (type == org.openhab.model.core.EventType.ADDED || type == org.openhab.model.core.EventType.MODIFIED)) {
 					triggerManager.addRuleModel(model);
+					scriptCache.prepare(model, scriptEngine);
 					// now execute all rules that are meant to trigger at startup
 					runStartupRules();
 				}
@@ -260,11 +267,16 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 
 			for (Rule rule : startupRules) {
 				try {
-					Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+					Script script = scriptCache.getScript(rule, scriptEngine);
 					logger.debug("Executing startup rule '{}'", rule.getName());
 					RuleEvaluationContext context = new RuleEvaluationContext();
 					context.setGlobalContext(RuleContextHelper.getContext(rule));
-					script.execute(context);
+					long start = System.nanoTime();
+					try {
+						script.execute(context);
+					} finally {
+						MetricsRegistry.getInstance().record("rules." + rule.getName(), System.nanoTime() - start);
+					}
 					executedRules.add(rule);
 				} catch (ScriptExecutionException e) {
 					String causeMessage = getCauseMessage(e);
@@ -300,7 +312,7 @@ public class RuleEngine implements EventHandler, ItemRegistryChangeListener, Sta
 	}
 
 	protected synchronized void executeRule(Rule rule, RuleEvaluationContext context) {
-		Script script = scriptEngine.newScriptFromXExpression(rule.getScript());
+		Script script = scriptCache.getScript(rule, scriptEngine);
 
 		logger.debug("Executing rule '{}'", rule.getName());
 
@@ -0,0 +1,177 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.rule.internal.engine;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.openhab.core.scriptengine.Script;
+import org.openhab.core.scriptengine.ScriptEngine;
+import org.openhab.core.scriptengine.ScriptExecutionException;
+import org.openhab.core.service.MetricsRegistry;
+import org.openhab.model.rule.rules.Rule;
+import org.openhab.model.rule.rules.RuleModel;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps the scripts of the rules prepared for execution.
+ * <p>
+ * Creating a script instantiates a new interpreter, whose dispatchers are set
+ * up by reflection. Doing this on every trigger costs more than the execution
+ * of most rules, so the scripts are created when a rule file is loaded and
+ * reused afterwards. A script is used by one execution at a time; if a rule
+ * is triggered again while it is still executing, another script is created
+ * and kept for later use. The created and reused scripts are counted by the
+ * {@link MetricsRegistry} as <code>rulescripts.created</code> and
+ * <code>rulescripts.reused</code>.
+ * <p>
+ * If the system property <code>compileScripts</code> is set to
+ * <code>true</code>, the script engine compiles the rules while their scripts
+ * are prepared, i.e. when the rule file is loaded. Rule constructs which are
+ * not supported by the compiler are interpreted.
+ * 
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+public class RuleScriptCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(RuleScriptCache.class);
+
+	/** the maximum number of idle scripts kept per rule */
+	private static final int MAX_IDLE_SCRIPTS = 4;
+
+	private static final String CREATED_METRIC = "rulescripts.created";
+	private static final String REUSED_METRIC = "rulescripts.reused";
+
+	private static final RuleScriptCache instance = new RuleScriptCache();
+
+	private final Map<Rule, Queue<Script>> scripts = new ConcurrentHashMap<Rule, Queue<Script>>();
+
+	private RuleScriptCache() {
+	}
+
+	/**
+	 * @return the cache shared by the rule engine and the scheduled rules
+	 */
+	public static RuleScriptCache getInstance() {
+		return instance;
+	}
+
+	/**
+	 * Prepares a script for every rule of a model.
+	 * 
+	 * @param model the loaded rule model
+	 * @param scriptEngine the engine to create the scripts
+	 */
+	public void prepare(RuleModel model, ScriptEngine scriptEngine) {
+		long start = System.currentTimeMillis();
+		for (Rule rule : model.getRules()) {
+			if (rule.getScript() != null && !scripts.containsKey(rule)) {
+				Queue<Script> idle = new ConcurrentLinkedQueue<Script>();
+				idle.add(createScript(rule, scriptEngine));
+				scripts.put(rule, idle);
+			}
+		}
+		logger.debug("Prepared {} rules in {}ms", model.getRules().size(), System.currentTimeMillis() - start);
+	}
+
+	/**
+	 * Removes the scripts of all rules which belong to the given model or
+	 * which have been unloaded.
+	 * 
+	 * @param model the removed or modified rule model, may be
+	 *            <code>null</code>
+	 */
+	public void remove(RuleModel model) {
+		Resource resource = model != null ? model.eResource() : null;
+		Iterator<Rule> iterator = scripts.keySet().iterator();
+		while (iterator.hasNext()) {
+			Rule rule = iterator.next();
+			Resource ruleResource = rule.eResource();
+			if (ruleResource == null || ruleResource == resource) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all prepared scripts.
+	 */
+	public void clear() {
+		scripts.clear();
+	}
+
+	/**
+	 * Returns a script for the execution of a rule. The script must only be
+	 * executed once.
+	 * 
+	 * @param rule the rule to execute
+	 * @param scriptEngine the engine to create a script if none is idle
+	 * @return the script
+	 */
+	public Script getScript(Rule rule, ScriptEngine scriptEngine) {
+		Queue<Script> idle = scripts.get(rule);
+		Script script = idle != null ? idle.poll() : null;
+		if (script == null) {
+			script = createScript(rule, scriptEngine);
+		} else {
+			MetricsRegistry.getInstance().mark(REUSED_METRIC);
+		}
+		return new PooledScript(rule, script);
+	}
+
+	private Script createScript(Rule rule, ScriptEngine scriptEngine) {
+		MetricsRegistry.getInstance().mark(CREATED_METRIC);
+		return scriptEngine.newScriptFromXExpression(rule.getScript());
+	}
+
+	private void release(Rule rule, Script script) {
+		Queue<Script> idle = scripts.get(rule);
+		if (idle != null && idle.size() < MAX_IDLE_SCRIPTS) {
+			idle.add(script);
+		}
+	}
+
+	/**
+	 * Returns its script to the cache after the execution.
+	 */
+	private class PooledScript implements Script {
+
+		private final Rule rule;
+		private final Script script;
+
+		PooledScript(Rule rule, Script script) {
+			this.rule = rule;
+			this.script = script;
+		}
+
+		public Object execute() throws ScriptExecutionException {
+			try {
+				return script.execute();
+			} finally {
+				release(rule, script);
+			}
+		}
+
+		public Object execute(IEvaluationContext evaluationContext) throws ScriptExecutionException {
+			try {
+				return script.execute(evaluationContext);
+			} finally {
+				release(rule, script);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.actions;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.joda.time.DateTime;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.service.MetricsRegistry;
+
+/**
+ * Tests the scheduling semantics of {@link TimerImpl}. The executions are
+ * captured instead of being scheduled, so that a test can trigger an
+ * execution after the timer has been cancelled or rescheduled.
+ *
+ * @since 1.9.0
+ */
+public class TimerImplTest {
+
+	private final AtomicInteger executions = new AtomicInteger();
+	private final Runnable task = new Runnable() {
+		public void run() {
+			executions.incrementAndGet();
+		}
+	};
+
+	private CapturingScheduler scheduler;
+	private TimerImpl timer;
+
+	@Before
+	public void setup() {
+		scheduler = new CapturingScheduler();
+		timer = new TimerImpl(scheduler, "test", task);
+	}
+
+	@Test
+	public void testExecution() {
+		timer.schedule(new DateTime());
+		scheduler.run(0);
+
+		assertEquals(1, executions.get());
+		assertTrue(timer.hasTerminated());
+		assertFalse(timer.isRunning());
+	}
+
+	@Test
+	public void testCancelledTimerDoesNotFire() {
+		timer.schedule(new DateTime());
+		assertTrue(timer.cancel());
+
+		// the execution had already been triggered when the timer was cancelled
+		scheduler.run(0);
+
+		assertEquals(0, executions.get());
+		assertFalse(timer.hasTerminated());
+	}
+
+	@Test
+	public void testRescheduledTimerDoesNotFireStaleRun() {
+		timer.schedule(new DateTime());
+		assertTrue(timer.reschedule(new DateTime().plusMillis(1000)));
+		assertTrue(scheduler.futures.get(0).isCancelled());
+
+		scheduler.run(0);
+		assertEquals(0, executions.get());
+		assertFalse(timer.hasTerminated());
+
+		scheduler.run(1);
+		assertEquals(1, executions.get());
+		assertTrue(timer.hasTerminated());
+	}
+
+	@Test
+	public void testRescheduleAfterTermination() {
+		timer.schedule(new DateTime());
+		scheduler.run(0);
+		assertTrue(timer.hasTerminated());
+
+		timer.reschedule(new DateTime());
+		assertFalse(timer.hasTerminated());
+		scheduler.run(1);
+
+		assertEquals(2, executions.get());
+	}
+
+	@Test
+	public void testCancelAfterTermination() {
+		timer.schedule(new DateTime());
+		scheduler.run(0);
+
+		assertFalse(timer.cancel());
+	}
+
+	@Test
+	public void testTimerIsExecutedAndMeasured() throws InterruptedException {
+		MetricsRegistry metrics = MetricsRegistry.getInstance();
+		long executed = getMeterCount(TimerScheduler.EXECUTED_METRIC);
+		MetricsRegistry.Timer latency = metrics.getTimers(TimerScheduler.LATENCY_METRIC).get(
+				TimerScheduler.LATENCY_METRIC);
+		long measured = latency != null ? latency.getCount() : 0;
+
+		final CountDownLatch latch = new CountDownLatch(1);
+		TimerImpl timer = new TimerImpl(new TimerScheduler(1), "test", new Runnable() {
+			public void run() {
+				latch.countDown();
+			}
+		});
+		timer.schedule(new DateTime());
+
+		assertTrue(latch.await(5, TimeUnit.SECONDS));
+		assertEquals(executed + 1, getMeterCount(TimerScheduler.EXECUTED_METRIC));
+		latency = metrics.getTimers(TimerScheduler.LATENCY_METRIC).get(TimerScheduler.LATENCY_METRIC);
+		assertEquals(measured + 1, latency.getCount());
+	}
+
+	private static long getMeterCount(String name) {
+		MetricsRegistry.Meter meter = MetricsRegistry.getInstance().getMeters(name).get(name);
+		return meter != null ? meter.getCount() : 0;
+	}
+
+	/**
+	 * Keeps the scheduled executions, they are run by the tests.
+	 */
+	private static class CapturingScheduler extends TimerScheduler {
+
+		private final List<Runnable> runnables = new ArrayList<Runnable>();
+		private final List<CapturedFuture> futures = new ArrayList<CapturedFuture>();
+
+		CapturingScheduler() {
+			super(1);
+		}
+
+		@Override
+		ScheduledFuture<?> schedule(Runnable runnable, long time) {
+			CapturedFuture future = new CapturedFuture();
+			runnables.add(runnable);
+			futures.add(future);
+			return future;
+		}
+
+		void run(int index) {
+			futures.get(index).done = true;
+			runnables.get(index).run();
+		}
+	}
+
+	private static class CapturedFuture implements ScheduledFuture<Object> {
+
+		private boolean cancelled = false;
+		private boolean done = false;
+
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			if (done || cancelled) {
+				return false;
+			}
+			cancelled = true;
+			return true;
+		}
+
+		public boolean isCancelled() {
+			return cancelled;
+		}
+
+		public boolean isDone() {
+			return done || cancelled;
+		}
+
+		public Object get() {
+			return null;
+		}
+
+		public Object get(long timeout, TimeUnit unit) {
+			return null;
+		}
+
+		public long getDelay(TimeUnit unit) {
+			return 0;
+		}
+
+		public int compareTo(Delayed other) {
+			return 0;
+		}
+	}
+
+}
@@ -0,0 +1,283 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.openhab.core.events.EventPublisher;
+import org.openhab.core.items.GenericItem;
+import org.openhab.core.items.Item;
+import org.openhab.core.items.ItemNotFoundException;
+import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.ItemRegistryChangeListener;
+import org.openhab.core.library.items.NumberItem;
+import org.openhab.core.library.items.SwitchItem;
+import org.openhab.core.library.types.DecimalType;
+import org.openhab.core.persistence.FilterCriteria;
+import org.openhab.core.persistence.HistoricItem;
+import org.openhab.core.persistence.QueryablePersistenceService;
+import org.openhab.core.persistence.extensions.PersistenceExtensions;
+import org.openhab.core.scriptengine.Script;
+import org.openhab.core.scriptengine.action.ActionService;
+import org.openhab.core.types.Command;
+import org.openhab.core.types.State;
+import org.openhab.model.script.internal.ScriptActivator;
+import org.osgi.framework.BundleContext;
+import org.osgi.framework.Filter;
+import org.osgi.util.tracker.ServiceTracker;
+
+/**
+ * Compares the execution of a typical rule by the interpreter with its
+ * execution in the compiled mode of the {@link ScriptCompiler}. The rule
+ * calculates with {@link DecimalType}s, posts updates, sends commands and
+ * queries a persistence service.
+ * <p>
+ * The benchmark is not part of the regular test run, it is started with
+ * <code>-Dtest=ScriptCompilerBenchmark</code>.
+ *
+ * @since 1.9.0
+ */
+public class ScriptCompilerBenchmark {
+
+	private static final int WARMUP_RUNS = 2000;
+	private static final int MEASURED_RUNS = 20000;
+
+	private static final String RULE = "val current = Temperature.state as DecimalType\n"
+			+ "val difference = current - Setpoint.state as DecimalType\n"
+			+ "postUpdate(Difference, difference)\n"
+			+ "if (difference > 0.5) {\n"
+			+ "	sendCommand(Heating, OFF)\n"
+			+ "} else {\n"
+			+ "	sendCommand(Heating, ON)\n"
+			+ "}\n"
+			+ "val previous = Temperature.historicState(now.minusHours(1), \"benchmark\")\n"
+			+ "if (previous != null) {\n"
+			+ "	postUpdate(Trend, current - previous.state as DecimalType)\n"
+			+ "}\n";
+
+	private final Map<String, Item> items = new HashMap<String, Item>();
+	private final List<String> events = new ArrayList<String>();
+
+	private ServiceTracker<ItemRegistry, ItemRegistry> itemRegistryTracker;
+	private ServiceTracker<EventPublisher, EventPublisher> eventPublisherTracker;
+	private ServiceTracker<ActionService, ActionService> actionServiceTracker;
+	private ScriptEngineImpl scriptEngine;
+
+	@Before
+	public void setup() {
+		addItem(new NumberItem("Temperature"), new DecimalType("21.7"));
+		addItem(new NumberItem("Setpoint"), new DecimalType("21"));
+		addItem(new NumberItem("Difference"), null);
+		addItem(new NumberItem("Trend"), null);
+		addItem(new SwitchItem("Heating"), null);
+
+		itemRegistryTracker = ScriptActivator.itemRegistryTracker;
+		eventPublisherTracker = ScriptActivator.eventPublisherTracker;
+		actionServiceTracker = ScriptActivator.actionServiceTracker;
+		ScriptActivator.itemRegistryTracker = new StubTracker<ItemRegistry>(ItemRegistry.class,
+				new TestItemRegistry());
+		ScriptActivator.eventPublisherTracker = new StubTracker<EventPublisher>(EventPublisher.class,
+				new TestEventPublisher());
+		ScriptActivator.actionServiceTracker = new StubTracker<ActionService>(ActionService.class, null);
+		new PersistenceExtensions().addPersistenceService(new TestPersistenceService());
+
+		scriptEngine = new ScriptEngineImpl();
+		scriptEngine.activate();
+	}
+
+	@After
+	public void tearDown() {
+		scriptEngine.deactivate();
+		System.clearProperty(ScriptCompiler.COMPILE_PROPERTY);
+		ScriptActivator.itemRegistryTracker = itemRegistryTracker;
+		ScriptActivator.eventPublisherTracker = eventPublisherTracker;
+		ScriptActivator.actionServiceTracker = actionServiceTracker;
+	}
+
+	@Test
+	public void benchmark() throws Exception {
+		Script interpreted = createScript(false);
+		Script compiled = createScript(true);
+
+		// both modes have to send the same events
+		List<String> expectedEvents = run(interpreted);
+		assertEquals(3, expectedEvents.size());
+		assertEquals(expectedEvents, run(compiled));
+
+		long interpretedNanos = measure(interpreted);
+		long compiledNanos = measure(compiled);
+		System.out.println(String.format("interpreted: %.1f us/run, compiled: %.1f us/run, speedup: %.2f",
+				interpretedNanos / 1000.0 / MEASURED_RUNS, compiledNanos / 1000.0 / MEASURED_RUNS,
+				(double) interpretedNanos / compiledNanos));
+	}
+
+	private Script createScript(boolean compiled) throws Exception {
+		System.setProperty(ScriptCompiler.COMPILE_PROPERTY, Boolean.toString(compiled));
+		return scriptEngine.newScriptFromString(RULE);
+	}
+
+	private List<String> run(Script script) throws Exception {
+		events.clear();
+		script.execute();
+		return new ArrayList<String>(events);
+	}
+
+	private long measure(Script script) throws Exception {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			script.execute();
+		}
+		long start = System.nanoTime();
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			script.execute();
+		}
+		return System.nanoTime() - start;
+	}
+
+	private void addItem(GenericItem item, State state) {
+		if (state != null) {
+			item.setState(state);
+		}
+		items.put(item.getName(), item);
+	}
+
+	/**
+	 * Returns a fixed service instead of tracking it.
+	 */
+	private static class StubTracker<S> extends ServiceTracker<S, S> {
+
+		private final S service;
+
+		StubTracker(Class<S> type, S service) {
+			super(createBundleContext(), type, null);
+			this.service = service;
+		}
+
+		@Override
+		public S getService() {
+			return service;
+		}
+
+		@Override
+		public Object[] getServices() {
+			return service != null ? new Object[] { service } : new Object[0];
+		}
+
+		@Override
+		public int getTrackingCount() {
+			return 0;
+		}
+
+		private static BundleContext createBundleContext() {
+			// the tracker is never opened, it only creates its filter
+			final ClassLoader classLoader = StubTracker.class.getClassLoader();
+			return (BundleContext) Proxy.newProxyInstance(classLoader, new Class<?>[] { BundleContext.class },
+					new InvocationHandler() {
+						public Object invoke(Object proxy, Method method, Object[] args) {
+							if ("createFilter".equals(method.getName())) {
+								return Proxy.newProxyInstance(classLoader, new Class<?>[] { Filter.class }, this);
+							}
+							return null;
+						}
+					});
+		}
+	}
+
+	private class TestEventPublisher implements EventPublisher {
+
+		public void sendCommand(String itemName, Command command) {
+			events.add("command " + itemName + " " + command);
+		}
+
+		public void postCommand(String itemName, Command command) {
+			sendCommand(itemName, command);
+		}
+
+		public void postUpdate(String itemName, State newState) {
+			events.add("update " + itemName + " " + newState);
+		}
+	}
+
+	private static class TestPersistenceService implements QueryablePersistenceService {
+
+		public String getName() {
+			return "benchmark";
+		}
+
+		public void store(Item item) {
+		}
+
+		public void store(Item item, String alias) {
+		}
+
+		public Iterable<HistoricItem> query(final FilterCriteria filter) {
+			HistoricItem historicItem = new HistoricItem() {
+				public Date getTimestamp() {
+					return filter.getEndDate();
+				}
+
+				public State getState() {
+					return new DecimalType("20.9");
+				}
+
+				public String getName() {
+					return filter.getItemName();
+				}
+			};
+			return Collections.singletonList(historicItem);
+		}
+	}
+
+	private class TestItemRegistry implements ItemRegistry {
+
+		public Item getItem(String name) throws ItemNotFoundException {
+			Item item = items.get(name);
+			if (item == null) {
+				throw new ItemNotFoundException(name);
+			}
+			return item;
+		}
+
+		public Item getItemByPattern(String name) throws ItemNotFoundException {
+			return getItem(name);
+		}
+
+		public Collection<Item> getItems() {
+			return items.values();
+		}
+
+		public Collection<Item> getItems(String pattern) {
+			return items.values();
+		}
+
+		public boolean isValidItemName(String itemName) {
+			return true;
+		}
+
+		public void addItemRegistryChangeListener(ItemRegistryChangeListener listener) {
+		}
+
+		public void removeItemRegistryChangeListener(ItemRegistryChangeListener listener) {
+		}
+	}
+
+}
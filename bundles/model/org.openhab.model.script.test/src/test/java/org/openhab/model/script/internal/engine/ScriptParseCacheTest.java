@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.XbaseFactory;
+import org.junit.Test;
+import org.openhab.core.service.MetricsRegistry;
+import org.openhab.core.service.MetricsRegistry.Meter;
+
+/**
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+public class ScriptParseCacheTest {
+
+	@Test
+	public void testHitAndMiss() {
+		ScriptParseCache cache = new ScriptParseCache(10);
+		XExpression expression = XbaseFactory.eINSTANCE.createXStringLiteral();
+		long hits = getCount(ScriptParseCache.HIT_METRIC);
+		long misses = getCount(ScriptParseCache.MISS_METRIC);
+
+		assertNull(cache.get("logInfo('test', 'a')"));
+		cache.put("logInfo('test', 'a')", expression);
+		assertSame(expression, cache.get("logInfo('test', 'a')"));
+		assertNull(cache.get("logInfo('test', 'b')"));
+
+		assertEquals(hits + 1, getCount(ScriptParseCache.HIT_METRIC));
+		assertEquals(misses + 2, getCount(ScriptParseCache.MISS_METRIC));
+	}
+
+	@Test
+	public void testLeastRecentlyUsedIsEvicted() {
+		ScriptParseCache cache = new ScriptParseCache(2);
+		XExpression a = XbaseFactory.eINSTANCE.createXStringLiteral();
+		XExpression b = XbaseFactory.eINSTANCE.createXStringLiteral();
+		XExpression c = XbaseFactory.eINSTANCE.createXStringLiteral();
+
+		cache.put("a", a);
+		cache.put("b", b);
+		// a becomes the most recently used script
+		assertSame(a, cache.get("a"));
+		cache.put("c", c);
+
+		assertEquals(2, cache.size());
+		assertNull(cache.get("b"));
+		assertSame(a, cache.get("a"));
+		assertSame(c, cache.get("c"));
+	}
+
+	@Test
+	public void testClear() {
+		ScriptParseCache cache = new ScriptParseCache(2);
+		cache.put("a", XbaseFactory.eINSTANCE.createXStringLiteral());
+		cache.clear();
+
+		assertEquals(0, cache.size());
+		assertNull(cache.get("a"));
+	}
+
+	private static long getCount(String name) {
+		Meter meter = MetricsRegistry.getInstance().getMeters(name).get(name);
+		return meter != null ? meter.getCount() : 0;
+	}
+
+}
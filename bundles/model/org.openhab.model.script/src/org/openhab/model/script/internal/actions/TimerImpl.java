@@ -8,24 +8,16 @@
  */
 package org.openhab.model.script.internal.actions;
 
-import static org.quartz.TriggerBuilder.newTrigger;
+import java.util.concurrent.ScheduledFuture;
 
-import org.joda.time.DateTime;
 import org.joda.time.base.AbstractInstant;
 import org.openhab.model.script.actions.Timer;
-import org.quartz.JobExecutionContext;
-import org.quartz.JobKey;
-import org.quartz.Scheduler;
-import org.quartz.SchedulerException;
-import org.quartz.Trigger;
-import org.quartz.TriggerKey;
-import org.quartz.impl.StdSchedulerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
- * This is an implementation of the {@link Timer} interface using the Quartz
- * library for scheduling.
+ * This is an implementation of the {@link Timer} interface using the
+ * {@link TimerScheduler} for scheduling.
  * 
  * @author Kai Kreuzer
  * @since 1.0.0
@@ -35,70 +27,100 @@ public class TimerImpl implements Timer {
 
 	private static final Logger logger = LoggerFactory.getLogger(TimerImpl.class);
 
-	// the scheduler used for timer events
-	public static Scheduler scheduler;
+	private final TimerScheduler scheduler;
+	private final String name;
+	private final Runnable task;
 
-	static {
-		 try {
-			scheduler = StdSchedulerFactory.getDefaultScheduler();
-		} catch (SchedulerException e) {
-	     logger.error("initializing scheduler throws exception", e);
-		}
-	}
-	
-	private JobKey jobKey;
-	private TriggerKey triggerKey;
-	private AbstractInstant startTime;
+	private ScheduledFuture<?> future;
+	private long scheduledTime;
+	/** incremented by every (re)schedule, so that outdated executions are ignored */
+	private int generation = 0;
 
-	private boolean cancelled = false;
-	private boolean terminated = false;
+	private volatile boolean running = false;
+	private volatile boolean cancelled = false;
+	private volatile boolean terminated = false;
 	
-	public TimerImpl(JobKey jobKey, TriggerKey triggerKey, AbstractInstant startTime) {
-		this.jobKey = jobKey;
-		this.triggerKey = triggerKey;
-		this.startTime = startTime;
+	/**
+	 * Creates a timer, which is not scheduled yet.
+	 * 
+	 * @param scheduler the scheduler to execute the timer
+	 * @param name the name of the timer, used for logging
+	 * @param task the code to execute
+	 */
+	public TimerImpl(TimerScheduler scheduler, String name, Runnable task) {
+		this.scheduler = scheduler;
+		this.name = name;
+		this.task = task;
+		scheduler.timerCreated();
 	}
 	
-	public boolean cancel() {
-		try {
-			boolean result = scheduler.deleteJob(jobKey);
-			if(result) {
-				cancelled = true;
-			}
-		} catch (SchedulerException e) {
-			logger.warn("An error occured while cancelling the job '{}': {}", new String[] { jobKey.toString(), e.getMessage() });
+	public synchronized boolean cancel() {
+		if (future != null && future.cancel(false)) {
+			future = null;
+			generation++;
+			cancelled = true;
+			scheduler.timerCancelled();
 		}
 		return cancelled;
 	}
 	
 	public boolean reschedule(AbstractInstant newTime) {
-		try {
-	        Trigger trigger = newTrigger().startAt(newTime.toDate()).build();
-			scheduler.rescheduleJob(triggerKey, trigger);
-			this.triggerKey = trigger.getKey();
-			this.cancelled = false;
-			this.terminated = false;
-			return true;
-		} catch (SchedulerException e) {
-			logger.warn("An error occured while rescheduling the job '{}': {}", new String[] { jobKey.toString(), e.getMessage() });
-			return false;
+		synchronized (this) {
+			if (future != null) {
+				future.cancel(false);
+				scheduler.timerRescheduled();
+			}
+			schedule(newTime);
 		}
+		return true;
 	}
-	
-	public boolean isRunning() {
+
+	/**
+	 * Schedules the execution of the timer, replacing any earlier schedule.
+	 * 
+	 * @param time the time to execute the code
+	 */
+	public synchronized void schedule(AbstractInstant time) {
+		final int executionGeneration = ++generation;
+		cancelled = false;
+		terminated = false;
+		scheduledTime = time.getMillis();
+		future = scheduler.schedule(new Runnable() {
+			public void run() {
+				execute(executionGeneration);
+			}
+		}, scheduledTime);
+		logger.debug("Scheduled code for execution at {}", time);
+	}
+
+	private void execute(int executionGeneration) {
+		synchronized (this) {
+			if (executionGeneration != generation) {
+				// cancelled or rescheduled after the execution has been triggered
+				return;
+			}
+			running = true;
+		}
+		scheduler.timerExecuted(Math.max(0, System.currentTimeMillis() - scheduledTime));
+		logger.debug("Executing timer '{}'", name);
 		try {
-			for(JobExecutionContext context : scheduler.getCurrentlyExecutingJobs()) {
-				if(context.getJobDetail().getKey().equals(jobKey)) {
-					return true;
+			task.run();
+		} catch (RuntimeException e) {
+			logger.error("Error while executing timer '" + name + "'", e);
+		} finally {
+			synchronized (this) {
+				running = false;
+				if (executionGeneration == generation) {
+					future = null;
+					terminated = true;
 				}
 			}
-			return false;
-		} catch (SchedulerException e) {
-			// fallback implementation
-			logger.debug("An error occured getting currently running jobs: {}", e.getMessage());
-			return DateTime.now().isAfter(startTime) && !terminated;
 		}
 	}
+	
+	public boolean isRunning() {
+		return running;
+	}
 
 	public boolean hasTerminated() {
 		return terminated;
@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.actions;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.core.service.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Executes the code blocks of the timers created by scripts. The timers have
+ * their own pool of threads, so that many short lived timers neither compete
+ * with the Quartz jobs of rules and persistence nor have to go through the
+ * Quartz job store. The pool size is set by the system property
+ * <code>openhab.timers.threads</code> (default 10).
+ * <p>
+ * Created, executed, cancelled and rescheduled timers are counted by the
+ * {@link MetricsRegistry} as <code>timers.created</code>,
+ * <code>timers.executed</code>, <code>timers.cancelled</code> and
+ * <code>timers.rescheduled</code>. The delay between the scheduled time and
+ * the start of an execution is the timer <code>timers.latency</code>, the
+ * waiting and executing timers are the gauges <code>timers.scheduled</code>
+ * and <code>timers.running</code>.
+ * 
+ * @since 1.9.0
+ */
+public class TimerScheduler {
+
+	private static final Logger logger = LoggerFactory.getLogger(TimerScheduler.class);
+
+	private static final int DEFAULT_THREADS = 10;
+
+	private static TimerScheduler instance;
+
+	static final String CREATED_METRIC = "timers.created";
+	static final String EXECUTED_METRIC = "timers.executed";
+	static final String CANCELLED_METRIC = "timers.cancelled";
+	static final String RESCHEDULED_METRIC = "timers.rescheduled";
+	static final String LATENCY_METRIC = "timers.latency";
+	static final String SCHEDULED_METRIC = "timers.scheduled";
+	static final String RUNNING_METRIC = "timers.running";
+
+	private final ScheduledThreadPoolExecutor executor;
+
+	TimerScheduler(int threads) {
+		executor = new ScheduledThreadPoolExecutor(threads, new ThreadFactory() {
+			private final AtomicInteger count = new AtomicInteger();
+
+			public Thread newThread(Runnable runnable) {
+				Thread thread = new Thread(runnable, "ScriptTimer-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			}
+		});
+		// cancelled and rescheduled timers must not pile up in the queue
+		executor.setRemoveOnCancelPolicy(true);
+	}
+
+	/**
+	 * @return the scheduler shared by all scripts, created on first use
+	 */
+	public static synchronized TimerScheduler getInstance() {
+		if (instance == null) {
+			int threads = DEFAULT_THREADS;
+			String value = System.getProperty("openhab.timers.threads");
+			if (value != null) {
+				try {
+					threads = Math.max(1, Integer.parseInt(value.trim()));
+				} catch (NumberFormatException e) {
+					logger.warn("Invalid value '{}' for openhab.timers.threads, using {}", value, DEFAULT_THREADS);
+				}
+			}
+			instance = new TimerScheduler(threads);
+			instance.registerGauges();
+		}
+		return instance;
+	}
+
+	ScheduledFuture<?> schedule(Runnable runnable, long time) {
+		long delay = Math.max(0, time - System.currentTimeMillis());
+		return executor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
+	}
+
+	private void registerGauges() {
+		MetricsRegistry.getInstance().registerGauge(SCHEDULED_METRIC, new MetricsRegistry.Gauge() {
+			public long getValue() {
+				return executor.getQueue().size();
+			}
+		});
+		MetricsRegistry.getInstance().registerGauge(RUNNING_METRIC, new MetricsRegistry.Gauge() {
+			public long getValue() {
+				return executor.getActiveCount();
+			}
+		});
+	}
+
+	void timerCreated() {
+		MetricsRegistry.getInstance().mark(CREATED_METRIC);
+	}
+
+	void timerCancelled() {
+		MetricsRegistry.getInstance().mark(CANCELLED_METRIC);
+	}
+
+	void timerRescheduled() {
+		MetricsRegistry.getInstance().mark(RESCHEDULED_METRIC);
+	}
+
+	/**
+	 * @param latency the delay in milliseconds between the time the timer was
+	 *            scheduled for and the start of its execution
+	 */
+	void timerExecuted(long latency) {
+		MetricsRegistry.getInstance().mark(EXECUTED_METRIC);
+		MetricsRegistry.getInstance().record(LATENCY_METRIC, TimeUnit.MILLISECONDS.toNanos(latency));
+	}
+
+}
@@ -8,7 +8,12 @@
  */
 package org.openhab.model.script.internal.engine;
 
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.items.ItemRegistryChangeListener;
 import org.openhab.model.script.internal.ScriptActivator;
 
 import com.google.inject.Provider;
@@ -25,9 +30,50 @@ import com.google.inject.Singleton;
  *
  */
 @Singleton
-public class ItemRegistryProvider implements Provider<ItemRegistry> {
+public class ItemRegistryProvider implements Provider<ItemRegistry>, ItemRegistryChangeListener {
+	
+	private final AtomicInteger version = new AtomicInteger();
+	private volatile ItemRegistry observedRegistry;
+	
 	public ItemRegistry get() {
 		ItemRegistry itemRegistry = (ItemRegistry) ScriptActivator.itemRegistryTracker.getService();
+		if (itemRegistry != null && itemRegistry != observedRegistry) {
+			observe(itemRegistry);
+		}
 		return itemRegistry;
 	}
-}
\ No newline at end of file
+
+	private synchronized void observe(ItemRegistry itemRegistry) {
+		if (itemRegistry != observedRegistry) {
+			if (observedRegistry != null) {
+				observedRegistry.removeItemRegistryChangeListener(this);
+			}
+			itemRegistry.addItemRegistryChangeListener(this);
+			observedRegistry = itemRegistry;
+			version.incrementAndGet();
+		}
+	}
+
+	/**
+	 * Returns a number which changes whenever items are added to or removed
+	 * from the registry, so that resolved item references can be validated
+	 * cheaply.
+	 * 
+	 * @return the current version of the item registry content
+	 */
+	public int getVersion() {
+		return version.get();
+	}
+
+	public void allItemsChanged(Collection<String> oldItemNames) {
+		version.incrementAndGet();
+	}
+
+	public void itemAdded(Item item) {
+		version.incrementAndGet();
+	}
+
+	public void itemRemoved(Item item) {
+		version.incrementAndGet();
+	}
+}
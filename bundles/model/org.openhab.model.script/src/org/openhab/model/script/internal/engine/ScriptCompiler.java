@@ -0,0 +1,619 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.engine;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.common.types.JvmArrayType;
+import org.eclipse.xtext.common.types.JvmIdentifiableElement;
+import org.eclipse.xtext.common.types.JvmOperation;
+import org.eclipse.xtext.common.types.JvmPrimitiveType;
+import org.eclipse.xtext.common.types.JvmType;
+import org.eclipse.xtext.common.types.JvmTypeReference;
+import org.eclipse.xtext.common.types.util.JavaReflectAccess;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.xbase.XAbstractFeatureCall;
+import org.eclipse.xtext.xbase.XAssignment;
+import org.eclipse.xtext.xbase.XBinaryOperation;
+import org.eclipse.xtext.xbase.XBlockExpression;
+import org.eclipse.xtext.xbase.XBooleanLiteral;
+import org.eclipse.xtext.xbase.XCastedExpression;
+import org.eclipse.xtext.xbase.XExpression;
+import org.eclipse.xtext.xbase.XFeatureCall;
+import org.eclipse.xtext.xbase.XIfExpression;
+import org.eclipse.xtext.xbase.XMemberFeatureCall;
+import org.eclipse.xtext.xbase.XNullLiteral;
+import org.eclipse.xtext.xbase.XNumberLiteral;
+import org.eclipse.xtext.xbase.XReturnExpression;
+import org.eclipse.xtext.xbase.XStringLiteral;
+import org.eclipse.xtext.xbase.XUnaryOperation;
+import org.eclipse.xtext.xbase.XVariableDeclaration;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationContext;
+import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
+import org.eclipse.xtext.xbase.interpreter.IExpressionInterpreter;
+import org.eclipse.xtext.xbase.lib.BooleanExtensions;
+import org.openhab.core.service.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * Compiles script expressions into trees of {@link CompiledExpression}s, which
+ * are executed without the interpreter.
+ * <p>
+ * On every evaluation the interpreter looks up the method which handles a
+ * syntax element and the Java method a feature call refers to. A compiled
+ * expression has resolved both when the script was created - for rules this
+ * is when the rule file is loaded. Blocks, conditions, literals, local
+ * variables, casts and calls of Java methods are compiled; the latter include
+ * the operators on numbers and states, <code>postUpdate</code>,
+ * <code>sendCommand</code> and the persistence extensions. All other
+ * expressions, e.g. references to items, loops or closures, are handed to the
+ * interpreter from within the compiled expression. The number of these
+ * expressions is counted by the {@link MetricsRegistry} as
+ * <code>scripts.compiled.interpreted</code>. Scripts containing a
+ * <code>return</code> are interpreted as a whole.
+ * <p>
+ * The compiled mode is optional and has to be enabled by setting the system
+ * property <code>compileScripts</code> to <code>true</code>.
+ *
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+@Singleton
+public class ScriptCompiler {
+
+	private static final Logger logger = LoggerFactory.getLogger(ScriptCompiler.class);
+
+	/** the system property which enables the compiled mode */
+	public static final String COMPILE_PROPERTY = "compileScripts";
+
+	static final String COMPILED_METRIC = "scripts.compiled";
+	static final String INTERPRETED_METRIC = "scripts.compiled.interpreted";
+
+	private static final Pattern INTEGER_LITERAL = Pattern.compile("\\d+");
+	private static final Pattern DECIMAL_LITERAL = Pattern.compile("\\d+\\.\\d+");
+
+	@Inject
+	private JavaReflectAccess javaReflectAccess;
+
+	@Inject
+	private ClassLoader classLoader;
+
+	/**
+	 * @return <code>true</code>, if scripts should be compiled
+	 */
+	public static boolean isEnabled() {
+		return "true".equalsIgnoreCase(System.getProperty(COMPILE_PROPERTY));
+	}
+
+	/**
+	 * Compiles an expression. The result is bound to the expression, so that
+	 * every expression is compiled only once.
+	 *
+	 * @param expression the expression to compile
+	 * @return the compiled expression or <code>null</code>, if the
+	 *         expression has to be interpreted
+	 */
+	public CompiledExpression compile(XExpression expression) {
+		synchronized (expression) {
+			CompiledReference reference = (CompiledReference) EcoreUtil.getExistingAdapter(expression,
+					CompiledReference.class);
+			if (reference == null) {
+				reference = new CompiledReference(compileScript(expression));
+				expression.eAdapters().add(reference);
+			}
+			return reference.compiled;
+		}
+	}
+
+	private CompiledExpression compileScript(XExpression expression) {
+		if (containsReturn(expression)) {
+			logger.debug("Script contains a return expression and is interpreted");
+			return null;
+		}
+		try {
+			CompiledExpression compiled = compileExpression(expression);
+			MetricsRegistry.getInstance().mark(COMPILED_METRIC);
+			return compiled;
+		} catch (RuntimeException e) {
+			logger.warn("Script could not be compiled and is interpreted: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * A <code>return</code> is passed to the enclosing script as an exception
+	 * of the interpreter, which cannot cross an interpreted sub-expression.
+	 */
+	private boolean containsReturn(XExpression expression) {
+		if (expression instanceof XReturnExpression) {
+			return true;
+		}
+		TreeIterator<EObject> contents = expression.eAllContents();
+		while (contents.hasNext()) {
+			if (contents.next() instanceof XReturnExpression) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private CompiledExpression compileExpression(XExpression expression) {
+		CompiledExpression compiled = null;
+		if (expression instanceof XBlockExpression) {
+			compiled = compileBlock((XBlockExpression) expression);
+		} else if (expression instanceof XIfExpression) {
+			compiled = compileIf((XIfExpression) expression);
+		} else if (expression instanceof XStringLiteral) {
+			compiled = new Constant(((XStringLiteral) expression).getValue());
+		} else if (expression instanceof XBooleanLiteral) {
+			compiled = new Constant(((XBooleanLiteral) expression).isIsTrue());
+		} else if (expression instanceof XNullLiteral) {
+			compiled = new Constant(null);
+		} else if (expression instanceof XNumberLiteral) {
+			compiled = compileNumber((XNumberLiteral) expression);
+		} else if (expression instanceof XVariableDeclaration) {
+			compiled = compileVariableDeclaration((XVariableDeclaration) expression);
+		} else if (expression instanceof XAssignment) {
+			compiled = compileAssignment((XAssignment) expression);
+		} else if (expression instanceof XCastedExpression) {
+			compiled = compileCast((XCastedExpression) expression);
+		} else if (expression instanceof XAbstractFeatureCall) {
+			compiled = compileFeatureCall((XAbstractFeatureCall) expression);
+		}
+
+		if (compiled == null) {
+			MetricsRegistry.getInstance().mark(INTERPRETED_METRIC);
+			compiled = new Interpreted(expression);
+		}
+		return compiled;
+	}
+
+	private CompiledExpression compileBlock(XBlockExpression block) {
+		List<XExpression> expressions = block.getExpressions();
+		CompiledExpression[] compiled = new CompiledExpression[expressions.size()];
+		for (int i = 0; i < compiled.length; i++) {
+			compiled[i] = compileExpression(expressions.get(i));
+		}
+		return new Block(compiled);
+	}
+
+	private CompiledExpression compileIf(XIfExpression ifExpression) {
+		CompiledExpression elseExpression = null;
+		if (ifExpression.getElse() != null) {
+			elseExpression = compileExpression(ifExpression.getElse());
+		}
+		return new If(compileExpression(ifExpression.getIf()), compileExpression(ifExpression.getThen()),
+				elseExpression);
+	}
+
+	/**
+	 * Only literals without a type suffix are compiled, they are evaluated
+	 * like by the interpreter: integers as {@link Integer}, decimals as
+	 * {@link Double}.
+	 */
+	private CompiledExpression compileNumber(XNumberLiteral literal) {
+		String value = literal.getValue();
+		try {
+			if (INTEGER_LITERAL.matcher(value).matches()) {
+				return new Constant(Integer.valueOf(value));
+			} else if (DECIMAL_LITERAL.matcher(value).matches()) {
+				return new Constant(Double.valueOf(value));
+			}
+		} catch (NumberFormatException e) {
+			// out of range, left to the interpreter
+		}
+		return null;
+	}
+
+	private CompiledExpression compileVariableDeclaration(XVariableDeclaration declaration) {
+		// without a value or with a primitive type the interpreter has to supply a default or to convert it
+		if (declaration.getRight() == null || isPrimitive(declaration.getType())) {
+			return null;
+		}
+		return new VariableDeclaration(QualifiedName.create(declaration.getName()),
+				compileExpression(declaration.getRight()));
+	}
+
+	private CompiledExpression compileAssignment(XAssignment assignment) {
+		JvmIdentifiableElement feature = assignment.getFeature();
+		if (assignment.getAssignable() != null || !(feature instanceof XVariableDeclaration)
+				|| feature.eIsProxy() || isPrimitive(((XVariableDeclaration) feature).getType())) {
+			return null;
+		}
+		return new Assignment(QualifiedName.create(((XVariableDeclaration) feature).getName()),
+				compileExpression(assignment.getValue()));
+	}
+
+	private CompiledExpression compileCast(XCastedExpression cast) {
+		JvmTypeReference typeReference = cast.getType();
+		JvmType type = typeReference != null ? typeReference.getType() : null;
+		if (type == null || type.eIsProxy() || type instanceof JvmPrimitiveType || type instanceof JvmArrayType) {
+			return null;
+		}
+		try {
+			Class<?> rawType = Class.forName(type.getIdentifier(), false, classLoader);
+			return new Cast(compileExpression(cast.getTarget()), rawType);
+		} catch (ClassNotFoundException e) {
+			return null;
+		}
+	}
+
+	private CompiledExpression compileFeatureCall(XAbstractFeatureCall featureCall) {
+		JvmIdentifiableElement feature = featureCall.getFeature();
+		if (feature == null || feature.eIsProxy()) {
+			// the interpreter reports the unresolved name
+			return null;
+		}
+		if (feature instanceof XVariableDeclaration && featureCall instanceof XFeatureCall
+				&& ((XFeatureCall) featureCall).getFeatureCallArguments().isEmpty()) {
+			return new Variable(QualifiedName.create(((XVariableDeclaration) feature).getName()));
+		}
+		if (feature instanceof JvmOperation) {
+			return compileOperationCall(featureCall, (JvmOperation) feature);
+		}
+		return null;
+	}
+
+	private CompiledExpression compileOperationCall(XAbstractFeatureCall featureCall, JvmOperation operation) {
+		if (operation.isVarArgs() || featureCall.getImplicitReceiver() != null) {
+			return null;
+		}
+		Method method = getMethod(operation);
+		if (method == null) {
+			return null;
+		}
+		Class<?>[] parameterTypes = method.getParameterTypes();
+		for (Class<?> parameterType : parameterTypes) {
+			// the interpreter converts between lists and arrays
+			if (parameterType.isArray()) {
+				return null;
+			}
+		}
+
+		XExpression receiver = null;
+		List<XExpression> arguments = new ArrayList<XExpression>();
+		if (featureCall instanceof XMemberFeatureCall) {
+			XMemberFeatureCall memberFeatureCall = (XMemberFeatureCall) featureCall;
+			if (memberFeatureCall.isNullSafe()) {
+				return null;
+			}
+			if (operation.isStatic()) {
+				// an extension method, the target is its first argument
+				arguments.add(memberFeatureCall.getMemberCallTarget());
+			} else {
+				receiver = memberFeatureCall.getMemberCallTarget();
+			}
+			arguments.addAll(memberFeatureCall.getMemberCallArguments());
+		} else if (featureCall instanceof XBinaryOperation && operation.isStatic()) {
+			arguments.add(((XBinaryOperation) featureCall).getLeftOperand());
+			arguments.add(((XBinaryOperation) featureCall).getRightOperand());
+		} else if (featureCall instanceof XUnaryOperation && operation.isStatic()) {
+			arguments.add(((XUnaryOperation) featureCall).getOperand());
+		} else if (featureCall instanceof XFeatureCall && operation.isStatic()) {
+			arguments.addAll(((XFeatureCall) featureCall).getFeatureCallArguments());
+		} else {
+			return null;
+		}
+		if (arguments.size() != parameterTypes.length) {
+			return null;
+		}
+
+		CompiledExpression[] compiledArguments = new CompiledExpression[arguments.size()];
+		for (int i = 0; i < compiledArguments.length; i++) {
+			compiledArguments[i] = compileExpression(arguments.get(i));
+		}
+		if (method.getDeclaringClass() == BooleanExtensions.class
+				&& ("operator_and".equals(method.getName()) || "operator_or".equals(method.getName()))) {
+			return new ShortCircuit("operator_and".equals(method.getName()), compiledArguments[0],
+					compiledArguments[1]);
+		}
+		CompiledExpression compiledReceiver = receiver != null ? compileExpression(receiver) : null;
+		return new MethodCall(method, compiledReceiver, compiledArguments);
+	}
+
+	private Method getMethod(JvmOperation operation) {
+		try {
+			Method method = javaReflectAccess.getMethod(operation);
+			if (method != null) {
+				method.setAccessible(true);
+			}
+			return method;
+		} catch (RuntimeException e) {
+			logger.debug("Method '{}' could not be resolved: {}", operation.getIdentifier(), e.getMessage());
+			return null;
+		}
+	}
+
+	private static boolean isPrimitive(JvmTypeReference typeReference) {
+		return typeReference != null && typeReference.getType() instanceof JvmPrimitiveType;
+	}
+
+	/**
+	 * Converts numbers and characters like the interpreter does for the
+	 * arguments of a method call.
+	 */
+	private static Object coerce(Class<?> type, Object value) {
+		if (value == null || type.isInstance(value)) {
+			return value;
+		}
+		if (value instanceof Number) {
+			Number number = (Number) value;
+			if (type == int.class || type == Integer.class) {
+				return number.intValue();
+			} else if (type == long.class || type == Long.class) {
+				return number.longValue();
+			} else if (type == double.class || type == Double.class) {
+				return number.doubleValue();
+			} else if (type == float.class || type == Float.class) {
+				return number.floatValue();
+			} else if (type == short.class || type == Short.class) {
+				return number.shortValue();
+			} else if (type == byte.class || type == Byte.class) {
+				return number.byteValue();
+			}
+		} else if (value instanceof String && ((String) value).length() == 1
+				&& (type == char.class || type == Character.class)) {
+			return ((String) value).charAt(0);
+		}
+		return value;
+	}
+
+	/**
+	 * An expression which has been prepared for its execution.
+	 */
+	public static abstract class CompiledExpression {
+
+		/**
+		 * Evaluates the expression.
+		 *
+		 * @param context the context holding the variables
+		 * @param interpreter the interpreter for the expressions which are
+		 *            not compiled
+		 * @return the result of the expression
+		 * @throws Throwable any exception thrown by the script
+		 */
+		public abstract Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter)
+				throws Throwable;
+	}
+
+	private static class Interpreted extends CompiledExpression {
+
+		private final XExpression expression;
+
+		Interpreted(XExpression expression) {
+			this.expression = expression;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			IEvaluationResult result = interpreter.evaluate(expression, context, CancelIndicator.NullImpl);
+			if (result == null) {
+				return null;
+			}
+			if (result.getException() != null) {
+				throw result.getException();
+			}
+			return result.getResult();
+		}
+	}
+
+	private static class Constant extends CompiledExpression {
+
+		private final Object value;
+
+		Constant(Object value) {
+			this.value = value;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) {
+			return value;
+		}
+	}
+
+	private static class Block extends CompiledExpression {
+
+		private final CompiledExpression[] expressions;
+
+		Block(CompiledExpression[] expressions) {
+			this.expressions = expressions;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			// like in the interpreter, the variables declared in a block are only visible inside it
+			IEvaluationContext blockContext = context.fork();
+			Object result = null;
+			for (CompiledExpression expression : expressions) {
+				result = expression.evaluate(blockContext, interpreter);
+			}
+			return result;
+		}
+	}
+
+	private static class If extends CompiledExpression {
+
+		private final CompiledExpression condition;
+		private final CompiledExpression thenExpression;
+		private final CompiledExpression elseExpression;
+
+		If(CompiledExpression condition, CompiledExpression thenExpression, CompiledExpression elseExpression) {
+			this.condition = condition;
+			this.thenExpression = thenExpression;
+			this.elseExpression = elseExpression;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			if (Boolean.TRUE.equals(condition.evaluate(context, interpreter))) {
+				return thenExpression.evaluate(context, interpreter);
+			} else if (elseExpression != null) {
+				return elseExpression.evaluate(context, interpreter);
+			}
+			return null;
+		}
+	}
+
+	private static class Variable extends CompiledExpression {
+
+		private final QualifiedName name;
+
+		Variable(QualifiedName name) {
+			this.name = name;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) {
+			return context.getValue(name);
+		}
+	}
+
+	private static class VariableDeclaration extends CompiledExpression {
+
+		private final QualifiedName name;
+		private final CompiledExpression value;
+
+		VariableDeclaration(QualifiedName name, CompiledExpression value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			context.newValue(name, value.evaluate(context, interpreter));
+			return null;
+		}
+	}
+
+	private static class Assignment extends CompiledExpression {
+
+		private final QualifiedName name;
+		private final CompiledExpression value;
+
+		Assignment(QualifiedName name, CompiledExpression value) {
+			this.name = name;
+			this.value = value;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			Object result = value.evaluate(context, interpreter);
+			context.assignValue(name, result);
+			return result;
+		}
+	}
+
+	private static class Cast extends CompiledExpression {
+
+		private final CompiledExpression target;
+		private final Class<?> type;
+
+		Cast(CompiledExpression target, Class<?> type) {
+			this.target = target;
+			this.type = type;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			Object result = target.evaluate(context, interpreter);
+			if (result != null && !type.isInstance(result)) {
+				throw new ClassCastException("Cannot cast " + result.getClass().getName() + " to " + type.getName());
+			}
+			return result;
+		}
+	}
+
+	private static class ShortCircuit extends CompiledExpression {
+
+		private final boolean and;
+		private final CompiledExpression left;
+		private final CompiledExpression right;
+
+		ShortCircuit(boolean and, CompiledExpression left, CompiledExpression right) {
+			this.and = and;
+			this.left = left;
+			this.right = right;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			boolean result = (Boolean) left.evaluate(context, interpreter);
+			if (result == and) {
+				result = (Boolean) right.evaluate(context, interpreter);
+			}
+			return result;
+		}
+	}
+
+	private static class MethodCall extends CompiledExpression {
+
+		private final Method method;
+		private final Class<?>[] parameterTypes;
+		private final CompiledExpression receiver;
+		private final CompiledExpression[] arguments;
+
+		MethodCall(Method method, CompiledExpression receiver, CompiledExpression[] arguments) {
+			this.method = method;
+			this.parameterTypes = method.getParameterTypes();
+			this.receiver = receiver;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public Object evaluate(IEvaluationContext context, IExpressionInterpreter interpreter) throws Throwable {
+			Object receiverValue = null;
+			if (receiver != null) {
+				receiverValue = receiver.evaluate(context, interpreter);
+				if (receiverValue == null) {
+					throw new NullPointerException("Cannot invoke method '" + method.getName() + "' on null");
+				}
+			}
+			Object[] argumentValues = new Object[arguments.length];
+			for (int i = 0; i < arguments.length; i++) {
+				argumentValues[i] = coerce(parameterTypes[i], arguments[i].evaluate(context, interpreter));
+			}
+			try {
+				return method.invoke(receiverValue, argumentValues);
+			} catch (InvocationTargetException e) {
+				throw e.getTargetException();
+			}
+		}
+	}
+
+	/**
+	 * Binds the compiled form of a script to its expression.
+	 */
+	private static class CompiledReference extends AdapterImpl {
+
+		private final CompiledExpression compiled;
+
+		CompiledReference(CompiledExpression compiled) {
+			this.compiled = compiled;
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type == CompiledReference.class;
+		}
+	}
+
+}
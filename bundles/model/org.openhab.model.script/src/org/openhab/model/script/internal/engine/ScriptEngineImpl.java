@@ -47,9 +47,14 @@ import com.google.inject.Injector;
 @SuppressWarnings("restriction")
 public class ScriptEngineImpl implements ScriptEngine {
 
+	/** the maximum number of parsed scripts which are kept */
+	private static final int PARSE_CACHE_SIZE = 100;
+
 	protected Injector guiceInjector;
 	protected XtextResourceSet resourceSet;
 
+	private final ScriptParseCache parseCache = new ScriptParseCache(PARSE_CACHE_SIZE);
+
 	public ScriptEngineImpl() {}
 	
 	public void activate() {
@@ -61,6 +66,7 @@ public class ScriptEngineImpl implements ScriptEngine {
 	public void deactivate() {
 		this.guiceInjector = null;
 		this.resourceSet = null;
+		parseCache.clear();
 	}
 		
 	/**
@@ -68,7 +74,14 @@ public class ScriptEngineImpl implements ScriptEngine {
 	 */
 	public Script newScriptFromString(String scriptAsString)
 			throws ScriptParsingException {
-		return newScriptFromXExpression(parseScriptIntoXTextEObject(scriptAsString));
+		XExpression expression = parseCache.get(scriptAsString);
+		if (expression == null) {
+			expression = parseScriptIntoXTextEObject(scriptAsString);
+			if (expression != null) {
+				parseCache.put(scriptAsString, expression);
+			}
+		}
+		return newScriptFromXExpression(expression);
 	}
 
 	/**
@@ -89,7 +102,19 @@ public class ScriptEngineImpl implements ScriptEngine {
 	}
 
 	private XExpression parseScriptIntoXTextEObject(String scriptAsString) throws ScriptParsingException {
-		Resource resource = resourceSet.createResource(computeUnusedUri(resourceSet)); // IS-A XtextResource
+		synchronized (resourceSet) {
+			Resource resource = resourceSet.createResource(computeUnusedUri(resourceSet)); // IS-A XtextResource
+			try {
+				return parseScriptIntoXTextEObject(resource, scriptAsString);
+			} finally {
+				// all references have been resolved while loading, so the parsed expression
+				// does not need the resource set any more; keeping the resource would leak it
+				resourceSet.getResources().remove(resource);
+			}
+		}
+	}
+
+	private XExpression parseScriptIntoXTextEObject(Resource resource, String scriptAsString) throws ScriptParsingException {
 		try {
 			resource.load(new StringInputStream(scriptAsString), resourceSet.getLoadOptions());
 		} catch (IOException e) {
@@ -16,12 +16,15 @@ import org.eclipse.xtext.xbase.interpreter.IEvaluationResult;
 import org.eclipse.xtext.xbase.interpreter.IExpressionInterpreter;
 import org.openhab.core.scriptengine.Script;
 import org.openhab.core.scriptengine.ScriptExecutionException;
+import org.openhab.model.script.internal.engine.ScriptCompiler.CompiledExpression;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
 /**
  * This is the default implementation of a {@link Script}.
+ * If the compiled mode is enabled, the expression is compiled by the
+ * {@link ScriptCompiler} when it is set.
  * 
  * @author Kai Kreuzer
  * @since 0.9.0
@@ -32,8 +35,10 @@ public class ScriptImpl implements Script {
 
 	@Inject protected IExpressionInterpreter interpreter;
 	@Inject protected Provider<IEvaluationContext> contextProvider;
+	@Inject protected ScriptCompiler compiler;
 
 	private XExpression xExpression;
+	private CompiledExpression compiledExpression;
 
 	@Inject
 	public ScriptImpl() {}
@@ -41,6 +46,7 @@ public class ScriptImpl implements Script {
 	/* package-local */
 	 void setXExpression(XExpression xExpression) {
 		this.xExpression = xExpression;
+		this.compiledExpression = xExpression!=null && ScriptCompiler.isEnabled() ? compiler.compile(xExpression) : null;
 	}
 
 	/* package-local */
@@ -54,7 +60,13 @@ public class ScriptImpl implements Script {
 	}
 
 	public Object execute(IEvaluationContext evaluationContext) throws ScriptExecutionException {
-		if(xExpression!=null) {
+		if(compiledExpression!=null) {
+			try {
+				return compiledExpression.evaluate(evaluationContext, interpreter);
+			} catch(Throwable e) {
+				throw new ScriptExecutionException(e.getMessage(), e);
+			}
+		} else if(xExpression!=null) {
 		    try {
 		    	IEvaluationResult result = interpreter.evaluate(xExpression, evaluationContext, CancelIndicator.NullImpl);
 			    if(result==null) {
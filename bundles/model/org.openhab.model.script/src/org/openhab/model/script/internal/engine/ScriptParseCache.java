@@ -0,0 +1,74 @@
+/**
+ * Copyright (c) 2010-2016, openHAB.org and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.openhab.model.script.internal.engine;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.xtext.xbase.XExpression;
+import org.openhab.core.service.MetricsRegistry;
+
+/**
+ * Keeps the parsed and validated expressions of the most recently used script
+ * texts. Hits and misses are counted by the {@link MetricsRegistry} as
+ * <code>scripts.parsecache.hit</code> and <code>scripts.parsecache.miss</code>.
+ *
+ * @since 1.9.0
+ */
+@SuppressWarnings("restriction")
+class ScriptParseCache {
+
+	static final String HIT_METRIC = "scripts.parsecache.hit";
+	static final String MISS_METRIC = "scripts.parsecache.miss";
+
+	/** parsed expressions by script text, least recently used first */
+	private final Map<String, XExpression> expressions;
+
+	/**
+	 * @param maxSize the maximum number of expressions which are kept
+	 */
+	ScriptParseCache(final int maxSize) {
+		expressions = new LinkedHashMap<String, XExpression>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, XExpression> eldest) {
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * @param scriptAsString the script text
+	 * @return the parsed expression or <code>null</code> if the script text
+	 *         is not cached
+	 */
+	synchronized XExpression get(String scriptAsString) {
+		XExpression expression = expressions.get(scriptAsString);
+		MetricsRegistry.getInstance().mark(expression != null ? HIT_METRIC : MISS_METRIC);
+		return expression;
+	}
+
+	/**
+	 * Adds a parsed expression, the least recently used one is dropped if the
+	 * cache is full.
+	 */
+	synchronized void put(String scriptAsString, XExpression expression) {
+		expressions.put(scriptAsString, expression);
+	}
+
+	synchronized int size() {
+		return expressions.size();
+	}
+
+	synchronized void clear() {
+		expressions.clear();
+	}
+
+}
@@ -8,6 +8,8 @@
  */
 package org.openhab.model.script.interpreter;
 
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.common.types.JvmIdentifiableElement;
 import org.eclipse.xtext.naming.QualifiedName;
 import org.eclipse.xtext.util.CancelIndicator;
@@ -21,6 +23,7 @@ import org.eclipse.xtext.xbase.interpreter.impl.XbaseInterpreter;
 import org.openhab.core.items.Item;
 import org.openhab.core.items.ItemNotFoundException;
 import org.openhab.core.items.ItemRegistry;
+import org.openhab.core.service.MetricsRegistry;
 import org.openhab.core.types.Type;
 import org.openhab.model.script.internal.engine.ItemRegistryProvider;
 import org.openhab.model.script.lib.NumberExtensions;
@@ -47,19 +50,60 @@ public class ScriptInterpreter extends XbaseInterpreter {
 		
 	private PolymorphicDispatcher<Object> featureCallDispatcher = createFeatureCallDispatcher();
 
+	private static final String DYNAMIC_LOOKUP_METRIC = "scripts.lookups.dynamic";
+	private static final String BOUND_LOOKUP_METRIC = "scripts.lookups.bound";
+
 	protected Object _featureCallJvmIdentifyableElement(JvmIdentifiableElement identifiable, XFeatureCall featureCall, Object receiver,
 			IEvaluationContext context, CancelIndicator indicator) {
 		Object value = super._featureCallJvmIdentifyableElement(identifiable, featureCall, receiver, context, indicator);
 		if(value==null && receiver==null) {
-			for(Type type : stateAndCommandProvider.getAllTypes()) {
-				if(type.toString().equals(featureCall.toString())) {
-					return type;
-				}
-			}
-			value = getItem(featureCall.toString());
+			value = resolveItemOrType(featureCall);
 		}
 		return value;
 	}
+
+	/**
+	 * Resolves a name to a state/command type or an item. The result is bound
+	 * to the feature call, so that later executions only have to check whether
+	 * the item registry has changed in the meantime. Both kinds of lookups are
+	 * counted by the {@link MetricsRegistry}.
+	 */
+	private Object resolveItemOrType(XFeatureCall featureCall) {
+		int version = itemRegistryProvider.getVersion();
+		BoundReference reference;
+		synchronized (featureCall) {
+			reference = (BoundReference) EcoreUtil.getExistingAdapter(featureCall, BoundReference.class);
+		}
+		if(reference!=null && (reference.isType || reference.version==version)) {
+			MetricsRegistry.getInstance().mark(BOUND_LOOKUP_METRIC);
+			return reference.value;
+		}
+
+		MetricsRegistry.getInstance().mark(DYNAMIC_LOOKUP_METRIC);
+		String name = featureCall.toString();
+		for(Type type : stateAndCommandProvider.getAllTypes()) {
+			if(type.toString().equals(name)) {
+				bind(featureCall, new BoundReference(type, true, version));
+				return type;
+			}
+		}
+		Item item = getItem(name);
+		if(item!=null) {
+			bind(featureCall, new BoundReference(item, false, version));
+		}
+		return item;
+	}
+
+	private void bind(XFeatureCall featureCall, BoundReference reference) {
+		synchronized (featureCall) {
+			BoundReference existing = (BoundReference) EcoreUtil.getExistingAdapter(featureCall, BoundReference.class);
+			if(existing!=null) {
+				featureCall.eAdapters().remove(existing);
+			}
+			featureCall.eAdapters().add(reference);
+		}
+	}
+
 	
 	protected Object internalFeatureCallDispatch(XAbstractFeatureCall featureCall, Object receiverObj,
 			IEvaluationContext context, CancelIndicator indicator) {
@@ -94,4 +138,27 @@ public class ScriptInterpreter extends XbaseInterpreter {
 			return super.eq(a, b);
 		}
 	}
+
+	/**
+	 * Binds the item or type a name in a script refers to to the syntax element.
+	 * Types never change, items are valid as long as the item registry version
+	 * is unchanged.
+	 */
+	private static class BoundReference extends AdapterImpl {
+
+		private final Object value;
+		private final boolean isType;
+		private final int version;
+
+		BoundReference(Object value, boolean isType, int version) {
+			this.value = value;
+			this.isType = isType;
+			this.version = version;
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type==BoundReference.class;
+		}
+	}
 }
@@ -25,6 +25,7 @@ import org.apache.commons.lang.StringUtils;
 import org.joda.time.DateTime;
 import org.openhab.core.items.Item;
 import org.openhab.core.persistence.PersistenceService;
+import org.openhab.core.service.MetricsRegistry;
 import org.osgi.framework.BundleContext;
 import org.quartz.DisallowConcurrentExecution;
 import org.quartz.Job;
@@ -59,6 +60,9 @@ public class GCalPersistenceService implements PersistenceService {
 
     private static final String GCAL_SCHEDULER_GROUP = "GoogleCalendar";
 
+    /** the name of the gauge reporting the number of entries waiting for upload */
+    private static final String QUEUE_METRIC = "persistence.gcal.queue";
+
     /** the upload interval (optional, defaults to 10 seconds) */
     private static int uploadInterval = 10;
 
@@ -118,11 +122,19 @@ public class GCalPersistenceService implements PersistenceService {
 
         initialized = true;
 
+        MetricsRegistry.getInstance().registerGauge(QUEUE_METRIC, new MetricsRegistry.Gauge() {
+            @Override
+            public long getValue() {
+                return entries.size();
+            }
+        });
+
         scheduleUploadJob();
     }
 
     public void deactivate(final int reason) {
         cancelAllJobs();
+        MetricsRegistry.getInstance().unregisterGauge(QUEUE_METRIC);
     }
 
     /**